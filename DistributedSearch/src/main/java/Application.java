@@ -1,6 +1,7 @@
 import cluster.management.LeaderElection;
 import cluster.management.OnElectionAction;
 import cluster.management.ServiceRegistry;
+import cluster.management.ShardRegistry;
 import org.apache.zookeeper.KeeperException;
 import org.apache.zookeeper.WatchedEvent;
 import org.apache.zookeeper.Watcher;
@@ -21,8 +22,10 @@ public class Application implements Watcher {
 
         ServiceRegistry serviceRegistry = new ServiceRegistry(zooKeeper, "/service_registry");
         ServiceRegistry coordinatorServiceRegistry = new ServiceRegistry(zooKeeper, "/coordinator_service_registry");
+        ShardRegistry shardRegistry = new ShardRegistry(zooKeeper);
 
-        OnElectionAction onElectionAction = new OnElectionAction(serviceRegistry, currentServerPort, coordinatorServiceRegistry);
+        OnElectionAction onElectionAction =
+                new OnElectionAction(serviceRegistry, currentServerPort, coordinatorServiceRegistry, shardRegistry);
 
         LeaderElection leaderElection = new LeaderElection(zooKeeper, onElectionAction);
         leaderElection.volunteerForLeadership();
@@ -1,6 +1,5 @@
 package cluster.management;
 
-import networking.OnRequestHandler;
 import networking.WebClient;
 import networking.WebServer;
 import org.apache.zookeeper.KeeperException;
@@ -13,34 +12,44 @@ import java.net.UnknownHostException;
 public class OnElectionAction implements OnElectionCallback {
     private final ServiceRegistry serviceRegistry;
     private final ServiceRegistry coordinatorServiceRegistry;
+    private final ShardRegistry shardRegistry;
     private final int port;
     private WebServer webServer;
+    private SearchWorkerHandler workerHandler;
 
-    public OnElectionAction(ServiceRegistry serviceRegistry, int port, ServiceRegistry coordinatorServiceRegistry) {
+    public OnElectionAction(ServiceRegistry serviceRegistry,
+                            int port,
+                            ServiceRegistry coordinatorServiceRegistry,
+                            ShardRegistry shardRegistry) {
         this.serviceRegistry = serviceRegistry;
         this.port = port;
         this.coordinatorServiceRegistry = coordinatorServiceRegistry;
+        this.shardRegistry = shardRegistry;
     }
 
     @Override
     public void onElectedToBeLeader() {
         serviceRegistry.unregisterFromCluster();
-        serviceRegistry.registerForUpdates();
+        // the shards this node used to own as a worker are reassigned by the coordinator
+        shardRegistry.registerForUpdates(null);
 
         if (webServer != null) {
             webServer.stop();
         }
+        if (workerHandler != null) {
+            workerHandler.stop();
+            workerHandler = null;
+        }
 
-        SearchCoordinator searchCoordinator = new SearchCoordinator(serviceRegistry, new WebClient());
+        SearchCoordinator searchCoordinator = new SearchCoordinator(serviceRegistry, new WebClient(), shardRegistry);
+        // rebalances the shards as soon as workers join or leave, rather than on the next query
+        serviceRegistry.registerForUpdates(searchCoordinator);
         webServer = new WebServer(port, searchCoordinator);
         webServer.startServer();
 
         try {
-            String currentServerAddress = String.format(
-                    "http://%s:%d%s",
-                    InetAddress.getLocalHost().getCanonicalHostName(),
-                    port,
-                    searchCoordinator.getEndpoint());
+            String currentServerAddress =
+                    webServer.getServiceAddress(InetAddress.getLocalHost().getCanonicalHostName());
             coordinatorServiceRegistry.registerToCluster(currentServerAddress);
         } catch (UnknownHostException | KeeperException | InterruptedException e) {
             e.printStackTrace();
@@ -52,13 +61,14 @@ public class OnElectionAction implements OnElectionCallback {
         if (webServer != null) {
             return;
         }
-        OnRequestHandler workerHandler = new SearchWorkerHandler();
+        workerHandler = new SearchWorkerHandler();
         webServer = new WebServer(port, workerHandler);
         webServer.startServer();
 
         try {
-            String currentServerAddress = String.format("http://%s:%d%s",
-                    InetAddress.getLocalHost().getCanonicalHostName(), port, workerHandler.getEndpoint());
+            String currentServerAddress =
+                    webServer.getServiceAddress(InetAddress.getLocalHost().getCanonicalHostName());
+            workerHandler.ownShardsOf(shardRegistry, currentServerAddress);
             serviceRegistry.registerToCluster(currentServerAddress);
         } catch (UnknownHostException | InterruptedException | KeeperException e) {
             e.printStackTrace();
@@ -0,0 +1,8 @@
+package cluster.management;
+
+import java.util.List;
+
+public interface OnServiceRegistryChangeCallback {
+
+    void onServiceAddressesChanged(List<String> serviceAddresses);
+}
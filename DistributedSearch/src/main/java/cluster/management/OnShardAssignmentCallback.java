@@ -0,0 +1,8 @@
+package cluster.management;
+
+import model.proto.SearchModel;
+
+public interface OnShardAssignmentCallback {
+
+    void onShardAssignmentChanged(SearchModel.ShardAssignment shardAssignment);
+}
@@ -0,0 +1,243 @@
+package cluster.management;
+
+import model.proto.SearchModel;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * Decides which worker owns each shard, by placing the workers and the shards on a consistent hash ring.
+ *
+ * Every worker gets a number of virtual nodes on the ring proportional to its weight, and a shard belongs
+ * to the first worker found clockwise from the shard's own position. Since the positions only depend on the
+ * shard ids and the worker addresses, a worker joining or leaving only moves the shards it takes or gives up,
+ * about 1/N of them, and every other shard keeps its owner and the owner keeps its index of the shard.
+ *
+ * Every shard is served by {@code replicas} distinct workers, the next ones found walking clockwise, the first
+ * of them being the primary the coordinator sends the shard's tasks to.
+ *
+ * To keep the few shards evenly spread, a worker takes at most {@code loadFactor} times its weighted share
+ * of the shards, or of their bytes when the shard sizes are known; a shard reaching a full worker keeps walking
+ * clockwise to the next one.
+ */
+public class ShardAssigner {
+    public static final int DEFAULT_VIRTUAL_NODES = 100;
+    public static final double DEFAULT_LOAD_FACTOR = 1.25;
+
+    private final int numberOfShards;
+    private final int replicas;
+    private final int virtualNodesPerWorker;
+    private final double loadFactor;
+    private final Map<String, Integer> workerToWeight;
+
+    public ShardAssigner(int numberOfShards) {
+        this(numberOfShards, 1, DEFAULT_VIRTUAL_NODES, DEFAULT_LOAD_FACTOR, Collections.emptyMap());
+    }
+
+    /**
+     * @param workerToWeight the capacity of workers relative to the default weight of 1, keyed by the host and port
+     *                       of their address, e.g. "host:8081"
+     */
+    public ShardAssigner(int numberOfShards,
+                         int replicas,
+                         int virtualNodesPerWorker,
+                         double loadFactor,
+                         Map<String, Integer> workerToWeight) {
+        this.numberOfShards = numberOfShards;
+        this.replicas = Math.max(1, replicas);
+        this.virtualNodesPerWorker = Math.max(1, virtualNodesPerWorker);
+        this.loadFactor = Math.max(1.0, loadFactor);
+        this.workerToWeight = workerToWeight;
+    }
+
+    /**
+     * Parses weights written as {@code host:8081=2,host:8082=1}
+     */
+    public static Map<String, Integer> parseWeights(String weights) {
+        Map<String, Integer> workerToWeight = new HashMap<>();
+        if (weights == null || weights.trim().isEmpty()) {
+            return workerToWeight;
+        }
+        for (String workerWeight : weights.split(",")) {
+            int separator = workerWeight.lastIndexOf('=');
+            if (separator <= 0) {
+                System.out.println("Ignoring shard weight without a worker: " + workerWeight);
+                continue;
+            }
+            try {
+                workerToWeight.put(workerWeight.substring(0, separator).trim(),
+                        Integer.parseInt(workerWeight.substring(separator + 1).trim()));
+            } catch (NumberFormatException e) {
+                System.out.println("Ignoring invalid shard weight: " + workerWeight);
+            }
+        }
+        return workerToWeight;
+    }
+
+    public SearchModel.ShardAssignment assign(List<String> workers) {
+        return assign(workers, null);
+    }
+
+    /**
+     * @param shardSizes the size of every shard, so workers get a fair share of the bytes rather than of the shards
+     */
+    public SearchModel.ShardAssignment assign(List<String> workers, long[] shardSizes) {
+        List<String> sortedWorkers = new ArrayList<>(workers);
+        Collections.sort(sortedWorkers);
+
+        SearchModel.ShardAssignment.Builder shardAssignment = SearchModel.ShardAssignment.newBuilder()
+                .setNumberOfShards(numberOfShards)
+                .addAllWorkers(sortedWorkers);
+        if (sortedWorkers.isEmpty()) {
+            return shardAssignment.build();
+        }
+
+        int shardReplicas = Math.min(replicas, sortedWorkers.size());
+        TreeMap<Long, String> ring = new TreeMap<>();
+        Map<String, Long> workerToCapacity = new HashMap<>();
+        long totalWeight = 0;
+        for (String worker : sortedWorkers) {
+            totalWeight += getWeight(worker);
+        }
+        long totalSize = 0;
+        for (int shardId = 0; shardId < numberOfShards; shardId++) {
+            totalSize += getShardSize(shardSizes, shardId);
+        }
+        for (String worker : sortedWorkers) {
+            int weight = getWeight(worker);
+            for (int i = 0; i < virtualNodesPerWorker * weight; i++) {
+                ring.putIfAbsent(hash(worker + "#" + i), worker);
+            }
+            workerToCapacity.put(worker, (long) Math.ceil(loadFactor * totalSize * shardReplicas * weight / totalWeight));
+        }
+
+        Map<String, Long> workerToLoad = new HashMap<>();
+        for (int shardId = 0; shardId < numberOfShards; shardId++) {
+            long shardSize = getShardSize(shardSizes, shardId);
+            List<String> owners = findOwners(ring, hash("shard-" + shardId), shardReplicas,
+                    // a shard bigger than a whole share still goes to a worker without any shard yet
+                    worker -> {
+                        long load = workerToLoad.getOrDefault(worker, 0L);
+                        return load == 0 || load + shardSize <= workerToCapacity.get(worker);
+                    });
+            for (String owner : owners) {
+                workerToLoad.merge(owner, shardSize, Long::sum);
+            }
+            shardAssignment.addShards(SearchModel.ShardAssignment.Shard.newBuilder()
+                    .setShardId(shardId)
+                    .addAllWorkers(owners));
+        }
+        return shardAssignment.build();
+    }
+
+    /**
+     * An assignment can be kept as long as it was made for the same shards and the same workers
+     */
+    public boolean isCurrent(SearchModel.ShardAssignment shardAssignment, List<String> workers) {
+        return shardAssignment != null
+                && shardAssignment.getNumberOfShards() == numberOfShards
+                && shardAssignment.getWorkersCount() == workers.size()
+                && shardAssignment.getWorkersList().containsAll(workers);
+    }
+
+    /**
+     * @return how many shard replicas are on a worker that didn't have them in the previous assignment,
+     * which is how many shards the workers have to index anew
+     */
+    public static int countMovedShards(SearchModel.ShardAssignment previous, SearchModel.ShardAssignment current) {
+        int movedShards = 0;
+        for (int i = 0; i < current.getShardsCount(); i++) {
+            List<String> previousWorkers = previous != null && previous.getNumberOfShards() == current.getNumberOfShards()
+                    ? previous.getShards(i).getWorkersList()
+                    : Collections.emptyList();
+            for (String worker : current.getShards(i).getWorkersList()) {
+                if (!previousWorkers.contains(worker)) {
+                    movedShards++;
+                }
+            }
+        }
+        return movedShards;
+    }
+
+    private static long getShardSize(long[] shardSizes, int shardId) {
+        return shardSizes == null || shardId >= shardSizes.length ? 1 : shardSizes[shardId];
+    }
+
+    private List<String> findOwners(TreeMap<Long, String> ring,
+                                    long shardPosition,
+                                    int shardReplicas,
+                                    Predicate<String> hasCapacity) {
+        List<String> owners = new ArrayList<>(shardReplicas);
+        walkRing(ring, shardPosition, shardReplicas, owners, hasCapacity);
+        if (owners.size() < shardReplicas) {
+            // only when the weights or the shard sizes are so uneven that the remaining capacity is all on workers
+            // already owning the shard
+            walkRing(ring, shardPosition, shardReplicas, owners, worker -> true);
+        }
+        return owners;
+    }
+
+    private static void walkRing(TreeMap<Long, String> ring,
+                                 long shardPosition,
+                                 int shardReplicas,
+                                 List<String> owners,
+                                 Predicate<String> hasCapacity) {
+        Map.Entry<Long, String> virtualNode = ring.ceilingEntry(shardPosition);
+        for (int i = 0; i < ring.size() && owners.size() < shardReplicas; i++) {
+            if (virtualNode == null) {
+                virtualNode = ring.firstEntry();
+            }
+            String worker = virtualNode.getValue();
+            if (!owners.contains(worker) && hasCapacity.test(worker)) {
+                owners.add(worker);
+            }
+            virtualNode = ring.higherEntry(virtualNode.getKey());
+        }
+    }
+
+    private int getWeight(String worker) {
+        String hostAndPort = getHostAndPort(worker);
+        for (Map.Entry<String, Integer> workerWeight : workerToWeight.entrySet()) {
+            if (workerWeight.getKey().equalsIgnoreCase(hostAndPort)) {
+                return Math.max(1, workerWeight.getValue());
+            }
+        }
+        return 1;
+    }
+
+    /**
+     * @return e.g. "host:8081" for "http://host:8081/task", or the address itself when it isn't a URL
+     */
+    private static String getHostAndPort(String worker) {
+        try {
+            URI uri = new URI(worker);
+            if (uri.getHost() == null) {
+                return worker;
+            }
+            return uri.getPort() < 0 ? uri.getHost() : uri.getHost() + ":" + uri.getPort();
+        } catch (URISyntaxException e) {
+            return worker;
+        }
+    }
+
+    /**
+     * The first 8 bytes of the MD5 digest, which spreads similar addresses evenly around the ring
+     */
+    private static long hash(String key) {
+        try {
+            byte[] digest = MessageDigest.getInstance("MD5").digest(key.getBytes(StandardCharsets.UTF_8));
+            long hash = 0;
+            for (int i = 0; i < 8; i++) {
+                hash = (hash << 8) | (digest[i] & 0xff);
+            }
+            return hash;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package cluster.management;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+import model.proto.SearchModel;
+import org.apache.zookeeper.*;
+
+/**
+ * Keeps which workers own which shards in a znode next to the service registry.
+ * The coordinator publishes the assignment, the workers watch it to know which shards to keep warm.
+ */
+public class ShardRegistry implements Watcher {
+    public static final String SHARD_ASSIGNMENT_ZNODE = "/shard_assignment";
+    private final ZooKeeper zooKeeper;
+    private OnShardAssignmentCallback onShardAssignmentCallback = null;
+
+    // cache
+    private volatile SearchModel.ShardAssignment shardAssignment = null;
+
+    public ShardRegistry(ZooKeeper zooKeeper) {
+        this.zooKeeper = zooKeeper;
+        createShardAssignmentZnode();
+    }
+
+    public void publishAssignment(SearchModel.ShardAssignment shardAssignment) throws KeeperException, InterruptedException {
+        zooKeeper.setData(SHARD_ASSIGNMENT_ZNODE, shardAssignment.toByteArray(), -1);
+        this.shardAssignment = shardAssignment;
+        System.out.println(String.format("Published assignment of %d shards to %d workers",
+                shardAssignment.getNumberOfShards(), shardAssignment.getWorkersCount()));
+    }
+
+    public void registerForUpdates(OnShardAssignmentCallback onShardAssignmentCallback) {
+        this.onShardAssignmentCallback = onShardAssignmentCallback;
+        try {
+            updateAssignment();
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+        } catch (KeeperException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * @return the current assignment, or null when no coordinator has published one yet
+     */
+    public SearchModel.ShardAssignment getAssignment() throws KeeperException, InterruptedException {
+        if (shardAssignment == null) {
+            this.shardAssignment = readAssignment(null);
+        }
+        return shardAssignment;
+    }
+
+    private void createShardAssignmentZnode() {
+        try {
+            if (zooKeeper.exists(SHARD_ASSIGNMENT_ZNODE, false) == null) {
+                zooKeeper.create(SHARD_ASSIGNMENT_ZNODE, new byte[]{}, ZooDefs.Ids.OPEN_ACL_UNSAFE, CreateMode.PERSISTENT);
+            }
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+        } catch (KeeperException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private synchronized void updateAssignment() throws KeeperException, InterruptedException {
+        this.shardAssignment = readAssignment(this);
+        if (shardAssignment != null && onShardAssignmentCallback != null) {
+            onShardAssignmentCallback.onShardAssignmentChanged(shardAssignment);
+        }
+    }
+
+    private SearchModel.ShardAssignment readAssignment(Watcher watcher) throws KeeperException, InterruptedException {
+        byte[] assignmentBytes = zooKeeper.getData(SHARD_ASSIGNMENT_ZNODE, watcher, null);
+        if (assignmentBytes == null || assignmentBytes.length == 0) {
+            return null;
+        }
+
+        try {
+            return SearchModel.ShardAssignment.parseFrom(assignmentBytes);
+        } catch (InvalidProtocolBufferException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    @Override
+    public void process(WatchedEvent event) {
+        if (event.getType() != Event.EventType.NodeDataChanged) {
+            return;
+        }
+        try {
+            updateAssignment();
+        } catch (KeeperException e) {
+            e.printStackTrace();
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+        }
+    }
+}
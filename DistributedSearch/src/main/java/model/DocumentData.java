@@ -1,17 +1,95 @@
 package model;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
+/**
+ * Term frequencies of a document, stored as a primitive array aligned with the search terms of the query.
+ * The term list is shared by all the documents of a query.
+ */
 public class DocumentData implements Serializable {
-    private Map<String, Double> termToFrequency = new HashMap<>();
+    // kept from the Java serialization era, so coordinators and workers of both versions can still exchange results
+    private static final long serialVersionUID = 646428697790778054L;
+    // Java serialization peers of the previous version expect a term to frequency map
+    private static final ObjectStreamField[] serialPersistentFields = {
+            new ObjectStreamField("termToFrequency", Map.class)
+    };
 
-    public void putTermFrequency(String term, double frequency) {
-        termToFrequency.put(term, frequency);
+    private transient List<String> terms;
+    private transient double[] frequencies;
+
+    public DocumentData(List<String> terms, double[] frequencies) {
+        this.terms = terms;
+        this.frequencies = frequencies;
+    }
+
+    public int getNumberOfTerms() {
+        return frequencies.length;
+    }
+
+    /**
+     * @param termIndex the position of the term in the search terms of the query
+     */
+    public double getFrequency(int termIndex) {
+        return frequencies[termIndex];
     }
 
     public double getFrequency(String term) {
-        return termToFrequency.get(term);
+        int termIndex = terms.indexOf(term);
+        return termIndex < 0 ? 0 : frequencies[termIndex];
+    }
+
+    public boolean containsAnyTerm() {
+        for (double frequency : frequencies) {
+            if (frequency > 0.0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return document data aligned with {@code searchTerms}, which is this one when it already is
+     */
+    public DocumentData alignTo(List<String> searchTerms) {
+        if (terms == searchTerms || terms.equals(searchTerms)) {
+            return this;
+        }
+
+        double[] alignedFrequencies = new double[searchTerms.size()];
+        for (int i = 0; i < searchTerms.size(); i++) {
+            alignedFrequencies[i] = getFrequency(searchTerms.get(i));
+        }
+        return new DocumentData(searchTerms, alignedFrequencies);
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        Map<String, Double> termToFrequency = new HashMap<>();
+        for (int i = 0; i < terms.size(); i++) {
+            termToFrequency.put(terms.get(i), frequencies[i]);
+        }
+
+        ObjectOutputStream.PutField fields = out.putFields();
+        fields.put("termToFrequency", termToFrequency);
+        out.writeFields();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField fields = in.readFields();
+        Map<String, Double> termToFrequency = (Map<String, Double>) fields.get("termToFrequency", new HashMap<>());
+
+        this.terms = new ArrayList<>(termToFrequency.keySet());
+        this.frequencies = new double[terms.size()];
+        for (int i = 0; i < terms.size(); i++) {
+            frequencies[i] = termToFrequency.get(terms.get(i));
+        }
     }
 }
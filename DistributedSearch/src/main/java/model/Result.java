@@ -1,12 +1,22 @@
 package model;
 
+import model.proto.SearchModel;
+
 import java.io.Serializable;
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class Result implements Serializable {
-    private Map<String, DocumentData> documentToDocumentData = new HashMap<>();
+    // kept from the Java serialization era, so coordinators and workers of both versions can still exchange results
+    private static final long serialVersionUID = -4551373111476842631L;
+
+    private Map<String, DocumentData> documentToDocumentData = new ConcurrentHashMap<>();
+    // documents without any of the search terms can be left out, but they still count for the inverse document frequency
+    private int numberOfDocuments = 0;
+    // the worker ran out of time before processing all the documents
+    private boolean partial = false;
 
     public void addDocumentData(String document, DocumentData documentData) {
         this.documentToDocumentData.put(document, documentData);
@@ -16,4 +26,64 @@ public class Result implements Serializable {
         return Collections.unmodifiableMap(documentToDocumentData);
     }
 
+    public void setNumberOfDocuments(int numberOfDocuments) {
+        this.numberOfDocuments = numberOfDocuments;
+    }
+
+    /**
+     * Results of peers that don't report it contain all their documents
+     */
+    public int getNumberOfDocuments() {
+        return Math.max(numberOfDocuments, documentToDocumentData.size());
+    }
+
+    public void setPartial(boolean partial) {
+        this.partial = partial;
+    }
+
+    public boolean isPartial() {
+        return partial;
+    }
+
+    public SearchModel.Result toProto() {
+        SearchModel.Result.Builder result = SearchModel.Result.newBuilder()
+                .setNumberOfDocuments(numberOfDocuments);
+        if (partial) {
+            result.setPartial(true);
+        }
+        documentToDocumentData.forEach((document, documentData) -> {
+            SearchModel.Result.DocumentResult.Builder documentResult = SearchModel.Result.DocumentResult.newBuilder()
+                    .setDocument(document);
+            for (int i = 0; i < documentData.getNumberOfTerms(); i++) {
+                documentResult.addTermFrequencies(documentData.getFrequency(i));
+            }
+            result.addDocumentResults(documentResult);
+        });
+        return result.build();
+    }
+
+    /**
+     * Results deserialized from Java serialization peers of the previous version keep the term order of their maps
+     */
+    public Result alignTo(List<String> searchTerms) {
+        documentToDocumentData.replaceAll((document, documentData) -> documentData.alignTo(searchTerms));
+        return this;
+    }
+
+    /**
+     * @param searchTerms the search terms of the task, which the term frequencies are aligned with
+     */
+    public static Result fromProto(SearchModel.Result protoResult, List<String> searchTerms) {
+        Result result = new Result();
+        for (SearchModel.Result.DocumentResult documentResult : protoResult.getDocumentResultsList()) {
+            double[] frequencies = new double[searchTerms.size()];
+            for (int i = 0; i < frequencies.length; i++) {
+                frequencies[i] = documentResult.getTermFrequencies(i);
+            }
+            result.addDocumentData(documentResult.getDocument(), new DocumentData(searchTerms, frequencies));
+        }
+        result.setNumberOfDocuments(protoResult.getNumberOfDocuments());
+        result.setPartial(protoResult.getPartial());
+        return result;
+    }
 }
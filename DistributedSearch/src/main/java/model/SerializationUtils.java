@@ -3,6 +3,8 @@ package model;
 import java.io.*;
 
 public class SerializationUtils {
+    private static final byte[] STREAM_MAGIC = {(byte) 0xAC, (byte) 0xED};
+
     public static byte[] serialize(Object object) {
         ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
         ObjectOutput objectOutput = null;
@@ -29,4 +31,11 @@ public class SerializationUtils {
         }
         return null;
     }
+
+    /**
+     * Tells Java serialized payloads apart from protobuf ones, which never start with the stream magic
+     */
+    public static boolean isJavaSerialized(byte[] data) {
+        return data.length >= STREAM_MAGIC.length && data[0] == STREAM_MAGIC[0] && data[1] == STREAM_MAGIC[1];
+    }
 }
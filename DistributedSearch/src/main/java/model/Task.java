@@ -1,16 +1,46 @@
 package model;
 
+import model.proto.SearchModel;
+
 import java.io.Serializable;
 import java.util.Collections;
 import java.util.List;
 
 public class Task implements Serializable {
+    // kept from the Java serialization era, so coordinators and workers of both versions can still exchange tasks
+    private static final long serialVersionUID = 4650560705567863516L;
+
     private final List<String> searchTerms;
     private final List<String> documents;
+    private final int shardId;
+    private final int numberOfShards;
+    // tasks of peers of the previous version have no time budget, which means unlimited
+    private final long timeBudgetMillis;
 
     public Task(List<String> searchTerms, List<String> documents) {
+        this(searchTerms, documents, 0, 0, 0);
+    }
+
+    /**
+     * A task for one shard, which the worker resolves to the documents of its own books directory
+     */
+    public Task(List<String> searchTerms, int shardId, int numberOfShards) {
+        this(searchTerms, Collections.emptyList(), shardId, numberOfShards, 0);
+    }
+
+    private Task(List<String> searchTerms, List<String> documents, int shardId, int numberOfShards, long timeBudgetMillis) {
         this.searchTerms = searchTerms;
         this.documents = documents;
+        this.shardId = shardId;
+        this.numberOfShards = numberOfShards;
+        this.timeBudgetMillis = timeBudgetMillis;
+    }
+
+    /**
+     * @return the same task, to be answered within {@code timeBudgetMillis}, or without a time limit when it is 0
+     */
+    public Task withTimeBudget(long timeBudgetMillis) {
+        return new Task(searchTerms, documents, shardId, numberOfShards, Math.max(0, timeBudgetMillis));
     }
 
     public List<String> getSearchTerms() {
@@ -20,4 +50,48 @@ public class Task implements Serializable {
     public List<String> getDocuments() {
         return Collections.unmodifiableList(documents);
     }
+
+    /**
+     * Tasks Java serialized by peers of the previous version have no number of shards, and carry their documents
+     */
+    public boolean isShardTask() {
+        return numberOfShards > 0;
+    }
+
+    public int getShardId() {
+        return shardId;
+    }
+
+    public int getNumberOfShards() {
+        return numberOfShards;
+    }
+
+    public boolean hasTimeBudget() {
+        return timeBudgetMillis > 0;
+    }
+
+    public long getTimeBudgetMillis() {
+        return timeBudgetMillis;
+    }
+
+    public SearchModel.Task toProto() {
+        SearchModel.Task.Builder task = SearchModel.Task.newBuilder()
+                .addAllSearchTerms(searchTerms)
+                .addAllDocuments(documents);
+        if (isShardTask()) {
+            task.setShardId(shardId).setNumberOfShards(numberOfShards);
+        }
+        if (hasTimeBudget()) {
+            task.setTimeBudgetMillis(timeBudgetMillis);
+        }
+        return task.build();
+    }
+
+    public static Task fromProto(SearchModel.Task task) {
+        if (task.hasShardId()) {
+            return new Task(task.getSearchTermsList(), Collections.emptyList(),
+                    task.getShardId(), task.getNumberOfShards(), task.getTimeBudgetMillis());
+        }
+        return new Task(task.getSearchTermsList(), task.getDocumentsList(), 0, 0, task.getTimeBudgetMillis());
+    }
 }
@@ -1,13 +1,34 @@
 package networking;
 
+import com.squareup.okhttp.Call;
 import com.squareup.okhttp.Callback;
 import com.squareup.okhttp.Request;
 import com.squareup.okhttp.Response;
 
 import java.io.IOException;
+import java.net.HttpURLConnection;
 import java.util.concurrent.CompletableFuture;
 
 public class CallbackFuture extends CompletableFuture<Response> implements Callback {
+    private volatile Call call = null;
+
+    void setCall(Call call) {
+        this.call = call;
+    }
+
+    /**
+     * Cancelling the future also cancels the HTTP call, which frees its connection
+     */
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        boolean cancelled = super.cancel(mayInterruptIfRunning);
+        Call call = this.call;
+        if (cancelled && call != null) {
+            call.cancel();
+        }
+        return cancelled;
+    }
+
     @Override
     public void onFailure(Request request, IOException e) {
         super.completeExceptionally(e);
@@ -15,6 +36,14 @@ public class CallbackFuture extends CompletableFuture<Response> implements Callb
 
     @Override
     public void onResponse(Response response) throws IOException {
-        super.complete(response);
+        if (response.code() == HttpURLConnection.HTTP_UNAVAILABLE) {
+            response.body().close();
+            super.completeExceptionally(new ServiceUnavailableException(response.request().urlString()));
+            return;
+        }
+        if (!super.complete(response)) {
+            // nobody will read the body of a cancelled call
+            response.body().close();
+        }
     }
 }
@@ -0,0 +1,80 @@
+package networking;
+
+/**
+ * Limits how many requests are handled or waiting for a thread at once, adapting the limit to how they fare (AIMD).
+ *
+ * The limit shrinks by a factor for every request that had to wait for a thread longer than a fraction of the time
+ * it took to handle, meaning requests queue up behind each other, or that took well over the usual time to handle,
+ * meaning they compete for the CPU or the disk. It grows by one for every other request completed while the limit
+ * was in use.
+ *
+ * Requests past the limit are meant to be turned away right away, instead of adding to the queue.
+ */
+public class ConcurrencyLimiter {
+    private static final double BACKOFF_RATIO = 0.9;
+    // how long a request may wait for a thread, compared to the time it takes to handle one
+    private static final double WAIT_TOLERANCE = 0.5;
+    // how much slower than usual the recent requests may get
+    private static final double SERVICE_TIME_TOLERANCE = 2.0;
+    private static final double SHORT_TERM_SMOOTHING = 0.1;
+    private static final double LONG_TERM_SMOOTHING = 0.005;
+    // the usual time isn't known until it averages this many requests, the first ones often being the fastest or slowest
+    private static final long LONG_TERM_WARMUP = (long) (1 / LONG_TERM_SMOOTHING);
+
+    private final int minLimit;
+    private final int maxLimit;
+    private double limit;
+    private int inFlight = 0;
+    private double shortTermServiceNanos = 0;
+    private double longTermServiceNanos = 0;
+    private long completedRequests = 0;
+
+    /**
+     * The limit stays fixed when {@code minLimit} and {@code maxLimit} are the same
+     */
+    public ConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    /**
+     * @return whether the request may be handled, in which case {@link #release(long, long)} has to follow
+     */
+    public synchronized boolean tryAcquire() {
+        if (inFlight >= (int) limit) {
+            return false;
+        }
+        inFlight++;
+        return true;
+    }
+
+    /**
+     * @param waitNanos how long the request waited for a thread
+     * @param serviceNanos how long it took to handle once it had one
+     */
+    public synchronized void release(long waitNanos, long serviceNanos) {
+        boolean isLimitInUse = inFlight * 2 >= limit;
+        inFlight--;
+        completedRequests++;
+
+        if (longTermServiceNanos == 0) {
+            shortTermServiceNanos = serviceNanos;
+            longTermServiceNanos = serviceNanos;
+        }
+        shortTermServiceNanos += SHORT_TERM_SMOOTHING * (serviceNanos - shortTermServiceNanos);
+        longTermServiceNanos += LONG_TERM_SMOOTHING * (serviceNanos - longTermServiceNanos);
+
+        boolean isSlowerThanUsual = completedRequests >= LONG_TERM_WARMUP
+                && shortTermServiceNanos > SERVICE_TIME_TOLERANCE * longTermServiceNanos;
+        if (waitNanos > WAIT_TOLERANCE * shortTermServiceNanos || isSlowerThanUsual) {
+            limit = Math.max(minLimit, limit * BACKOFF_RATIO);
+        } else if (isLimitInUse) {
+            limit = Math.min(maxLimit, limit + 1);
+        }
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+}
@@ -0,0 +1,99 @@
+package networking;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+
+/**
+ * Sends a request to the first of several equivalent endpoints, and to the next one as well when
+ * the first hasn't answered after a delay. Every failed call is retried on the next endpoint. Both the hedge
+ * and the retries are extra calls, so they are only sent as long as the retry policy allows it.
+ * The first answer completes the request and cancels the calls still in flight.
+ */
+public class HedgedRequest<T> {
+    private final List<String> endpoints;
+    private final Function<String, CompletableFuture<T>> sender;
+    private final BooleanSupplier mayRetry;
+    private final CompletableFuture<T> result = new CompletableFuture<>();
+    private final List<CompletableFuture<T>> attempts = new ArrayList<>();
+    private int failedAttempts = 0;
+
+    private HedgedRequest(List<String> endpoints,
+                          Function<String, CompletableFuture<T>> sender,
+                          BooleanSupplier mayRetry) {
+        this.endpoints = endpoints;
+        this.sender = sender;
+        this.mayRetry = mayRetry;
+    }
+
+    /**
+     * @param hedgeDelayMillis how long to wait for the first endpoint before also sending to the second one,
+     *                         a negative delay never hedges
+     * @param mayRetry         asked before the hedge and every retry of a failed call, and may spend a retry budget
+     */
+    public static <T> CompletableFuture<T> send(List<String> endpoints,
+                                                Function<String, CompletableFuture<T>> sender,
+                                                ScheduledExecutorService scheduler,
+                                                long hedgeDelayMillis,
+                                                BooleanSupplier mayRetry) {
+        HedgedRequest<T> hedgedRequest = new HedgedRequest<>(endpoints, sender, mayRetry);
+        hedgedRequest.sendNextAttempt();
+
+        if (hedgeDelayMillis >= 0 && endpoints.size() > 1 && !hedgedRequest.result.isDone()) {
+            ScheduledFuture<?> hedge = scheduler.schedule(
+                    hedgedRequest::sendHedge, hedgeDelayMillis, TimeUnit.MILLISECONDS);
+            hedgedRequest.result.whenComplete((result, e) -> hedge.cancel(false));
+        }
+        // the caller giving up on the request cancels the calls as well
+        hedgedRequest.result.whenComplete((result, e) -> hedgedRequest.cancelAttempts());
+        return hedgedRequest.result;
+    }
+
+    private synchronized void sendHedge() {
+        // a failure may already have moved on to the next endpoint
+        if (attempts.size() == 1 && !result.isDone() && mayRetry.getAsBoolean()) {
+            sendNextAttempt();
+        }
+    }
+
+    private synchronized void sendNextAttempt() {
+        if (result.isDone() || attempts.size() == endpoints.size()) {
+            return;
+        }
+        CompletableFuture<T> attempt = sender.apply(endpoints.get(attempts.size()));
+        attempts.add(attempt);
+        attempt.whenComplete(this::onAttemptComplete);
+    }
+
+    private synchronized void onAttemptComplete(T attemptResult, Throwable e) {
+        if (result.isDone()) {
+            return;
+        }
+        if (e == null) {
+            result.complete(attemptResult);
+            return;
+        }
+
+        failedAttempts++;
+        if (attempts.size() < endpoints.size() && mayRetry.getAsBoolean()) {
+            sendNextAttempt();
+        } else if (failedAttempts == attempts.size()) {
+            result.completeExceptionally(e);
+        }
+    }
+
+    private void cancelAttempts() {
+        List<CompletableFuture<T>> attemptsToCancel;
+        synchronized (this) {
+            attemptsToCancel = new ArrayList<>(attempts);
+        }
+        for (CompletableFuture<T> attempt : attemptsToCancel) {
+            attempt.cancel(true);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package networking;
+
+import java.util.Arrays;
+
+/**
+ * Keeps the latencies of the most recent calls, to know what a slow call is
+ */
+public class LatencyTracker {
+    private final long[] samples;
+    private int nextSample = 0;
+    private int numberOfSamples = 0;
+
+    public LatencyTracker(int maxSamples) {
+        this.samples = new long[maxSamples];
+    }
+
+    public synchronized void record(long latencyNanos) {
+        samples[nextSample] = latencyNanos;
+        nextSample = (nextSample + 1) % samples.length;
+        numberOfSamples = Math.min(numberOfSamples + 1, samples.length);
+    }
+
+    public synchronized int getNumberOfSamples() {
+        return numberOfSamples;
+    }
+
+    /**
+     * @param percentile between 0 and 100
+     * @return the latency under which that percentage of the recent calls finished, or -1 without any sample
+     */
+    public long getPercentile(double percentile) {
+        long[] sortedSamples;
+        synchronized (this) {
+            if (numberOfSamples == 0) {
+                return -1;
+            }
+            sortedSamples = Arrays.copyOf(samples, numberOfSamples);
+        }
+        Arrays.sort(sortedSamples);
+        int rank = (int) Math.ceil(percentile / 100.0 * sortedSamples.length) - 1;
+        return sortedSamples[Math.max(0, Math.min(rank, sortedSamples.length - 1))];
+    }
+}
@@ -0,0 +1,33 @@
+package networking;
+
+/**
+ * Bounds retries to a fraction of the requests, so an overloaded or failing cluster doesn't get
+ * even more load from retries. Every request earns {@code retryRatio} of a retry, up to {@code maxRetries}
+ * saved for bursts of failures, and every retry spends one.
+ */
+public class RetryBudget {
+    private final double retryRatio;
+    private final double maxRetries;
+    private double availableRetries;
+
+    public RetryBudget(double retryRatio, int maxRetries) {
+        this.retryRatio = retryRatio;
+        this.maxRetries = maxRetries;
+        this.availableRetries = maxRetries;
+    }
+
+    public synchronized void onRequest() {
+        availableRetries = Math.min(maxRetries, availableRetries + retryRatio);
+    }
+
+    /**
+     * @return whether a retry may be sent, in which case it is spent
+     */
+    public synchronized boolean tryRetry() {
+        if (availableRetries < 1) {
+            return false;
+        }
+        availableRetries--;
+        return true;
+    }
+}
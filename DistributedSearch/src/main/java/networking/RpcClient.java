@@ -0,0 +1,254 @@
+package networking;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Makes calls of the binary RPC protocol, see {@link RpcFrame}, over a single persistent connection per server,
+ * which every call to that server shares, however many are in flight.
+ *
+ * A connection that fails, or stops answering the heartbeats, fails all the calls in flight on it with
+ * a {@link RpcConnectionException}, and the next call opens a new one. A call that gets no response in time fails
+ * on its own, the way it would with the read timeout of an HTTP client.
+ */
+public class RpcClient {
+    // servers advertise their RPC port in the query of their address, e.g. http://host:8081/task?rpc=9081
+    public static final String PORT_QUERY_PARAMETER = "rpc";
+    private static final int CONNECT_TIMEOUT_MILLIS = 1000;
+    // the same as the default read timeout of OkHttp, which the calls used to go through
+    private static final long CALL_TIMEOUT_MILLIS = Long.getLong("search.rpc.callTimeoutMillis", 10_000);
+    // a connection nothing was read from for an interval is pinged, and closed once nothing was read for the timeout
+    private static final long HEARTBEAT_INTERVAL_MILLIS = 2_000;
+    private static final long HEARTBEAT_TIMEOUT_MILLIS = 10_000;
+
+    private final long callTimeoutMillis;
+    private final long heartbeatIntervalMillis;
+    private final long heartbeatTimeoutMillis;
+    private final Map<String, CompletableFuture<Connection>> addressToConnection = new ConcurrentHashMap<>();
+    // runs what waits on the responses, like OkHttp's dispatcher does, so it can't hold up the connection,
+    // as well as the connecting and the heartbeats, so they can't hold up the callers or the timer
+    private final ExecutorService callbackExecutor = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "rpc-client-callback");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "rpc-client-timer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public RpcClient() {
+        this(CALL_TIMEOUT_MILLIS, HEARTBEAT_INTERVAL_MILLIS, HEARTBEAT_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * Shorter timeouts let the tests see calls and connections fail without waiting seconds for it
+     */
+    RpcClient(long callTimeoutMillis, long heartbeatIntervalMillis, long heartbeatTimeoutMillis) {
+        this.callTimeoutMillis = callTimeoutMillis;
+        this.heartbeatIntervalMillis = heartbeatIntervalMillis;
+        this.heartbeatTimeoutMillis = heartbeatTimeoutMillis;
+    }
+
+    public CompletableFuture<byte[]> call(String host, int port, byte[] payload) {
+        String address = host + ":" + port;
+        CompletableFuture<byte[]> response = new CompletableFuture<>();
+        ScheduledFuture<?> timeout = timer.schedule(() -> response.completeExceptionally(
+                new SocketTimeoutException(address + " did not answer the call in " + callTimeoutMillis + " ms")),
+                callTimeoutMillis, TimeUnit.MILLISECONDS);
+        response.whenComplete((responsePayload, e) -> timeout.cancel(false));
+
+        getConnection(host, port).whenComplete((connection, e) -> {
+            if (e != null) {
+                response.completeExceptionally(new RpcConnectionException("Failed to connect to " + address, e));
+            } else {
+                connection.call(response, payload);
+            }
+        });
+        return response;
+    }
+
+    /**
+     * @return whether there is a working connection to the server
+     */
+    public boolean isConnected(String host, int port) {
+        CompletableFuture<Connection> connection = addressToConnection.get(host + ":" + port);
+        return connection != null && connection.isDone() && !isClosed(connection);
+    }
+
+    /**
+     * Only the calls to the same server wait for a connection being opened, and they wait for it asynchronously
+     */
+    private CompletableFuture<Connection> getConnection(String host, int port) {
+        return addressToConnection.compute(host + ":" + port, (address, connection) -> {
+            if (connection != null && !isClosed(connection)) {
+                return connection;
+            }
+            CompletableFuture<Connection> newConnection = new CompletableFuture<>();
+            callbackExecutor.execute(() -> {
+                try {
+                    newConnection.complete(new Connection(host, port, callbackExecutor, timer,
+                            heartbeatIntervalMillis, heartbeatTimeoutMillis));
+                } catch (IOException e) {
+                    newConnection.completeExceptionally(e);
+                }
+            });
+            return newConnection;
+        });
+    }
+
+    private static boolean isClosed(CompletableFuture<Connection> connection) {
+        return connection.isDone() && (connection.isCompletedExceptionally() || !connection.join().isOpen());
+    }
+
+    private static class Connection {
+        private final String address;
+        private final Socket socket;
+        private final DataOutputStream outputStream;
+        private final ExecutorService callbackExecutor;
+        private final ScheduledFuture<?> heartbeat;
+        private final long heartbeatIntervalMillis;
+        private final long heartbeatTimeoutMillis;
+        private final Map<Integer, CompletableFuture<byte[]>> callIdToResponse = new ConcurrentHashMap<>();
+        private final AtomicInteger nextCallId = new AtomicInteger();
+        private volatile long lastReadTime = System.nanoTime();
+        private volatile boolean open = true;
+
+        Connection(String host, int port, ExecutorService callbackExecutor, ScheduledExecutorService timer,
+                   long heartbeatIntervalMillis, long heartbeatTimeoutMillis) throws IOException {
+            this.address = host + ":" + port;
+            this.callbackExecutor = callbackExecutor;
+            this.heartbeatIntervalMillis = heartbeatIntervalMillis;
+            this.heartbeatTimeoutMillis = heartbeatTimeoutMillis;
+            this.socket = new Socket();
+            socket.connect(new InetSocketAddress(host, port), CONNECT_TIMEOUT_MILLIS);
+            socket.setTcpNoDelay(true);
+            this.outputStream = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            RpcFrame.writePreamble(outputStream);
+            outputStream.flush();
+
+            this.heartbeat = timer.scheduleWithFixedDelay(this::checkLiveness,
+                    heartbeatIntervalMillis, heartbeatIntervalMillis, TimeUnit.MILLISECONDS);
+            Thread readerThread = new Thread(this::readResponses, "rpc-client-" + address);
+            readerThread.setDaemon(true);
+            readerThread.start();
+        }
+
+        boolean isOpen() {
+            return open;
+        }
+
+        /**
+         * Does nothing with a response that already completed, e.g. cancelled while the connection was opened
+         */
+        void call(CompletableFuture<byte[]> response, byte[] payload) {
+            int callId = nextCallId.incrementAndGet();
+            callIdToResponse.put(callId, response);
+            // a cancelled or timed out call is forgotten, and its response dropped when it arrives
+            response.whenComplete((responsePayload, e) -> callIdToResponse.remove(callId));
+            if (response.isDone()) {
+                return;
+            }
+            if (!open) {
+                response.completeExceptionally(new RpcConnectionException("RPC connection to " + address + " is closed", null));
+                return;
+            }
+
+            try {
+                write(new RpcFrame(callId, RpcFrame.STATUS_OK, payload));
+            } catch (IOException e) {
+                close(e);
+            }
+        }
+
+        private void write(RpcFrame frame) throws IOException {
+            synchronized (outputStream) {
+                frame.writeTo(outputStream);
+                outputStream.flush();
+            }
+        }
+
+        /**
+         * Runs on the timer, so the ping is written on another thread, in case a large call holds up the connection
+         */
+        private void checkLiveness() {
+            long millisSinceLastRead = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - lastReadTime);
+            if (millisSinceLastRead >= heartbeatTimeoutMillis) {
+                close(new SocketTimeoutException("Nothing read from " + address + " in " + millisSinceLastRead + " ms"));
+            } else if (millisSinceLastRead >= heartbeatIntervalMillis) {
+                callbackExecutor.execute(() -> {
+                    try {
+                        write(new RpcFrame(0, RpcFrame.STATUS_PING, new byte[0]));
+                    } catch (IOException e) {
+                        close(e);
+                    }
+                });
+            }
+        }
+
+        private void readResponses() {
+            try {
+                DataInputStream inputStream = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+                while (true) {
+                    RpcFrame frame = RpcFrame.readFrom(inputStream);
+                    lastReadTime = System.nanoTime();
+                    if (frame.getStatus() == RpcFrame.STATUS_PING) {
+                        continue;
+                    }
+                    CompletableFuture<byte[]> response = callIdToResponse.remove(frame.getCallId());
+                    if (response == null) {
+                        continue;
+                    }
+                    callbackExecutor.execute(() -> complete(response, frame));
+                }
+            } catch (IOException e) {
+                close(e);
+            }
+        }
+
+        private void complete(CompletableFuture<byte[]> response, RpcFrame frame) {
+            if (frame.getStatus() == RpcFrame.STATUS_OK) {
+                response.complete(frame.getPayload());
+            } else if (frame.getStatus() == RpcFrame.STATUS_UNAVAILABLE) {
+                response.completeExceptionally(new ServiceUnavailableException(address));
+            } else {
+                response.completeExceptionally(new IOException(address + " failed to handle the call"));
+            }
+        }
+
+        /**
+         * Fails every call in flight. A call made meanwhile is registered before it checks whether the connection
+         * is open, so it is failed either here or by that check, and never left waiting.
+         */
+        private void close(IOException cause) {
+            open = false;
+            heartbeat.cancel(false);
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // the calls fail either way
+            }
+            RpcConnectionException connectionException =
+                    new RpcConnectionException("RPC connection to " + address + " failed: " + cause.getMessage(), cause);
+            for (CompletableFuture<byte[]> response : callIdToResponse.values()) {
+                response.completeExceptionally(connectionException);
+            }
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package networking;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Serves calls of the binary RPC protocol, see {@link RpcFrame}.
+ *
+ * A thread per connection reads the calls and hands each to the executor as soon as it arrives, so the calls of
+ * a connection are handled concurrently, and their responses are written back as they finish.
+ */
+public class RpcServer {
+    private final int port;
+    private final Executor executor;
+    private final RequestHandler requestHandler;
+    private final Set<Socket> connections = ConcurrentHashMap.newKeySet();
+    private ServerSocket serverSocket;
+    private volatile boolean running = false;
+
+    public interface RequestHandler {
+        /**
+         * @throws ServiceUnavailableException to shed the call
+         */
+        byte[] handleRequest(byte[] requestPayload) throws ServiceUnavailableException;
+    }
+
+    public RpcServer(int port, Executor executor, RequestHandler requestHandler) {
+        this.port = port;
+        this.executor = executor;
+        this.requestHandler = requestHandler;
+    }
+
+    public void start() throws IOException {
+        serverSocket = new ServerSocket();
+        serverSocket.setReuseAddress(true);
+        serverSocket.bind(new InetSocketAddress(port));
+        running = true;
+
+        Thread acceptThread = new Thread(this::acceptConnections, "rpc-server-" + port);
+        acceptThread.setDaemon(true);
+        acceptThread.start();
+    }
+
+    public void stop() {
+        running = false;
+        closeQuietly(serverSocket);
+        for (Socket connection : connections) {
+            closeQuietly(connection);
+        }
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    private void acceptConnections() {
+        while (running) {
+            try {
+                Socket connection = serverSocket.accept();
+                connection.setTcpNoDelay(true);
+                connections.add(connection);
+                Thread connectionThread = new Thread(() -> serveConnection(connection), "rpc-server-connection");
+                connectionThread.setDaemon(true);
+                connectionThread.start();
+            } catch (IOException e) {
+                if (running) {
+                    e.printStackTrace();
+                }
+            }
+        }
+    }
+
+    private void serveConnection(Socket connection) {
+        try {
+            DataInputStream inputStream = new DataInputStream(new BufferedInputStream(connection.getInputStream()));
+            DataOutputStream outputStream = new DataOutputStream(new BufferedOutputStream(connection.getOutputStream()));
+            RpcFrame.readPreamble(inputStream);
+            while (running) {
+                RpcFrame request = RpcFrame.readFrom(inputStream);
+                if (request.getStatus() == RpcFrame.STATUS_PING) {
+                    write(outputStream, request);
+                    continue;
+                }
+                executor.execute(() -> handleCall(connection, outputStream, request));
+            }
+        } catch (EOFException | RejectedExecutionException e) {
+            // the client went away, or the server is stopping
+        } catch (IOException e) {
+            if (running && !connection.isClosed()) {
+                System.out.println("Closing RPC connection from " + connection.getRemoteSocketAddress() + ": " + e.getMessage());
+            }
+        } finally {
+            connections.remove(connection);
+            closeQuietly(connection);
+        }
+    }
+
+    private void handleCall(Socket connection, DataOutputStream outputStream, RpcFrame request) {
+        byte status = RpcFrame.STATUS_OK;
+        byte[] responsePayload;
+        try {
+            responsePayload = requestHandler.handleRequest(request.getPayload());
+        } catch (ServiceUnavailableException e) {
+            status = RpcFrame.STATUS_UNAVAILABLE;
+            responsePayload = new byte[0];
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+            status = RpcFrame.STATUS_ERROR;
+            responsePayload = new byte[0];
+        }
+
+        try {
+            write(outputStream, new RpcFrame(request.getCallId(), status, responsePayload));
+        } catch (IOException e) {
+            // the reading thread sees the connection fail as well, and cleans it up
+            closeQuietly(connection);
+        }
+    }
+
+    private static void write(DataOutputStream outputStream, RpcFrame frame) throws IOException {
+        synchronized (outputStream) {
+            frame.writeTo(outputStream);
+            outputStream.flush();
+        }
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        if (closeable == null) {
+            return;
+        }
+        try {
+            closeable.close();
+        } catch (IOException e) {
+            // nothing left to do with it
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package networking;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Executors the web server can run its handlers on.
+ * "fixed" queues the requests once all of its threads are busy, "cached" starts a platform thread per concurrent request,
+ * and "virtual" runs every request on its own virtual thread, so handlers blocked on I/O cost next to nothing.
+ */
+public class ServerExecutors {
+    public static final String FIXED = "fixed";
+    public static final String CACHED = "cached";
+    public static final String VIRTUAL = "virtual";
+
+    public static ExecutorService create(String mode, int numberOfThreads) {
+        if (VIRTUAL.equalsIgnoreCase(mode)) {
+            return newVirtualThreadPerTaskExecutor();
+        }
+        if (CACHED.equalsIgnoreCase(mode)) {
+            return Executors.newCachedThreadPool();
+        }
+        if (!FIXED.equalsIgnoreCase(mode)) {
+            System.out.println("Unknown executor " + mode + ", using a fixed thread pool");
+        }
+        return Executors.newFixedThreadPool(numberOfThreads);
+    }
+
+    /**
+     * Looked up by reflection, since the code still builds and runs on Java 8
+     */
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            System.out.println("Virtual threads need Java 21 or later, using a cached thread pool instead");
+            return Executors.newCachedThreadPool();
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package networking;
+
+import java.io.IOException;
+
+/**
+ * The server shed the request, because it already handles as many as it can. Another server may take it.
+ */
+public class ServiceUnavailableException extends IOException {
+    private static final long serialVersionUID = 1L;
+
+    public ServiceUnavailableException(String url) {
+        super(url + " is overloaded");
+    }
+}
@@ -2,16 +2,81 @@ package networking;
 
 import com.squareup.okhttp.*;
 
+import java.net.HttpURLConnection;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
 
 public class WebClient {
+    // a query sends a task per shard, so a worker usually gets more concurrent calls than OkHttp's default of 5
+    private static final String STATUS_ENDPOINT = "/status";
+    private static final int MAX_REQUESTS_PER_HOST = Integer.getInteger("search.client.maxRequestsPerHost", 64);
+    // servers that advertise an RPC port, see WebServer, are called over a persistent binary connection rather than HTTP,
+    // unless search.rpc=false keeps the client on HTTP
+    private static final boolean USE_RPC = Boolean.parseBoolean(System.getProperty("search.rpc", "true"));
+    private static final long RPC_RECHECK_MILLIS = 10_000;
     private OkHttpClient client;
+    private final RpcClient rpcClient = new RpcClient();
+    // RPC addresses that failed to connect, with the time to try them again
+    private final Map<String, Long> rpcAddressToRecheckTime = new ConcurrentHashMap<>();
 
     public WebClient() {
         this.client = new OkHttpClient();
+        this.client.getDispatcher().setMaxRequests(Math.max(MAX_REQUESTS_PER_HOST, client.getDispatcher().getMaxRequests()));
+        this.client.getDispatcher().setMaxRequestsPerHost(MAX_REQUESTS_PER_HOST);
     }
 
     public CompletableFuture<Response> sendAsyncTask(String url, byte[] payload) {
+        HttpUrl httpUrl = HttpUrl.parse(url);
+        String rpcPort = httpUrl == null ? null : httpUrl.queryParameter(RpcClient.PORT_QUERY_PARAMETER);
+        if (USE_RPC && rpcPort != null && isRpcAvailable(httpUrl.host() + ":" + rpcPort)) {
+            return sendRpcTask(url, httpUrl.host(), Integer.parseInt(rpcPort), payload);
+        }
+        return sendHttpTask(url, payload);
+    }
+
+    /**
+     * Calls whose connection could not be opened or was lost are sent again over HTTP. The ones the server shed,
+     * failed to handle or didn't answer in time fail as they would have over HTTP, so the handler doesn't run twice.
+     * Cancelling the returned future cancels the call in flight.
+     */
+    private CompletableFuture<Response> sendRpcTask(String url, String host, int rpcPort, byte[] payload) {
+        CompletableFuture<Response> response = new CompletableFuture<>();
+        CompletableFuture<byte[]> rpcCall = rpcClient.call(host, rpcPort, payload);
+        AtomicReference<CompletableFuture<?>> call = new AtomicReference<>(rpcCall);
+        rpcCall.whenComplete((responsePayload, e) -> {
+            if (e == null) {
+                response.complete(createResponse(url, responsePayload));
+                return;
+            }
+            if (!(e instanceof RpcConnectionException) || response.isDone()) {
+                response.completeExceptionally(e);
+                return;
+            }
+            if (!rpcClient.isConnected(host, rpcPort)) {
+                System.out.println("Falling back to HTTP for " + url + ": " + e.getMessage());
+                rpcAddressToRecheckTime.put(host + ":" + rpcPort, System.currentTimeMillis() + RPC_RECHECK_MILLIS);
+            }
+            CompletableFuture<Response> httpCall = sendHttpTask(url, payload);
+            call.set(httpCall);
+            httpCall.whenComplete((httpResponse, httpError) -> {
+                if (httpError != null) {
+                    response.completeExceptionally(httpError);
+                } else {
+                    response.complete(httpResponse);
+                }
+            });
+        });
+        response.whenComplete((result, e) -> {
+            if (response.isCancelled()) {
+                call.get().cancel(true);
+            }
+        });
+        return response;
+    }
+
+    private CompletableFuture<Response> sendHttpTask(String url, byte[] payload) {
         RequestBody body = RequestBody.create(MediaType.parse("text/csv"), payload);
 
         Request request = new Request.Builder()
@@ -21,8 +86,50 @@ public class WebClient {
                 .build();
 
         CallbackFuture future = new CallbackFuture();
-        client.newCall(request).enqueue(future);
+        Call call = client.newCall(request);
+        future.setCall(call);
+        call.enqueue(future);
+        return future;
+    }
+
+    /**
+     * Checks the status of the server {@code url} belongs to, always over HTTP
+     */
+    public CompletableFuture<Response> sendStatusCheck(String url) {
+        Request request = new Request.Builder()
+                .url(HttpUrl.parse(url).resolve(STATUS_ENDPOINT))
+                .get()
+                .build();
+
+        CallbackFuture future = new CallbackFuture();
+        Call call = client.newCall(request);
+        future.setCall(call);
+        call.enqueue(future);
         return future;
     }
 
-}
\ No newline at end of file
+    /**
+     * Callers read the RPC response the same way as an HTTP one
+     */
+    private static Response createResponse(String url, byte[] responsePayload) {
+        return new Response.Builder()
+                .request(new Request.Builder().url(url).build())
+                .protocol(Protocol.HTTP_1_1)
+                .code(HttpURLConnection.HTTP_OK)
+                .body(ResponseBody.create(null, responsePayload))
+                .build();
+    }
+
+    private boolean isRpcAvailable(String rpcAddress) {
+        Long recheckTime = rpcAddressToRecheckTime.get(rpcAddress);
+        if (recheckTime == null) {
+            return true;
+        }
+        if (recheckTime < System.currentTimeMillis()) {
+            rpcAddressToRecheckTime.remove(rpcAddress);
+            return true;
+        }
+        return false;
+    }
+
+}
@@ -4,28 +4,84 @@ import com.sun.net.httpserver.Headers;
 import com.sun.net.httpserver.HttpServer;
 import com.sun.net.httpserver.HttpContext;
 import com.sun.net.httpserver.HttpExchange;
-import sun.misc.IOUtils;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
+import java.net.HttpURLConnection;
 import java.net.InetSocketAddress;
 import java.util.Collections;
-import java.util.concurrent.Executors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 
 public class WebServer {
     private static final String STATUS_ENDPOINT = "/status";
+    // sent with the status, so coordinators can tell workers that take protobuf tasks from the ones before them
+    public static final String TASK_FORMAT_HEADER = "X-Task-Format";
+    public static final String PROTOBUF_TASK_FORMAT = "protobuf";
+    // see ServerExecutors, the number of threads only applies to the fixed pool
+    private static final String EXECUTOR_MODE = System.getProperty("search.server.executor", ServerExecutors.FIXED);
+    private static final int NUMBER_OF_THREADS = Integer.getInteger("search.server.threads", 4);
+    // "nio" serves the requests with NioHttpServer instead of the JDK's HttpServer
+    private static final boolean USE_NIO_SERVER =
+            "nio".equalsIgnoreCase(System.getProperty("search.server.implementation", "jdk"));
+    // "adaptive" fits the number of requests handled at once to their latency, a number fixes it, "none" removes it
+    private static final String CONCURRENCY_LIMIT = System.getProperty("search.server.concurrencyLimit", "adaptive");
+    private static final int INITIAL_CONCURRENCY_LIMIT = 20;
+    private static final int MAX_CONCURRENCY_LIMIT = 1000;
+    // with search.rpc=true, calls also come over a persistent binary connection (see RpcServer) on the port this much
+    // above the HTTP one. It is off by default, since that port may belong to something else on the host,
+    // e.g. 9000 to the frontend when the node serves HTTP on 8000.
+    private static final boolean USE_RPC = Boolean.parseBoolean(System.getProperty("search.rpc", "false"));
+    private static final int RPC_PORT_OFFSET = Integer.getInteger("search.rpc.portOffset", 1000);
+    // set on the thread answering a request turned away by the concurrency limit
+    private static final ThreadLocal<Boolean> REQUEST_REJECTED = new ThreadLocal<>();
+    // the HttpServer's requests turned away are answered on a few threads of their own, see executeRequest
+    private static final int MAX_REJECTION_THREADS = 16;
 
     private final int port;
+    private final String executorMode;
+    private final boolean useNioServer;
     private HttpServer server;
+    private NioHttpServer nioServer;
+    private RpcServer rpcServer;
+    private ExecutorService executor;
+    private ExecutorService rejectionExecutor;
+    private final ConcurrencyLimiter concurrencyLimiter = createConcurrencyLimiter();
     private final OnRequestHandler onRequestCallback;
 
     public WebServer(int port, OnRequestHandler onRequestCallback){
+        this(port, onRequestCallback, EXECUTOR_MODE, USE_NIO_SERVER);
+    }
+
+    public WebServer(int port, OnRequestHandler onRequestCallback, String executorMode, boolean useNioServer){
         this.port = port;
         this.onRequestCallback = onRequestCallback;
+        this.executorMode = executorMode;
+        this.useNioServer = useNioServer;
     }
 
     public void startServer() {
+        if (useNioServer) {
+            this.executor = ServerExecutors.create(executorMode, NUMBER_OF_THREADS);
+            this.nioServer = new NioHttpServer(port, request -> executeRequest(request, Runnable::run),
+                    this::handleNioRequest);
+            try {
+                nioServer.start();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+            startRpcServer();
+            return;
+        }
+
         try {
             this.server = HttpServer.create(new InetSocketAddress(port), 0);
         } catch(IOException e) {
@@ -40,12 +96,171 @@ public class WebServer {
         statusContext.setHandler(this::handleStatusCheckRequest);
         taskContext.setHandler(this::handleTaskRequest);
 
-        server.setExecutor(Executors.newFixedThreadPool(4));
+        this.executor = ServerExecutors.create(executorMode, NUMBER_OF_THREADS);
+        this.rejectionExecutor = new ThreadPoolExecutor(0, MAX_REJECTION_THREADS,
+                60, TimeUnit.SECONDS, new SynchronousQueue<>());
+        server.setExecutor(request -> executeRequest(request, this::executeRejection));
         server.start();
+        startRpcServer();
+    }
+
+    /**
+     * The HTTP server keeps serving the clients that don't speak RPC, or can't reach the RPC port
+     */
+    private void startRpcServer() {
+        if (!USE_RPC) {
+            return;
+        }
+        RpcServer rpcServer = new RpcServer(port + RPC_PORT_OFFSET, request -> executeRequest(request, Runnable::run),
+                this::handleRpcRequest);
+        try {
+            rpcServer.start();
+            this.rpcServer = rpcServer;
+            System.out.println("RPC server is listening on port " + rpcServer.getPort());
+        } catch (IOException e) {
+            System.out.println("Serving HTTP only, the RPC port " + rpcServer.getPort() + " is not available: " + e.getMessage());
+        }
     }
 
     public void stop() {
-        server.stop(4);
+        if (rpcServer != null) {
+            rpcServer.stop();
+        }
+        if (nioServer != null) {
+            nioServer.stop();
+        } else {
+            server.stop(4);
+        }
+        executor.shutdown();
+        if (rejectionExecutor != null) {
+            rejectionExecutor.shutdown();
+        }
+    }
+
+    private static ConcurrencyLimiter createConcurrencyLimiter() {
+        if (CONCURRENCY_LIMIT.equalsIgnoreCase("none")) {
+            return null;
+        }
+        if (CONCURRENCY_LIMIT.equalsIgnoreCase("adaptive")) {
+            return new ConcurrencyLimiter(INITIAL_CONCURRENCY_LIMIT, 1, MAX_CONCURRENCY_LIMIT);
+        }
+        try {
+            int limit = Integer.parseInt(CONCURRENCY_LIMIT);
+            if (limit > 0) {
+                return new ConcurrencyLimiter(limit, limit, limit);
+            }
+        } catch (NumberFormatException e) {
+            // reported below
+        }
+        System.out.println(String.format("Invalid concurrency limit \"%s\", using an adaptive one", CONCURRENCY_LIMIT));
+        return new ConcurrencyLimiter(INITIAL_CONCURRENCY_LIMIT, 1, MAX_CONCURRENCY_LIMIT);
+    }
+
+    /**
+     * Requests past the concurrency limit are answered with a 503 right away, rather than waiting in line for threads
+     * that are already late, so the sender can try another server.
+     * NioHttpServer has read the request already and writes the response on its selector thread, and the RpcServer
+     * only holds up the connection the request came on, so they answer it on the thread that received it.
+     * The HttpServer's dispatcher thread would read the request and write the response itself, and a slow client
+     * would stop it accepting anyone else, so it hands them to the rejection executor instead.
+     */
+    private void executeRequest(Runnable request, Executor rejectionExecutor) {
+        if (concurrencyLimiter == null) {
+            executor.execute(request);
+            return;
+        }
+        if (!concurrencyLimiter.tryAcquire()) {
+            rejectionExecutor.execute(() -> {
+                REQUEST_REJECTED.set(true);
+                try {
+                    request.run();
+                } finally {
+                    REQUEST_REJECTED.remove();
+                }
+            });
+            return;
+        }
+
+        long arrivalTime = System.nanoTime();
+        executor.execute(() -> {
+            long startTime = System.nanoTime();
+            try {
+                request.run();
+            } finally {
+                concurrencyLimiter.release(startTime - arrivalTime, System.nanoTime() - startTime);
+            }
+        });
+    }
+
+    /**
+     * None of the rejections wait in line behind a slow client. Once all the rejection threads are busy, the request
+     * waits for the handler threads instead, and is still answered with a 503 when it gets one.
+     */
+    private void executeRejection(Runnable rejectedRequest) {
+        try {
+            rejectionExecutor.execute(rejectedRequest);
+        } catch (RejectedExecutionException e) {
+            executor.execute(rejectedRequest);
+        }
+    }
+
+    private static boolean isRequestRejected() {
+        return REQUEST_REJECTED.get() != null;
+    }
+
+    /**
+     * @return the address to register the server under, which advertises the RPC port to the clients that use it
+     */
+    public String getServiceAddress(String host) {
+        String address = String.format("http://%s:%d%s", host, port, onRequestCallback.getEndpoint());
+        if (rpcServer == null) {
+            return address;
+        }
+        return address + "?" + RpcClient.PORT_QUERY_PARAMETER + "=" + rpcServer.getPort();
+    }
+
+    private byte[] handleRpcRequest(byte[] requestPayload) throws ServiceUnavailableException {
+        if (isRequestRejected()) {
+            throw new ServiceUnavailableException(onRequestCallback.getEndpoint());
+        }
+        return onRequestCallback.handleRequest(requestPayload);
+    }
+
+    /**
+     * Same as the HttpServer handlers below
+     */
+    private CompletableFuture<NioHttpServer.Response> handleNioRequest(NioHttpServer.Request request) {
+        if (request.getPath().equals(STATUS_ENDPOINT)) {
+            if (!request.getMethod().equalsIgnoreCase("GET")) {
+                return CompletableFuture.completedFuture(NioHttpServer.Response.error(405));
+            }
+            return CompletableFuture.completedFuture(NioHttpServer.Response.ok("Server is alive".getBytes())
+                    .withHeader(TASK_FORMAT_HEADER, PROTOBUF_TASK_FORMAT));
+        }
+
+        if (!request.getPath().equals(onRequestCallback.getEndpoint())) {
+            return CompletableFuture.completedFuture(NioHttpServer.Response.error(404));
+        }
+        if (!request.getMethod().equalsIgnoreCase("POST")) {
+            return CompletableFuture.completedFuture(NioHttpServer.Response.error(405));
+        }
+        if ("true".equalsIgnoreCase(request.getHeader("X-Test"))) {
+            return CompletableFuture.completedFuture(NioHttpServer.Response.ok("123\n".getBytes()));
+        }
+        if (isRequestRejected()) {
+            return CompletableFuture.completedFuture(NioHttpServer.Response.error(HttpURLConnection.HTTP_UNAVAILABLE));
+        }
+        boolean isDebugMode = "true".equalsIgnoreCase(request.getHeader("X-Debug"));
+
+        long startTime = System.nanoTime();
+        byte[] responseBytes = onRequestCallback.handleRequest(request.getBody());
+        long finishTime = System.nanoTime();
+
+        NioHttpServer.Response response = NioHttpServer.Response.ok(responseBytes);
+        if (isDebugMode) {
+            response.withHeader("X-debug-info", String.format("Operation took %d ns", finishTime - startTime));
+        }
+        return CompletableFuture.completedFuture(response);
     }
 
     private void handleTaskRequest(HttpExchange exchange) throws IOException {
@@ -61,6 +276,12 @@ public class WebServer {
             return;
         }
 
+        if (isRequestRejected()) {
+            exchange.sendResponseHeaders(HttpURLConnection.HTTP_UNAVAILABLE, -1);
+            exchange.close();
+            return;
+        }
+
         boolean isDebugMode = false;
         if(headers.containsKey("X-Debug") && headers.get("X-Debug").get(0).equalsIgnoreCase("true")){
             isDebugMode = true;
@@ -68,7 +289,7 @@ public class WebServer {
 
         long startTime = System.nanoTime();
 
-        byte[] requestBytes = IOUtils.readAllBytes(exchange.getRequestBody());
+        byte[] requestBytes = readAllBytes(exchange.getRequestBody());
         byte[] responseBytes = onRequestCallback.handleRequest(requestBytes);
 
         long finishTime = System.nanoTime();
@@ -88,6 +309,7 @@ public class WebServer {
         }
 
         String responseMessage = "Server is alive";
+        exchange.getResponseHeaders().put(TASK_FORMAT_HEADER, Collections.singletonList(PROTOBUF_TASK_FORMAT));
         sendResponse(responseMessage.getBytes(), exchange);
     }
 
@@ -98,4 +320,16 @@ public class WebServer {
         outputStream.flush();
         outputStream.close();
     }
+
+    /**
+     * Same as sun.misc.IOUtils, which is gone from the Java versions that have virtual threads
+     */
+    private static byte[] readAllBytes(InputStream inputStream) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        for (int read = inputStream.read(buffer); read != -1; read = inputStream.read(buffer)) {
+            bytes.write(buffer, 0, read);
+        }
+        return bytes.toByteArray();
+    }
 }
@@ -0,0 +1,19 @@
+package search;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class BooksDirectory {
+    public static final String BOOKS_DIRECTORY = "src/main/resources/books";
+
+    public static List<String> readDocumentsList() {
+        String basePath = new File("").getAbsolutePath();
+        File documentDirectory = new File(BOOKS_DIRECTORY);
+        return Arrays.asList(documentDirectory.list())
+                .stream()
+                .map(documentName -> basePath + "/" + BOOKS_DIRECTORY + "/" + documentName)
+                .collect(Collectors.toList());
+    }
+}
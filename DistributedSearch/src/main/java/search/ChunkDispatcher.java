@@ -0,0 +1,286 @@
+package search;
+
+import model.Result;
+import model.Task;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiFunction;
+import java.util.function.IntPredicate;
+
+/**
+ * Hands the chunks of a query out to the workers as they free up, rather than splitting it between them upfront,
+ * so faster workers end up processing more of the chunks.
+ *
+ * A worker takes the chunks it owns first, then any chunk nobody took yet, and once none is left, a second copy
+ * of a chunk still running on another worker, the first of the two copies to answer being kept.
+ * A worker that fails a chunk gets no more chunks of the query, and the chunk goes back to the others.
+ *
+ * The chunks are sent, and the attempts cancelled, outside of the dispatcher's lock, so an attempt that completes
+ * right away doesn't re-enter the dispatcher in the middle of handing out chunks.
+ */
+class ChunkDispatcher {
+    private final List<Task> chunks;
+    private final List<String> workers;
+    private final int concurrencyPerWorker;
+    private final BiFunction<String, Task, CompletableFuture<Result>> sender;
+    private final IntPredicate mayRetry;
+
+    private final CompletableFuture<Void> completion = new CompletableFuture<>();
+    private final Result[] results;
+    private final boolean[] finished;
+    private final boolean[] taken;
+    private int remainingChunks;
+    private final Deque<Integer> untakenChunks = new ArrayDeque<>();
+    private final Map<String, Deque<Integer>> workerToOwnedChunks = new HashMap<>();
+    private final Map<String, Integer> workerToRunningChunks = new HashMap<>();
+    private final Set<String> failedWorkers = new HashSet<>();
+    // in the order the chunks were first sent, so second copies go to the chunks running the longest
+    private final Map<Integer, Map<String, CompletableFuture<Result>>> chunkToAttempts = new LinkedHashMap<>();
+
+    /**
+     * @param chunkOwners          for every chunk, the workers that should preferably process it, possibly none
+     * @param concurrencyPerWorker how many chunks every worker processes at the same time
+     * @param mayRetry             asked with the chunk before handing it out again after it failed
+     */
+    ChunkDispatcher(List<Task> chunks,
+                    List<List<String>> chunkOwners,
+                    List<String> workers,
+                    int concurrencyPerWorker,
+                    BiFunction<String, Task, CompletableFuture<Result>> sender,
+                    IntPredicate mayRetry) {
+        this.chunks = chunks;
+        this.workers = workers;
+        this.concurrencyPerWorker = Math.max(1, concurrencyPerWorker);
+        this.sender = sender;
+        this.mayRetry = mayRetry;
+        this.results = new Result[chunks.size()];
+        this.finished = new boolean[chunks.size()];
+        this.taken = new boolean[chunks.size()];
+        this.remainingChunks = chunks.size();
+
+        for (String worker : workers) {
+            workerToOwnedChunks.put(worker, new ArrayDeque<>());
+            workerToRunningChunks.put(worker, 0);
+        }
+        for (int chunk = 0; chunk < chunks.size(); chunk++) {
+            untakenChunks.add(chunk);
+            for (String owner : chunkOwners.get(chunk)) {
+                Deque<Integer> ownedChunks = workerToOwnedChunks.get(owner);
+                if (ownedChunks != null) {
+                    ownedChunks.add(chunk);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return completes once every chunk was processed, or failed without any retry left
+     */
+    CompletableFuture<Void> start() {
+        List<PendingAttempt> pendingAttempts = new ArrayList<>();
+        synchronized (this) {
+            if (remainingChunks == 0) {
+                completion.complete(null);
+            }
+            dispatchToIdleWorkers(pendingAttempts);
+            finishIfNoWorkerLeft();
+        }
+        sendAll(pendingAttempts);
+        return completion;
+    }
+
+    /**
+     * Stops handing out chunks and cancels the ones running
+     */
+    void cancel() {
+        List<CompletableFuture<Result>> runningAttempts = new ArrayList<>();
+        synchronized (this) {
+            completion.cancel(false);
+            for (Map<String, CompletableFuture<Result>> attempts : chunkToAttempts.values()) {
+                runningAttempts.addAll(attempts.values());
+            }
+        }
+        for (CompletableFuture<Result> attempt : runningAttempts) {
+            attempt.cancel(true);
+        }
+    }
+
+    synchronized Result getResult(int chunk) {
+        return results[chunk];
+    }
+
+    private void dispatchToIdleWorkers(List<PendingAttempt> pendingAttempts) {
+        for (String worker : workers) {
+            dispatchTo(worker, pendingAttempts);
+        }
+    }
+
+    private void dispatchTo(String worker, List<PendingAttempt> pendingAttempts) {
+        while (!completion.isDone()
+                && !failedWorkers.contains(worker)
+                && workerToRunningChunks.get(worker) < concurrencyPerWorker) {
+            int chunk = takeChunkFor(worker);
+            if (chunk < 0) {
+                return;
+            }
+            pendingAttempts.add(reserve(worker, chunk));
+        }
+    }
+
+    private int takeChunkFor(String worker) {
+        Deque<Integer> ownedChunks = workerToOwnedChunks.get(worker);
+        while (!ownedChunks.isEmpty()) {
+            int chunk = ownedChunks.poll();
+            if (!taken[chunk]) {
+                return take(chunk);
+            }
+        }
+        while (!untakenChunks.isEmpty()) {
+            int chunk = untakenChunks.poll();
+            if (!taken[chunk]) {
+                return take(chunk);
+            }
+        }
+        // nothing left to take, so help with a chunk that only runs on one other worker
+        for (Map.Entry<Integer, Map<String, CompletableFuture<Result>>> chunkAttempts : chunkToAttempts.entrySet()) {
+            if (chunkAttempts.getValue().size() == 1 && !chunkAttempts.getValue().containsKey(worker)) {
+                return chunkAttempts.getKey();
+            }
+        }
+        return -1;
+    }
+
+    private int take(int chunk) {
+        taken[chunk] = true;
+        return chunk;
+    }
+
+    /**
+     * Counts the attempt as running right away, while it is only sent once the lock is released
+     */
+    private PendingAttempt reserve(String worker, int chunk) {
+        workerToRunningChunks.merge(worker, 1, Integer::sum);
+        CompletableFuture<Result> attempt = new CompletableFuture<>();
+        chunkToAttempts.computeIfAbsent(chunk, c -> new HashMap<>()).put(worker, attempt);
+        return new PendingAttempt(worker, chunk, attempt);
+    }
+
+    /**
+     * Cancelling an attempt, even before it is sent, cancels the call
+     */
+    private void sendAll(List<PendingAttempt> pendingAttempts) {
+        for (PendingAttempt pendingAttempt : pendingAttempts) {
+            String worker = pendingAttempt.worker;
+            int chunk = pendingAttempt.chunk;
+            CompletableFuture<Result> attempt = pendingAttempt.attempt;
+            attempt.whenComplete((result, e) -> onChunkComplete(worker, chunk, result, e));
+            if (attempt.isDone()) {
+                continue;
+            }
+
+            CompletableFuture<Result> call;
+            try {
+                call = sender.apply(worker, chunks.get(chunk));
+            } catch (RuntimeException e) {
+                attempt.completeExceptionally(e);
+                continue;
+            }
+            call.whenComplete((result, e) -> {
+                if (e != null) {
+                    attempt.completeExceptionally(e);
+                } else {
+                    attempt.complete(result);
+                }
+            });
+            attempt.whenComplete((result, e) -> {
+                if (attempt.isCancelled()) {
+                    call.cancel(true);
+                }
+            });
+        }
+    }
+
+    private void onChunkComplete(String worker, int chunk, Result result, Throwable e) {
+        List<PendingAttempt> pendingAttempts = new ArrayList<>();
+        List<CompletableFuture<Result>> uselessAttempts = new ArrayList<>();
+        synchronized (this) {
+            workerToRunningChunks.merge(worker, -1, Integer::sum);
+            Map<String, CompletableFuture<Result>> attempts = chunkToAttempts.getOrDefault(chunk, Collections.emptyMap());
+            attempts.remove(worker);
+            if (completion.isDone() || finished[chunk]) {
+                return;
+            }
+
+            if (e == null) {
+                results[chunk] = result;
+                finishChunk(chunk);
+                // the other copy of the chunk is of no use anymore
+                uselessAttempts.addAll(attempts.values());
+            } else {
+                System.out.println(String.format("Chunk %d failed on %s: %s", chunk, worker, e));
+                failedWorkers.add(worker);
+                if (attempts.isEmpty()) {
+                    if (failedWorkers.size() < workers.size() && mayRetry.test(chunk)) {
+                        taken[chunk] = false;
+                        untakenChunks.addFirst(chunk);
+                    } else {
+                        finishChunk(chunk);
+                    }
+                }
+            }
+            dispatchToIdleWorkers(pendingAttempts);
+            finishIfNoWorkerLeft();
+        }
+        for (CompletableFuture<Result> uselessAttempt : uselessAttempts) {
+            uselessAttempt.cancel(true);
+        }
+        sendAll(pendingAttempts);
+    }
+
+    /**
+     * Once every worker failed, nothing hands out the chunks that wait, so they are given up on right away,
+     * and the ones still running are given up on as they fail
+     */
+    private void finishIfNoWorkerLeft() {
+        if (completion.isDone() || failedWorkers.size() < workers.size()) {
+            return;
+        }
+        for (int chunk = 0; chunk < chunks.size(); chunk++) {
+            Map<String, CompletableFuture<Result>> attempts = chunkToAttempts.get(chunk);
+            if (!finished[chunk] && (attempts == null || attempts.isEmpty())) {
+                finishChunk(chunk);
+            }
+        }
+    }
+
+    private void finishChunk(int chunk) {
+        finished[chunk] = true;
+        chunkToAttempts.remove(chunk);
+        remainingChunks--;
+        if (remainingChunks == 0) {
+            completion.complete(null);
+        }
+    }
+
+    private static class PendingAttempt {
+        private final String worker;
+        private final int chunk;
+        private final CompletableFuture<Result> attempt;
+
+        PendingAttempt(String worker, int chunk, CompletableFuture<Result> attempt) {
+            this.worker = worker;
+            this.chunk = chunk;
+            this.attempt = attempt;
+        }
+    }
+}
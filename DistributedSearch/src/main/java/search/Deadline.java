@@ -0,0 +1,46 @@
+package search;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A point in time by which an answer is due, measured on the local monotonic clock
+ */
+public class Deadline {
+    private static final Deadline NONE = new Deadline(false, 0);
+
+    private final boolean isSet;
+    private final long deadlineNanos;
+
+    private Deadline(boolean isSet, long deadlineNanos) {
+        this.isSet = isSet;
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    /**
+     * @return a deadline {@code millis} from now, or no deadline at all when it is not positive
+     */
+    public static Deadline after(long millis) {
+        if (millis <= 0) {
+            return NONE;
+        }
+        return new Deadline(true, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+
+    public boolean isSet() {
+        return isSet;
+    }
+
+    public boolean isExpired() {
+        return isSet && System.nanoTime() - deadlineNanos >= 0;
+    }
+
+    /**
+     * @return the milliseconds left, 0 once expired, and Long.MAX_VALUE without a deadline
+     */
+    public long getRemainingMillis() {
+        if (!isSet) {
+            return Long.MAX_VALUE;
+        }
+        return Math.max(0, TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime()));
+    }
+}
@@ -0,0 +1,87 @@
+package search;
+
+import model.DocumentData;
+
+import java.util.*;
+
+/**
+ * Maps every (case folded) term to the postings of the documents containing it,
+ * so a query only touches the postings of its own terms instead of re-reading the documents.
+ *
+ * The index is populated once with {@link #addDocument(String, List)} before it is shared
+ * between request threads, and is read only afterwards.
+ */
+public class InvertedIndex {
+    private final Map<String, Integer> documentToId = new HashMap<>();
+    private final List<Integer> documentWordCounts = new ArrayList<>();
+    private final Map<String, Postings> termToPostings = new HashMap<>();
+
+    public void addDocument(String document, List<String> words) {
+        if (documentToId.containsKey(document)) {
+            return;
+        }
+        int documentId = documentWordCounts.size();
+        documentToId.put(document, documentId);
+        documentWordCounts.add(words.size());
+
+        Map<String, int[]> termToCount = new HashMap<>();
+        for (String word : words) {
+            termToCount.computeIfAbsent(TermTable.normalize(word), term -> new int[1])[0]++;
+        }
+
+        termToCount.forEach((term, count) ->
+                termToPostings.computeIfAbsent(term, t -> new Postings()).add(documentId, count[0]));
+    }
+
+    public boolean containsDocument(String document) {
+        return documentToId.containsKey(document);
+    }
+
+    public int getNumberOfDocuments() {
+        return documentWordCounts.size();
+    }
+
+    public int getNumberOfTerms() {
+        return termToPostings.size();
+    }
+
+    /**
+     * Same term frequencies as {@link TFIDF#createDocumentData(List, List)} over the words the document was indexed with
+     */
+    public DocumentData createDocumentData(String document, List<String> terms) {
+        int documentId = documentToId.get(document);
+        int wordCount = documentWordCounts.get(documentId);
+
+        double[] frequencies = new double[terms.size()];
+        for (int i = 0; i < frequencies.length; i++) {
+            Postings postings = termToPostings.get(TermTable.normalize(terms.get(i)));
+            long count = postings == null ? 0 : postings.getCount(documentId);
+            frequencies[i] = (double) count / wordCount;
+        }
+        return new DocumentData(terms, frequencies);
+    }
+
+    /**
+     * Document ids are added in increasing order, so the postings stay sorted and can be binary searched
+     */
+    private static class Postings {
+        private int[] documentIds = new int[4];
+        private int[] counts = new int[4];
+        private int size = 0;
+
+        void add(int documentId, int count) {
+            if (size == documentIds.length) {
+                documentIds = Arrays.copyOf(documentIds, size * 2);
+                counts = Arrays.copyOf(counts, size * 2);
+            }
+            documentIds[size] = documentId;
+            counts[size] = count;
+            size++;
+        }
+
+        int getCount(int documentId) {
+            int position = Arrays.binarySearch(documentIds, 0, size, documentId);
+            return position < 0 ? 0 : counts[position];
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package search;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Tokenizes a document straight from its memory mapped bytes, line by line, the same way
+ * reading it with a {@link java.io.FileReader} and tokenizing every line would, but without
+ * building a String per line.
+ *
+ * ASCII lines are widened byte by byte into a reusable buffer, other lines go through a reusable decoder
+ * of the platform charset. A scanner keeps state between calls and must not be shared between threads.
+ */
+public class MappedDocumentScanner {
+    private static final int INITIAL_BUFFER_SIZE = 1024;
+    private static final Charset CHARSET = Charset.defaultCharset();
+
+    private final Tokenizer tokenizer;
+    private final CharsetDecoder decoder = CHARSET.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private char[] lineBuffer = new char[INITIAL_BUFFER_SIZE];
+
+    public MappedDocumentScanner(Tokenizer tokenizer) {
+        this.tokenizer = tokenizer;
+    }
+
+    /**
+     * Line terminators can only be found byte by byte in charsets that encode ASCII as single bytes
+     */
+    public static boolean isSupported() {
+        return CHARSET.equals(StandardCharsets.UTF_8)
+                || CHARSET.equals(StandardCharsets.US_ASCII)
+                || CHARSET.equals(StandardCharsets.ISO_8859_1);
+    }
+
+    public void scan(String document, Tokenizer.TokenConsumer consumer) throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(document, "r");
+             FileChannel channel = file.getChannel()) {
+            MappedByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            scan(bytes, consumer);
+        }
+    }
+
+    private void scan(ByteBuffer bytes, Tokenizer.TokenConsumer consumer) {
+        int end = bytes.limit();
+        int lineStart = 0;
+        boolean isAscii = true;
+
+        for (int i = 0; i < end; i++) {
+            byte b = bytes.get(i);
+            if (b == '\n' || b == '\r') {
+                tokenizeLine(bytes, lineStart, i, isAscii, consumer);
+                if (b == '\r' && i + 1 < end && bytes.get(i + 1) == '\n') {
+                    i++;
+                }
+                lineStart = i + 1;
+                isAscii = true;
+            } else if (b < 0) {
+                isAscii = false;
+            }
+        }
+
+        if (lineStart < end) {
+            tokenizeLine(bytes, lineStart, end, isAscii, consumer);
+        }
+    }
+
+    private void tokenizeLine(ByteBuffer bytes, int start, int end, boolean isAscii, Tokenizer.TokenConsumer consumer) {
+        int length = end - start;
+        if (lineBuffer.length < length) {
+            lineBuffer = new char[Math.max(length, lineBuffer.length * 2)];
+        }
+
+        if (isAscii) {
+            for (int i = 0; i < length; i++) {
+                lineBuffer[i] = (char) bytes.get(start + i);
+            }
+            tokenizer.tokenize(lineBuffer, 0, length, consumer);
+            return;
+        }
+
+        ByteBuffer lineBytes = bytes.duplicate();
+        lineBytes.limit(end).position(start);
+        CharBuffer lineChars = CharBuffer.wrap(lineBuffer);
+
+        decoder.reset();
+        decoder.decode(lineBytes, lineChars, true);
+        decoder.flush(lineChars);
+        tokenizer.tokenize(lineBuffer, 0, lineChars.position(), consumer);
+    }
+}
@@ -0,0 +1,19 @@
+package search;
+
+public class ScoredDocument {
+    private final String document;
+    private final double score;
+
+    public ScoredDocument(String document, double score) {
+        this.document = document;
+        this.score = score;
+    }
+
+    public String getDocument() {
+        return document;
+    }
+
+    public double getScore() {
+        return score;
+    }
+}
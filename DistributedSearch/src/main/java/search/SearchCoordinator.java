@@ -1,15 +1,23 @@
 package search;
 
+import cluster.management.OnServiceRegistryChangeCallback;
 import cluster.management.ServiceRegistry;
+import cluster.management.ShardAssigner;
+import cluster.management.ShardRegistry;
 import com.google.protobuf.InvalidProtocolBufferException;
-import com.squareup.okhttp.Response;
 import model.DocumentData;
 import model.Result;
 import model.SerializationUtils;
 import model.Task;
 import model.proto.SearchModel;
+import com.squareup.okhttp.Response;
+import networking.HedgedRequest;
+import networking.LatencyTracker;
 import networking.OnRequestHandler;
+import networking.RetryBudget;
+import networking.ServiceUnavailableException;
 import networking.WebClient;
+import networking.WebServer;
 import org.apache.zookeeper.KeeperException;
 
 import javax.swing.*;
@@ -18,20 +26,97 @@ import java.io.IOException;
 import java.lang.reflect.Array;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
-import java.util.stream.Collectors;
-
-public class SearchCoordinator implements OnRequestHandler {
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+
+public class SearchCoordinator implements OnRequestHandler, OnServiceRegistryChangeCallback {
     private static final String ENDPOINT = "/search";
-    private static final String BOOKS_DIRECTORY = "src/main/resources/books";
+    // "java" keeps sending Java serialized tasks, for clusters whose workers are not upgraded yet
+    private static final boolean USE_JAVA_SERIALIZATION =
+            "java".equalsIgnoreCase(System.getProperty("search.task.encoding", "protobuf"));
+    private static final long LEGACY_WORKER_RECHECK_MILLIS = TimeUnit.MINUTES.toMillis(1);
+    // setting the number of shards to 0 splits the documents list between the workers on every query instead
+    static final int NUMBER_OF_SHARDS = Integer.getInteger("search.shards", 16);
+    // every shard is indexed by that many workers, so a slow or failed one can be worked around
+    private static final int SHARD_REPLICAS = Integer.getInteger("search.shards.replicas", 2);
+    private static final int VIRTUAL_NODES_PER_WORKER =
+            Integer.getInteger("search.shards.virtualNodes", ShardAssigner.DEFAULT_VIRTUAL_NODES);
+    private static final double SHARDS_LOAD_FACTOR = Double.parseDouble(
+            System.getProperty("search.shards.loadFactor", String.valueOf(ShardAssigner.DEFAULT_LOAD_FACTOR)));
+    // relative worker capacities, e.g. "host:8081=2,host:8082=1", every other worker has a weight of 1
+    private static final Map<String, Integer> WORKER_TO_WEIGHT =
+            ShardAssigner.parseWeights(System.getProperty("search.shards.weights"));
+    // a shard task slower than this percentile of the recent ones is also sent to a replica of the shard
+    private static final boolean HEDGE_REQUESTS = Boolean.parseBoolean(System.getProperty("search.hedge", "true"));
+    private static final double HEDGE_PERCENTILE = Double.parseDouble(System.getProperty("search.hedge.percentile", "95"));
+    private static final long HEDGE_INITIAL_DELAY_MILLIS = Long.getLong("search.hedge.initialDelayMillis", 100);
+    private static final int MIN_LATENCY_SAMPLES = 20;
+    // how long a search may take when the request doesn't say, 0 waits for every shard however long it takes
+    private static final long DEFAULT_DEADLINE_MILLIS = Long.getLong("search.deadlineMillis", 5000);
+    // failed or timed out tasks are retried on another worker, and slow ones hedged, at most that many extra calls
+    // per task, within the deadline and as long as the extra calls stay under a ratio of the tasks sent
+    private static final int MAX_RETRIES_PER_TASK = Integer.getInteger("search.retry.maxRetries", 2);
+    private static final double RETRY_RATIO = Double.parseDouble(System.getProperty("search.retry.ratio", "0.1"));
+    private static final int MAX_RETRY_BURST = Integer.getInteger("search.retry.burst", 20);
+    // an attempt that takes longer fails, so the task is retried on another worker like any failed one, 0 waits for it.
+    // With a deadline, an attempt also gets no more than this share of the time left, so a retry still fits in it
+    private static final long ATTEMPT_TIMEOUT_MILLIS = Long.getLong("search.retry.attemptTimeoutMillis", 3000);
+    private static final double ATTEMPT_TIMEOUT_RATIO =
+            Double.parseDouble(System.getProperty("search.retry.attemptTimeoutRatio", "0.5"));
+    // splits the documents between the workers in proportion to how many bytes per second each of them processed lately,
+    // instead of evenly, when not using shards
+    private static final boolean BALANCE_BY_THROUGHPUT =
+            Boolean.parseBoolean(System.getProperty("search.balance.throughput", "false"));
+    private static final double THROUGHPUT_SMOOTHING = 0.3;
+    // "chunks" hands the shards, or small chunks of the documents when not using shards, out to the workers as
+    // they free up, instead of sending every worker its whole part of the query at once
+    private static final boolean DISPATCH_CHUNKS = "chunks".equalsIgnoreCase(System.getProperty("search.dispatch", "static"));
+    private static final int CHUNKS_PER_WORKER = Integer.getInteger("search.chunks.perWorker", 4);
+    // how many chunks every worker processes at the same time
+    private static final int CHUNK_CONCURRENCY = Integer.getInteger("search.chunks.concurrency", 2);
+    // the share of the time left to an attempt that workers get, so their partial results still arrive before it ends
+    private static final double WORKER_TIME_BUDGET_RATIO = 0.9;
     private final ServiceRegistry workerServiceRegister;
     private final WebClient webClient;
     private final List<String> documents;
-
-    public SearchCoordinator(ServiceRegistry workerServiceRegister, WebClient client) {
+    private final Map<String, Long> documentToSize;
+    // bytes per millisecond, smoothed over the recent tasks
+    private final Map<String, Double> workerToThroughput = new ConcurrentHashMap<>();
+    private final ShardRegistry shardRegistry;
+    private final ShardAssigner shardAssigner;
+    private final ShardCatalog shardCatalog;
+    // workers that only understood Java serialized tasks, until when to keep sending them those
+    private final Map<String, Long> legacyWorkerToRecheckTime = new ConcurrentHashMap<>();
+    private final LatencyTracker taskLatencyTracker = new LatencyTracker(1024);
+    private final RetryBudget retryBudget = new RetryBudget(RETRY_RATIO, MAX_RETRY_BURST);
+    private final ScheduledExecutorService hedgingScheduler;
+
+    public SearchCoordinator(ServiceRegistry workerServiceRegister, WebClient client, ShardRegistry shardRegistry) {
         this.workerServiceRegister = workerServiceRegister;
         this.webClient = client;
-        this.documents = readDocumentsList();
+        this.documents = BooksDirectory.readDocumentsList();
+        this.documentToSize = new HashMap<>();
+        for (String document : documents) {
+            documentToSize.put(document, new File(document).length());
+        }
+        this.shardRegistry = shardRegistry;
+        this.shardAssigner =
+                new ShardAssigner(NUMBER_OF_SHARDS, SHARD_REPLICAS, VIRTUAL_NODES_PER_WORKER, SHARDS_LOAD_FACTOR, WORKER_TO_WEIGHT);
+        this.shardCatalog = NUMBER_OF_SHARDS > 0 ? new ShardCatalog(documents, NUMBER_OF_SHARDS) : null;
+        this.hedgingScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "search-coordinator-hedging");
+            thread.setDaemon(true);
+            return thread;
+        });
     }
 
     @Override
@@ -47,6 +132,18 @@ public class SearchCoordinator implements OnRequestHandler {
         return SearchModel.Response.getDefaultInstance().toByteArray();
     }
 
+    @Override
+    public void onServiceAddressesChanged(List<String> workers) {
+        if (NUMBER_OF_SHARDS <= 0 || workers.isEmpty()) {
+            return;
+        }
+        try {
+            getShardAssignment(workers);
+        } catch (KeeperException | InterruptedException e) {
+            e.printStackTrace();
+        }
+    }
+
     @Override
     public String getEndpoint() {
         return ENDPOINT;
@@ -55,6 +152,7 @@ public class SearchCoordinator implements OnRequestHandler {
     private SearchModel.Response createResponse(SearchModel.Request searchRequest) throws InterruptedException, KeeperException {
         SearchModel.Response.Builder searchResponse = SearchModel.Response.newBuilder();
         System.out.println("Received search query: " + searchRequest.getSeachQuery());
+        Deadline deadline = Deadline.after(searchRequest.hasDeadlineMillis() ? searchRequest.getDeadlineMillis() : DEFAULT_DEADLINE_MILLIS);
 
         List<String> searchTerms = TFIDF.getWordsFromLine(searchRequest.getSeachQuery());
         List<String> workers = workerServiceRegister.getAllServiceAddress();
@@ -64,113 +162,538 @@ public class SearchCoordinator implements OnRequestHandler {
             return searchResponse.build();
         }
 
-        List<Task> tasks = createTasks(workers.size(), searchTerms);
-        List<Result> results = sendTasksToWorkers(workers, tasks);
+        List<Task> tasks;
+        List<List<String>> taskWorkers;
+        if (NUMBER_OF_SHARDS > 0) {
+            SearchModel.ShardAssignment shardAssignment = getShardAssignment(workers);
+            tasks = new ArrayList<>(shardAssignment.getShardsCount());
+            taskWorkers = new ArrayList<>(shardAssignment.getShardsCount());
+            for (SearchModel.ShardAssignment.Shard shard : shardAssignment.getShardsList()) {
+                tasks.add(new Task(searchTerms, shard.getShardId(), shardAssignment.getNumberOfShards()));
+                taskWorkers.add(DISPATCH_CHUNKS
+                        ? shard.getWorkersList()
+                        : withRetryWorkers(shard.getWorkersList(), workers, shard.getShardId()));
+            }
+        } else if (DISPATCH_CHUNKS) {
+            double[] chunkSpeeds = new double[workers.size() * Math.max(1, CHUNKS_PER_WORKER)];
+            Arrays.fill(chunkSpeeds, 1);
+            tasks = new ArrayList<>(chunkSpeeds.length);
+            taskWorkers = new ArrayList<>(chunkSpeeds.length);
+            for (List<String> chunkDocuments : splitDocumentList(documents, chunkSpeeds)) {
+                if (!chunkDocuments.isEmpty()) {
+                    tasks.add(new Task(searchTerms, chunkDocuments));
+                    taskWorkers.add(Collections.emptyList());
+                }
+            }
+        } else {
+            List<List<String>> workerDocuments = splitDocumentList(documents, getWorkerSpeeds(workers));
+            tasks = new ArrayList<>(workers.size());
+            taskWorkers = new ArrayList<>(workers.size());
+            for (int i = 0; i < workerDocuments.size(); i++) {
+                if (workerDocuments.get(i).isEmpty()) {
+                    continue;
+                }
+                tasks.add(new Task(searchTerms, workerDocuments.get(i)));
+                taskWorkers.add(withRetryWorkers(Collections.singletonList(workers.get(i)), workers, i));
+            }
+        }
+        List<Integer> missingShards = new ArrayList<>();
+        List<Result> results = DISPATCH_CHUNKS
+                ? sendChunksToWorkers(workers, tasks, taskWorkers, deadline, missingShards)
+                : sendTasksToWorkers(taskWorkers, tasks, deadline, missingShards);
+        // tasks that are not for a shard have no id to report, their results are only known to be incomplete
+        if (results.size() < tasks.size() || results.stream().anyMatch(Result::isPartial)) {
+            System.out.println("Answering with partial results, missing shards " + missingShards);
+            searchResponse.setPartial(true).addAllMissingShards(missingShards);
+        }
 
-        List<SearchModel.Response.DocumentStats> sortedDocuments = aggregateResults(results, searchTerms);
+        int maxResults = searchRequest.hasMaxResults() ? Math.max(0, searchRequest.getMaxResults()) : Integer.MAX_VALUE;
+        List<SearchModel.Response.DocumentStats> sortedDocuments =
+                aggregateResults(results, searchTerms, maxResults, searchRequest.getMinScore());
         searchResponse.addAllRelevantDocuments(sortedDocuments);
         return searchResponse.build();
     }
 
-    private List<SearchModel.Response.DocumentStats> aggregateResults(List<Result> results, List<String> terms) {
+    /**
+     * Any worker can process any task, only slower when it doesn't have the shard indexed, so after the preferred
+     * workers come all the other live workers, starting from a different one for every task to spread the retries
+     */
+    private static List<String> withRetryWorkers(List<String> preferredWorkers, List<String> workers, int offset) {
+        List<String> taskWorkers = new ArrayList<>(preferredWorkers);
+        for (int i = 0; i < workers.size(); i++) {
+            String worker = workers.get((offset + i) % workers.size());
+            if (!taskWorkers.contains(worker)) {
+                taskWorkers.add(worker);
+            }
+        }
+        return taskWorkers;
+    }
+
+    /**
+     * The published assignment is kept, across coordinator elections too, until the workers change
+     */
+    private synchronized SearchModel.ShardAssignment getShardAssignment(List<String> workers)
+            throws KeeperException, InterruptedException {
+        SearchModel.ShardAssignment shardAssignment = shardRegistry.getAssignment();
+        if (!shardAssigner.isCurrent(shardAssignment, workers)) {
+            SearchModel.ShardAssignment previousAssignment = shardAssignment;
+            shardAssignment = shardAssigner.assign(workers, shardCatalog.getShardSizes());
+            shardRegistry.publishAssignment(shardAssignment);
+            System.out.println(String.format("Moved %d shard replicas to %d workers",
+                    ShardAssigner.countMovedShards(previousAssignment, shardAssignment), workers.size()));
+        }
+        return shardAssignment;
+    }
+
+    private List<SearchModel.Response.DocumentStats> aggregateResults(List<Result> results,
+                                                                      List<String> terms,
+                                                                      int maxResults,
+                                                                      double minScore) {
         Map<String, DocumentData> allDocumentsResults = new HashMap<>();
+        int numberOfDocuments = 0;
 
         for (Result result : results){
             allDocumentsResults.putAll(result.getDocumentToDocumentData());
+            numberOfDocuments += result.getNumberOfDocuments();
         }
 
-        System.out.println("Calculating score for all documents...");
-        Map<Double, List<String>> scoreToDocuments = TFIDF.getDocumentSortedByScore(terms, allDocumentsResults);
+        System.out.println(String.format("Calculating score for %d matching documents out of %d...",
+                allDocumentsResults.size(), numberOfDocuments));
+        List<ScoredDocument> topDocuments =
+                TFIDF.getTopDocumentsByScore(terms, allDocumentsResults, numberOfDocuments, maxResults);
 
-        return sortDocumentsByScore(scoreToDocuments);
+        return createDocumentsStats(filterByMinScore(topDocuments, minScore));
     }
 
-    private List<SearchModel.Response.DocumentStats> sortDocumentsByScore(Map<Double, List<String>> scoreToDocuments) {
-        List<SearchModel.Response.DocumentStats> sortedDocumentsStatsList = new ArrayList<>();
+    /**
+     * Scores are compared as a percentage of the best score, the same way the frontend normalizes them
+     */
+    private static List<ScoredDocument> filterByMinScore(List<ScoredDocument> sortedDocuments, double minScore) {
+        if (minScore <= 0 || sortedDocuments.isEmpty()) {
+            return sortedDocuments;
+        }
 
-        scoreToDocuments.forEach((score, docs) -> {
-            docs.forEach(doc -> {
-                File documentPath = new File(doc);
+        double maxScore = sortedDocuments.get(0).getScore();
+        for (int i = 0; i < sortedDocuments.size(); i++) {
+            int normalizedScore = (int) Math.ceil(sortedDocuments.get(i).getScore() * 100.0 / maxScore);
+            if (normalizedScore < minScore) {
+                return sortedDocuments.subList(0, i);
+            }
+        }
+        return sortedDocuments;
+    }
 
-                SearchModel.Response.DocumentStats documentStats = SearchModel.Response.DocumentStats
-                        .newBuilder()
-                        .setScore(score)
-                        .setDocumentName(documentPath.getName())
-                        .setDocumentSize(documentPath.length())
-                        .build();
+    private List<SearchModel.Response.DocumentStats> createDocumentsStats(List<ScoredDocument> sortedDocuments) {
+        List<SearchModel.Response.DocumentStats> sortedDocumentsStatsList = new ArrayList<>(sortedDocuments.size());
 
-                sortedDocumentsStatsList.add(documentStats);
-            });
-        });
+        for (ScoredDocument scoredDocument : sortedDocuments) {
+            File documentPath = new File(scoredDocument.getDocument());
+
+            SearchModel.Response.DocumentStats documentStats = SearchModel.Response.DocumentStats
+                    .newBuilder()
+                    .setScore(scoredDocument.getScore())
+                    .setDocumentName(documentPath.getName())
+                    .setDocumentSize(documentPath.length())
+                    .build();
+
+            sortedDocumentsStatsList.add(documentStats);
+        }
 
         return sortedDocumentsStatsList;
     }
 
-    private List<Result> sendTasksToWorkers(List<String> workerEndpoints, List<Task> tasks) {
-        CompletableFuture<Response>[] futures = new CompletableFuture[workerEndpoints.size()];
-        for (int i=0; i<workerEndpoints.size(); i++) {
-            String workerEndpoint = workerEndpoints.get(i);
+    /**
+     * @param workerEndpoints for every task, the workers that can process it, the preferred one first
+     * @param missingShards   gets the shards whose task failed, didn't answer by the deadline or only answered
+     *                        for part of their documents
+     */
+    private List<Result> sendTasksToWorkers(List<List<String>> workerEndpoints,
+                                            List<Task> tasks,
+                                            Deadline deadline,
+                                            List<Integer> missingShards) {
+        CompletableFuture<Result>[] futures = new CompletableFuture[tasks.size()];
+        long hedgeDelayMillis = HEDGE_REQUESTS ? getHedgeDelayMillis() : -1;
+        for (int i=0; i<tasks.size(); i++) {
             Task task = tasks.get(i);
-            byte[] payload = SerializationUtils.serialize(task);
-
-            futures[i] = webClient.sendAsyncTask(workerEndpoint, payload);
+            retryBudget.onRequest();
+            futures[i] = HedgedRequest.send(workerEndpoints.get(i),
+                    worker -> sendTimedTask(worker, task, deadline),
+                    hedgingScheduler,
+                    hedgeDelayMillis,
+                    retryPolicy(deadline));
         }
 
         List<Result> results = new ArrayList<>();
-        for (CompletableFuture<Response> future : futures) {
+        for (int i=0; i<futures.length; i++) {
+            Task task = tasks.get(i);
             try {
-                Response response = future.get();
-                Result result = (Result) SerializationUtils.deserialize(response.body().bytes());
+                Result result = deadline.isSet()
+                        ? futures[i].get(deadline.getRemainingMillis(), TimeUnit.MILLISECONDS)
+                        : futures[i].get();
                 results.add(result);
+                if (result.isPartial()) {
+                    addMissingShard(task, missingShards);
+                }
+            } catch (TimeoutException e) {
+                futures[i].cancel(true);
+                addMissingShard(task, missingShards);
             } catch (ExecutionException e) {
                 e.printStackTrace();
+                addMissingShard(task, missingShards);
             } catch (InterruptedException e) {
                 e.printStackTrace();
-            } catch (IOException e) {
-                e.printStackTrace();
+                addMissingShard(task, missingShards);
             }
         }
         System.out.println(String.format("Received %d/%d results", results.size(), tasks.size()));
         return results;
     }
 
-    public List<Task> createTasks(int numberOfWorkers, List<String> searchTerms) {
-        List<List<String>> workerDocuments = splitDocumentList(numberOfWorkers, documents);
+    /**
+     * @param chunkOwners for every chunk, the workers that have it indexed
+     * @param missingShards gets the shards whose chunk failed, was not processed by the deadline or only for part
+     *                      of its documents
+     */
+    private List<Result> sendChunksToWorkers(List<String> workers,
+                                             List<Task> chunks,
+                                             List<List<String>> chunkOwners,
+                                             Deadline deadline,
+                                             List<Integer> missingShards) {
+        BooleanSupplier[] chunkRetryPolicies = new BooleanSupplier[chunks.size()];
+        for (int i = 0; i < chunks.size(); i++) {
+            retryBudget.onRequest();
+            chunkRetryPolicies[i] = retryPolicy(deadline);
+        }
+        ChunkDispatcher chunkDispatcher = new ChunkDispatcher(chunks, chunkOwners, workers, CHUNK_CONCURRENCY,
+                (worker, chunk) -> sendTimedTask(worker, chunk, deadline),
+                chunk -> chunkRetryPolicies[chunk].getAsBoolean());
+
+        CompletableFuture<Void> completion = chunkDispatcher.start();
+        try {
+            if (deadline.isSet()) {
+                completion.get(deadline.getRemainingMillis(), TimeUnit.MILLISECONDS);
+            } else {
+                completion.get();
+            }
+        } catch (TimeoutException e) {
+            chunkDispatcher.cancel();
+        } catch (ExecutionException | InterruptedException e) {
+            e.printStackTrace();
+            chunkDispatcher.cancel();
+        }
+
+        List<Result> results = new ArrayList<>();
+        for (int i = 0; i < chunks.size(); i++) {
+            Result result = chunkDispatcher.getResult(i);
+            if (result != null) {
+                results.add(result);
+            }
+            if (result == null || result.isPartial()) {
+                addMissingShard(chunks.get(i), missingShards);
+            }
+        }
+        System.out.println(String.format("Received %d/%d chunk results", results.size(), chunks.size()));
+        return results;
+    }
+
+    private static void addMissingShard(Task task, List<Integer> missingShards) {
+        if (task.isShardTask()) {
+            missingShards.add(task.getShardId());
+        }
+    }
+
+    private BooleanSupplier retryPolicy(Deadline deadline) {
+        AtomicInteger retries = new AtomicInteger();
+        return () -> retries.incrementAndGet() <= MAX_RETRIES_PER_TASK
+                && !deadline.isExpired()
+                && retryBudget.tryRetry();
+    }
 
-        List<Task> tasks = new ArrayList<>();
+    private long getHedgeDelayMillis() {
+        if (taskLatencyTracker.getNumberOfSamples() < MIN_LATENCY_SAMPLES) {
+            return HEDGE_INITIAL_DELAY_MILLIS;
+        }
+        return Math.max(1, TimeUnit.NANOSECONDS.toMillis(taskLatencyTracker.getPercentile(HEDGE_PERCENTILE)));
+    }
+
+    private CompletableFuture<Result> sendTimedTask(String workerEndpoint, Task task, Deadline deadline) {
+        long startTime = System.nanoTime();
+        long attemptTimeoutMillis = getAttemptTimeoutMillis(deadline);
+        long attemptMillis = attemptTimeoutMillis > 0
+                ? attemptTimeoutMillis
+                : deadline.isSet() ? deadline.getRemainingMillis() : 0;
+        Task budgetedTask = attemptMillis > 0
+                ? task.withTimeBudget(Math.max(1, (long) (attemptMillis * WORKER_TIME_BUDGET_RATIO)))
+                : task;
+        CompletableFuture<Result> result =
+                withAttemptTimeout(workerEndpoint, sendTask(workerEndpoint, budgetedTask), attemptTimeoutMillis);
+        result.thenRun(() -> {
+            long latencyNanos = System.nanoTime() - startTime;
+            taskLatencyTracker.record(latencyNanos);
+            if (BALANCE_BY_THROUGHPUT && getSize(task) > 0) {
+                recordThroughput(workerEndpoint, getSize(task), latencyNanos);
+            }
+        });
+        return result;
+    }
 
-        for (List<String> documentsForWorker : workerDocuments) {
-            Task task = new Task(searchTerms, documentsForWorker);
-            tasks.add(task);
+    /**
+     * Without the share of the deadline, a timeout as long as the deadline, e.g. the frontend's 3 s and the default
+     * attempt timeout, would never fire before the query gave up on the worker anyway
+     *
+     * @return 0 when attempts don't time out
+     */
+    private static long getAttemptTimeoutMillis(Deadline deadline) {
+        if (ATTEMPT_TIMEOUT_MILLIS <= 0 || !deadline.isSet()) {
+            return ATTEMPT_TIMEOUT_MILLIS;
         }
+        long deadlineShareMillis = (long) (deadline.getRemainingMillis() * ATTEMPT_TIMEOUT_RATIO);
+        return Math.max(1, Math.min(ATTEMPT_TIMEOUT_MILLIS, deadlineShareMillis));
+    }
 
-        return tasks;
+    /**
+     * Cancelling the returned future, or the attempt timing out, cancels the call in flight
+     */
+    private CompletableFuture<Result> withAttemptTimeout(String workerEndpoint,
+                                                         CompletableFuture<Result> attempt,
+                                                         long attemptTimeoutMillis) {
+        if (attemptTimeoutMillis <= 0) {
+            return attempt;
+        }
+        CompletableFuture<Result> timedAttempt = new CompletableFuture<>();
+        ScheduledFuture<?> timeout = hedgingScheduler.schedule(() -> {
+            if (timedAttempt.completeExceptionally(new TimeoutException(
+                    String.format("%s took longer than %d ms", workerEndpoint, attemptTimeoutMillis)))) {
+                attempt.cancel(true);
+            }
+        }, attemptTimeoutMillis, TimeUnit.MILLISECONDS);
+        attempt.whenComplete((result, e) -> {
+            timeout.cancel(false);
+            if (e != null) {
+                timedAttempt.completeExceptionally(e);
+            } else {
+                timedAttempt.complete(result);
+            }
+        });
+        timedAttempt.whenComplete((result, e) -> {
+            if (timedAttempt.isCancelled()) {
+                attempt.cancel(true);
+            }
+        });
+        return timedAttempt;
     }
 
-    private static List<List<String>> splitDocumentList(int numberOfWorkers, List<String> docs) {
-        int numberOfDocumentsPerWorker = (docs.size() + numberOfWorkers - 1) / numberOfWorkers;
+    private void recordThroughput(String workerEndpoint, long taskSize, long latencyNanos) {
+        double throughput = taskSize / Math.max(1.0, latencyNanos / 1_000_000.0);
+        workerToThroughput.merge(workerEndpoint, throughput,
+                (previous, latest) -> previous + THROUGHPUT_SMOOTHING * (latest - previous));
+    }
 
-        List<List<String>> workersDocuments = new ArrayList<>();
+    /**
+     * @return how fast every worker processes documents compared to the others, the same for all of them
+     * unless balancing by throughput, and the average one for workers that didn't process any task yet
+     */
+    private double[] getWorkerSpeeds(List<String> workers) {
+        double[] speeds = new double[workers.size()];
+        Arrays.fill(speeds, 1);
+        if (!BALANCE_BY_THROUGHPUT) {
+            return speeds;
+        }
 
-        for (int i=0; i<numberOfWorkers; i++) {
-            int firstDocumentIndex = i * numberOfDocumentsPerWorker;
-            int lastDocumentIndexExclusive = Math.min(firstDocumentIndex + numberOfDocumentsPerWorker, docs.size());
+        double totalThroughput = 0;
+        int measuredWorkers = 0;
+        for (String worker : workers) {
+            Double throughput = workerToThroughput.get(worker);
+            if (throughput != null) {
+                totalThroughput += throughput;
+                measuredWorkers++;
+            }
+        }
+        if (measuredWorkers == 0) {
+            return speeds;
+        }
+        double averageThroughput = totalThroughput / measuredWorkers;
+        for (int i = 0; i < workers.size(); i++) {
+            speeds[i] = workerToThroughput.getOrDefault(workers.get(i), averageThroughput);
+        }
+        return speeds;
+    }
 
-            if (firstDocumentIndex >= lastDocumentIndexExclusive)
-                break;
+    private long getSize(Task task) {
+        if (task.isShardTask()) {
+            return getShardCatalog(task.getNumberOfShards()).getShardSize(task.getShardId());
+        }
+        long size = 0;
+        for (String document : task.getDocuments()) {
+            size += documentToSize.getOrDefault(document, 0L);
+        }
+        return size;
+    }
 
-            List<String> currentWorkerDocuments = new ArrayList<>(docs.subList(firstDocumentIndex, lastDocumentIndexExclusive));
-            workersDocuments.add(currentWorkerDocuments);
+    /**
+     * Sends the task as protobuf, and falls back to Java serialization for workers that don't understand it yet.
+     * Cancelling the returned future cancels the call in flight.
+     */
+    private CompletableFuture<Result> sendTask(String workerEndpoint, Task task) {
+        if (USE_JAVA_SERIALIZATION || isLegacyWorker(workerEndpoint)) {
+            return sendJavaSerializedTask(workerEndpoint, task);
         }
-        return workersDocuments;
+
+        AtomicReference<CompletableFuture<?>> call = new AtomicReference<>();
+        CompletableFuture<Response> protobufCall = webClient.sendAsyncTask(workerEndpoint, task.toProto().toByteArray());
+        call.set(protobufCall);
+        CompletableFuture<Result> taskResult = protobufCall
+                .thenApply(response -> {
+                    try {
+                        return Result.fromProto(SearchModel.Result.parseFrom(response.body().bytes()), task.getSearchTerms());
+                    } catch (IOException e) {
+                        throw new CompletionException(e);
+                    }
+                })
+                .handle((result, e) -> {
+                    if (result != null || protobufCall.isCancelled()) {
+                        return CompletableFuture.completedFuture(result);
+                    }
+                    if (e.getCause() instanceof ServiceUnavailableException) {
+                        // the worker understood the task but shed it, it is for another worker to take
+                        CompletableFuture<Result> shedTask = new CompletableFuture<>();
+                        shedTask.completeExceptionally(e.getCause());
+                        return shedTask;
+                    }
+                    return fallBackIfLegacyWorker(workerEndpoint, task, e.getCause(), call);
+                })
+                .thenCompose(result -> result);
+        taskResult.whenComplete((result, e) -> {
+            if (taskResult.isCancelled()) {
+                call.get().cancel(true);
+            }
+        });
+        return taskResult;
+    }
+
+    /**
+     * Workers of the previous version drop protobuf tasks without an answer, the same as a worker that failed or
+     * died. Unlike those, they answer a status check without the task format header, so only they get the task
+     * again, Java serialized. Other failures are left to the retries on other replicas.
+     */
+    private CompletableFuture<Result> fallBackIfLegacyWorker(String workerEndpoint,
+                                                             Task task,
+                                                             Throwable failure,
+                                                             AtomicReference<CompletableFuture<?>> call) {
+        CompletableFuture<Response> statusCheck = webClient.sendStatusCheck(workerEndpoint);
+        call.set(statusCheck);
+        return statusCheck
+                .handle((response, e) -> e == null && isLegacyWorkerStatus(response))
+                .thenCompose(isLegacyWorker -> {
+                    if (!isLegacyWorker) {
+                        CompletableFuture<Result> failedTask = new CompletableFuture<>();
+                        failedTask.completeExceptionally(failure);
+                        return failedTask;
+                    }
+                    System.out.println("Falling back to Java serialized tasks for " + workerEndpoint);
+                    legacyWorkerToRecheckTime.put(workerEndpoint, System.currentTimeMillis() + LEGACY_WORKER_RECHECK_MILLIS);
+                    return fallBackToJavaSerializedTask(workerEndpoint, task, call);
+                });
+    }
+
+    private static boolean isLegacyWorkerStatus(Response response) {
+        try {
+            response.body().close();
+        } catch (IOException e) {
+            // only the headers matter
+        }
+        return response.isSuccessful() && response.header(WebServer.TASK_FORMAT_HEADER) == null;
+    }
+
+    private CompletableFuture<Result> fallBackToJavaSerializedTask(String workerEndpoint,
+                                                                   Task task,
+                                                                   AtomicReference<CompletableFuture<?>> call) {
+        CompletableFuture<Result> legacyCall = sendJavaSerializedTask(workerEndpoint, task);
+        call.set(legacyCall);
+        return legacyCall;
+    }
+
+    /**
+     * Workers of the previous version don't know about shards, so they get the documents of the shard instead
+     */
+    private CompletableFuture<Result> sendJavaSerializedTask(String workerEndpoint, Task task) {
+        Task documentsTask = task.isShardTask()
+                ? new Task(task.getSearchTerms(), getShardCatalog(task.getNumberOfShards()).getDocuments(task.getShardId()))
+                        .withTimeBudget(task.getTimeBudgetMillis())
+                : task;
+        CompletableFuture<Response> call = webClient.sendAsyncTask(workerEndpoint, SerializationUtils.serialize(documentsTask));
+        CompletableFuture<Result> taskResult = call
+                .thenApply(response -> {
+                    try {
+                        Result result = (Result) SerializationUtils.deserialize(response.body().bytes());
+                        return result.alignTo(task.getSearchTerms());
+                    } catch (IOException e) {
+                        throw new CompletionException(e);
+                    }
+                });
+        taskResult.whenComplete((result, e) -> {
+            if (taskResult.isCancelled()) {
+                call.cancel(true);
+            }
+        });
+        return taskResult;
+    }
+
+    private ShardCatalog getShardCatalog(int numberOfShards) {
+        if (shardCatalog != null && shardCatalog.getNumberOfShards() == numberOfShards) {
+            return shardCatalog;
+        }
+        return new ShardCatalog(documents, numberOfShards);
     }
 
-    private static List<String> readDocumentsList() {
-        String basePath = new File("").getAbsolutePath();
-        File documentDirectory = new File(BOOKS_DIRECTORY);
-        return Arrays.asList(documentDirectory.list())
-                .stream()
-                .map(documentName -> basePath + "/" + BOOKS_DIRECTORY + "/" + documentName)
-                .collect(Collectors.toList());
+    private boolean isLegacyWorker(String workerEndpoint) {
+        Long recheckTime = legacyWorkerToRecheckTime.get(workerEndpoint);
+        if (recheckTime == null) {
+            return false;
+        }
+        if (recheckTime < System.currentTimeMillis()) {
+            legacyWorkerToRecheckTime.remove(workerEndpoint);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Longest processing time first: every document, largest first, goes to the worker that would finish it
+     * the soonest given the bytes it already has and its speed, so the workers end up with about the same amount
+     * of work rather than the same number of documents. Every worker also gets its documents largest first.
+     *
+     * @return the documents of every worker, in the order of {@code workerSpeeds}, empty for the workers left without
+     */
+    private List<List<String>> splitDocumentList(List<String> docs, double[] workerSpeeds) {
+        List<String> largestFirst = new ArrayList<>(docs);
+        largestFirst.sort(Comparator.comparing((String document) -> documentToSize.getOrDefault(document, 0L))
+                .reversed()
+                .thenComparing(Comparator.naturalOrder()));
+
+        List<List<String>> workersDocuments = new ArrayList<>(workerSpeeds.length);
+        for (int i = 0; i < workerSpeeds.length; i++) {
+            workersDocuments.add(new ArrayList<>());
+        }
+        if (workerSpeeds.length == 0) {
+            return workersDocuments;
+        }
+        long[] workerSizes = new long[workerSpeeds.length];
+
+        for (String document : largestFirst) {
+            long size = documentToSize.getOrDefault(document, 0L);
+            int fastestWorker = 0;
+            double fastestFinishTime = Double.MAX_VALUE;
+            for (int i = 0; i < workerSpeeds.length; i++) {
+                double finishTime = (workerSizes[i] + size) / workerSpeeds[i];
+                if (finishTime < fastestFinishTime) {
+                    fastestWorker = i;
+                    fastestFinishTime = finishTime;
+                }
+            }
+            workersDocuments.get(fastestWorker).add(document);
+            workerSizes[fastestWorker] += size;
+        }
+        return workersDocuments;
     }
 }
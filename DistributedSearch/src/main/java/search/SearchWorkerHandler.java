@@ -1,41 +1,291 @@
 package search;
 
+import cluster.management.OnShardAssignmentCallback;
+import cluster.management.ShardRegistry;
+import com.google.protobuf.InvalidProtocolBufferException;
 import model.DocumentData;
 import model.Result;
 import model.SerializationUtils;
 import model.Task;
+import model.proto.SearchModel;
 import networking.OnRequestHandler;
 
 import java.io.*;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
-public class SearchWorkerHandler implements OnRequestHandler {
+public class SearchWorkerHandler implements OnRequestHandler, OnShardAssignmentCallback {
     private static final String ENDPOINT = "/task";
+    private static final boolean USE_INDEX = Boolean.parseBoolean(System.getProperty("search.worker.index", "true"));
+    private static final boolean USE_MAPPED_FILES =
+            Boolean.parseBoolean(System.getProperty("search.worker.mmap", "true")) && MappedDocumentScanner.isSupported();
+    private static final ThreadLocal<MappedDocumentScanner> SCANNER =
+            ThreadLocal.withInitial(() -> new MappedDocumentScanner(new Tokenizer(false)));
+    // setting the number of threads to 1 processes every task sequentially on the request thread
+    private static final int NUMBER_OF_THREADS =
+            Integer.getInteger("search.worker.threads", Runtime.getRuntime().availableProcessors());
+    // the number of threads a single task may occupy, so one big query can't starve the concurrent ones
+    private static final int MAX_THREADS_PER_TASK =
+            Integer.getInteger("search.worker.maxThreadsPerTask", Math.max(1, NUMBER_OF_THREADS / 2));
+
+    private final List<String> documents;
+    private final ExecutorService documentsExecutor;
+    private final ExecutorService indexingExecutor;
+    private String workerAddress = null;
+
+    // the shards this worker owns, indexed in the background as soon as they are assigned to it.
+    // Without sharding, the whole corpus is a single shard every worker owns
+    private final Map<Integer, CompletableFuture<InvertedIndex>> shardToIndex = new ConcurrentHashMap<>();
+    private volatile ShardCatalog shardCatalog = null;
+
+    public SearchWorkerHandler() {
+        this.documents = BooksDirectory.readDocumentsList();
+        this.documentsExecutor = NUMBER_OF_THREADS > 1 ? Executors.newFixedThreadPool(NUMBER_OF_THREADS, runnable -> {
+            Thread thread = new Thread(runnable, "search-worker-documents");
+            thread.setDaemon(true);
+            return thread;
+        }) : null;
+        this.indexingExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "search-worker-indexing");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (SearchCoordinator.NUMBER_OF_SHARDS <= 0) {
+            ownAllDocuments();
+        }
+    }
+
+    /**
+     * Starts following the shard assignment, to keep the shards assigned to {@code workerAddress} indexed.
+     * Without sharding there is no assignment to follow, the worker keeps every document indexed instead.
+     */
+    public void ownShardsOf(ShardRegistry shardRegistry, String workerAddress) {
+        this.workerAddress = workerAddress;
+        if (SearchCoordinator.NUMBER_OF_SHARDS > 0) {
+            shardRegistry.registerForUpdates(this);
+        }
+    }
+
+    private synchronized void ownAllDocuments() {
+        if (!USE_INDEX) {
+            return;
+        }
+        shardCatalog = new ShardCatalog(documents, 1);
+        shardToIndex.put(0, CompletableFuture.supplyAsync(() -> buildIndex(0, documents), indexingExecutor));
+    }
+
+    /**
+     * Stops the threads processing the documents, once the node no longer works on tasks
+     */
+    public void stop() {
+        if (documentsExecutor != null) {
+            documentsExecutor.shutdownNow();
+        }
+        indexingExecutor.shutdownNow();
+    }
+
+    @Override
+    public synchronized void onShardAssignmentChanged(SearchModel.ShardAssignment shardAssignment) {
+        if (!USE_INDEX) {
+            return;
+        }
+
+        if (shardCatalog == null || shardCatalog.getNumberOfShards() != shardAssignment.getNumberOfShards()) {
+            // the indexes of another split of the documents are of no use anymore
+            shardToIndex.clear();
+            shardCatalog = new ShardCatalog(documents, shardAssignment.getNumberOfShards());
+        }
+        ShardCatalog catalog = shardCatalog;
+
+        Set<Integer> ownedShards = new HashSet<>();
+        for (SearchModel.ShardAssignment.Shard shard : shardAssignment.getShardsList()) {
+            if (shard.getWorkersList().contains(workerAddress)) {
+                ownedShards.add(shard.getShardId());
+            }
+        }
+
+        shardToIndex.keySet().retainAll(ownedShards);
+        for (int shardId : ownedShards) {
+            shardToIndex.computeIfAbsent(shardId, id -> CompletableFuture.supplyAsync(
+                    () -> buildIndex(id, catalog.getDocuments(id)), indexingExecutor));
+        }
+        System.out.println("Owning shards " + ownedShards);
+    }
+
+    private InvertedIndex buildIndex(int shardId, List<String> shardDocuments) {
+        long startTime = System.nanoTime();
+        InvertedIndex invertedIndex = new InvertedIndex();
+        for (String document : shardDocuments) {
+            invertedIndex.addDocument(document, parseWordsFromDocument(document));
+        }
+        long finishTime = System.nanoTime();
+        System.out.println(String.format("Indexed shard %d: %d documents with %d distinct terms in %d ms",
+                shardId, invertedIndex.getNumberOfDocuments(), invertedIndex.getNumberOfTerms(),
+                (finishTime - startTime) / 1_000_000));
+        return invertedIndex;
+    }
+
+    /**
+     * Tasks normally use the split of the latest assignment, but may still use the previous one while it changes
+     */
+    private ShardCatalog getShardCatalog(int numberOfShards) {
+        ShardCatalog catalog = shardCatalog;
+        if (catalog != null && catalog.getNumberOfShards() == numberOfShards) {
+            return catalog;
+        }
+        return new ShardCatalog(documents, numberOfShards);
+    }
+
+    /**
+     * @return the index of the document's shard, or null while it is not owned or still being built
+     */
+    private InvertedIndex getReadyIndex(String document) {
+        ShardCatalog catalog = shardCatalog;
+        if (catalog == null) {
+            return null;
+        }
+
+        CompletableFuture<InvertedIndex> index =
+                shardToIndex.get(ShardCatalog.getShardOf(document, catalog.getNumberOfShards()));
+        if (index == null || !index.isDone() || index.isCompletedExceptionally()) {
+            return null;
+        }
+        InvertedIndex invertedIndex = index.join();
+        return invertedIndex.containsDocument(document) ? invertedIndex : null;
+    }
 
     @Override
     public byte[] handleRequest(byte[] requestPayload) {
-        Task task = (Task) SerializationUtils.deserialize(requestPayload);
-        Result result = createResult(task);
-        return SerializationUtils.serialize(result);
+        // coordinators that predate the protobuf task format get their answer Java serialized as well
+        if (SerializationUtils.isJavaSerialized(requestPayload)) {
+            // they compute the inverse document frequency from the number of results, so every document is sent back
+            Task task = (Task) SerializationUtils.deserialize(requestPayload);
+            Result result = createResult(task, true);
+            return SerializationUtils.serialize(result);
+        }
+
+        try {
+            Task task = Task.fromProto(SearchModel.Task.parseFrom(requestPayload));
+            Result result = createResult(task, false);
+            return result.toProto().toByteArray();
+        } catch (InvalidProtocolBufferException e) {
+            e.printStackTrace();
+        }
+        return SearchModel.Result.getDefaultInstance().toByteArray();
     }
 
-    private Result createResult(Task task) {
-        List<String> documents = task.getDocuments();
-        System.out.println(String.format("Received %d documents to process", documents.size()));
+    private Result createResult(Task task, boolean includeNonMatchingDocuments) {
+        List<String> documents;
+        if (task.isShardTask()) {
+            documents = getShardCatalog(task.getNumberOfShards()).getDocuments(task.getShardId());
+            System.out.println(String.format("Received shard %d with %d documents to process",
+                    task.getShardId(), documents.size()));
+        } else {
+            documents = task.getDocuments();
+            System.out.println(String.format("Received %d documents to process", documents.size()));
+        }
 
         Result result = new Result();
+        result.setNumberOfDocuments(documents.size());
+        TermTable termTable = new TermTable(task.getSearchTerms());
+        AtomicInteger nextDocument = new AtomicInteger();
+        Deadline deadline = Deadline.after(task.getTimeBudgetMillis());
+        Runnable documentsProcessor =
+                () -> processDocuments(task, documents, termTable, includeNonMatchingDocuments, deadline, nextDocument, result);
 
-        for (String document : documents) {
-            List<String> words = parseWordsFromDocument(document);
-            DocumentData documentData = TFIDF.createDocumentData(words, task.getSearchTerms());
-            result.addDocumentData(document, documentData);
+        int numberOfThreads = documentsExecutor == null ? 1 : Math.min(MAX_THREADS_PER_TASK, documents.size());
+        List<Future<?>> futures = new ArrayList<>(numberOfThreads);
+        List<AtomicBoolean> helpersStarted = new ArrayList<>(numberOfThreads);
+        for (int i = 1; i < numberOfThreads; i++) {
+            AtomicBoolean started = new AtomicBoolean();
+            helpersStarted.add(started);
+            futures.add(documentsExecutor.submit(() -> {
+                if (started.compareAndSet(false, true)) {
+                    documentsProcessor.run();
+                }
+            }));
+        }
+
+        // the request thread takes its share of the documents instead of idling
+        documentsProcessor.run();
+
+        for (int i = 0; i < futures.size(); i++) {
+            // a helper still queued behind other tasks has no documents left to process, so it isn't waited for
+            if (helpersStarted.get(i).compareAndSet(false, true)) {
+                futures.get(i).cancel(false);
+                continue;
+            }
+            try {
+                futures.get(i).get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                e.printStackTrace();
+            } catch (ExecutionException e) {
+                e.printStackTrace();
+            }
+        }
+        if (result.isPartial()) {
+            System.out.println(String.format("Ran out of time after %d of %d documents",
+                    Math.min(nextDocument.get(), documents.size()), documents.size()));
         }
         return result;
     }
 
+    /**
+     * Documents are claimed one at a time, so threads that get small documents keep taking more.
+     * Once the deadline passes, the remaining documents are left out and the result is marked partial.
+     */
+    private void processDocuments(Task task,
+                                  List<String> documents,
+                                  TermTable termTable,
+                                  boolean includeNonMatchingDocuments,
+                                  Deadline deadline,
+                                  AtomicInteger nextDocument,
+                                  Result result) {
+        for (int i = nextDocument.getAndIncrement(); i < documents.size(); i = nextDocument.getAndIncrement()) {
+            if (deadline.isExpired()) {
+                result.setPartial(true);
+                return;
+            }
+            String document = documents.get(i);
+            DocumentData documentData;
+            InvertedIndex invertedIndex = getReadyIndex(document);
+            if (invertedIndex != null) {
+                documentData = invertedIndex.createDocumentData(document, task.getSearchTerms());
+            } else if (USE_MAPPED_FILES) {
+                TermCounter termCounter = new TermCounter(termTable);
+                scanDocument(document, termCounter);
+                documentData = termCounter.createDocumentData(task.getSearchTerms());
+            } else {
+                List<String> words = parseWordsFromDocument(document);
+                documentData = TFIDF.createDocumentData(words, task.getSearchTerms());
+            }
+            if (includeNonMatchingDocuments || documentData.containsAnyTerm()) {
+                result.addDocumentData(document, documentData);
+            }
+        }
+    }
+
     private List<String> parseWordsFromDocument(String document) {
+        if (USE_MAPPED_FILES) {
+            List<String> words = new ArrayList<>();
+            scanDocument(document, (buffer, offset, length) -> words.add(new String(buffer, offset, length)));
+            return words;
+        }
+
         try{
             FileReader fileReader = new FileReader(document);
             BufferedReader bufferedReader = new BufferedReader(fileReader);
@@ -48,6 +298,16 @@ public class SearchWorkerHandler implements OnRequestHandler {
         }
     }
 
+    private void scanDocument(String document, Tokenizer.TokenConsumer consumer) {
+        try {
+            SCANNER.get().scan(document, consumer);
+        } catch (FileNotFoundException e) {
+            // a missing document has no words, same as on the reader path
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
     @Override
     public String getEndpoint() {
         return ENDPOINT;
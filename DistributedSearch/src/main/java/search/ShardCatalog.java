@@ -0,0 +1,75 @@
+package search;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Splits the documents of the books directory into a fixed number of shards.
+ *
+ * A document's shard only depends on its file name, so the coordinator and every worker
+ * derive the same shards from their own copy of the directory, and adding documents doesn't move existing ones.
+ * The documents of a shard are kept largest first, so the ones left for the last free thread are the small ones.
+ */
+public class ShardCatalog {
+    private final int numberOfShards;
+    private final List<List<String>> shardToDocuments;
+    private final long[] shardToSize;
+
+    public ShardCatalog(List<String> documents, int numberOfShards) {
+        this.numberOfShards = numberOfShards;
+        this.shardToDocuments = new ArrayList<>(numberOfShards);
+        for (int i = 0; i < numberOfShards; i++) {
+            shardToDocuments.add(new ArrayList<>());
+        }
+
+        this.shardToSize = new long[numberOfShards];
+
+        Map<String, Long> documentToSize = new HashMap<>();
+        for (String document : documents) {
+            int shardId = getShardOf(document, numberOfShards);
+            long size = new File(document).length();
+            documentToSize.put(document, size);
+            shardToDocuments.get(shardId).add(document);
+            shardToSize[shardId] += size;
+        }
+
+        Comparator<String> largestFirst = Comparator.comparing(documentToSize::get, Comparator.reverseOrder());
+        for (List<String> shardDocuments : shardToDocuments) {
+            shardDocuments.sort(largestFirst.thenComparing(Comparator.naturalOrder()));
+        }
+    }
+
+    public static int getShardOf(String document, int numberOfShards) {
+        return Math.floorMod(new File(document).getName().hashCode(), numberOfShards);
+    }
+
+    public int getNumberOfShards() {
+        return numberOfShards;
+    }
+
+    /**
+     * @return the size in bytes of the documents of every shard
+     */
+    public long[] getShardSizes() {
+        return shardToSize.clone();
+    }
+
+    public long getShardSize(int shardId) {
+        if (shardId < 0 || shardId >= numberOfShards) {
+            return 0;
+        }
+        return shardToSize[shardId];
+    }
+
+    public List<String> getDocuments(int shardId) {
+        if (shardId < 0 || shardId >= numberOfShards) {
+            return Collections.emptyList();
+        }
+        return Collections.unmodifiableList(shardToDocuments.get(shardId));
+    }
+}
@@ -5,95 +5,111 @@ import model.DocumentData;
 import java.util.*;
 
 public class TFIDF {
-    public static double calculateTermFrequency(List<String> words, String term) {
-        long count = 0;
-        for (String word: words) {
-            if (term.equalsIgnoreCase(word)) {
-                count++;
-            }
-        }
-
-        return (double)count / words.size();
-    }
+    private static final boolean USE_REGEX_TOKENIZER = "regex".equalsIgnoreCase(System.getProperty("search.tokenizer", "streaming"));
+    private static final ThreadLocal<Tokenizer> TOKENIZER = ThreadLocal.withInitial(() -> new Tokenizer(false));
 
     public static DocumentData createDocumentData(List<String> words, List<String> terms) {
-        DocumentData documentData = new DocumentData();
-
-        terms.forEach(term ->
-                documentData.putTermFrequency(term, calculateTermFrequency(words, term)));
-
-        return documentData;
+        TermCounter termCounter = new TermCounter(new TermTable(terms));
+        for (String word : words) {
+            termCounter.add(word);
+        }
+        return termCounter.createDocumentData(terms);
     }
 
-    private static double getInverseDocumentFrequency(String term, Map<String, DocumentData> documentResults) {
+    private static double getInverseDocumentFrequency(int termIndex,
+                                                      Map<String, DocumentData> documentResults,
+                                                      int numberOfDocuments) {
         double nt = 0;
 
-        for (String document : documentResults.keySet()) {
-            DocumentData documentData = documentResults.get(document);
-            double termFrequency = documentData.getFrequency(term);
+        for (DocumentData documentData : documentResults.values()) {
+            double termFrequency = documentData.getFrequency(termIndex);
             if (termFrequency > 0.0) {
                 nt++;
             }
         }
 
-        return nt == 0 ? 0 : Math.log10(documentResults.size() / nt);
+        return nt == 0 ? 0 : Math.log10(numberOfDocuments / nt);
     }
 
-    private static Map<String, Double> getTermToInverseDocumentFrequency(List<String> terms,
-                                                            Map<String, DocumentData> documentResults) {
-        Map<String, Double> termToIDF = new HashMap<>();
-        for (String term : terms) {
-            double idf = getInverseDocumentFrequency(term, documentResults);
-            termToIDF.put(term, idf);
+    private static double[] getTermToInverseDocumentFrequency(List<String> terms,
+                                                              Map<String, DocumentData> documentResults,
+                                                              int numberOfDocuments) {
+        double[] termToIDF = new double[terms.size()];
+        for (int i = 0; i < termToIDF.length; i++) {
+            termToIDF[i] = getInverseDocumentFrequency(i, documentResults, numberOfDocuments);
         }
         return termToIDF;
     }
 
-    private static double calculateDocumentScore(List<String> terms,
-                                                 DocumentData documentData,
-                                                 Map<String, Double> termToInverseDocumentFrequency) {
+    private static double calculateDocumentScore(DocumentData documentData,
+                                                 double[] termToInverseDocumentFrequency) {
         double score = 0;
-        for (String term : terms) {
-            double termFrequency = documentData.getFrequency(term);
-            double inverseDocumentFrequency = termToInverseDocumentFrequency.get(term);
-            score += termFrequency * inverseDocumentFrequency;
+        for (int i = 0; i < termToInverseDocumentFrequency.length; i++) {
+            score += documentData.getFrequency(i) * termToInverseDocumentFrequency[i];
         }
         return score;
     }
 
-    public  static Map<Double, List<String>> getDocumentSortedByScore(List<String> terms,
-                                                                      Map<String, DocumentData> documentResults) {
-        TreeMap<Double, List<String>> scoreToDocuments = new TreeMap<>();
-
-        Map<String, Double> termToInverseDocumentFrequency = getTermToInverseDocumentFrequency(terms, documentResults);
-
-        for (String document : documentResults.keySet()){
-            DocumentData documentData = documentResults.get(document);
+    /**
+     * @param documentResults the documents containing at least one of the terms, others may be left out
+     * @param numberOfDocuments all the searched documents, including the ones left out of {@code documentResults}
+     * @return the {@code k} highest scoring documents with a positive score, highest score first
+     */
+    public static List<ScoredDocument> getTopDocumentsByScore(List<String> terms,
+                                                              Map<String, DocumentData> documentResults,
+                                                              int numberOfDocuments,
+                                                              int k) {
+        double[] termToInverseDocumentFrequency =
+                getTermToInverseDocumentFrequency(terms, documentResults, numberOfDocuments);
+
+        String[] documents = new String[documentResults.size()];
+        TopKSelector topKSelector = new TopKSelector(Math.min(k, documents.length));
+
+        int documentId = 0;
+        for (Map.Entry<String, DocumentData> documentResult : documentResults.entrySet()) {
+            documents[documentId] = documentResult.getKey();
+            double score = calculateDocumentScore(documentResult.getValue(), termToInverseDocumentFrequency);
+            if (score > 0.0) {
+                topKSelector.offer(score, documentId);
+            }
+            documentId++;
+        }
 
-            double score = calculateDocumentScore(terms, documentData, termToInverseDocumentFrequency);
+        double[] topScores = new double[topKSelector.size()];
+        int[] topDocumentIds = topKSelector.drainDescending(topScores);
 
-            addDocumentScoreToTreeMap(scoreToDocuments, score, document);
+        List<ScoredDocument> topDocuments = new ArrayList<>(topDocumentIds.length);
+        for (int i = 0; i < topDocumentIds.length; i++) {
+            topDocuments.add(new ScoredDocument(documents[topDocumentIds[i]], topScores[i]));
         }
-        return scoreToDocuments.descendingMap();
-    }
-
-    private static void addDocumentScoreToTreeMap(TreeMap<Double, List<String>> scoreToDoc,
-                                                  double score,
-                                                  String document) {
-        List<String> documentsWithCurrentScore = scoreToDoc.getOrDefault(score, new ArrayList<>());
-        documentsWithCurrentScore.add(document);
-        scoreToDoc.put(score, documentsWithCurrentScore);
+        return topDocuments;
     }
 
     public static List<String> getWordsFromLine(String line) {
-        return Arrays.asList(line.split("(\\.)+|(,)+|( )+|(-)+|(\\?)+|(!)+|(;)+|(:)+|(/d)+|(/n)+"));
+        if (USE_REGEX_TOKENIZER) {
+            return splitWithRegex(line);
+        }
+        return TOKENIZER.get().getTokens(line);
     }
 
     public static List<String> getWordsFromLines(List<String> lines) {
         List<String> words = new ArrayList<>();
+        if (USE_REGEX_TOKENIZER) {
+            for (String line : lines) {
+                words.addAll(splitWithRegex(line));
+            }
+            return words;
+        }
+
+        Tokenizer tokenizer = TOKENIZER.get();
+        Tokenizer.TokenConsumer collector = (buffer, offset, length) -> words.add(new String(buffer, offset, length));
         for (String line : lines) {
-            words.addAll(getWordsFromLine(line));
+            tokenizer.tokenize(line, collector);
         }
         return words;
     }
+
+    private static List<String> splitWithRegex(String line) {
+        return Arrays.asList(line.split("(\\.)+|(,)+|( )+|(-)+|(\\?)+|(!)+|(;)+|(:)+|(/d)+|(/n)+"));
+    }
 }
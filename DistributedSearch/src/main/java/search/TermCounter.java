@@ -0,0 +1,48 @@
+package search;
+
+import model.DocumentData;
+
+import java.util.List;
+
+/**
+ * Counts the occurrences of all the search terms of a query in a single pass over a document
+ */
+public class TermCounter implements Tokenizer.TokenConsumer {
+    private final TermTable termTable;
+    private final long[] counts;
+    private long numberOfWords = 0;
+
+    public TermCounter(TermTable termTable) {
+        this.termTable = termTable;
+        this.counts = new long[termTable.getNumberOfDistinctTerms()];
+    }
+
+    public void add(String word) {
+        int distinctTerm = termTable.indexOf(word);
+        if (distinctTerm >= 0) {
+            counts[distinctTerm]++;
+        }
+        numberOfWords++;
+    }
+
+    @Override
+    public void onToken(char[] buffer, int offset, int length) {
+        int distinctTerm = termTable.indexOf(buffer, offset, length);
+        if (distinctTerm >= 0) {
+            counts[distinctTerm]++;
+        }
+        numberOfWords++;
+    }
+
+    /**
+     * @param terms the terms the {@link TermTable} was built from
+     */
+    public DocumentData createDocumentData(List<String> terms) {
+        double[] frequencies = new double[terms.size()];
+        for (int i = 0; i < frequencies.length; i++) {
+            long count = counts[termTable.getDistinctTermIndex(i)];
+            frequencies[i] = (double) count / numberOfWords;
+        }
+        return new DocumentData(terms, frequencies);
+    }
+}
@@ -0,0 +1,124 @@
+package search;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Small open addressing lookup table from the search terms of a query to their position,
+ * matching tokens the same way {@link String#equalsIgnoreCase} does.
+ *
+ * Tokens are hashed straight from a char range, so looking up a token allocates nothing.
+ * The table is immutable and can be shared between threads.
+ */
+public class TermTable {
+    private static final int EMPTY_SLOT = -1;
+
+    private final char[][] distinctTerms;
+    private final int[] termToDistinctTerm;
+    private final int[] slots;
+    private final int mask;
+
+    public TermTable(List<String> terms) {
+        int capacity = Integer.highestOneBit(Math.max(terms.size(), 1) * 4 - 1) << 1;
+        this.slots = new int[capacity];
+        this.mask = capacity - 1;
+        Arrays.fill(slots, EMPTY_SLOT);
+
+        this.termToDistinctTerm = new int[terms.size()];
+        char[][] distinct = new char[terms.size()][];
+        int numberOfDistinctTerms = 0;
+
+        for (int i = 0; i < terms.size(); i++) {
+            char[] term = normalize(terms.get(i)).toCharArray();
+            int slot = findSlot(term, 0, term.length, distinct);
+            if (slots[slot] == EMPTY_SLOT) {
+                distinct[numberOfDistinctTerms] = term;
+                slots[slot] = numberOfDistinctTerms++;
+            }
+            termToDistinctTerm[i] = slots[slot];
+        }
+        this.distinctTerms = Arrays.copyOf(distinct, numberOfDistinctTerms);
+    }
+
+    public static String normalize(String term) {
+        char[] chars = term.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Tokenizer.foldCase(chars[i]);
+        }
+        return new String(chars);
+    }
+
+    public int getNumberOfDistinctTerms() {
+        return distinctTerms.length;
+    }
+
+    /**
+     * @return the distinct term index of the term at {@code termPosition} in the list the table was built from
+     */
+    public int getDistinctTermIndex(int termPosition) {
+        return termToDistinctTerm[termPosition];
+    }
+
+    /**
+     * @return the distinct term index of the word, or -1 when it is not a search term
+     */
+    public int indexOf(String word) {
+        int hash = 0;
+        int length = word.length();
+        for (int i = 0; i < length; i++) {
+            hash = 31 * hash + Tokenizer.foldCase(word.charAt(i));
+        }
+
+        for (int probe = (hash ^ (hash >>> 16)) & mask; ; probe = (probe + 1) & mask) {
+            int distinctTerm = slots[probe];
+            if (distinctTerm == EMPTY_SLOT) {
+                return EMPTY_SLOT;
+            }
+            if (matches(distinctTerms[distinctTerm], word)) {
+                return distinctTerm;
+            }
+        }
+    }
+
+    public int indexOf(char[] buffer, int offset, int length) {
+        return slots[findSlot(buffer, offset, length, distinctTerms)];
+    }
+
+    private int findSlot(char[] buffer, int offset, int length, char[][] terms) {
+        int hash = 0;
+        for (int i = offset; i < offset + length; i++) {
+            hash = 31 * hash + Tokenizer.foldCase(buffer[i]);
+        }
+
+        for (int probe = (hash ^ (hash >>> 16)) & mask; ; probe = (probe + 1) & mask) {
+            int distinctTerm = slots[probe];
+            if (distinctTerm == EMPTY_SLOT || matches(terms[distinctTerm], buffer, offset, length)) {
+                return probe;
+            }
+        }
+    }
+
+    private static boolean matches(char[] term, char[] buffer, int offset, int length) {
+        if (term.length != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (term[i] != Tokenizer.foldCase(buffer[offset + i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean matches(char[] term, String word) {
+        if (term.length != word.length()) {
+            return false;
+        }
+        for (int i = 0; i < term.length; i++) {
+            if (term[i] != Tokenizer.foldCase(word.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
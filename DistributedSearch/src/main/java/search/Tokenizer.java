@@ -0,0 +1,135 @@
+package search;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hand written equivalent of splitting a line with the {@link TFIDF} delimiter regex
+ * {@code (\.)+|(,)+|( )+|(-)+|(\?)+|(!)+|(;)+|(:)+|(/d)+|(/n)+}.
+ *
+ * Tokens are handed to a {@link TokenConsumer} as ranges of a reusable buffer, so scanning a line
+ * allocates nothing. It follows {@link String#split(String)} exactly: adjacent delimiter runs produce
+ * empty tokens, a leading delimiter produces a leading empty token, trailing empty tokens are dropped
+ * and a line without any delimiter is a single token, even when it is empty.
+ *
+ * A tokenizer keeps state between calls and must not be shared between threads.
+ */
+public class Tokenizer {
+    private static final int INITIAL_BUFFER_SIZE = 256;
+
+    private final boolean lowerCase;
+    private char[] lineBuffer = new char[INITIAL_BUFFER_SIZE];
+
+    public interface TokenConsumer {
+        /**
+         * The range is only valid until the method returns
+         */
+        void onToken(char[] buffer, int offset, int length);
+    }
+
+    /**
+     * @param lowerCase whether token characters are case folded the same way {@link String#equalsIgnoreCase} compares them
+     */
+    public Tokenizer(boolean lowerCase) {
+        this.lowerCase = lowerCase;
+    }
+
+    public void tokenize(String line, TokenConsumer consumer) {
+        int length = line.length();
+        if (lineBuffer.length < length) {
+            lineBuffer = new char[Math.max(length, lineBuffer.length * 2)];
+        }
+        line.getChars(0, length, lineBuffer, 0);
+        tokenize(lineBuffer, 0, length, consumer);
+    }
+
+    /**
+     * Tokenizes a single line held in {@code chars}. When lower casing, the token characters are folded in place.
+     */
+    public void tokenize(char[] chars, int offset, int length, TokenConsumer consumer) {
+        int end = offset + length;
+        int tokenStart = offset;
+        int pendingEmptyTokens = 0;
+        boolean foundDelimiter = false;
+
+        int i = offset;
+        while (i < end) {
+            int delimiterEnd = getDelimiterRunEnd(chars, i, end);
+            if (delimiterEnd == i) {
+                if (lowerCase) {
+                    chars[i] = foldCase(chars[i]);
+                }
+                i++;
+                continue;
+            }
+
+            foundDelimiter = true;
+            if (i == tokenStart) {
+                pendingEmptyTokens++;
+            } else {
+                pendingEmptyTokens = flushEmptyTokens(chars, tokenStart, pendingEmptyTokens, consumer);
+                consumer.onToken(chars, tokenStart, i - tokenStart);
+            }
+            i = delimiterEnd;
+            tokenStart = i;
+        }
+
+        if (!foundDelimiter) {
+            consumer.onToken(chars, offset, length);
+        } else if (tokenStart < end) {
+            flushEmptyTokens(chars, tokenStart, pendingEmptyTokens, consumer);
+            consumer.onToken(chars, tokenStart, end - tokenStart);
+        }
+    }
+
+    public List<String> getTokens(String line) {
+        List<String> tokens = new ArrayList<>();
+        tokenize(line, (buffer, offset, length) -> tokens.add(new String(buffer, offset, length)));
+        return tokens;
+    }
+
+    public static char foldCase(char c) {
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+
+    private static int flushEmptyTokens(char[] chars, int position, int emptyTokens, TokenConsumer consumer) {
+        for (int i = 0; i < emptyTokens; i++) {
+            consumer.onToken(chars, position, 0);
+        }
+        return 0;
+    }
+
+    /**
+     * @return the end of the delimiter run starting at {@code position}, or {@code position} when there is none
+     */
+    private static int getDelimiterRunEnd(char[] chars, int position, int end) {
+        char c = chars[position];
+        switch (c) {
+            case '.':
+            case ',':
+            case ' ':
+            case '-':
+            case '?':
+            case '!':
+            case ';':
+            case ':':
+                int runEnd = position + 1;
+                while (runEnd < end && chars[runEnd] == c) {
+                    runEnd++;
+                }
+                return runEnd;
+            case '/':
+                if (position + 1 >= end || (chars[position + 1] != 'd' && chars[position + 1] != 'n')) {
+                    return position;
+                }
+                char pairEnd = chars[position + 1];
+                int pairRunEnd = position + 2;
+                while (pairRunEnd + 1 < end && chars[pairRunEnd] == '/' && chars[pairRunEnd + 1] == pairEnd) {
+                    pairRunEnd += 2;
+                }
+                return pairRunEnd;
+            default:
+                return position;
+        }
+    }
+}
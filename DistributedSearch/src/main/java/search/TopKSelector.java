@@ -0,0 +1,92 @@
+package search;
+
+/**
+ * Keeps the K highest scores offered to it in a bounded min-heap of primitives,
+ * so ranking N documents costs O(N log K) and never allocates per document.
+ */
+public class TopKSelector {
+    private final double[] scores;
+    private final int[] ids;
+    private int size = 0;
+
+    public TopKSelector(int k) {
+        this.scores = new double[k];
+        this.ids = new int[k];
+    }
+
+    public void offer(double score, int id) {
+        if (scores.length == 0) {
+            return;
+        }
+        if (size < scores.length) {
+            scores[size] = score;
+            ids[size] = id;
+            siftUp(size++);
+        } else if (Double.compare(score, scores[0]) > 0) {
+            scores[0] = score;
+            ids[0] = id;
+            siftDown(0);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Empties the selector, highest score first
+     *
+     * @return the ids, while {@code scoresOut} receives the matching scores
+     */
+    public int[] drainDescending(double[] scoresOut) {
+        int[] sortedIds = new int[size];
+        for (int i = size - 1; i >= 0; i--) {
+            sortedIds[i] = ids[0];
+            scoresOut[i] = scores[0];
+            size--;
+            scores[0] = scores[size];
+            ids[0] = ids[size];
+            siftDown(0);
+        }
+        return sortedIds;
+    }
+
+    private void siftUp(int position) {
+        while (position > 0) {
+            int parent = (position - 1) / 2;
+            if (Double.compare(scores[position], scores[parent]) >= 0) {
+                return;
+            }
+            swap(position, parent);
+            position = parent;
+        }
+    }
+
+    private void siftDown(int position) {
+        while (true) {
+            int smallest = position;
+            int left = 2 * position + 1;
+            int right = left + 1;
+            if (left < size && Double.compare(scores[left], scores[smallest]) < 0) {
+                smallest = left;
+            }
+            if (right < size && Double.compare(scores[right], scores[smallest]) < 0) {
+                smallest = right;
+            }
+            if (smallest == position) {
+                return;
+            }
+            swap(position, smallest);
+            position = smallest;
+        }
+    }
+
+    private void swap(int i, int j) {
+        double score = scores[i];
+        scores[i] = scores[j];
+        scores[j] = score;
+        int id = ids[i];
+        ids[i] = ids[j];
+        ids[j] = id;
+    }
+}
@@ -0,0 +1,194 @@
+package networking;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Calls over a real connection to an RpcServer, or to a socket that stops answering
+ */
+public class RpcClientTest {
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final List<RpcServer> servers = new ArrayList<>();
+    private final List<ServerSocket> serverSockets = new ArrayList<>();
+
+    @After
+    public void tearDown() throws IOException {
+        for (RpcServer server : servers) {
+            server.stop();
+        }
+        for (ServerSocket serverSocket : serverSockets) {
+            serverSocket.close();
+        }
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void matchesResponsesToCallsAnsweredOutOfOrder() throws Exception {
+        RpcServer server = startServer(requestPayload -> {
+            sleep(ThreadLocalRandom.current().nextInt(20));
+            return ("echo " + new String(requestPayload, StandardCharsets.UTF_8)).getBytes(StandardCharsets.UTF_8);
+        });
+        RpcClient client = new RpcClient();
+
+        List<CompletableFuture<byte[]>> responses = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            responses.add(client.call("localhost", server.getPort(), ("call " + i).getBytes(StandardCharsets.UTF_8)));
+        }
+        for (int i = 0; i < responses.size(); i++) {
+            assertEquals("echo call " + i, new String(responses.get(i).get(10, TimeUnit.SECONDS), StandardCharsets.UTF_8));
+        }
+        assertTrue(client.isConnected("localhost", server.getPort()));
+    }
+
+    @Test
+    public void failsShedCallsAsUnavailable() throws Exception {
+        RpcServer server = startServer(requestPayload -> {
+            throw new ServiceUnavailableException("/task");
+        });
+
+        Throwable cause = getFailure(new RpcClient().call("localhost", server.getPort(), new byte[0]));
+        assertTrue(cause.toString(), cause instanceof ServiceUnavailableException);
+    }
+
+    @Test
+    public void failsCallsTheServerFailedWithoutBlamingTheConnection() throws Exception {
+        RpcServer server = startServer(requestPayload -> {
+            throw new IllegalStateException("expected by the test");
+        });
+        RpcClient client = new RpcClient();
+
+        Throwable cause = getFailure(client.call("localhost", server.getPort(), new byte[0]));
+        assertTrue(cause.toString(), cause instanceof IOException);
+        assertFalse(cause.toString(), cause instanceof RpcConnectionException);
+        assertTrue(client.isConnected("localhost", server.getPort()));
+    }
+
+    @Test
+    public void timesOutCallsOnTheirOwn() throws Exception {
+        RpcServer server = startServer(requestPayload -> {
+            if (requestPayload.length > 0) {
+                sleep(2000);
+            }
+            return requestPayload;
+        });
+        RpcClient client = new RpcClient(200, 2000, 10_000);
+
+        Throwable cause = getFailure(client.call("localhost", server.getPort(), new byte[]{1}));
+        assertTrue(cause.toString(), cause instanceof SocketTimeoutException);
+        assertEquals(0, client.call("localhost", server.getPort(), new byte[0]).get(5, TimeUnit.SECONDS).length);
+    }
+
+    @Test
+    public void failsToConnectWithConnectionException() throws Exception {
+        Throwable cause = getFailure(new RpcClient().call("localhost", findFreePort(), new byte[0]));
+        assertTrue(cause.toString(), cause instanceof RpcConnectionException);
+    }
+
+    @Test
+    public void failsCallsInFlightWhenTheServerStops() throws Exception {
+        CountDownLatch callReceived = new CountDownLatch(1);
+        RpcServer server = startServer(requestPayload -> {
+            callReceived.countDown();
+            sleep(5000);
+            return requestPayload;
+        });
+        RpcClient client = new RpcClient();
+
+        CompletableFuture<byte[]> response = client.call("localhost", server.getPort(), new byte[0]);
+        assertTrue(callReceived.await(5, TimeUnit.SECONDS));
+        server.stop();
+
+        Throwable cause = getFailure(response);
+        assertTrue(cause.toString(), cause instanceof RpcConnectionException);
+        assertFalse(client.isConnected("localhost", server.getPort()));
+    }
+
+    @Test
+    public void closesConnectionsThatStopAnsweringHeartbeats() throws Exception {
+        // accepts the connection and reads whatever comes, but never writes anything back
+        ServerSocket silentServer = new ServerSocket(0);
+        serverSockets.add(silentServer);
+        executor.execute(() -> {
+            try (Socket connection = silentServer.accept()) {
+                DataInputStream inputStream = new DataInputStream(connection.getInputStream());
+                while (inputStream.read() != -1) {
+                    // drop it
+                }
+            } catch (IOException e) {
+                // the test is over
+            }
+        });
+        RpcClient client = new RpcClient(30_000, 100, 500);
+
+        long startTime = System.nanoTime();
+        Throwable cause = getFailure(client.call("localhost", silentServer.getLocalPort(), new byte[0]));
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+
+        assertTrue(cause.toString(), cause instanceof RpcConnectionException);
+        assertTrue(cause.getCause().toString(), cause.getCause() instanceof SocketTimeoutException);
+        assertTrue("closed after " + elapsedMillis + " ms", elapsedMillis < 5000);
+        assertFalse(client.isConnected("localhost", silentServer.getLocalPort()));
+    }
+
+    @Test
+    public void keepsIdleConnectionsThatAnswerHeartbeats() throws Exception {
+        RpcServer server = startServer(requestPayload -> requestPayload);
+        RpcClient client = new RpcClient(30_000, 100, 500);
+
+        client.call("localhost", server.getPort(), new byte[0]).get(5, TimeUnit.SECONDS);
+        sleep(1500);
+        assertTrue(client.isConnected("localhost", server.getPort()));
+    }
+
+    private RpcServer startServer(RpcServer.RequestHandler requestHandler) throws IOException {
+        RpcServer server = new RpcServer(findFreePort(), executor, requestHandler);
+        server.start();
+        servers.add(server);
+        return server;
+    }
+
+    private static Throwable getFailure(CompletableFuture<byte[]> response) throws Exception {
+        try {
+            response.get(10, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            return e.getCause();
+        }
+        fail("the call succeeded");
+        return null;
+    }
+
+    static int findFreePort() throws IOException {
+        try (ServerSocket serverSocket = new ServerSocket(0)) {
+            return serverSocket.getLocalPort();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
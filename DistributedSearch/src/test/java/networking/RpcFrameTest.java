@@ -0,0 +1,94 @@
+package networking;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Frames have to come out of a stream exactly as they went in, and anything else has to be refused
+ */
+public class RpcFrameTest {
+
+    @Test
+    public void readsBackFramesWrittenOneAfterAnother() throws IOException {
+        byte[] largePayload = new byte[100_000];
+        for (int i = 0; i < largePayload.length; i++) {
+            largePayload[i] = (byte) i;
+        }
+        RpcFrame[] frames = {
+                new RpcFrame(1, RpcFrame.STATUS_OK, "task".getBytes(StandardCharsets.UTF_8)),
+                new RpcFrame(0, RpcFrame.STATUS_PING, new byte[0]),
+                new RpcFrame(Integer.MAX_VALUE, RpcFrame.STATUS_UNAVAILABLE, new byte[0]),
+                new RpcFrame(-1, RpcFrame.STATUS_ERROR, largePayload)
+        };
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream outputStream = new DataOutputStream(bytes);
+        RpcFrame.writePreamble(outputStream);
+        for (RpcFrame frame : frames) {
+            frame.writeTo(outputStream);
+        }
+
+        DataInputStream inputStream = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        RpcFrame.readPreamble(inputStream);
+        for (RpcFrame frame : frames) {
+            RpcFrame readFrame = RpcFrame.readFrom(inputStream);
+            assertEquals(frame.getCallId(), readFrame.getCallId());
+            assertEquals(frame.getStatus(), readFrame.getStatus());
+            assertArrayEquals(frame.getPayload(), readFrame.getPayload());
+        }
+        assertEquals(-1, inputStream.read());
+    }
+
+    @Test
+    public void refusesInvalidLengths() {
+        for (int length : new int[]{-1, 0, 4, 64 * 1024 * 1024 + 1, Integer.MAX_VALUE}) {
+            try {
+                RpcFrame.readFrom(streamOf(length, 1, RpcFrame.STATUS_OK));
+                fail("read a frame of length " + length);
+            } catch (IOException e) {
+                assertEquals("Invalid RPC frame length " + length, e.getMessage());
+            }
+        }
+    }
+
+    @Test(expected = EOFException.class)
+    public void failsOnTruncatedFrame() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        new RpcFrame(1, RpcFrame.STATUS_OK, new byte[10]).writeTo(new DataOutputStream(bytes));
+        byte[] truncated = new byte[bytes.size() - 1];
+        System.arraycopy(bytes.toByteArray(), 0, truncated, 0, truncated.length);
+
+        RpcFrame.readFrom(new DataInputStream(new ByteArrayInputStream(truncated)));
+    }
+
+    @Test
+    public void refusesConnectionsThatAreNotRpc() throws IOException {
+        byte[] httpRequest = "POST /task HTTP/1.1\r\n".getBytes(StandardCharsets.ISO_8859_1);
+        try {
+            RpcFrame.readPreamble(new DataInputStream(new ByteArrayInputStream(httpRequest)));
+            fail("took an HTTP request for an RPC connection");
+        } catch (IOException e) {
+            assertEquals("Not an RPC connection", e.getMessage());
+        }
+    }
+
+    private static DataInputStream streamOf(int length, int callId, byte status) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream outputStream = new DataOutputStream(bytes);
+        outputStream.writeInt(length);
+        outputStream.writeInt(callId);
+        outputStream.writeByte(status);
+        return new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+    }
+}
@@ -0,0 +1,105 @@
+package networking;
+
+import com.squareup.okhttp.Response;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tasks go over RPC to the servers that advertise it, and over HTTP when they can't
+ */
+public class WebClientTest {
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final AtomicInteger httpRequests = new AtomicInteger();
+    private WebServer httpServer;
+    private RpcServer rpcServer;
+    private String httpAddress;
+
+    @Before
+    public void setUp() throws Exception {
+        int port = RpcClientTest.findFreePort();
+        httpServer = new WebServer(port, new OnRequestHandler() {
+            @Override
+            public byte[] handleRequest(byte[] requestPayload) {
+                httpRequests.incrementAndGet();
+                return ("http " + new String(requestPayload, StandardCharsets.UTF_8)).getBytes(StandardCharsets.UTF_8);
+            }
+
+            @Override
+            public String getEndpoint() {
+                return "/task";
+            }
+        });
+        httpServer.startServer();
+        httpAddress = "http://localhost:" + port + "/task";
+    }
+
+    @After
+    public void tearDown() {
+        httpServer.stop();
+        if (rpcServer != null) {
+            rpcServer.stop();
+        }
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void callsOverRpcWhenAdvertised() throws Exception {
+        startRpcServer(requestPayload ->
+                ("rpc " + new String(requestPayload, StandardCharsets.UTF_8)).getBytes(StandardCharsets.UTF_8));
+
+        Response response = new WebClient().sendAsyncTask(rpcAddress(), "task".getBytes(StandardCharsets.UTF_8))
+                .get(10, TimeUnit.SECONDS);
+        assertEquals(200, response.code());
+        assertEquals("rpc task", response.body().string());
+        assertEquals(0, httpRequests.get());
+    }
+
+    @Test
+    public void fallsBackToHttpWhenRpcCannotConnect() throws Exception {
+        String address = httpAddress + "?" + RpcClient.PORT_QUERY_PARAMETER + "=" + RpcClientTest.findFreePort();
+        WebClient client = new WebClient();
+
+        for (int i = 0; i < 2; i++) {
+            Response response = client.sendAsyncTask(address, "task".getBytes(StandardCharsets.UTF_8))
+                    .get(10, TimeUnit.SECONDS);
+            assertEquals("http task", response.body().string());
+        }
+        assertEquals(2, httpRequests.get());
+    }
+
+    @Test
+    public void doesNotSendShedCallsAgainOverHttp() throws Exception {
+        startRpcServer(requestPayload -> {
+            throw new ServiceUnavailableException("/task");
+        });
+
+        try {
+            new WebClient().sendAsyncTask(rpcAddress(), new byte[0]).get(10, TimeUnit.SECONDS);
+            fail("the shed call succeeded");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause().toString(), e.getCause() instanceof ServiceUnavailableException);
+        }
+        assertEquals(0, httpRequests.get());
+    }
+
+    private void startRpcServer(RpcServer.RequestHandler requestHandler) throws Exception {
+        rpcServer = new RpcServer(RpcClientTest.findFreePort(), executor, requestHandler);
+        rpcServer.start();
+    }
+
+    private String rpcAddress() {
+        return httpAddress + "?" + RpcClient.PORT_QUERY_PARAMETER + "=" + rpcServer.getPort();
+    }
+}
@@ -0,0 +1,146 @@
+package networking;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Compares the {@link ServerExecutors} modes on a handler that blocks, the way a worker waits on the disk
+ * or a coordinator on its workers, and prints the throughput and latency percentiles of each.
+ *
+ * Usage: WebServerBenchmark [blockMillis] [concurrency] [requests] [modes...]
+ * where a mode is an executor, optionally prefixed with "nio:" to run it under {@link NioHttpServer}.
+ * It lives with the tests so it stays out of the jar, and runs on the test classpath, e.g.
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=networking.WebServerBenchmark
+ */
+public class WebServerBenchmark {
+    private static final int PORT = 8500;
+    private static final String ENDPOINT = "/task";
+    private static final String NIO_PREFIX = "nio:";
+
+    public static void main(String[] args) throws Exception {
+        long blockMillis = args.length > 0 ? Long.parseLong(args[0]) : 20;
+        int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+        int numberOfRequests = args.length > 2 ? Integer.parseInt(args[2]) : 5000;
+        List<String> modes = args.length > 3
+                ? Arrays.asList(args).subList(3, args.length)
+                : Arrays.asList(ServerExecutors.FIXED, ServerExecutors.CACHED, ServerExecutors.VIRTUAL,
+                        NIO_PREFIX + ServerExecutors.FIXED, NIO_PREFIX + ServerExecutors.VIRTUAL);
+
+        // otherwise the client keeps only 5 connections alive and reconnects for most requests
+        System.setProperty("http.maxConnections", String.valueOf(concurrency));
+        System.out.println(String.format("%d requests from %d clients, blocking %d ms each",
+                numberOfRequests, concurrency, blockMillis));
+
+        int port = PORT;
+        for (String mode : modes) {
+            boolean useNioServer = mode.startsWith(NIO_PREFIX);
+            String executorMode = useNioServer ? mode.substring(NIO_PREFIX.length()) : mode;
+            WebServer webServer = new WebServer(port, new BlockingHandler(blockMillis), executorMode, useNioServer);
+            webServer.startServer();
+            String url = "http://localhost:" + port + ENDPOINT;
+
+            sendRequests(url, concurrency, concurrency, new AtomicInteger());
+            long startTime = System.nanoTime();
+            AtomicInteger rejectedRequests = new AtomicInteger();
+            long[] latencies = sendRequests(url, concurrency, numberOfRequests, rejectedRequests);
+            long finishTime = System.nanoTime();
+            webServer.stop();
+            port++;
+
+            Arrays.sort(latencies);
+            double seconds = (finishTime - startTime) / 1e9;
+            System.out.println(String.format("%-12s %8.0f requests/s   p50 %6.1f ms   p99 %6.1f ms   max %6.1f ms   %d rejected",
+                    mode, latencies.length / seconds,
+                    getPercentile(latencies, 50) / 1e6, getPercentile(latencies, 99) / 1e6,
+                    latencies[latencies.length - 1] / 1e6, rejectedRequests.get()));
+        }
+    }
+
+    /**
+     * @return the latency of every request in nanoseconds, including the ones the server turned away
+     */
+    private static long[] sendRequests(String url, int concurrency, int numberOfRequests, AtomicInteger rejectedRequests)
+            throws Exception {
+        long[] latencies = new long[numberOfRequests];
+        AtomicInteger nextRequest = new AtomicInteger();
+        ExecutorService clients = Executors.newFixedThreadPool(concurrency);
+        List<Future<?>> futures = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            futures.add(clients.submit(() -> {
+                for (int request = nextRequest.getAndIncrement(); request < numberOfRequests;
+                     request = nextRequest.getAndIncrement()) {
+                    long startTime = System.nanoTime();
+                    if (!sendRequest(url)) {
+                        rejectedRequests.incrementAndGet();
+                    }
+                    latencies[request] = System.nanoTime() - startTime;
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        clients.shutdown();
+        return latencies;
+    }
+
+    /**
+     * @return false when the server was overloaded
+     */
+    private static boolean sendRequest(String url) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+        connection.setRequestMethod("POST");
+        connection.setDoOutput(true);
+        try (OutputStream outputStream = connection.getOutputStream()) {
+            outputStream.write(new byte[]{1});
+        }
+        if (connection.getResponseCode() == HttpURLConnection.HTTP_UNAVAILABLE) {
+            return false;
+        }
+        try (InputStream inputStream = connection.getInputStream()) {
+            while (inputStream.read() != -1) {
+                // the connection is only reused once the response is read in full
+            }
+        }
+        return true;
+    }
+
+    private static long getPercentile(long[] sortedValues, double percentile) {
+        int index = (int) Math.ceil(percentile / 100 * sortedValues.length) - 1;
+        return sortedValues[Math.max(0, index)];
+    }
+
+    private static class BlockingHandler implements OnRequestHandler {
+        private final long blockMillis;
+
+        BlockingHandler(long blockMillis) {
+            this.blockMillis = blockMillis;
+        }
+
+        @Override
+        public byte[] handleRequest(byte[] requestPayload) {
+            try {
+                Thread.sleep(blockMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return requestPayload;
+        }
+
+        @Override
+        public String getEndpoint() {
+            return ENDPOINT;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package search;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * The tokenizer has to produce exactly the tokens of the regex split it replaced
+ */
+public class TokenizerTest {
+    private static final String DELIMITER_REGEX = "(\\.)+|(,)+|( )+|(-)+|(\\?)+|(!)+|(;)+|(:)+|(/d)+|(/n)+";
+    // delimiters, near misses of the two character ones, and word characters, including some that fold in odd ways
+    private static final String[] PIECES = {
+            ".", ",", " ", "-", "?", "!", ";", ":", "/d", "/n", "/", "d", "n", "/x", "//d",
+            "a", "B", "whale", "Ahab", "\u0130", "\u00DF", "\u03A3", "\t", "'"
+    };
+
+    @Test
+    public void matchesSplitOnEdgeCases() {
+        String[] lines = {
+                "",
+                " ",
+                "word",
+                "two words",
+                " leading",
+                "  two leading",
+                "trailing ",
+                "trailing..",
+                "...",
+                "a..b",
+                "a.,b",
+                "a. ,b",
+                "a.-b-",
+                ",,a,,b,,",
+                "/d",
+                "a/db",
+                "a/d/db",
+                "a/d/nb",
+                "a/n/n",
+                "/n/na",
+                "a/",
+                "a/x/db",
+                "a//db",
+                "a/d/",
+                "a/d/d/",
+                "?!;:",
+                "end?!",
+                "mixed CASE Words, and-dashes; colons: /done",
+                "\u0130stanbul stra\u00DFe \u03A3\u03B9\u03C3\u03C5\u03C6\u03BF\u03C2"
+        };
+        for (String line : lines) {
+            assertTokensMatch(line);
+        }
+    }
+
+    @Test
+    public void matchesSplitOnRandomLines() {
+        Random random = new Random(42);
+        for (int i = 0; i < 200_000; i++) {
+            StringBuilder line = new StringBuilder();
+            int numberOfPieces = random.nextInt(12);
+            for (int j = 0; j < numberOfPieces; j++) {
+                line.append(PIECES[random.nextInt(PIECES.length)]);
+            }
+            assertTokensMatch(line.toString());
+        }
+    }
+
+    @Test
+    public void reusesBufferAcrossLinesOfDifferentLengths() {
+        Tokenizer tokenizer = new Tokenizer(false);
+        StringBuilder longLine = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            longLine.append("word").append(i).append(i % 3 == 0 ? ", " : " ");
+        }
+        for (String line : new String[]{"short line", longLine.toString(), "short again", ""}) {
+            assertEquals(line, Arrays.asList(line.split(DELIMITER_REGEX)), tokenizer.getTokens(line));
+        }
+    }
+
+    private static void assertTokensMatch(String line) {
+        List<String> expected = Arrays.asList(line.split(DELIMITER_REGEX));
+        assertEquals("tokens of \"" + line + "\"", expected, new Tokenizer(false).getTokens(line));
+
+        List<String> expectedFolded = new ArrayList<>(expected.size());
+        for (String token : expected) {
+            expectedFolded.add(foldCase(token));
+        }
+        assertEquals("folded tokens of \"" + line + "\"", expectedFolded, new Tokenizer(true).getTokens(line));
+    }
+
+    private static String foldCase(String token) {
+        char[] chars = token.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Tokenizer.foldCase(chars[i]);
+        }
+        return new String(chars);
+    }
+}
@@ -1,27 +1,45 @@
 package cluster.management;
 
 import org.apache.zookeeper.*;
-import org.apache.zookeeper.data.Stat;
 
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.ToDoubleFunction;
 
 public class ServiceRegistry implements Watcher {
+    // a burst of membership changes, like a rolling restart, is read back from ZooKeeper once
+    private static final long REFRESH_DEBOUNCE_MILLIS = Long.getLong("search.registry.debounceMillis", 50);
+    // how long the first reader waits for the background read, an empty list being returned after that
+    private static final long FIRST_READ_TIMEOUT_MILLIS = 5000;
+
     public static final String COORDINATOR_REGISTRY_ZNODE = "/coordinator_service_registry";
     private final ZooKeeper zooKeeper;
     private String currentZnode = null;
     private String serviceRegistryZnode;
-    private Random random;
 
-    // cache
-    private List<String> allServiceAddress = null;
+    // cache, an immutable snapshot replaced as a whole on every update, so reading it takes no lock
+    private volatile List<String> allServiceAddress = null;
+    private final CountDownLatch firstRead = new CountDownLatch(1);
+
+    // refreshes run off the ZooKeeper event thread, which has to stay free to deliver the async reads they wait for
+    private final ScheduledExecutorService refreshExecutor;
+    private final AtomicBoolean refreshScheduled = new AtomicBoolean(false);
 
     public ServiceRegistry(ZooKeeper zooKeeper, String serviceRegistryZnode) {
         this.zooKeeper = zooKeeper;
         this.serviceRegistryZnode = serviceRegistryZnode;
-        this.random = new Random();
+        this.refreshExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "service-registry-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
         createServiceRegistryZnode();
     }
 
@@ -31,33 +49,63 @@ public class ServiceRegistry implements Watcher {
         System.out.println("Registered to service registry");
     }
 
+    /**
+     * Starts watching the registry in the background. It may be called from a watcher,
+     * and the first use of the addresses waits for the background read if it has not finished yet.
+     */
     public void registerForUpdates() {
-        try {
-            updateAddress();
-        } catch (InterruptedException e) {
-            e.printStackTrace();
-        } catch (KeeperException e) {
-            e.printStackTrace();
-        }
+        scheduleRefresh(0);
     }
 
-    public synchronized String getRandomServiceAddress() throws KeeperException, InterruptedException {
-        if (allServiceAddress == null) {
-            updateAddress();
-        }
-        if (!allServiceAddress.isEmpty()) {
-            int randomIndex = random.nextInt(allServiceAddress.size());
-            return allServiceAddress.get(randomIndex);
+    public String getRandomServiceAddress() throws KeeperException, InterruptedException {
+        List<String> serviceAddresses = getAllServiceAddress();
+        if (!serviceAddresses.isEmpty()) {
+            int randomIndex = ThreadLocalRandom.current().nextInt(serviceAddresses.size());
+            return serviceAddresses.get(randomIndex);
         } else {
             return null;
         }
     }
 
-    public synchronized List<String> getAllServiceAddress() throws InterruptedException, KeeperException {
-        if (allServiceAddress == null) {
-            updateAddress();
+    /**
+     * Power of two choices: of two distinct random addresses, picks the least loaded one.
+     * Traffic moves away from slow or overloaded services, without all of it going to the least loaded one.
+     */
+    public String getLeastLoadedServiceAddress(ToDoubleFunction<String> addressToLoad)
+            throws KeeperException, InterruptedException {
+        List<String> serviceAddresses = getAllServiceAddress();
+        if (serviceAddresses.size() < 2) {
+            return serviceAddresses.isEmpty() ? null : serviceAddresses.get(0);
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int firstIndex = random.nextInt(serviceAddresses.size());
+        int secondIndex = random.nextInt(serviceAddresses.size() - 1);
+        if (secondIndex >= firstIndex) {
+            secondIndex++;
         }
-        return allServiceAddress;
+        String firstAddress = serviceAddresses.get(firstIndex);
+        String secondAddress = serviceAddresses.get(secondIndex);
+        return addressToLoad.applyAsDouble(secondAddress) < addressToLoad.applyAsDouble(firstAddress)
+                ? secondAddress
+                : firstAddress;
+    }
+
+    /**
+     * Never reads the registry itself, since the read waits for ZooKeeper callbacks, which a caller on the
+     * ZooKeeper event thread would block. Such a caller gets an empty list after the timeout instead of a deadlock.
+     */
+    public List<String> getAllServiceAddress() throws InterruptedException, KeeperException {
+        List<String> serviceAddresses = allServiceAddress;
+        if (serviceAddresses == null) {
+            registerForUpdates();
+            if (!firstRead.await(FIRST_READ_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                System.out.println("The addresses of " + serviceRegistryZnode + " are not read yet");
+                return Collections.emptyList();
+            }
+            serviceAddresses = allServiceAddress;
+        }
+        return serviceAddresses;
     }
 
     public void unregisterFromCluster() {
@@ -85,32 +133,71 @@ public class ServiceRegistry implements Watcher {
         }
     }
 
+    /**
+     * Updates are serialized, and build the next snapshot aside while readers keep using the current one.
+     * The addresses of all the znodes are requested at once, so a refresh takes about one round trip
+     * after listing them, however many services are registered.
+     */
     private synchronized void updateAddress() throws KeeperException, InterruptedException {
         List<String> workerZnodes = zooKeeper.getChildren(serviceRegistryZnode, this);
-        List<String> addresses = new ArrayList<>(workerZnodes.size());
+        String[] addresses = new String[workerZnodes.size()];
+        KeeperException.Code[] errors = new KeeperException.Code[workerZnodes.size()];
+        CountDownLatch pendingReads = new CountDownLatch(workerZnodes.size());
+
+        for (int i = 0; i < workerZnodes.size(); i++) {
+            String workerZnodeFullPath = serviceRegistryZnode + "/" + workerZnodes.get(i);
+            zooKeeper.getData(workerZnodeFullPath, false, (resultCode, path, context, addressBytes, stat) -> {
+                int index = (Integer) context;
+                KeeperException.Code code = KeeperException.Code.get(resultCode);
+                if (code == KeeperException.Code.OK) {
+                    addresses[index] = new String(addressBytes);
+                } else if (code != KeeperException.Code.NONODE) {
+                    // a znode deleted since it was listed is simply left out
+                    errors[index] = code;
+                }
+                pendingReads.countDown();
+            }, i);
+        }
+        pendingReads.await();
 
-        for (String workerZnode : workerZnodes) {
-            String workerZnodeFullPath = serviceRegistryZnode + "/" + workerZnode;
-            Stat stat = zooKeeper.exists(workerZnodeFullPath, false);
-            if (stat == null) {
-                continue;
+        List<String> allAddresses = new ArrayList<>(addresses.length);
+        for (int i = 0; i < addresses.length; i++) {
+            if (errors[i] != null) {
+                // keeps the current snapshot rather than publishing an incomplete one
+                throw KeeperException.create(errors[i], serviceRegistryZnode + "/" + workerZnodes.get(i));
+            }
+            if (addresses[i] != null) {
+                allAddresses.add(addresses[i]);
             }
-            byte[] addressBytes = zooKeeper.getData(workerZnodeFullPath, false, stat);
-            addresses.add(new String(addressBytes));
         }
 
-        this.allServiceAddress = Collections.unmodifiableList(addresses);
+        this.allServiceAddress = Collections.unmodifiableList(allAddresses);
+        firstRead.countDown();
         System.out.println("The cluster addresses are : " + this.allServiceAddress);
     }
 
+    /**
+     * Coalesces the refreshes requested until the scheduled one starts
+     */
+    private void scheduleRefresh(long delayMillis) {
+        if (!refreshScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        refreshExecutor.schedule(() -> {
+            // changes from here on need another refresh, since this one may read the registry before them
+            refreshScheduled.set(false);
+            try {
+                updateAddress();
+            } catch (KeeperException e) {
+                e.printStackTrace();
+            } catch (InterruptedException e) {
+                e.printStackTrace();
+            }
+        }, delayMillis, TimeUnit.MILLISECONDS);
+    }
+
     @Override
     public void process(WatchedEvent event) {
-        try {
-            updateAddress();
-        } catch (KeeperException e) {
-            e.printStackTrace();
-        } catch (InterruptedException e) {
-            e.printStackTrace();
-        }
+        scheduleRefresh(REFRESH_DEBOUNCE_MILLIS);
     }
 }
@@ -6,10 +6,13 @@ import java.util.List;
 public class FrontendSearchResponse {
     private List<SearchResultInfo> searchResults = Collections.emptyList();
     private String documentsLocation = "";
+    // some of the documents couldn't be searched in time
+    private boolean partial = false;
 
-    public FrontendSearchResponse(List<SearchResultInfo> searchResults, String documentsLocation) {
+    public FrontendSearchResponse(List<SearchResultInfo> searchResults, String documentsLocation, boolean partial) {
         this.searchResults = searchResults;
         this.documentsLocation = documentsLocation;
+        this.partial = partial;
     }
 
     public List<SearchResultInfo> getSearchResults() {
@@ -20,6 +23,10 @@ public class FrontendSearchResponse {
         return documentsLocation;
     }
 
+    public boolean isPartial() {
+        return partial;
+    }
+
     public static class SearchResultInfo {
         private String title;
         private String extension;
@@ -20,22 +20,82 @@ public final class SearchModel {
 
     /**
      * <code>required string seach_query = 1;</code>
+     * @return Whether the seachQuery field is set.
      */
     boolean hasSeachQuery();
     /**
      * <code>required string seach_query = 1;</code>
+     * @return The seachQuery.
      */
     java.lang.String getSeachQuery();
     /**
      * <code>required string seach_query = 1;</code>
+     * @return The bytes for seachQuery.
      */
     com.google.protobuf.ByteString
         getSeachQueryBytes();
+
+    /**
+     * <pre>
+     * only the best documents are returned, all of them when not set
+     * </pre>
+     *
+     * <code>optional int32 max_results = 2;</code>
+     * @return Whether the maxResults field is set.
+     */
+    boolean hasMaxResults();
+    /**
+     * <pre>
+     * only the best documents are returned, all of them when not set
+     * </pre>
+     *
+     * <code>optional int32 max_results = 2;</code>
+     * @return The maxResults.
+     */
+    int getMaxResults();
+
+    /**
+     * <pre>
+     * documents scoring below this percentage of the best document are left out
+     * </pre>
+     *
+     * <code>optional double min_score = 3;</code>
+     * @return Whether the minScore field is set.
+     */
+    boolean hasMinScore();
+    /**
+     * <pre>
+     * documents scoring below this percentage of the best document are left out
+     * </pre>
+     *
+     * <code>optional double min_score = 3;</code>
+     * @return The minScore.
+     */
+    double getMinScore();
+
+    /**
+     * <pre>
+     * how long the search may take in milliseconds, the results found by then are returned
+     * </pre>
+     *
+     * <code>optional int64 deadline_millis = 4;</code>
+     * @return Whether the deadlineMillis field is set.
+     */
+    boolean hasDeadlineMillis();
+    /**
+     * <pre>
+     * how long the search may take in milliseconds, the results found by then are returned
+     * </pre>
+     *
+     * <code>optional int64 deadline_millis = 4;</code>
+     * @return The deadlineMillis.
+     */
+    long getDeadlineMillis();
   }
   /**
    * Protobuf type {@code DistributedSearch.Request}
    */
-  public  static final class Request extends
+  public static final class Request extends
       com.google.protobuf.GeneratedMessageV3 implements
       // @@protoc_insertion_point(message_implements:DistributedSearch.Request)
       RequestOrBuilder {
@@ -48,6 +108,13 @@ public final class SearchModel {
       seachQuery_ = "";
     }
 
+    @java.lang.Override
+    @SuppressWarnings({"unused"})
+    protected java.lang.Object newInstance(
+        UnusedPrivateParameter unused) {
+      return new Request();
+    }
+
     @java.lang.Override
     public final com.google.protobuf.UnknownFieldSet
     getUnknownFields() {
@@ -78,6 +145,21 @@ public final class SearchModel {
               seachQuery_ = bs;
               break;
             }
+            case 16: {
+              bitField0_ |= 0x00000002;
+              maxResults_ = input.readInt32();
+              break;
+            }
+            case 25: {
+              bitField0_ |= 0x00000004;
+              minScore_ = input.readDouble();
+              break;
+            }
+            case 32: {
+              bitField0_ |= 0x00000008;
+              deadlineMillis_ = input.readInt64();
+              break;
+            }
             default: {
               if (!parseUnknownField(
                   input, unknownFields, extensionRegistry, tag)) {
@@ -89,6 +171,8 @@ public final class SearchModel {
         }
       } catch (com.google.protobuf.InvalidProtocolBufferException e) {
         throw e.setUnfinishedMessage(this);
+      } catch (com.google.protobuf.UninitializedMessageException e) {
+        throw e.asInvalidProtocolBufferException().setUnfinishedMessage(this);
       } catch (java.io.IOException e) {
         throw new com.google.protobuf.InvalidProtocolBufferException(
             e).setUnfinishedMessage(this);
@@ -115,13 +199,17 @@ public final class SearchModel {
     private volatile java.lang.Object seachQuery_;
     /**
      * <code>required string seach_query = 1;</code>
+     * @return Whether the seachQuery field is set.
      */
+    @java.lang.Override
     public boolean hasSeachQuery() {
-      return ((bitField0_ & 0x00000001) == 0x00000001);
+      return ((bitField0_ & 0x00000001) != 0);
     }
     /**
      * <code>required string seach_query = 1;</code>
+     * @return The seachQuery.
      */
+    @java.lang.Override
     public java.lang.String getSeachQuery() {
       java.lang.Object ref = seachQuery_;
       if (ref instanceof java.lang.String) {
@@ -138,7 +226,9 @@ public final class SearchModel {
     }
     /**
      * <code>required string seach_query = 1;</code>
+     * @return The bytes for seachQuery.
      */
+    @java.lang.Override
     public com.google.protobuf.ByteString
         getSeachQueryBytes() {
       java.lang.Object ref = seachQuery_;
@@ -153,6 +243,87 @@ public final class SearchModel {
       }
     }
 
+    public static final int MAX_RESULTS_FIELD_NUMBER = 2;
+    private int maxResults_;
+    /**
+     * <pre>
+     * only the best documents are returned, all of them when not set
+     * </pre>
+     *
+     * <code>optional int32 max_results = 2;</code>
+     * @return Whether the maxResults field is set.
+     */
+    @java.lang.Override
+    public boolean hasMaxResults() {
+      return ((bitField0_ & 0x00000002) != 0);
+    }
+    /**
+     * <pre>
+     * only the best documents are returned, all of them when not set
+     * </pre>
+     *
+     * <code>optional int32 max_results = 2;</code>
+     * @return The maxResults.
+     */
+    @java.lang.Override
+    public int getMaxResults() {
+      return maxResults_;
+    }
+
+    public static final int MIN_SCORE_FIELD_NUMBER = 3;
+    private double minScore_;
+    /**
+     * <pre>
+     * documents scoring below this percentage of the best document are left out
+     * </pre>
+     *
+     * <code>optional double min_score = 3;</code>
+     * @return Whether the minScore field is set.
+     */
+    @java.lang.Override
+    public boolean hasMinScore() {
+      return ((bitField0_ & 0x00000004) != 0);
+    }
+    /**
+     * <pre>
+     * documents scoring below this percentage of the best document are left out
+     * </pre>
+     *
+     * <code>optional double min_score = 3;</code>
+     * @return The minScore.
+     */
+    @java.lang.Override
+    public double getMinScore() {
+      return minScore_;
+    }
+
+    public static final int DEADLINE_MILLIS_FIELD_NUMBER = 4;
+    private long deadlineMillis_;
+    /**
+     * <pre>
+     * how long the search may take in milliseconds, the results found by then are returned
+     * </pre>
+     *
+     * <code>optional int64 deadline_millis = 4;</code>
+     * @return Whether the deadlineMillis field is set.
+     */
+    @java.lang.Override
+    public boolean hasDeadlineMillis() {
+      return ((bitField0_ & 0x00000008) != 0);
+    }
+    /**
+     * <pre>
+     * how long the search may take in milliseconds, the results found by then are returned
+     * </pre>
+     *
+     * <code>optional int64 deadline_millis = 4;</code>
+     * @return The deadlineMillis.
+     */
+    @java.lang.Override
+    public long getDeadlineMillis() {
+      return deadlineMillis_;
+    }
+
     private byte memoizedIsInitialized = -1;
     @java.lang.Override
     public final boolean isInitialized() {
@@ -171,9 +342,18 @@ public final class SearchModel {
     @java.lang.Override
     public void writeTo(com.google.protobuf.CodedOutputStream output)
                         throws java.io.IOException {
-      if (((bitField0_ & 0x00000001) == 0x00000001)) {
+      if (((bitField0_ & 0x00000001) != 0)) {
         com.google.protobuf.GeneratedMessageV3.writeString(output, 1, seachQuery_);
       }
+      if (((bitField0_ & 0x00000002) != 0)) {
+        output.writeInt32(2, maxResults_);
+      }
+      if (((bitField0_ & 0x00000004) != 0)) {
+        output.writeDouble(3, minScore_);
+      }
+      if (((bitField0_ & 0x00000008) != 0)) {
+        output.writeInt64(4, deadlineMillis_);
+      }
       unknownFields.writeTo(output);
     }
 
@@ -183,9 +363,21 @@ public final class SearchModel {
       if (size != -1) return size;
 
       size = 0;
-      if (((bitField0_ & 0x00000001) == 0x00000001)) {
+      if (((bitField0_ & 0x00000001) != 0)) {
         size += com.google.protobuf.GeneratedMessageV3.computeStringSize(1, seachQuery_);
       }
+      if (((bitField0_ & 0x00000002) != 0)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeInt32Size(2, maxResults_);
+      }
+      if (((bitField0_ & 0x00000004) != 0)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeDoubleSize(3, minScore_);
+      }
+      if (((bitField0_ & 0x00000008) != 0)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeInt64Size(4, deadlineMillis_);
+      }
       size += unknownFields.getSerializedSize();
       memoizedSize = size;
       return size;
@@ -201,14 +393,29 @@ public final class SearchModel {
       }
       model.proto.SearchModel.Request other = (model.proto.SearchModel.Request) obj;
 
-      boolean result = true;
-      result = result && (hasSeachQuery() == other.hasSeachQuery());
+      if (hasSeachQuery() != other.hasSeachQuery()) return false;
       if (hasSeachQuery()) {
-        result = result && getSeachQuery()
-            .equals(other.getSeachQuery());
-      }
-      result = result && unknownFields.equals(other.unknownFields);
-      return result;
+        if (!getSeachQuery()
+            .equals(other.getSeachQuery())) return false;
+      }
+      if (hasMaxResults() != other.hasMaxResults()) return false;
+      if (hasMaxResults()) {
+        if (getMaxResults()
+            != other.getMaxResults()) return false;
+      }
+      if (hasMinScore() != other.hasMinScore()) return false;
+      if (hasMinScore()) {
+        if (java.lang.Double.doubleToLongBits(getMinScore())
+            != java.lang.Double.doubleToLongBits(
+                other.getMinScore())) return false;
+      }
+      if (hasDeadlineMillis() != other.hasDeadlineMillis()) return false;
+      if (hasDeadlineMillis()) {
+        if (getDeadlineMillis()
+            != other.getDeadlineMillis()) return false;
+      }
+      if (!unknownFields.equals(other.unknownFields)) return false;
+      return true;
     }
 
     @java.lang.Override
@@ -222,6 +429,20 @@ public final class SearchModel {
         hash = (37 * hash) + SEACH_QUERY_FIELD_NUMBER;
         hash = (53 * hash) + getSeachQuery().hashCode();
       }
+      if (hasMaxResults()) {
+        hash = (37 * hash) + MAX_RESULTS_FIELD_NUMBER;
+        hash = (53 * hash) + getMaxResults();
+      }
+      if (hasMinScore()) {
+        hash = (37 * hash) + MIN_SCORE_FIELD_NUMBER;
+        hash = (53 * hash) + com.google.protobuf.Internal.hashLong(
+            java.lang.Double.doubleToLongBits(getMinScore()));
+      }
+      if (hasDeadlineMillis()) {
+        hash = (37 * hash) + DEADLINE_MILLIS_FIELD_NUMBER;
+        hash = (53 * hash) + com.google.protobuf.Internal.hashLong(
+            getDeadlineMillis());
+      }
       hash = (29 * hash) + unknownFields.hashCode();
       memoizedHashCode = hash;
       return hash;
@@ -357,6 +578,12 @@ public final class SearchModel {
         super.clear();
         seachQuery_ = "";
         bitField0_ = (bitField0_ & ~0x00000001);
+        maxResults_ = 0;
+        bitField0_ = (bitField0_ & ~0x00000002);
+        minScore_ = 0D;
+        bitField0_ = (bitField0_ & ~0x00000004);
+        deadlineMillis_ = 0L;
+        bitField0_ = (bitField0_ & ~0x00000008);
         return this;
       }
 
@@ -385,10 +612,22 @@ public final class SearchModel {
         model.proto.SearchModel.Request result = new model.proto.SearchModel.Request(this);
         int from_bitField0_ = bitField0_;
         int to_bitField0_ = 0;
-        if (((from_bitField0_ & 0x00000001) == 0x00000001)) {
+        if (((from_bitField0_ & 0x00000001) != 0)) {
           to_bitField0_ |= 0x00000001;
         }
         result.seachQuery_ = seachQuery_;
+        if (((from_bitField0_ & 0x00000002) != 0)) {
+          result.maxResults_ = maxResults_;
+          to_bitField0_ |= 0x00000002;
+        }
+        if (((from_bitField0_ & 0x00000004) != 0)) {
+          result.minScore_ = minScore_;
+          to_bitField0_ |= 0x00000004;
+        }
+        if (((from_bitField0_ & 0x00000008) != 0)) {
+          result.deadlineMillis_ = deadlineMillis_;
+          to_bitField0_ |= 0x00000008;
+        }
         result.bitField0_ = to_bitField0_;
         onBuilt();
         return result;
@@ -396,35 +635,35 @@ public final class SearchModel {
 
       @java.lang.Override
       public Builder clone() {
-        return (Builder) super.clone();
+        return super.clone();
       }
       @java.lang.Override
       public Builder setField(
           com.google.protobuf.Descriptors.FieldDescriptor field,
           java.lang.Object value) {
-        return (Builder) super.setField(field, value);
+        return super.setField(field, value);
       }
       @java.lang.Override
       public Builder clearField(
           com.google.protobuf.Descriptors.FieldDescriptor field) {
-        return (Builder) super.clearField(field);
+        return super.clearField(field);
       }
       @java.lang.Override
       public Builder clearOneof(
           com.google.protobuf.Descriptors.OneofDescriptor oneof) {
-        return (Builder) super.clearOneof(oneof);
+        return super.clearOneof(oneof);
       }
       @java.lang.Override
       public Builder setRepeatedField(
           com.google.protobuf.Descriptors.FieldDescriptor field,
           int index, java.lang.Object value) {
-        return (Builder) super.setRepeatedField(field, index, value);
+        return super.setRepeatedField(field, index, value);
       }
       @java.lang.Override
       public Builder addRepeatedField(
           com.google.protobuf.Descriptors.FieldDescriptor field,
           java.lang.Object value) {
-        return (Builder) super.addRepeatedField(field, value);
+        return super.addRepeatedField(field, value);
       }
       @java.lang.Override
       public Builder mergeFrom(com.google.protobuf.Message other) {
@@ -443,6 +682,15 @@ public final class SearchModel {
           seachQuery_ = other.seachQuery_;
           onChanged();
         }
+        if (other.hasMaxResults()) {
+          setMaxResults(other.getMaxResults());
+        }
+        if (other.hasMinScore()) {
+          setMinScore(other.getMinScore());
+        }
+        if (other.hasDeadlineMillis()) {
+          setDeadlineMillis(other.getDeadlineMillis());
+        }
         this.mergeUnknownFields(other.unknownFields);
         onChanged();
         return this;
@@ -479,12 +727,14 @@ public final class SearchModel {
       private java.lang.Object seachQuery_ = "";
       /**
        * <code>required string seach_query = 1;</code>
+       * @return Whether the seachQuery field is set.
        */
       public boolean hasSeachQuery() {
-        return ((bitField0_ & 0x00000001) == 0x00000001);
+        return ((bitField0_ & 0x00000001) != 0);
       }
       /**
        * <code>required string seach_query = 1;</code>
+       * @return The seachQuery.
        */
       public java.lang.String getSeachQuery() {
         java.lang.Object ref = seachQuery_;
@@ -502,6 +752,7 @@ public final class SearchModel {
       }
       /**
        * <code>required string seach_query = 1;</code>
+       * @return The bytes for seachQuery.
        */
       public com.google.protobuf.ByteString
           getSeachQueryBytes() {
@@ -518,6 +769,8 @@ public final class SearchModel {
       }
       /**
        * <code>required string seach_query = 1;</code>
+       * @param value The seachQuery to set.
+       * @return This builder for chaining.
        */
       public Builder setSeachQuery(
           java.lang.String value) {
@@ -531,6 +784,7 @@ public final class SearchModel {
       }
       /**
        * <code>required string seach_query = 1;</code>
+       * @return This builder for chaining.
        */
       public Builder clearSeachQuery() {
         bitField0_ = (bitField0_ & ~0x00000001);
@@ -540,6 +794,8 @@ public final class SearchModel {
       }
       /**
        * <code>required string seach_query = 1;</code>
+       * @param value The bytes for seachQuery to set.
+       * @return This builder for chaining.
        */
       public Builder setSeachQueryBytes(
           com.google.protobuf.ByteString value) {
@@ -551,6 +807,171 @@ public final class SearchModel {
         onChanged();
         return this;
       }
+
+      private int maxResults_ ;
+      /**
+       * <pre>
+       * only the best documents are returned, all of them when not set
+       * </pre>
+       *
+       * <code>optional int32 max_results = 2;</code>
+       * @return Whether the maxResults field is set.
+       */
+      @java.lang.Override
+      public boolean hasMaxResults() {
+        return ((bitField0_ & 0x00000002) != 0);
+      }
+      /**
+       * <pre>
+       * only the best documents are returned, all of them when not set
+       * </pre>
+       *
+       * <code>optional int32 max_results = 2;</code>
+       * @return The maxResults.
+       */
+      @java.lang.Override
+      public int getMaxResults() {
+        return maxResults_;
+      }
+      /**
+       * <pre>
+       * only the best documents are returned, all of them when not set
+       * </pre>
+       *
+       * <code>optional int32 max_results = 2;</code>
+       * @param value The maxResults to set.
+       * @return This builder for chaining.
+       */
+      public Builder setMaxResults(int value) {
+        bitField0_ |= 0x00000002;
+        maxResults_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * only the best documents are returned, all of them when not set
+       * </pre>
+       *
+       * <code>optional int32 max_results = 2;</code>
+       * @return This builder for chaining.
+       */
+      public Builder clearMaxResults() {
+        bitField0_ = (bitField0_ & ~0x00000002);
+        maxResults_ = 0;
+        onChanged();
+        return this;
+      }
+
+      private double minScore_ ;
+      /**
+       * <pre>
+       * documents scoring below this percentage of the best document are left out
+       * </pre>
+       *
+       * <code>optional double min_score = 3;</code>
+       * @return Whether the minScore field is set.
+       */
+      @java.lang.Override
+      public boolean hasMinScore() {
+        return ((bitField0_ & 0x00000004) != 0);
+      }
+      /**
+       * <pre>
+       * documents scoring below this percentage of the best document are left out
+       * </pre>
+       *
+       * <code>optional double min_score = 3;</code>
+       * @return The minScore.
+       */
+      @java.lang.Override
+      public double getMinScore() {
+        return minScore_;
+      }
+      /**
+       * <pre>
+       * documents scoring below this percentage of the best document are left out
+       * </pre>
+       *
+       * <code>optional double min_score = 3;</code>
+       * @param value The minScore to set.
+       * @return This builder for chaining.
+       */
+      public Builder setMinScore(double value) {
+        bitField0_ |= 0x00000004;
+        minScore_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * documents scoring below this percentage of the best document are left out
+       * </pre>
+       *
+       * <code>optional double min_score = 3;</code>
+       * @return This builder for chaining.
+       */
+      public Builder clearMinScore() {
+        bitField0_ = (bitField0_ & ~0x00000004);
+        minScore_ = 0D;
+        onChanged();
+        return this;
+      }
+
+      private long deadlineMillis_ ;
+      /**
+       * <pre>
+       * how long the search may take in milliseconds, the results found by then are returned
+       * </pre>
+       *
+       * <code>optional int64 deadline_millis = 4;</code>
+       * @return Whether the deadlineMillis field is set.
+       */
+      @java.lang.Override
+      public boolean hasDeadlineMillis() {
+        return ((bitField0_ & 0x00000008) != 0);
+      }
+      /**
+       * <pre>
+       * how long the search may take in milliseconds, the results found by then are returned
+       * </pre>
+       *
+       * <code>optional int64 deadline_millis = 4;</code>
+       * @return The deadlineMillis.
+       */
+      @java.lang.Override
+      public long getDeadlineMillis() {
+        return deadlineMillis_;
+      }
+      /**
+       * <pre>
+       * how long the search may take in milliseconds, the results found by then are returned
+       * </pre>
+       *
+       * <code>optional int64 deadline_millis = 4;</code>
+       * @param value The deadlineMillis to set.
+       * @return This builder for chaining.
+       */
+      public Builder setDeadlineMillis(long value) {
+        bitField0_ |= 0x00000008;
+        deadlineMillis_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * how long the search may take in milliseconds, the results found by then are returned
+       * </pre>
+       *
+       * <code>optional int64 deadline_millis = 4;</code>
+       * @return This builder for chaining.
+       */
+      public Builder clearDeadlineMillis() {
+        bitField0_ = (bitField0_ & ~0x00000008);
+        deadlineMillis_ = 0L;
+        onChanged();
+        return this;
+      }
       @java.lang.Override
       public final Builder setUnknownFields(
           final com.google.protobuf.UnknownFieldSet unknownFields) {
@@ -631,11 +1052,47 @@ public final class SearchModel {
      */
     model.proto.SearchModel.Response.DocumentStatsOrBuilder getRelevantDocumentsOrBuilder(
         int index);
+
+    /**
+     * <pre>
+     * set when some shards didn't answer in time or failed, their documents are missing from the results
+     * </pre>
+     *
+     * <code>optional bool partial = 2;</code>
+     * @return Whether the partial field is set.
+     */
+    boolean hasPartial();
+    /**
+     * <pre>
+     * set when some shards didn't answer in time or failed, their documents are missing from the results
+     * </pre>
+     *
+     * <code>optional bool partial = 2;</code>
+     * @return The partial.
+     */
+    boolean getPartial();
+
+    /**
+     * <code>repeated int32 missing_shards = 3;</code>
+     * @return A list containing the missingShards.
+     */
+    java.util.List<java.lang.Integer> getMissingShardsList();
+    /**
+     * <code>repeated int32 missing_shards = 3;</code>
+     * @return The count of missingShards.
+     */
+    int getMissingShardsCount();
+    /**
+     * <code>repeated int32 missing_shards = 3;</code>
+     * @param index The index of the element to return.
+     * @return The missingShards at the given index.
+     */
+    int getMissingShards(int index);
   }
   /**
    * Protobuf type {@code DistributedSearch.Response}
    */
-  public  static final class Response extends
+  public static final class Response extends
       com.google.protobuf.GeneratedMessageV3 implements
       // @@protoc_insertion_point(message_implements:DistributedSearch.Response)
       ResponseOrBuilder {
@@ -646,6 +1103,14 @@ public final class SearchModel {
     }
     private Response() {
       relevantDocuments_ = java.util.Collections.emptyList();
+      missingShards_ = emptyIntList();
+    }
+
+    @java.lang.Override
+    @SuppressWarnings({"unused"})
+    protected java.lang.Object newInstance(
+        UnusedPrivateParameter unused) {
+      return new Response();
     }
 
     @java.lang.Override
@@ -673,7 +1138,7 @@ public final class SearchModel {
               done = true;
               break;
             case 10: {
-              if (!((mutable_bitField0_ & 0x00000001) == 0x00000001)) {
+              if (!((mutable_bitField0_ & 0x00000001) != 0)) {
                 relevantDocuments_ = new java.util.ArrayList<model.proto.SearchModel.Response.DocumentStats>();
                 mutable_bitField0_ |= 0x00000001;
               }
@@ -681,6 +1146,32 @@ public final class SearchModel {
                   input.readMessage(model.proto.SearchModel.Response.DocumentStats.PARSER, extensionRegistry));
               break;
             }
+            case 16: {
+              bitField0_ |= 0x00000001;
+              partial_ = input.readBool();
+              break;
+            }
+            case 24: {
+              if (!((mutable_bitField0_ & 0x00000004) != 0)) {
+                missingShards_ = newIntList();
+                mutable_bitField0_ |= 0x00000004;
+              }
+              missingShards_.addInt(input.readInt32());
+              break;
+            }
+            case 26: {
+              int length = input.readRawVarint32();
+              int limit = input.pushLimit(length);
+              if (!((mutable_bitField0_ & 0x00000004) != 0) && input.getBytesUntilLimit() > 0) {
+                missingShards_ = newIntList();
+                mutable_bitField0_ |= 0x00000004;
+              }
+              while (input.getBytesUntilLimit() > 0) {
+                missingShards_.addInt(input.readInt32());
+              }
+              input.popLimit(limit);
+              break;
+            }
             default: {
               if (!parseUnknownField(
                   input, unknownFields, extensionRegistry, tag)) {
@@ -692,13 +1183,18 @@ public final class SearchModel {
         }
       } catch (com.google.protobuf.InvalidProtocolBufferException e) {
         throw e.setUnfinishedMessage(this);
+      } catch (com.google.protobuf.UninitializedMessageException e) {
+        throw e.asInvalidProtocolBufferException().setUnfinishedMessage(this);
       } catch (java.io.IOException e) {
         throw new com.google.protobuf.InvalidProtocolBufferException(
             e).setUnfinishedMessage(this);
       } finally {
-        if (((mutable_bitField0_ & 0x00000001) == 0x00000001)) {
+        if (((mutable_bitField0_ & 0x00000001) != 0)) {
           relevantDocuments_ = java.util.Collections.unmodifiableList(relevantDocuments_);
         }
+        if (((mutable_bitField0_ & 0x00000004) != 0)) {
+          missingShards_.makeImmutable(); // C
+        }
         this.unknownFields = unknownFields.build();
         makeExtensionsImmutable();
       }
@@ -722,40 +1218,47 @@ public final class SearchModel {
 
       /**
        * <code>required string document_name = 1;</code>
+       * @return Whether the documentName field is set.
        */
       boolean hasDocumentName();
       /**
        * <code>required string document_name = 1;</code>
+       * @return The documentName.
        */
       java.lang.String getDocumentName();
       /**
        * <code>required string document_name = 1;</code>
+       * @return The bytes for documentName.
        */
       com.google.protobuf.ByteString
           getDocumentNameBytes();
 
       /**
        * <code>optional double score = 2;</code>
+       * @return Whether the score field is set.
        */
       boolean hasScore();
       /**
        * <code>optional double score = 2;</code>
+       * @return The score.
        */
       double getScore();
 
       /**
        * <code>optional int64 document_size = 3;</code>
+       * @return Whether the documentSize field is set.
        */
       boolean hasDocumentSize();
       /**
        * <code>optional int64 document_size = 3;</code>
+       * @return The documentSize.
        */
       long getDocumentSize();
     }
     /**
      * Protobuf type {@code DistributedSearch.Response.DocumentStats}
      */
-    public  static final class DocumentStats extends
+    public static final class DocumentStats extends
         com.google.protobuf.GeneratedMessageV3 implements
         // @@protoc_insertion_point(message_implements:DistributedSearch.Response.DocumentStats)
         DocumentStatsOrBuilder {
@@ -766,8 +1269,13 @@ public final class SearchModel {
       }
       private DocumentStats() {
         documentName_ = "";
-        score_ = 0D;
-        documentSize_ = 0L;
+      }
+
+      @java.lang.Override
+      @SuppressWarnings({"unused"})
+      protected java.lang.Object newInstance(
+          UnusedPrivateParameter unused) {
+        return new DocumentStats();
       }
 
       @java.lang.Override
@@ -821,6 +1329,8 @@ public final class SearchModel {
           }
         } catch (com.google.protobuf.InvalidProtocolBufferException e) {
           throw e.setUnfinishedMessage(this);
+        } catch (com.google.protobuf.UninitializedMessageException e) {
+          throw e.asInvalidProtocolBufferException().setUnfinishedMessage(this);
         } catch (java.io.IOException e) {
           throw new com.google.protobuf.InvalidProtocolBufferException(
               e).setUnfinishedMessage(this);
@@ -847,13 +1357,17 @@ public final class SearchModel {
       private volatile java.lang.Object documentName_;
       /**
        * <code>required string document_name = 1;</code>
+       * @return Whether the documentName field is set.
        */
+      @java.lang.Override
       public boolean hasDocumentName() {
-        return ((bitField0_ & 0x00000001) == 0x00000001);
+        return ((bitField0_ & 0x00000001) != 0);
       }
       /**
        * <code>required string document_name = 1;</code>
+       * @return The documentName.
        */
+      @java.lang.Override
       public java.lang.String getDocumentName() {
         java.lang.Object ref = documentName_;
         if (ref instanceof java.lang.String) {
@@ -870,7 +1384,9 @@ public final class SearchModel {
       }
       /**
        * <code>required string document_name = 1;</code>
+       * @return The bytes for documentName.
        */
+      @java.lang.Override
       public com.google.protobuf.ByteString
           getDocumentNameBytes() {
         java.lang.Object ref = documentName_;
@@ -889,13 +1405,17 @@ public final class SearchModel {
       private double score_;
       /**
        * <code>optional double score = 2;</code>
+       * @return Whether the score field is set.
        */
+      @java.lang.Override
       public boolean hasScore() {
-        return ((bitField0_ & 0x00000002) == 0x00000002);
+        return ((bitField0_ & 0x00000002) != 0);
       }
       /**
        * <code>optional double score = 2;</code>
+       * @return The score.
        */
+      @java.lang.Override
       public double getScore() {
         return score_;
       }
@@ -904,13 +1424,17 @@ public final class SearchModel {
       private long documentSize_;
       /**
        * <code>optional int64 document_size = 3;</code>
+       * @return Whether the documentSize field is set.
        */
+      @java.lang.Override
       public boolean hasDocumentSize() {
-        return ((bitField0_ & 0x00000004) == 0x00000004);
+        return ((bitField0_ & 0x00000004) != 0);
       }
       /**
        * <code>optional int64 document_size = 3;</code>
+       * @return The documentSize.
        */
+      @java.lang.Override
       public long getDocumentSize() {
         return documentSize_;
       }
@@ -933,13 +1457,13 @@ public final class SearchModel {
       @java.lang.Override
       public void writeTo(com.google.protobuf.CodedOutputStream output)
                           throws java.io.IOException {
-        if (((bitField0_ & 0x00000001) == 0x00000001)) {
+        if (((bitField0_ & 0x00000001) != 0)) {
           com.google.protobuf.GeneratedMessageV3.writeString(output, 1, documentName_);
         }
-        if (((bitField0_ & 0x00000002) == 0x00000002)) {
+        if (((bitField0_ & 0x00000002) != 0)) {
           output.writeDouble(2, score_);
         }
-        if (((bitField0_ & 0x00000004) == 0x00000004)) {
+        if (((bitField0_ & 0x00000004) != 0)) {
           output.writeInt64(3, documentSize_);
         }
         unknownFields.writeTo(output);
@@ -951,14 +1475,14 @@ public final class SearchModel {
         if (size != -1) return size;
 
         size = 0;
-        if (((bitField0_ & 0x00000001) == 0x00000001)) {
+        if (((bitField0_ & 0x00000001) != 0)) {
           size += com.google.protobuf.GeneratedMessageV3.computeStringSize(1, documentName_);
         }
-        if (((bitField0_ & 0x00000002) == 0x00000002)) {
+        if (((bitField0_ & 0x00000002) != 0)) {
           size += com.google.protobuf.CodedOutputStream
             .computeDoubleSize(2, score_);
         }
-        if (((bitField0_ & 0x00000004) == 0x00000004)) {
+        if (((bitField0_ & 0x00000004) != 0)) {
           size += com.google.protobuf.CodedOutputStream
             .computeInt64Size(3, documentSize_);
         }
@@ -977,26 +1501,24 @@ public final class SearchModel {
         }
         model.proto.SearchModel.Response.DocumentStats other = (model.proto.SearchModel.Response.DocumentStats) obj;
 
-        boolean result = true;
-        result = result && (hasDocumentName() == other.hasDocumentName());
+        if (hasDocumentName() != other.hasDocumentName()) return false;
         if (hasDocumentName()) {
-          result = result && getDocumentName()
-              .equals(other.getDocumentName());
+          if (!getDocumentName()
+              .equals(other.getDocumentName())) return false;
         }
-        result = result && (hasScore() == other.hasScore());
+        if (hasScore() != other.hasScore()) return false;
         if (hasScore()) {
-          result = result && (
-              java.lang.Double.doubleToLongBits(getScore())
-              == java.lang.Double.doubleToLongBits(
-                  other.getScore()));
+          if (java.lang.Double.doubleToLongBits(getScore())
+              != java.lang.Double.doubleToLongBits(
+                  other.getScore())) return false;
         }
-        result = result && (hasDocumentSize() == other.hasDocumentSize());
+        if (hasDocumentSize() != other.hasDocumentSize()) return false;
         if (hasDocumentSize()) {
-          result = result && (getDocumentSize()
-              == other.getDocumentSize());
+          if (getDocumentSize()
+              != other.getDocumentSize()) return false;
         }
-        result = result && unknownFields.equals(other.unknownFields);
-        return result;
+        if (!unknownFields.equals(other.unknownFields)) return false;
+        return true;
       }
 
       @java.lang.Override
@@ -1187,18 +1709,18 @@ public final class SearchModel {
           model.proto.SearchModel.Response.DocumentStats result = new model.proto.SearchModel.Response.DocumentStats(this);
           int from_bitField0_ = bitField0_;
           int to_bitField0_ = 0;
-          if (((from_bitField0_ & 0x00000001) == 0x00000001)) {
+          if (((from_bitField0_ & 0x00000001) != 0)) {
             to_bitField0_ |= 0x00000001;
           }
           result.documentName_ = documentName_;
-          if (((from_bitField0_ & 0x00000002) == 0x00000002)) {
+          if (((from_bitField0_ & 0x00000002) != 0)) {
+            result.score_ = score_;
             to_bitField0_ |= 0x00000002;
           }
-          result.score_ = score_;
-          if (((from_bitField0_ & 0x00000004) == 0x00000004)) {
+          if (((from_bitField0_ & 0x00000004) != 0)) {
+            result.documentSize_ = documentSize_;
             to_bitField0_ |= 0x00000004;
           }
-          result.documentSize_ = documentSize_;
           result.bitField0_ = to_bitField0_;
           onBuilt();
           return result;
@@ -1206,35 +1728,35 @@ public final class SearchModel {
 
         @java.lang.Override
         public Builder clone() {
-          return (Builder) super.clone();
+          return super.clone();
         }
         @java.lang.Override
         public Builder setField(
             com.google.protobuf.Descriptors.FieldDescriptor field,
             java.lang.Object value) {
-          return (Builder) super.setField(field, value);
+          return super.setField(field, value);
         }
         @java.lang.Override
         public Builder clearField(
             com.google.protobuf.Descriptors.FieldDescriptor field) {
-          return (Builder) super.clearField(field);
+          return super.clearField(field);
         }
         @java.lang.Override
         public Builder clearOneof(
             com.google.protobuf.Descriptors.OneofDescriptor oneof) {
-          return (Builder) super.clearOneof(oneof);
+          return super.clearOneof(oneof);
         }
         @java.lang.Override
         public Builder setRepeatedField(
             com.google.protobuf.Descriptors.FieldDescriptor field,
             int index, java.lang.Object value) {
-          return (Builder) super.setRepeatedField(field, index, value);
+          return super.setRepeatedField(field, index, value);
         }
         @java.lang.Override
         public Builder addRepeatedField(
             com.google.protobuf.Descriptors.FieldDescriptor field,
             java.lang.Object value) {
-          return (Builder) super.addRepeatedField(field, value);
+          return super.addRepeatedField(field, value);
         }
         @java.lang.Override
         public Builder mergeFrom(com.google.protobuf.Message other) {
@@ -1295,12 +1817,14 @@ public final class SearchModel {
         private java.lang.Object documentName_ = "";
         /**
          * <code>required string document_name = 1;</code>
+         * @return Whether the documentName field is set.
          */
         public boolean hasDocumentName() {
-          return ((bitField0_ & 0x00000001) == 0x00000001);
+          return ((bitField0_ & 0x00000001) != 0);
         }
         /**
          * <code>required string document_name = 1;</code>
+         * @return The documentName.
          */
         public java.lang.String getDocumentName() {
           java.lang.Object ref = documentName_;
@@ -1318,6 +1842,7 @@ public final class SearchModel {
         }
         /**
          * <code>required string document_name = 1;</code>
+         * @return The bytes for documentName.
          */
         public com.google.protobuf.ByteString
             getDocumentNameBytes() {
@@ -1334,6 +1859,8 @@ public final class SearchModel {
         }
         /**
          * <code>required string document_name = 1;</code>
+         * @param value The documentName to set.
+         * @return This builder for chaining.
          */
         public Builder setDocumentName(
             java.lang.String value) {
@@ -1347,6 +1874,7 @@ public final class SearchModel {
         }
         /**
          * <code>required string document_name = 1;</code>
+         * @return This builder for chaining.
          */
         public Builder clearDocumentName() {
           bitField0_ = (bitField0_ & ~0x00000001);
@@ -1356,6 +1884,8 @@ public final class SearchModel {
         }
         /**
          * <code>required string document_name = 1;</code>
+         * @param value The bytes for documentName to set.
+         * @return This builder for chaining.
          */
         public Builder setDocumentNameBytes(
             com.google.protobuf.ByteString value) {
@@ -1371,18 +1901,24 @@ public final class SearchModel {
         private double score_ ;
         /**
          * <code>optional double score = 2;</code>
+         * @return Whether the score field is set.
          */
+        @java.lang.Override
         public boolean hasScore() {
-          return ((bitField0_ & 0x00000002) == 0x00000002);
+          return ((bitField0_ & 0x00000002) != 0);
         }
         /**
          * <code>optional double score = 2;</code>
+         * @return The score.
          */
+        @java.lang.Override
         public double getScore() {
           return score_;
         }
         /**
          * <code>optional double score = 2;</code>
+         * @param value The score to set.
+         * @return This builder for chaining.
          */
         public Builder setScore(double value) {
           bitField0_ |= 0x00000002;
@@ -1392,6 +1928,7 @@ public final class SearchModel {
         }
         /**
          * <code>optional double score = 2;</code>
+         * @return This builder for chaining.
          */
         public Builder clearScore() {
           bitField0_ = (bitField0_ & ~0x00000002);
@@ -1403,18 +1940,24 @@ public final class SearchModel {
         private long documentSize_ ;
         /**
          * <code>optional int64 document_size = 3;</code>
+         * @return Whether the documentSize field is set.
          */
+        @java.lang.Override
         public boolean hasDocumentSize() {
-          return ((bitField0_ & 0x00000004) == 0x00000004);
+          return ((bitField0_ & 0x00000004) != 0);
         }
         /**
          * <code>optional int64 document_size = 3;</code>
+         * @return The documentSize.
          */
+        @java.lang.Override
         public long getDocumentSize() {
           return documentSize_;
         }
         /**
          * <code>optional int64 document_size = 3;</code>
+         * @param value The documentSize to set.
+         * @return This builder for chaining.
          */
         public Builder setDocumentSize(long value) {
           bitField0_ |= 0x00000004;
@@ -1424,6 +1967,7 @@ public final class SearchModel {
         }
         /**
          * <code>optional int64 document_size = 3;</code>
+         * @return This builder for chaining.
          */
         public Builder clearDocumentSize() {
           bitField0_ = (bitField0_ & ~0x00000004);
@@ -1484,17 +2028,20 @@ public final class SearchModel {
 
     }
 
+    private int bitField0_;
     public static final int RELEVANT_DOCUMENTS_FIELD_NUMBER = 1;
     private java.util.List<model.proto.SearchModel.Response.DocumentStats> relevantDocuments_;
     /**
      * <code>repeated .DistributedSearch.Response.DocumentStats relevant_documents = 1;</code>
      */
+    @java.lang.Override
     public java.util.List<model.proto.SearchModel.Response.DocumentStats> getRelevantDocumentsList() {
       return relevantDocuments_;
     }
     /**
      * <code>repeated .DistributedSearch.Response.DocumentStats relevant_documents = 1;</code>
      */
+    @java.lang.Override
     public java.util.List<? extends model.proto.SearchModel.Response.DocumentStatsOrBuilder> 
         getRelevantDocumentsOrBuilderList() {
       return relevantDocuments_;
@@ -1502,23 +2049,80 @@ public final class SearchModel {
     /**
      * <code>repeated .DistributedSearch.Response.DocumentStats relevant_documents = 1;</code>
      */
+    @java.lang.Override
     public int getRelevantDocumentsCount() {
       return relevantDocuments_.size();
     }
     /**
      * <code>repeated .DistributedSearch.Response.DocumentStats relevant_documents = 1;</code>
      */
+    @java.lang.Override
     public model.proto.SearchModel.Response.DocumentStats getRelevantDocuments(int index) {
       return relevantDocuments_.get(index);
     }
     /**
      * <code>repeated .DistributedSearch.Response.DocumentStats relevant_documents = 1;</code>
      */
+    @java.lang.Override
     public model.proto.SearchModel.Response.DocumentStatsOrBuilder getRelevantDocumentsOrBuilder(
         int index) {
       return relevantDocuments_.get(index);
     }
 
+    public static final int PARTIAL_FIELD_NUMBER = 2;
+    private boolean partial_;
+    /**
+     * <pre>
+     * set when some shards didn't answer in time or failed, their documents are missing from the results
+     * </pre>
+     *
+     * <code>optional bool partial = 2;</code>
+     * @return Whether the partial field is set.
+     */
+    @java.lang.Override
+    public boolean hasPartial() {
+      return ((bitField0_ & 0x00000001) != 0);
+    }
+    /**
+     * <pre>
+     * set when some shards didn't answer in time or failed, their documents are missing from the results
+     * </pre>
+     *
+     * <code>optional bool partial = 2;</code>
+     * @return The partial.
+     */
+    @java.lang.Override
+    public boolean getPartial() {
+      return partial_;
+    }
+
+    public static final int MISSING_SHARDS_FIELD_NUMBER = 3;
+    private com.google.protobuf.Internal.IntList missingShards_;
+    /**
+     * <code>repeated int32 missing_shards = 3;</code>
+     * @return A list containing the missingShards.
+     */
+    @java.lang.Override
+    public java.util.List<java.lang.Integer>
+        getMissingShardsList() {
+      return missingShards_;
+    }
+    /**
+     * <code>repeated int32 missing_shards = 3;</code>
+     * @return The count of missingShards.
+     */
+    public int getMissingShardsCount() {
+      return missingShards_.size();
+    }
+    /**
+     * <code>repeated int32 missing_shards = 3;</code>
+     * @param index The index of the element to return.
+     * @return The missingShards at the given index.
+     */
+    public int getMissingShards(int index) {
+      return missingShards_.getInt(index);
+    }
+
     private byte memoizedIsInitialized = -1;
     @java.lang.Override
     public final boolean isInitialized() {
@@ -1542,6 +2146,12 @@ public final class SearchModel {
       for (int i = 0; i < relevantDocuments_.size(); i++) {
         output.writeMessage(1, relevantDocuments_.get(i));
       }
+      if (((bitField0_ & 0x00000001) != 0)) {
+        output.writeBool(2, partial_);
+      }
+      for (int i = 0; i < missingShards_.size(); i++) {
+        output.writeInt32(3, missingShards_.getInt(i));
+      }
       unknownFields.writeTo(output);
     }
 
@@ -1555,6 +2165,19 @@ public final class SearchModel {
         size += com.google.protobuf.CodedOutputStream
           .computeMessageSize(1, relevantDocuments_.get(i));
       }
+      if (((bitField0_ & 0x00000001) != 0)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeBoolSize(2, partial_);
+      }
+      {
+        int dataSize = 0;
+        for (int i = 0; i < missingShards_.size(); i++) {
+          dataSize += com.google.protobuf.CodedOutputStream
+            .computeInt32SizeNoTag(missingShards_.getInt(i));
+        }
+        size += dataSize;
+        size += 1 * getMissingShardsList().size();
+      }
       size += unknownFields.getSerializedSize();
       memoizedSize = size;
       return size;
@@ -1570,11 +2193,17 @@ public final class SearchModel {
       }
       model.proto.SearchModel.Response other = (model.proto.SearchModel.Response) obj;
 
-      boolean result = true;
-      result = result && getRelevantDocumentsList()
-          .equals(other.getRelevantDocumentsList());
-      result = result && unknownFields.equals(other.unknownFields);
-      return result;
+      if (!getRelevantDocumentsList()
+          .equals(other.getRelevantDocumentsList())) return false;
+      if (hasPartial() != other.hasPartial()) return false;
+      if (hasPartial()) {
+        if (getPartial()
+            != other.getPartial()) return false;
+      }
+      if (!getMissingShardsList()
+          .equals(other.getMissingShardsList())) return false;
+      if (!unknownFields.equals(other.unknownFields)) return false;
+      return true;
     }
 
     @java.lang.Override
@@ -1588,6 +2217,15 @@ public final class SearchModel {
         hash = (37 * hash) + RELEVANT_DOCUMENTS_FIELD_NUMBER;
         hash = (53 * hash) + getRelevantDocumentsList().hashCode();
       }
+      if (hasPartial()) {
+        hash = (37 * hash) + PARTIAL_FIELD_NUMBER;
+        hash = (53 * hash) + com.google.protobuf.Internal.hashBoolean(
+            getPartial());
+      }
+      if (getMissingShardsCount() > 0) {
+        hash = (37 * hash) + MISSING_SHARDS_FIELD_NUMBER;
+        hash = (53 * hash) + getMissingShardsList().hashCode();
+      }
       hash = (29 * hash) + unknownFields.hashCode();
       memoizedHashCode = hash;
       return hash;
@@ -1728,6 +2366,10 @@ public final class SearchModel {
         } else {
           relevantDocumentsBuilder_.clear();
         }
+        partial_ = false;
+        bitField0_ = (bitField0_ & ~0x00000002);
+        missingShards_ = emptyIntList();
+        bitField0_ = (bitField0_ & ~0x00000004);
         return this;
       }
 
@@ -1755,8 +2397,9 @@ public final class SearchModel {
       public model.proto.SearchModel.Response buildPartial() {
         model.proto.SearchModel.Response result = new model.proto.SearchModel.Response(this);
         int from_bitField0_ = bitField0_;
+        int to_bitField0_ = 0;
         if (relevantDocumentsBuilder_ == null) {
-          if (((bitField0_ & 0x00000001) == 0x00000001)) {
+          if (((bitField0_ & 0x00000001) != 0)) {
             relevantDocuments_ = java.util.Collections.unmodifiableList(relevantDocuments_);
             bitField0_ = (bitField0_ & ~0x00000001);
           }
@@ -1764,41 +2407,51 @@ public final class SearchModel {
         } else {
           result.relevantDocuments_ = relevantDocumentsBuilder_.build();
         }
+        if (((from_bitField0_ & 0x00000002) != 0)) {
+          result.partial_ = partial_;
+          to_bitField0_ |= 0x00000001;
+        }
+        if (((bitField0_ & 0x00000004) != 0)) {
+          missingShards_.makeImmutable();
+          bitField0_ = (bitField0_ & ~0x00000004);
+        }
+        result.missingShards_ = missingShards_;
+        result.bitField0_ = to_bitField0_;
         onBuilt();
         return result;
       }
 
       @java.lang.Override
       public Builder clone() {
-        return (Builder) super.clone();
+        return super.clone();
       }
       @java.lang.Override
       public Builder setField(
           com.google.protobuf.Descriptors.FieldDescriptor field,
           java.lang.Object value) {
-        return (Builder) super.setField(field, value);
+        return super.setField(field, value);
       }
       @java.lang.Override
       public Builder clearField(
           com.google.protobuf.Descriptors.FieldDescriptor field) {
-        return (Builder) super.clearField(field);
+        return super.clearField(field);
       }
       @java.lang.Override
       public Builder clearOneof(
           com.google.protobuf.Descriptors.OneofDescriptor oneof) {
-        return (Builder) super.clearOneof(oneof);
+        return super.clearOneof(oneof);
       }
       @java.lang.Override
       public Builder setRepeatedField(
           com.google.protobuf.Descriptors.FieldDescriptor field,
           int index, java.lang.Object value) {
-        return (Builder) super.setRepeatedField(field, index, value);
+        return super.setRepeatedField(field, index, value);
       }
       @java.lang.Override
       public Builder addRepeatedField(
           com.google.protobuf.Descriptors.FieldDescriptor field,
           java.lang.Object value) {
-        return (Builder) super.addRepeatedField(field, value);
+        return super.addRepeatedField(field, value);
       }
       @java.lang.Override
       public Builder mergeFrom(com.google.protobuf.Message other) {
@@ -1838,6 +2491,19 @@ public final class SearchModel {
             }
           }
         }
+        if (other.hasPartial()) {
+          setPartial(other.getPartial());
+        }
+        if (!other.missingShards_.isEmpty()) {
+          if (missingShards_.isEmpty()) {
+            missingShards_ = other.missingShards_;
+            bitField0_ = (bitField0_ & ~0x00000004);
+          } else {
+            ensureMissingShardsIsMutable();
+            missingShards_.addAll(other.missingShards_);
+          }
+          onChanged();
+        }
         this.mergeUnknownFields(other.unknownFields);
         onChanged();
         return this;
@@ -1876,7 +2542,7 @@ public final class SearchModel {
       private java.util.List<model.proto.SearchModel.Response.DocumentStats> relevantDocuments_ =
         java.util.Collections.emptyList();
       private void ensureRelevantDocumentsIsMutable() {
-        if (!((bitField0_ & 0x00000001) == 0x00000001)) {
+        if (!((bitField0_ & 0x00000001) != 0)) {
           relevantDocuments_ = new java.util.ArrayList<model.proto.SearchModel.Response.DocumentStats>(relevantDocuments_);
           bitField0_ |= 0x00000001;
          }
@@ -2105,61 +2771,5548 @@ public final class SearchModel {
           relevantDocumentsBuilder_ = new com.google.protobuf.RepeatedFieldBuilderV3<
               model.proto.SearchModel.Response.DocumentStats, model.proto.SearchModel.Response.DocumentStats.Builder, model.proto.SearchModel.Response.DocumentStatsOrBuilder>(
                   relevantDocuments_,
-                  ((bitField0_ & 0x00000001) == 0x00000001),
+                  ((bitField0_ & 0x00000001) != 0),
                   getParentForChildren(),
                   isClean());
           relevantDocuments_ = null;
         }
         return relevantDocumentsBuilder_;
       }
-      @java.lang.Override
-      public final Builder setUnknownFields(
-          final com.google.protobuf.UnknownFieldSet unknownFields) {
-        return super.setUnknownFields(unknownFields);
-      }
 
+      private boolean partial_ ;
+      /**
+       * <pre>
+       * set when some shards didn't answer in time or failed, their documents are missing from the results
+       * </pre>
+       *
+       * <code>optional bool partial = 2;</code>
+       * @return Whether the partial field is set.
+       */
       @java.lang.Override
-      public final Builder mergeUnknownFields(
-          final com.google.protobuf.UnknownFieldSet unknownFields) {
-        return super.mergeUnknownFields(unknownFields);
+      public boolean hasPartial() {
+        return ((bitField0_ & 0x00000002) != 0);
       }
-
-
-      // @@protoc_insertion_point(builder_scope:DistributedSearch.Response)
-    }
-
-    // @@protoc_insertion_point(class_scope:DistributedSearch.Response)
-    private static final model.proto.SearchModel.Response DEFAULT_INSTANCE;
-    static {
-      DEFAULT_INSTANCE = new model.proto.SearchModel.Response();
-    }
-
-    public static model.proto.SearchModel.Response getDefaultInstance() {
-      return DEFAULT_INSTANCE;
-    }
-
-    @java.lang.Deprecated public static final com.google.protobuf.Parser<Response>
-        PARSER = new com.google.protobuf.AbstractParser<Response>() {
+      /**
+       * <pre>
+       * set when some shards didn't answer in time or failed, their documents are missing from the results
+       * </pre>
+       *
+       * <code>optional bool partial = 2;</code>
+       * @return The partial.
+       */
       @java.lang.Override
-      public Response parsePartialFrom(
-          com.google.protobuf.CodedInputStream input,
-          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
-          throws com.google.protobuf.InvalidProtocolBufferException {
-        return new Response(input, extensionRegistry);
+      public boolean getPartial() {
+        return partial_;
       }
-    };
-
-    public static com.google.protobuf.Parser<Response> parser() {
+      /**
+       * <pre>
+       * set when some shards didn't answer in time or failed, their documents are missing from the results
+       * </pre>
+       *
+       * <code>optional bool partial = 2;</code>
+       * @param value The partial to set.
+       * @return This builder for chaining.
+       */
+      public Builder setPartial(boolean value) {
+        bitField0_ |= 0x00000002;
+        partial_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * set when some shards didn't answer in time or failed, their documents are missing from the results
+       * </pre>
+       *
+       * <code>optional bool partial = 2;</code>
+       * @return This builder for chaining.
+       */
+      public Builder clearPartial() {
+        bitField0_ = (bitField0_ & ~0x00000002);
+        partial_ = false;
+        onChanged();
+        return this;
+      }
+
+      private com.google.protobuf.Internal.IntList missingShards_ = emptyIntList();
+      private void ensureMissingShardsIsMutable() {
+        if (!((bitField0_ & 0x00000004) != 0)) {
+          missingShards_ = mutableCopy(missingShards_);
+          bitField0_ |= 0x00000004;
+         }
+      }
+      /**
+       * <code>repeated int32 missing_shards = 3;</code>
+       * @return A list containing the missingShards.
+       */
+      public java.util.List<java.lang.Integer>
+          getMissingShardsList() {
+        return ((bitField0_ & 0x00000004) != 0) ?
+                 java.util.Collections.unmodifiableList(missingShards_) : missingShards_;
+      }
+      /**
+       * <code>repeated int32 missing_shards = 3;</code>
+       * @return The count of missingShards.
+       */
+      public int getMissingShardsCount() {
+        return missingShards_.size();
+      }
+      /**
+       * <code>repeated int32 missing_shards = 3;</code>
+       * @param index The index of the element to return.
+       * @return The missingShards at the given index.
+       */
+      public int getMissingShards(int index) {
+        return missingShards_.getInt(index);
+      }
+      /**
+       * <code>repeated int32 missing_shards = 3;</code>
+       * @param index The index to set the value at.
+       * @param value The missingShards to set.
+       * @return This builder for chaining.
+       */
+      public Builder setMissingShards(
+          int index, int value) {
+        ensureMissingShardsIsMutable();
+        missingShards_.setInt(index, value);
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>repeated int32 missing_shards = 3;</code>
+       * @param value The missingShards to add.
+       * @return This builder for chaining.
+       */
+      public Builder addMissingShards(int value) {
+        ensureMissingShardsIsMutable();
+        missingShards_.addInt(value);
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>repeated int32 missing_shards = 3;</code>
+       * @param values The missingShards to add.
+       * @return This builder for chaining.
+       */
+      public Builder addAllMissingShards(
+          java.lang.Iterable<? extends java.lang.Integer> values) {
+        ensureMissingShardsIsMutable();
+        com.google.protobuf.AbstractMessageLite.Builder.addAll(
+            values, missingShards_);
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>repeated int32 missing_shards = 3;</code>
+       * @return This builder for chaining.
+       */
+      public Builder clearMissingShards() {
+        missingShards_ = emptyIntList();
+        bitField0_ = (bitField0_ & ~0x00000004);
+        onChanged();
+        return this;
+      }
+      @java.lang.Override
+      public final Builder setUnknownFields(
+          final com.google.protobuf.UnknownFieldSet unknownFields) {
+        return super.setUnknownFields(unknownFields);
+      }
+
+      @java.lang.Override
+      public final Builder mergeUnknownFields(
+          final com.google.protobuf.UnknownFieldSet unknownFields) {
+        return super.mergeUnknownFields(unknownFields);
+      }
+
+
+      // @@protoc_insertion_point(builder_scope:DistributedSearch.Response)
+    }
+
+    // @@protoc_insertion_point(class_scope:DistributedSearch.Response)
+    private static final model.proto.SearchModel.Response DEFAULT_INSTANCE;
+    static {
+      DEFAULT_INSTANCE = new model.proto.SearchModel.Response();
+    }
+
+    public static model.proto.SearchModel.Response getDefaultInstance() {
+      return DEFAULT_INSTANCE;
+    }
+
+    @java.lang.Deprecated public static final com.google.protobuf.Parser<Response>
+        PARSER = new com.google.protobuf.AbstractParser<Response>() {
+      @java.lang.Override
+      public Response parsePartialFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws com.google.protobuf.InvalidProtocolBufferException {
+        return new Response(input, extensionRegistry);
+      }
+    };
+
+    public static com.google.protobuf.Parser<Response> parser() {
+      return PARSER;
+    }
+
+    @java.lang.Override
+    public com.google.protobuf.Parser<Response> getParserForType() {
+      return PARSER;
+    }
+
+    @java.lang.Override
+    public model.proto.SearchModel.Response getDefaultInstanceForType() {
+      return DEFAULT_INSTANCE;
+    }
+
+  }
+
+  public interface TaskOrBuilder extends
+      // @@protoc_insertion_point(interface_extends:DistributedSearch.Task)
+      com.google.protobuf.MessageOrBuilder {
+
+    /**
+     * <code>repeated string search_terms = 1;</code>
+     * @return A list containing the searchTerms.
+     */
+    java.util.List<java.lang.String>
+        getSearchTermsList();
+    /**
+     * <code>repeated string search_terms = 1;</code>
+     * @return The count of searchTerms.
+     */
+    int getSearchTermsCount();
+    /**
+     * <code>repeated string search_terms = 1;</code>
+     * @param index The index of the element to return.
+     * @return The searchTerms at the given index.
+     */
+    java.lang.String getSearchTerms(int index);
+    /**
+     * <code>repeated string search_terms = 1;</code>
+     * @param index The index of the value to return.
+     * @return The bytes of the searchTerms at the given index.
+     */
+    com.google.protobuf.ByteString
+        getSearchTermsBytes(int index);
+
+    /**
+     * <pre>
+     * the documents to search, unless the task is for a shard
+     * </pre>
+     *
+     * <code>repeated string documents = 2;</code>
+     * @return A list containing the documents.
+     */
+    java.util.List<java.lang.String>
+        getDocumentsList();
+    /**
+     * <pre>
+     * the documents to search, unless the task is for a shard
+     * </pre>
+     *
+     * <code>repeated string documents = 2;</code>
+     * @return The count of documents.
+     */
+    int getDocumentsCount();
+    /**
+     * <pre>
+     * the documents to search, unless the task is for a shard
+     * </pre>
+     *
+     * <code>repeated string documents = 2;</code>
+     * @param index The index of the element to return.
+     * @return The documents at the given index.
+     */
+    java.lang.String getDocuments(int index);
+    /**
+     * <pre>
+     * the documents to search, unless the task is for a shard
+     * </pre>
+     *
+     * <code>repeated string documents = 2;</code>
+     * @param index The index of the value to return.
+     * @return The bytes of the documents at the given index.
+     */
+    com.google.protobuf.ByteString
+        getDocumentsBytes(int index);
+
+    /**
+     * <pre>
+     * the shard the worker resolves to its own documents, out of number_of_shards
+     * </pre>
+     *
+     * <code>optional int32 shard_id = 3;</code>
+     * @return Whether the shardId field is set.
+     */
+    boolean hasShardId();
+    /**
+     * <pre>
+     * the shard the worker resolves to its own documents, out of number_of_shards
+     * </pre>
+     *
+     * <code>optional int32 shard_id = 3;</code>
+     * @return The shardId.
+     */
+    int getShardId();
+
+    /**
+     * <code>optional int32 number_of_shards = 4;</code>
+     * @return Whether the numberOfShards field is set.
+     */
+    boolean hasNumberOfShards();
+    /**
+     * <code>optional int32 number_of_shards = 4;</code>
+     * @return The numberOfShards.
+     */
+    int getNumberOfShards();
+
+    /**
+     * <pre>
+     * how long the worker has to answer in milliseconds, unlimited when not set
+     * </pre>
+     *
+     * <code>optional int64 time_budget_millis = 5;</code>
+     * @return Whether the timeBudgetMillis field is set.
+     */
+    boolean hasTimeBudgetMillis();
+    /**
+     * <pre>
+     * how long the worker has to answer in milliseconds, unlimited when not set
+     * </pre>
+     *
+     * <code>optional int64 time_budget_millis = 5;</code>
+     * @return The timeBudgetMillis.
+     */
+    long getTimeBudgetMillis();
+  }
+  /**
+   * Protobuf type {@code DistributedSearch.Task}
+   */
+  public static final class Task extends
+      com.google.protobuf.GeneratedMessageV3 implements
+      // @@protoc_insertion_point(message_implements:DistributedSearch.Task)
+      TaskOrBuilder {
+  private static final long serialVersionUID = 0L;
+    // Use Task.newBuilder() to construct.
+    private Task(com.google.protobuf.GeneratedMessageV3.Builder<?> builder) {
+      super(builder);
+    }
+    private Task() {
+      searchTerms_ = com.google.protobuf.LazyStringArrayList.EMPTY;
+      documents_ = com.google.protobuf.LazyStringArrayList.EMPTY;
+    }
+
+    @java.lang.Override
+    @SuppressWarnings({"unused"})
+    protected java.lang.Object newInstance(
+        UnusedPrivateParameter unused) {
+      return new Task();
+    }
+
+    @java.lang.Override
+    public final com.google.protobuf.UnknownFieldSet
+    getUnknownFields() {
+      return this.unknownFields;
+    }
+    private Task(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      this();
+      if (extensionRegistry == null) {
+        throw new java.lang.NullPointerException();
+      }
+      int mutable_bitField0_ = 0;
+      com.google.protobuf.UnknownFieldSet.Builder unknownFields =
+          com.google.protobuf.UnknownFieldSet.newBuilder();
+      try {
+        boolean done = false;
+        while (!done) {
+          int tag = input.readTag();
+          switch (tag) {
+            case 0:
+              done = true;
+              break;
+            case 10: {
+              com.google.protobuf.ByteString bs = input.readBytes();
+              if (!((mutable_bitField0_ & 0x00000001) != 0)) {
+                searchTerms_ = new com.google.protobuf.LazyStringArrayList();
+                mutable_bitField0_ |= 0x00000001;
+              }
+              searchTerms_.add(bs);
+              break;
+            }
+            case 18: {
+              com.google.protobuf.ByteString bs = input.readBytes();
+              if (!((mutable_bitField0_ & 0x00000002) != 0)) {
+                documents_ = new com.google.protobuf.LazyStringArrayList();
+                mutable_bitField0_ |= 0x00000002;
+              }
+              documents_.add(bs);
+              break;
+            }
+            case 24: {
+              bitField0_ |= 0x00000001;
+              shardId_ = input.readInt32();
+              break;
+            }
+            case 32: {
+              bitField0_ |= 0x00000002;
+              numberOfShards_ = input.readInt32();
+              break;
+            }
+            case 40: {
+              bitField0_ |= 0x00000004;
+              timeBudgetMillis_ = input.readInt64();
+              break;
+            }
+            default: {
+              if (!parseUnknownField(
+                  input, unknownFields, extensionRegistry, tag)) {
+                done = true;
+              }
+              break;
+            }
+          }
+        }
+      } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+        throw e.setUnfinishedMessage(this);
+      } catch (com.google.protobuf.UninitializedMessageException e) {
+        throw e.asInvalidProtocolBufferException().setUnfinishedMessage(this);
+      } catch (java.io.IOException e) {
+        throw new com.google.protobuf.InvalidProtocolBufferException(
+            e).setUnfinishedMessage(this);
+      } finally {
+        if (((mutable_bitField0_ & 0x00000001) != 0)) {
+          searchTerms_ = searchTerms_.getUnmodifiableView();
+        }
+        if (((mutable_bitField0_ & 0x00000002) != 0)) {
+          documents_ = documents_.getUnmodifiableView();
+        }
+        this.unknownFields = unknownFields.build();
+        makeExtensionsImmutable();
+      }
+    }
+    public static final com.google.protobuf.Descriptors.Descriptor
+        getDescriptor() {
+      return model.proto.SearchModel.internal_static_DistributedSearch_Task_descriptor;
+    }
+
+    @java.lang.Override
+    protected com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+        internalGetFieldAccessorTable() {
+      return model.proto.SearchModel.internal_static_DistributedSearch_Task_fieldAccessorTable
+          .ensureFieldAccessorsInitialized(
+              model.proto.SearchModel.Task.class, model.proto.SearchModel.Task.Builder.class);
+    }
+
+    private int bitField0_;
+    public static final int SEARCH_TERMS_FIELD_NUMBER = 1;
+    private com.google.protobuf.LazyStringList searchTerms_;
+    /**
+     * <code>repeated string search_terms = 1;</code>
+     * @return A list containing the searchTerms.
+     */
+    public com.google.protobuf.ProtocolStringList
+        getSearchTermsList() {
+      return searchTerms_;
+    }
+    /**
+     * <code>repeated string search_terms = 1;</code>
+     * @return The count of searchTerms.
+     */
+    public int getSearchTermsCount() {
+      return searchTerms_.size();
+    }
+    /**
+     * <code>repeated string search_terms = 1;</code>
+     * @param index The index of the element to return.
+     * @return The searchTerms at the given index.
+     */
+    public java.lang.String getSearchTerms(int index) {
+      return searchTerms_.get(index);
+    }
+    /**
+     * <code>repeated string search_terms = 1;</code>
+     * @param index The index of the value to return.
+     * @return The bytes of the searchTerms at the given index.
+     */
+    public com.google.protobuf.ByteString
+        getSearchTermsBytes(int index) {
+      return searchTerms_.getByteString(index);
+    }
+
+    public static final int DOCUMENTS_FIELD_NUMBER = 2;
+    private com.google.protobuf.LazyStringList documents_;
+    /**
+     * <pre>
+     * the documents to search, unless the task is for a shard
+     * </pre>
+     *
+     * <code>repeated string documents = 2;</code>
+     * @return A list containing the documents.
+     */
+    public com.google.protobuf.ProtocolStringList
+        getDocumentsList() {
+      return documents_;
+    }
+    /**
+     * <pre>
+     * the documents to search, unless the task is for a shard
+     * </pre>
+     *
+     * <code>repeated string documents = 2;</code>
+     * @return The count of documents.
+     */
+    public int getDocumentsCount() {
+      return documents_.size();
+    }
+    /**
+     * <pre>
+     * the documents to search, unless the task is for a shard
+     * </pre>
+     *
+     * <code>repeated string documents = 2;</code>
+     * @param index The index of the element to return.
+     * @return The documents at the given index.
+     */
+    public java.lang.String getDocuments(int index) {
+      return documents_.get(index);
+    }
+    /**
+     * <pre>
+     * the documents to search, unless the task is for a shard
+     * </pre>
+     *
+     * <code>repeated string documents = 2;</code>
+     * @param index The index of the value to return.
+     * @return The bytes of the documents at the given index.
+     */
+    public com.google.protobuf.ByteString
+        getDocumentsBytes(int index) {
+      return documents_.getByteString(index);
+    }
+
+    public static final int SHARD_ID_FIELD_NUMBER = 3;
+    private int shardId_;
+    /**
+     * <pre>
+     * the shard the worker resolves to its own documents, out of number_of_shards
+     * </pre>
+     *
+     * <code>optional int32 shard_id = 3;</code>
+     * @return Whether the shardId field is set.
+     */
+    @java.lang.Override
+    public boolean hasShardId() {
+      return ((bitField0_ & 0x00000001) != 0);
+    }
+    /**
+     * <pre>
+     * the shard the worker resolves to its own documents, out of number_of_shards
+     * </pre>
+     *
+     * <code>optional int32 shard_id = 3;</code>
+     * @return The shardId.
+     */
+    @java.lang.Override
+    public int getShardId() {
+      return shardId_;
+    }
+
+    public static final int NUMBER_OF_SHARDS_FIELD_NUMBER = 4;
+    private int numberOfShards_;
+    /**
+     * <code>optional int32 number_of_shards = 4;</code>
+     * @return Whether the numberOfShards field is set.
+     */
+    @java.lang.Override
+    public boolean hasNumberOfShards() {
+      return ((bitField0_ & 0x00000002) != 0);
+    }
+    /**
+     * <code>optional int32 number_of_shards = 4;</code>
+     * @return The numberOfShards.
+     */
+    @java.lang.Override
+    public int getNumberOfShards() {
+      return numberOfShards_;
+    }
+
+    public static final int TIME_BUDGET_MILLIS_FIELD_NUMBER = 5;
+    private long timeBudgetMillis_;
+    /**
+     * <pre>
+     * how long the worker has to answer in milliseconds, unlimited when not set
+     * </pre>
+     *
+     * <code>optional int64 time_budget_millis = 5;</code>
+     * @return Whether the timeBudgetMillis field is set.
+     */
+    @java.lang.Override
+    public boolean hasTimeBudgetMillis() {
+      return ((bitField0_ & 0x00000004) != 0);
+    }
+    /**
+     * <pre>
+     * how long the worker has to answer in milliseconds, unlimited when not set
+     * </pre>
+     *
+     * <code>optional int64 time_budget_millis = 5;</code>
+     * @return The timeBudgetMillis.
+     */
+    @java.lang.Override
+    public long getTimeBudgetMillis() {
+      return timeBudgetMillis_;
+    }
+
+    private byte memoizedIsInitialized = -1;
+    @java.lang.Override
+    public final boolean isInitialized() {
+      byte isInitialized = memoizedIsInitialized;
+      if (isInitialized == 1) return true;
+      if (isInitialized == 0) return false;
+
+      memoizedIsInitialized = 1;
+      return true;
+    }
+
+    @java.lang.Override
+    public void writeTo(com.google.protobuf.CodedOutputStream output)
+                        throws java.io.IOException {
+      for (int i = 0; i < searchTerms_.size(); i++) {
+        com.google.protobuf.GeneratedMessageV3.writeString(output, 1, searchTerms_.getRaw(i));
+      }
+      for (int i = 0; i < documents_.size(); i++) {
+        com.google.protobuf.GeneratedMessageV3.writeString(output, 2, documents_.getRaw(i));
+      }
+      if (((bitField0_ & 0x00000001) != 0)) {
+        output.writeInt32(3, shardId_);
+      }
+      if (((bitField0_ & 0x00000002) != 0)) {
+        output.writeInt32(4, numberOfShards_);
+      }
+      if (((bitField0_ & 0x00000004) != 0)) {
+        output.writeInt64(5, timeBudgetMillis_);
+      }
+      unknownFields.writeTo(output);
+    }
+
+    @java.lang.Override
+    public int getSerializedSize() {
+      int size = memoizedSize;
+      if (size != -1) return size;
+
+      size = 0;
+      {
+        int dataSize = 0;
+        for (int i = 0; i < searchTerms_.size(); i++) {
+          dataSize += computeStringSizeNoTag(searchTerms_.getRaw(i));
+        }
+        size += dataSize;
+        size += 1 * getSearchTermsList().size();
+      }
+      {
+        int dataSize = 0;
+        for (int i = 0; i < documents_.size(); i++) {
+          dataSize += computeStringSizeNoTag(documents_.getRaw(i));
+        }
+        size += dataSize;
+        size += 1 * getDocumentsList().size();
+      }
+      if (((bitField0_ & 0x00000001) != 0)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeInt32Size(3, shardId_);
+      }
+      if (((bitField0_ & 0x00000002) != 0)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeInt32Size(4, numberOfShards_);
+      }
+      if (((bitField0_ & 0x00000004) != 0)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeInt64Size(5, timeBudgetMillis_);
+      }
+      size += unknownFields.getSerializedSize();
+      memoizedSize = size;
+      return size;
+    }
+
+    @java.lang.Override
+    public boolean equals(final java.lang.Object obj) {
+      if (obj == this) {
+       return true;
+      }
+      if (!(obj instanceof model.proto.SearchModel.Task)) {
+        return super.equals(obj);
+      }
+      model.proto.SearchModel.Task other = (model.proto.SearchModel.Task) obj;
+
+      if (!getSearchTermsList()
+          .equals(other.getSearchTermsList())) return false;
+      if (!getDocumentsList()
+          .equals(other.getDocumentsList())) return false;
+      if (hasShardId() != other.hasShardId()) return false;
+      if (hasShardId()) {
+        if (getShardId()
+            != other.getShardId()) return false;
+      }
+      if (hasNumberOfShards() != other.hasNumberOfShards()) return false;
+      if (hasNumberOfShards()) {
+        if (getNumberOfShards()
+            != other.getNumberOfShards()) return false;
+      }
+      if (hasTimeBudgetMillis() != other.hasTimeBudgetMillis()) return false;
+      if (hasTimeBudgetMillis()) {
+        if (getTimeBudgetMillis()
+            != other.getTimeBudgetMillis()) return false;
+      }
+      if (!unknownFields.equals(other.unknownFields)) return false;
+      return true;
+    }
+
+    @java.lang.Override
+    public int hashCode() {
+      if (memoizedHashCode != 0) {
+        return memoizedHashCode;
+      }
+      int hash = 41;
+      hash = (19 * hash) + getDescriptor().hashCode();
+      if (getSearchTermsCount() > 0) {
+        hash = (37 * hash) + SEARCH_TERMS_FIELD_NUMBER;
+        hash = (53 * hash) + getSearchTermsList().hashCode();
+      }
+      if (getDocumentsCount() > 0) {
+        hash = (37 * hash) + DOCUMENTS_FIELD_NUMBER;
+        hash = (53 * hash) + getDocumentsList().hashCode();
+      }
+      if (hasShardId()) {
+        hash = (37 * hash) + SHARD_ID_FIELD_NUMBER;
+        hash = (53 * hash) + getShardId();
+      }
+      if (hasNumberOfShards()) {
+        hash = (37 * hash) + NUMBER_OF_SHARDS_FIELD_NUMBER;
+        hash = (53 * hash) + getNumberOfShards();
+      }
+      if (hasTimeBudgetMillis()) {
+        hash = (37 * hash) + TIME_BUDGET_MILLIS_FIELD_NUMBER;
+        hash = (53 * hash) + com.google.protobuf.Internal.hashLong(
+            getTimeBudgetMillis());
+      }
+      hash = (29 * hash) + unknownFields.hashCode();
+      memoizedHashCode = hash;
+      return hash;
+    }
+
+    public static model.proto.SearchModel.Task parseFrom(
+        java.nio.ByteBuffer data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static model.proto.SearchModel.Task parseFrom(
+        java.nio.ByteBuffer data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static model.proto.SearchModel.Task parseFrom(
+        com.google.protobuf.ByteString data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static model.proto.SearchModel.Task parseFrom(
+        com.google.protobuf.ByteString data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static model.proto.SearchModel.Task parseFrom(byte[] data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static model.proto.SearchModel.Task parseFrom(
+        byte[] data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static model.proto.SearchModel.Task parseFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input);
+    }
+    public static model.proto.SearchModel.Task parseFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input, extensionRegistry);
+    }
+    public static model.proto.SearchModel.Task parseDelimitedFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseDelimitedWithIOException(PARSER, input);
+    }
+    public static model.proto.SearchModel.Task parseDelimitedFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseDelimitedWithIOException(PARSER, input, extensionRegistry);
+    }
+    public static model.proto.SearchModel.Task parseFrom(
+        com.google.protobuf.CodedInputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input);
+    }
+    public static model.proto.SearchModel.Task parseFrom(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input, extensionRegistry);
+    }
+
+    @java.lang.Override
+    public Builder newBuilderForType() { return newBuilder(); }
+    public static Builder newBuilder() {
+      return DEFAULT_INSTANCE.toBuilder();
+    }
+    public static Builder newBuilder(model.proto.SearchModel.Task prototype) {
+      return DEFAULT_INSTANCE.toBuilder().mergeFrom(prototype);
+    }
+    @java.lang.Override
+    public Builder toBuilder() {
+      return this == DEFAULT_INSTANCE
+          ? new Builder() : new Builder().mergeFrom(this);
+    }
+
+    @java.lang.Override
+    protected Builder newBuilderForType(
+        com.google.protobuf.GeneratedMessageV3.BuilderParent parent) {
+      Builder builder = new Builder(parent);
+      return builder;
+    }
+    /**
+     * Protobuf type {@code DistributedSearch.Task}
+     */
+    public static final class Builder extends
+        com.google.protobuf.GeneratedMessageV3.Builder<Builder> implements
+        // @@protoc_insertion_point(builder_implements:DistributedSearch.Task)
+        model.proto.SearchModel.TaskOrBuilder {
+      public static final com.google.protobuf.Descriptors.Descriptor
+          getDescriptor() {
+        return model.proto.SearchModel.internal_static_DistributedSearch_Task_descriptor;
+      }
+
+      @java.lang.Override
+      protected com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+          internalGetFieldAccessorTable() {
+        return model.proto.SearchModel.internal_static_DistributedSearch_Task_fieldAccessorTable
+            .ensureFieldAccessorsInitialized(
+                model.proto.SearchModel.Task.class, model.proto.SearchModel.Task.Builder.class);
+      }
+
+      // Construct using model.proto.SearchModel.Task.newBuilder()
+      private Builder() {
+        maybeForceBuilderInitialization();
+      }
+
+      private Builder(
+          com.google.protobuf.GeneratedMessageV3.BuilderParent parent) {
+        super(parent);
+        maybeForceBuilderInitialization();
+      }
+      private void maybeForceBuilderInitialization() {
+        if (com.google.protobuf.GeneratedMessageV3
+                .alwaysUseFieldBuilders) {
+        }
+      }
+      @java.lang.Override
+      public Builder clear() {
+        super.clear();
+        searchTerms_ = com.google.protobuf.LazyStringArrayList.EMPTY;
+        bitField0_ = (bitField0_ & ~0x00000001);
+        documents_ = com.google.protobuf.LazyStringArrayList.EMPTY;
+        bitField0_ = (bitField0_ & ~0x00000002);
+        shardId_ = 0;
+        bitField0_ = (bitField0_ & ~0x00000004);
+        numberOfShards_ = 0;
+        bitField0_ = (bitField0_ & ~0x00000008);
+        timeBudgetMillis_ = 0L;
+        bitField0_ = (bitField0_ & ~0x00000010);
+        return this;
+      }
+
+      @java.lang.Override
+      public com.google.protobuf.Descriptors.Descriptor
+          getDescriptorForType() {
+        return model.proto.SearchModel.internal_static_DistributedSearch_Task_descriptor;
+      }
+
+      @java.lang.Override
+      public model.proto.SearchModel.Task getDefaultInstanceForType() {
+        return model.proto.SearchModel.Task.getDefaultInstance();
+      }
+
+      @java.lang.Override
+      public model.proto.SearchModel.Task build() {
+        model.proto.SearchModel.Task result = buildPartial();
+        if (!result.isInitialized()) {
+          throw newUninitializedMessageException(result);
+        }
+        return result;
+      }
+
+      @java.lang.Override
+      public model.proto.SearchModel.Task buildPartial() {
+        model.proto.SearchModel.Task result = new model.proto.SearchModel.Task(this);
+        int from_bitField0_ = bitField0_;
+        int to_bitField0_ = 0;
+        if (((bitField0_ & 0x00000001) != 0)) {
+          searchTerms_ = searchTerms_.getUnmodifiableView();
+          bitField0_ = (bitField0_ & ~0x00000001);
+        }
+        result.searchTerms_ = searchTerms_;
+        if (((bitField0_ & 0x00000002) != 0)) {
+          documents_ = documents_.getUnmodifiableView();
+          bitField0_ = (bitField0_ & ~0x00000002);
+        }
+        result.documents_ = documents_;
+        if (((from_bitField0_ & 0x00000004) != 0)) {
+          result.shardId_ = shardId_;
+          to_bitField0_ |= 0x00000001;
+        }
+        if (((from_bitField0_ & 0x00000008) != 0)) {
+          result.numberOfShards_ = numberOfShards_;
+          to_bitField0_ |= 0x00000002;
+        }
+        if (((from_bitField0_ & 0x00000010) != 0)) {
+          result.timeBudgetMillis_ = timeBudgetMillis_;
+          to_bitField0_ |= 0x00000004;
+        }
+        result.bitField0_ = to_bitField0_;
+        onBuilt();
+        return result;
+      }
+
+      @java.lang.Override
+      public Builder clone() {
+        return super.clone();
+      }
+      @java.lang.Override
+      public Builder setField(
+          com.google.protobuf.Descriptors.FieldDescriptor field,
+          java.lang.Object value) {
+        return super.setField(field, value);
+      }
+      @java.lang.Override
+      public Builder clearField(
+          com.google.protobuf.Descriptors.FieldDescriptor field) {
+        return super.clearField(field);
+      }
+      @java.lang.Override
+      public Builder clearOneof(
+          com.google.protobuf.Descriptors.OneofDescriptor oneof) {
+        return super.clearOneof(oneof);
+      }
+      @java.lang.Override
+      public Builder setRepeatedField(
+          com.google.protobuf.Descriptors.FieldDescriptor field,
+          int index, java.lang.Object value) {
+        return super.setRepeatedField(field, index, value);
+      }
+      @java.lang.Override
+      public Builder addRepeatedField(
+          com.google.protobuf.Descriptors.FieldDescriptor field,
+          java.lang.Object value) {
+        return super.addRepeatedField(field, value);
+      }
+      @java.lang.Override
+      public Builder mergeFrom(com.google.protobuf.Message other) {
+        if (other instanceof model.proto.SearchModel.Task) {
+          return mergeFrom((model.proto.SearchModel.Task)other);
+        } else {
+          super.mergeFrom(other);
+          return this;
+        }
+      }
+
+      public Builder mergeFrom(model.proto.SearchModel.Task other) {
+        if (other == model.proto.SearchModel.Task.getDefaultInstance()) return this;
+        if (!other.searchTerms_.isEmpty()) {
+          if (searchTerms_.isEmpty()) {
+            searchTerms_ = other.searchTerms_;
+            bitField0_ = (bitField0_ & ~0x00000001);
+          } else {
+            ensureSearchTermsIsMutable();
+            searchTerms_.addAll(other.searchTerms_);
+          }
+          onChanged();
+        }
+        if (!other.documents_.isEmpty()) {
+          if (documents_.isEmpty()) {
+            documents_ = other.documents_;
+            bitField0_ = (bitField0_ & ~0x00000002);
+          } else {
+            ensureDocumentsIsMutable();
+            documents_.addAll(other.documents_);
+          }
+          onChanged();
+        }
+        if (other.hasShardId()) {
+          setShardId(other.getShardId());
+        }
+        if (other.hasNumberOfShards()) {
+          setNumberOfShards(other.getNumberOfShards());
+        }
+        if (other.hasTimeBudgetMillis()) {
+          setTimeBudgetMillis(other.getTimeBudgetMillis());
+        }
+        this.mergeUnknownFields(other.unknownFields);
+        onChanged();
+        return this;
+      }
+
+      @java.lang.Override
+      public final boolean isInitialized() {
+        return true;
+      }
+
+      @java.lang.Override
+      public Builder mergeFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws java.io.IOException {
+        model.proto.SearchModel.Task parsedMessage = null;
+        try {
+          parsedMessage = PARSER.parsePartialFrom(input, extensionRegistry);
+        } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+          parsedMessage = (model.proto.SearchModel.Task) e.getUnfinishedMessage();
+          throw e.unwrapIOException();
+        } finally {
+          if (parsedMessage != null) {
+            mergeFrom(parsedMessage);
+          }
+        }
+        return this;
+      }
+      private int bitField0_;
+
+      private com.google.protobuf.LazyStringList searchTerms_ = com.google.protobuf.LazyStringArrayList.EMPTY;
+      private void ensureSearchTermsIsMutable() {
+        if (!((bitField0_ & 0x00000001) != 0)) {
+          searchTerms_ = new com.google.protobuf.LazyStringArrayList(searchTerms_);
+          bitField0_ |= 0x00000001;
+         }
+      }
+      /**
+       * <code>repeated string search_terms = 1;</code>
+       * @return A list containing the searchTerms.
+       */
+      public com.google.protobuf.ProtocolStringList
+          getSearchTermsList() {
+        return searchTerms_.getUnmodifiableView();
+      }
+      /**
+       * <code>repeated string search_terms = 1;</code>
+       * @return The count of searchTerms.
+       */
+      public int getSearchTermsCount() {
+        return searchTerms_.size();
+      }
+      /**
+       * <code>repeated string search_terms = 1;</code>
+       * @param index The index of the element to return.
+       * @return The searchTerms at the given index.
+       */
+      public java.lang.String getSearchTerms(int index) {
+        return searchTerms_.get(index);
+      }
+      /**
+       * <code>repeated string search_terms = 1;</code>
+       * @param index The index of the value to return.
+       * @return The bytes of the searchTerms at the given index.
+       */
+      public com.google.protobuf.ByteString
+          getSearchTermsBytes(int index) {
+        return searchTerms_.getByteString(index);
+      }
+      /**
+       * <code>repeated string search_terms = 1;</code>
+       * @param index The index to set the value at.
+       * @param value The searchTerms to set.
+       * @return This builder for chaining.
+       */
+      public Builder setSearchTerms(
+          int index, java.lang.String value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  ensureSearchTermsIsMutable();
+        searchTerms_.set(index, value);
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>repeated string search_terms = 1;</code>
+       * @param value The searchTerms to add.
+       * @return This builder for chaining.
+       */
+      public Builder addSearchTerms(
+          java.lang.String value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  ensureSearchTermsIsMutable();
+        searchTerms_.add(value);
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>repeated string search_terms = 1;</code>
+       * @param values The searchTerms to add.
+       * @return This builder for chaining.
+       */
+      public Builder addAllSearchTerms(
+          java.lang.Iterable<java.lang.String> values) {
+        ensureSearchTermsIsMutable();
+        com.google.protobuf.AbstractMessageLite.Builder.addAll(
+            values, searchTerms_);
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>repeated string search_terms = 1;</code>
+       * @return This builder for chaining.
+       */
+      public Builder clearSearchTerms() {
+        searchTerms_ = com.google.protobuf.LazyStringArrayList.EMPTY;
+        bitField0_ = (bitField0_ & ~0x00000001);
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>repeated string search_terms = 1;</code>
+       * @param value The bytes of the searchTerms to add.
+       * @return This builder for chaining.
+       */
+      public Builder addSearchTermsBytes(
+          com.google.protobuf.ByteString value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  ensureSearchTermsIsMutable();
+        searchTerms_.add(value);
+        onChanged();
+        return this;
+      }
+
+      private com.google.protobuf.LazyStringList documents_ = com.google.protobuf.LazyStringArrayList.EMPTY;
+      private void ensureDocumentsIsMutable() {
+        if (!((bitField0_ & 0x00000002) != 0)) {
+          documents_ = new com.google.protobuf.LazyStringArrayList(documents_);
+          bitField0_ |= 0x00000002;
+         }
+      }
+      /**
+       * <pre>
+       * the documents to search, unless the task is for a shard
+       * </pre>
+       *
+       * <code>repeated string documents = 2;</code>
+       * @return A list containing the documents.
+       */
+      public com.google.protobuf.ProtocolStringList
+          getDocumentsList() {
+        return documents_.getUnmodifiableView();
+      }
+      /**
+       * <pre>
+       * the documents to search, unless the task is for a shard
+       * </pre>
+       *
+       * <code>repeated string documents = 2;</code>
+       * @return The count of documents.
+       */
+      public int getDocumentsCount() {
+        return documents_.size();
+      }
+      /**
+       * <pre>
+       * the documents to search, unless the task is for a shard
+       * </pre>
+       *
+       * <code>repeated string documents = 2;</code>
+       * @param index The index of the element to return.
+       * @return The documents at the given index.
+       */
+      public java.lang.String getDocuments(int index) {
+        return documents_.get(index);
+      }
+      /**
+       * <pre>
+       * the documents to search, unless the task is for a shard
+       * </pre>
+       *
+       * <code>repeated string documents = 2;</code>
+       * @param index The index of the value to return.
+       * @return The bytes of the documents at the given index.
+       */
+      public com.google.protobuf.ByteString
+          getDocumentsBytes(int index) {
+        return documents_.getByteString(index);
+      }
+      /**
+       * <pre>
+       * the documents to search, unless the task is for a shard
+       * </pre>
+       *
+       * <code>repeated string documents = 2;</code>
+       * @param index The index to set the value at.
+       * @param value The documents to set.
+       * @return This builder for chaining.
+       */
+      public Builder setDocuments(
+          int index, java.lang.String value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  ensureDocumentsIsMutable();
+        documents_.set(index, value);
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * the documents to search, unless the task is for a shard
+       * </pre>
+       *
+       * <code>repeated string documents = 2;</code>
+       * @param value The documents to add.
+       * @return This builder for chaining.
+       */
+      public Builder addDocuments(
+          java.lang.String value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  ensureDocumentsIsMutable();
+        documents_.add(value);
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * the documents to search, unless the task is for a shard
+       * </pre>
+       *
+       * <code>repeated string documents = 2;</code>
+       * @param values The documents to add.
+       * @return This builder for chaining.
+       */
+      public Builder addAllDocuments(
+          java.lang.Iterable<java.lang.String> values) {
+        ensureDocumentsIsMutable();
+        com.google.protobuf.AbstractMessageLite.Builder.addAll(
+            values, documents_);
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * the documents to search, unless the task is for a shard
+       * </pre>
+       *
+       * <code>repeated string documents = 2;</code>
+       * @return This builder for chaining.
+       */
+      public Builder clearDocuments() {
+        documents_ = com.google.protobuf.LazyStringArrayList.EMPTY;
+        bitField0_ = (bitField0_ & ~0x00000002);
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * the documents to search, unless the task is for a shard
+       * </pre>
+       *
+       * <code>repeated string documents = 2;</code>
+       * @param value The bytes of the documents to add.
+       * @return This builder for chaining.
+       */
+      public Builder addDocumentsBytes(
+          com.google.protobuf.ByteString value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  ensureDocumentsIsMutable();
+        documents_.add(value);
+        onChanged();
+        return this;
+      }
+
+      private int shardId_ ;
+      /**
+       * <pre>
+       * the shard the worker resolves to its own documents, out of number_of_shards
+       * </pre>
+       *
+       * <code>optional int32 shard_id = 3;</code>
+       * @return Whether the shardId field is set.
+       */
+      @java.lang.Override
+      public boolean hasShardId() {
+        return ((bitField0_ & 0x00000004) != 0);
+      }
+      /**
+       * <pre>
+       * the shard the worker resolves to its own documents, out of number_of_shards
+       * </pre>
+       *
+       * <code>optional int32 shard_id = 3;</code>
+       * @return The shardId.
+       */
+      @java.lang.Override
+      public int getShardId() {
+        return shardId_;
+      }
+      /**
+       * <pre>
+       * the shard the worker resolves to its own documents, out of number_of_shards
+       * </pre>
+       *
+       * <code>optional int32 shard_id = 3;</code>
+       * @param value The shardId to set.
+       * @return This builder for chaining.
+       */
+      public Builder setShardId(int value) {
+        bitField0_ |= 0x00000004;
+        shardId_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * the shard the worker resolves to its own documents, out of number_of_shards
+       * </pre>
+       *
+       * <code>optional int32 shard_id = 3;</code>
+       * @return This builder for chaining.
+       */
+      public Builder clearShardId() {
+        bitField0_ = (bitField0_ & ~0x00000004);
+        shardId_ = 0;
+        onChanged();
+        return this;
+      }
+
+      private int numberOfShards_ ;
+      /**
+       * <code>optional int32 number_of_shards = 4;</code>
+       * @return Whether the numberOfShards field is set.
+       */
+      @java.lang.Override
+      public boolean hasNumberOfShards() {
+        return ((bitField0_ & 0x00000008) != 0);
+      }
+      /**
+       * <code>optional int32 number_of_shards = 4;</code>
+       * @return The numberOfShards.
+       */
+      @java.lang.Override
+      public int getNumberOfShards() {
+        return numberOfShards_;
+      }
+      /**
+       * <code>optional int32 number_of_shards = 4;</code>
+       * @param value The numberOfShards to set.
+       * @return This builder for chaining.
+       */
+      public Builder setNumberOfShards(int value) {
+        bitField0_ |= 0x00000008;
+        numberOfShards_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional int32 number_of_shards = 4;</code>
+       * @return This builder for chaining.
+       */
+      public Builder clearNumberOfShards() {
+        bitField0_ = (bitField0_ & ~0x00000008);
+        numberOfShards_ = 0;
+        onChanged();
+        return this;
+      }
+
+      private long timeBudgetMillis_ ;
+      /**
+       * <pre>
+       * how long the worker has to answer in milliseconds, unlimited when not set
+       * </pre>
+       *
+       * <code>optional int64 time_budget_millis = 5;</code>
+       * @return Whether the timeBudgetMillis field is set.
+       */
+      @java.lang.Override
+      public boolean hasTimeBudgetMillis() {
+        return ((bitField0_ & 0x00000010) != 0);
+      }
+      /**
+       * <pre>
+       * how long the worker has to answer in milliseconds, unlimited when not set
+       * </pre>
+       *
+       * <code>optional int64 time_budget_millis = 5;</code>
+       * @return The timeBudgetMillis.
+       */
+      @java.lang.Override
+      public long getTimeBudgetMillis() {
+        return timeBudgetMillis_;
+      }
+      /**
+       * <pre>
+       * how long the worker has to answer in milliseconds, unlimited when not set
+       * </pre>
+       *
+       * <code>optional int64 time_budget_millis = 5;</code>
+       * @param value The timeBudgetMillis to set.
+       * @return This builder for chaining.
+       */
+      public Builder setTimeBudgetMillis(long value) {
+        bitField0_ |= 0x00000010;
+        timeBudgetMillis_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * how long the worker has to answer in milliseconds, unlimited when not set
+       * </pre>
+       *
+       * <code>optional int64 time_budget_millis = 5;</code>
+       * @return This builder for chaining.
+       */
+      public Builder clearTimeBudgetMillis() {
+        bitField0_ = (bitField0_ & ~0x00000010);
+        timeBudgetMillis_ = 0L;
+        onChanged();
+        return this;
+      }
+      @java.lang.Override
+      public final Builder setUnknownFields(
+          final com.google.protobuf.UnknownFieldSet unknownFields) {
+        return super.setUnknownFields(unknownFields);
+      }
+
+      @java.lang.Override
+      public final Builder mergeUnknownFields(
+          final com.google.protobuf.UnknownFieldSet unknownFields) {
+        return super.mergeUnknownFields(unknownFields);
+      }
+
+
+      // @@protoc_insertion_point(builder_scope:DistributedSearch.Task)
+    }
+
+    // @@protoc_insertion_point(class_scope:DistributedSearch.Task)
+    private static final model.proto.SearchModel.Task DEFAULT_INSTANCE;
+    static {
+      DEFAULT_INSTANCE = new model.proto.SearchModel.Task();
+    }
+
+    public static model.proto.SearchModel.Task getDefaultInstance() {
+      return DEFAULT_INSTANCE;
+    }
+
+    @java.lang.Deprecated public static final com.google.protobuf.Parser<Task>
+        PARSER = new com.google.protobuf.AbstractParser<Task>() {
+      @java.lang.Override
+      public Task parsePartialFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws com.google.protobuf.InvalidProtocolBufferException {
+        return new Task(input, extensionRegistry);
+      }
+    };
+
+    public static com.google.protobuf.Parser<Task> parser() {
+      return PARSER;
+    }
+
+    @java.lang.Override
+    public com.google.protobuf.Parser<Task> getParserForType() {
+      return PARSER;
+    }
+
+    @java.lang.Override
+    public model.proto.SearchModel.Task getDefaultInstanceForType() {
+      return DEFAULT_INSTANCE;
+    }
+
+  }
+
+  public interface ResultOrBuilder extends
+      // @@protoc_insertion_point(interface_extends:DistributedSearch.Result)
+      com.google.protobuf.MessageOrBuilder {
+
+    /**
+     * <pre>
+     * only the documents containing at least one of the search terms
+     * </pre>
+     *
+     * <code>repeated .DistributedSearch.Result.DocumentResult document_results = 1;</code>
+     */
+    java.util.List<model.proto.SearchModel.Result.DocumentResult> 
+        getDocumentResultsList();
+    /**
+     * <pre>
+     * only the documents containing at least one of the search terms
+     * </pre>
+     *
+     * <code>repeated .DistributedSearch.Result.DocumentResult document_results = 1;</code>
+     */
+    model.proto.SearchModel.Result.DocumentResult getDocumentResults(int index);
+    /**
+     * <pre>
+     * only the documents containing at least one of the search terms
+     * </pre>
+     *
+     * <code>repeated .DistributedSearch.Result.DocumentResult document_results = 1;</code>
+     */
+    int getDocumentResultsCount();
+    /**
+     * <pre>
+     * only the documents containing at least one of the search terms
+     * </pre>
+     *
+     * <code>repeated .DistributedSearch.Result.DocumentResult document_results = 1;</code>
+     */
+    java.util.List<? extends model.proto.SearchModel.Result.DocumentResultOrBuilder> 
+        getDocumentResultsOrBuilderList();
+    /**
+     * <pre>
+     * only the documents containing at least one of the search terms
+     * </pre>
+     *
+     * <code>repeated .DistributedSearch.Result.DocumentResult document_results = 1;</code>
+     */
+    model.proto.SearchModel.Result.DocumentResultOrBuilder getDocumentResultsOrBuilder(
+        int index);
+
+    /**
+     * <pre>
+     * all the documents of the task, matching or not, which the inverse document frequency needs
+     * </pre>
+     *
+     * <code>optional int32 number_of_documents = 2;</code>
+     * @return Whether the numberOfDocuments field is set.
+     */
+    boolean hasNumberOfDocuments();
+    /**
+     * <pre>
+     * all the documents of the task, matching or not, which the inverse document frequency needs
+     * </pre>
+     *
+     * <code>optional int32 number_of_documents = 2;</code>
+     * @return The numberOfDocuments.
+     */
+    int getNumberOfDocuments();
+
+    /**
+     * <pre>
+     * set when the worker ran out of time before processing all the documents
+     * </pre>
+     *
+     * <code>optional bool partial = 3;</code>
+     * @return Whether the partial field is set.
+     */
+    boolean hasPartial();
+    /**
+     * <pre>
+     * set when the worker ran out of time before processing all the documents
+     * </pre>
+     *
+     * <code>optional bool partial = 3;</code>
+     * @return The partial.
+     */
+    boolean getPartial();
+  }
+  /**
+   * Protobuf type {@code DistributedSearch.Result}
+   */
+  public static final class Result extends
+      com.google.protobuf.GeneratedMessageV3 implements
+      // @@protoc_insertion_point(message_implements:DistributedSearch.Result)
+      ResultOrBuilder {
+  private static final long serialVersionUID = 0L;
+    // Use Result.newBuilder() to construct.
+    private Result(com.google.protobuf.GeneratedMessageV3.Builder<?> builder) {
+      super(builder);
+    }
+    private Result() {
+      documentResults_ = java.util.Collections.emptyList();
+    }
+
+    @java.lang.Override
+    @SuppressWarnings({"unused"})
+    protected java.lang.Object newInstance(
+        UnusedPrivateParameter unused) {
+      return new Result();
+    }
+
+    @java.lang.Override
+    public final com.google.protobuf.UnknownFieldSet
+    getUnknownFields() {
+      return this.unknownFields;
+    }
+    private Result(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      this();
+      if (extensionRegistry == null) {
+        throw new java.lang.NullPointerException();
+      }
+      int mutable_bitField0_ = 0;
+      com.google.protobuf.UnknownFieldSet.Builder unknownFields =
+          com.google.protobuf.UnknownFieldSet.newBuilder();
+      try {
+        boolean done = false;
+        while (!done) {
+          int tag = input.readTag();
+          switch (tag) {
+            case 0:
+              done = true;
+              break;
+            case 10: {
+              if (!((mutable_bitField0_ & 0x00000001) != 0)) {
+                documentResults_ = new java.util.ArrayList<model.proto.SearchModel.Result.DocumentResult>();
+                mutable_bitField0_ |= 0x00000001;
+              }
+              documentResults_.add(
+                  input.readMessage(model.proto.SearchModel.Result.DocumentResult.PARSER, extensionRegistry));
+              break;
+            }
+            case 16: {
+              bitField0_ |= 0x00000001;
+              numberOfDocuments_ = input.readInt32();
+              break;
+            }
+            case 24: {
+              bitField0_ |= 0x00000002;
+              partial_ = input.readBool();
+              break;
+            }
+            default: {
+              if (!parseUnknownField(
+                  input, unknownFields, extensionRegistry, tag)) {
+                done = true;
+              }
+              break;
+            }
+          }
+        }
+      } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+        throw e.setUnfinishedMessage(this);
+      } catch (com.google.protobuf.UninitializedMessageException e) {
+        throw e.asInvalidProtocolBufferException().setUnfinishedMessage(this);
+      } catch (java.io.IOException e) {
+        throw new com.google.protobuf.InvalidProtocolBufferException(
+            e).setUnfinishedMessage(this);
+      } finally {
+        if (((mutable_bitField0_ & 0x00000001) != 0)) {
+          documentResults_ = java.util.Collections.unmodifiableList(documentResults_);
+        }
+        this.unknownFields = unknownFields.build();
+        makeExtensionsImmutable();
+      }
+    }
+    public static final com.google.protobuf.Descriptors.Descriptor
+        getDescriptor() {
+      return model.proto.SearchModel.internal_static_DistributedSearch_Result_descriptor;
+    }
+
+    @java.lang.Override
+    protected com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+        internalGetFieldAccessorTable() {
+      return model.proto.SearchModel.internal_static_DistributedSearch_Result_fieldAccessorTable
+          .ensureFieldAccessorsInitialized(
+              model.proto.SearchModel.Result.class, model.proto.SearchModel.Result.Builder.class);
+    }
+
+    public interface DocumentResultOrBuilder extends
+        // @@protoc_insertion_point(interface_extends:DistributedSearch.Result.DocumentResult)
+        com.google.protobuf.MessageOrBuilder {
+
+      /**
+       * <code>required string document = 1;</code>
+       * @return Whether the document field is set.
+       */
+      boolean hasDocument();
+      /**
+       * <code>required string document = 1;</code>
+       * @return The document.
+       */
+      java.lang.String getDocument();
+      /**
+       * <code>required string document = 1;</code>
+       * @return The bytes for document.
+       */
+      com.google.protobuf.ByteString
+          getDocumentBytes();
+
+      /**
+       * <pre>
+       * one frequency per search term of the task, in the same order
+       * </pre>
+       *
+       * <code>repeated double term_frequencies = 2 [packed = true];</code>
+       * @return A list containing the termFrequencies.
+       */
+      java.util.List<java.lang.Double> getTermFrequenciesList();
+      /**
+       * <pre>
+       * one frequency per search term of the task, in the same order
+       * </pre>
+       *
+       * <code>repeated double term_frequencies = 2 [packed = true];</code>
+       * @return The count of termFrequencies.
+       */
+      int getTermFrequenciesCount();
+      /**
+       * <pre>
+       * one frequency per search term of the task, in the same order
+       * </pre>
+       *
+       * <code>repeated double term_frequencies = 2 [packed = true];</code>
+       * @param index The index of the element to return.
+       * @return The termFrequencies at the given index.
+       */
+      double getTermFrequencies(int index);
+    }
+    /**
+     * Protobuf type {@code DistributedSearch.Result.DocumentResult}
+     */
+    public static final class DocumentResult extends
+        com.google.protobuf.GeneratedMessageV3 implements
+        // @@protoc_insertion_point(message_implements:DistributedSearch.Result.DocumentResult)
+        DocumentResultOrBuilder {
+    private static final long serialVersionUID = 0L;
+      // Use DocumentResult.newBuilder() to construct.
+      private DocumentResult(com.google.protobuf.GeneratedMessageV3.Builder<?> builder) {
+        super(builder);
+      }
+      private DocumentResult() {
+        document_ = "";
+        termFrequencies_ = emptyDoubleList();
+      }
+
+      @java.lang.Override
+      @SuppressWarnings({"unused"})
+      protected java.lang.Object newInstance(
+          UnusedPrivateParameter unused) {
+        return new DocumentResult();
+      }
+
+      @java.lang.Override
+      public final com.google.protobuf.UnknownFieldSet
+      getUnknownFields() {
+        return this.unknownFields;
+      }
+      private DocumentResult(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws com.google.protobuf.InvalidProtocolBufferException {
+        this();
+        if (extensionRegistry == null) {
+          throw new java.lang.NullPointerException();
+        }
+        int mutable_bitField0_ = 0;
+        com.google.protobuf.UnknownFieldSet.Builder unknownFields =
+            com.google.protobuf.UnknownFieldSet.newBuilder();
+        try {
+          boolean done = false;
+          while (!done) {
+            int tag = input.readTag();
+            switch (tag) {
+              case 0:
+                done = true;
+                break;
+              case 10: {
+                com.google.protobuf.ByteString bs = input.readBytes();
+                bitField0_ |= 0x00000001;
+                document_ = bs;
+                break;
+              }
+              case 17: {
+                if (!((mutable_bitField0_ & 0x00000002) != 0)) {
+                  termFrequencies_ = newDoubleList();
+                  mutable_bitField0_ |= 0x00000002;
+                }
+                termFrequencies_.addDouble(input.readDouble());
+                break;
+              }
+              case 18: {
+                int length = input.readRawVarint32();
+                int limit = input.pushLimit(length);
+                if (!((mutable_bitField0_ & 0x00000002) != 0) && input.getBytesUntilLimit() > 0) {
+                  termFrequencies_ = newDoubleList();
+                  mutable_bitField0_ |= 0x00000002;
+                }
+                while (input.getBytesUntilLimit() > 0) {
+                  termFrequencies_.addDouble(input.readDouble());
+                }
+                input.popLimit(limit);
+                break;
+              }
+              default: {
+                if (!parseUnknownField(
+                    input, unknownFields, extensionRegistry, tag)) {
+                  done = true;
+                }
+                break;
+              }
+            }
+          }
+        } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+          throw e.setUnfinishedMessage(this);
+        } catch (com.google.protobuf.UninitializedMessageException e) {
+          throw e.asInvalidProtocolBufferException().setUnfinishedMessage(this);
+        } catch (java.io.IOException e) {
+          throw new com.google.protobuf.InvalidProtocolBufferException(
+              e).setUnfinishedMessage(this);
+        } finally {
+          if (((mutable_bitField0_ & 0x00000002) != 0)) {
+            termFrequencies_.makeImmutable(); // C
+          }
+          this.unknownFields = unknownFields.build();
+          makeExtensionsImmutable();
+        }
+      }
+      public static final com.google.protobuf.Descriptors.Descriptor
+          getDescriptor() {
+        return model.proto.SearchModel.internal_static_DistributedSearch_Result_DocumentResult_descriptor;
+      }
+
+      @java.lang.Override
+      protected com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+          internalGetFieldAccessorTable() {
+        return model.proto.SearchModel.internal_static_DistributedSearch_Result_DocumentResult_fieldAccessorTable
+            .ensureFieldAccessorsInitialized(
+                model.proto.SearchModel.Result.DocumentResult.class, model.proto.SearchModel.Result.DocumentResult.Builder.class);
+      }
+
+      private int bitField0_;
+      public static final int DOCUMENT_FIELD_NUMBER = 1;
+      private volatile java.lang.Object document_;
+      /**
+       * <code>required string document = 1;</code>
+       * @return Whether the document field is set.
+       */
+      @java.lang.Override
+      public boolean hasDocument() {
+        return ((bitField0_ & 0x00000001) != 0);
+      }
+      /**
+       * <code>required string document = 1;</code>
+       * @return The document.
+       */
+      @java.lang.Override
+      public java.lang.String getDocument() {
+        java.lang.Object ref = document_;
+        if (ref instanceof java.lang.String) {
+          return (java.lang.String) ref;
+        } else {
+          com.google.protobuf.ByteString bs = 
+              (com.google.protobuf.ByteString) ref;
+          java.lang.String s = bs.toStringUtf8();
+          if (bs.isValidUtf8()) {
+            document_ = s;
+          }
+          return s;
+        }
+      }
+      /**
+       * <code>required string document = 1;</code>
+       * @return The bytes for document.
+       */
+      @java.lang.Override
+      public com.google.protobuf.ByteString
+          getDocumentBytes() {
+        java.lang.Object ref = document_;
+        if (ref instanceof java.lang.String) {
+          com.google.protobuf.ByteString b = 
+              com.google.protobuf.ByteString.copyFromUtf8(
+                  (java.lang.String) ref);
+          document_ = b;
+          return b;
+        } else {
+          return (com.google.protobuf.ByteString) ref;
+        }
+      }
+
+      public static final int TERM_FREQUENCIES_FIELD_NUMBER = 2;
+      private com.google.protobuf.Internal.DoubleList termFrequencies_;
+      /**
+       * <pre>
+       * one frequency per search term of the task, in the same order
+       * </pre>
+       *
+       * <code>repeated double term_frequencies = 2 [packed = true];</code>
+       * @return A list containing the termFrequencies.
+       */
+      @java.lang.Override
+      public java.util.List<java.lang.Double>
+          getTermFrequenciesList() {
+        return termFrequencies_;
+      }
+      /**
+       * <pre>
+       * one frequency per search term of the task, in the same order
+       * </pre>
+       *
+       * <code>repeated double term_frequencies = 2 [packed = true];</code>
+       * @return The count of termFrequencies.
+       */
+      public int getTermFrequenciesCount() {
+        return termFrequencies_.size();
+      }
+      /**
+       * <pre>
+       * one frequency per search term of the task, in the same order
+       * </pre>
+       *
+       * <code>repeated double term_frequencies = 2 [packed = true];</code>
+       * @param index The index of the element to return.
+       * @return The termFrequencies at the given index.
+       */
+      public double getTermFrequencies(int index) {
+        return termFrequencies_.getDouble(index);
+      }
+      private int termFrequenciesMemoizedSerializedSize = -1;
+
+      private byte memoizedIsInitialized = -1;
+      @java.lang.Override
+      public final boolean isInitialized() {
+        byte isInitialized = memoizedIsInitialized;
+        if (isInitialized == 1) return true;
+        if (isInitialized == 0) return false;
+
+        if (!hasDocument()) {
+          memoizedIsInitialized = 0;
+          return false;
+        }
+        memoizedIsInitialized = 1;
+        return true;
+      }
+
+      @java.lang.Override
+      public void writeTo(com.google.protobuf.CodedOutputStream output)
+                          throws java.io.IOException {
+        getSerializedSize();
+        if (((bitField0_ & 0x00000001) != 0)) {
+          com.google.protobuf.GeneratedMessageV3.writeString(output, 1, document_);
+        }
+        if (getTermFrequenciesList().size() > 0) {
+          output.writeUInt32NoTag(18);
+          output.writeUInt32NoTag(termFrequenciesMemoizedSerializedSize);
+        }
+        for (int i = 0; i < termFrequencies_.size(); i++) {
+          output.writeDoubleNoTag(termFrequencies_.getDouble(i));
+        }
+        unknownFields.writeTo(output);
+      }
+
+      @java.lang.Override
+      public int getSerializedSize() {
+        int size = memoizedSize;
+        if (size != -1) return size;
+
+        size = 0;
+        if (((bitField0_ & 0x00000001) != 0)) {
+          size += com.google.protobuf.GeneratedMessageV3.computeStringSize(1, document_);
+        }
+        {
+          int dataSize = 0;
+          dataSize = 8 * getTermFrequenciesList().size();
+          size += dataSize;
+          if (!getTermFrequenciesList().isEmpty()) {
+            size += 1;
+            size += com.google.protobuf.CodedOutputStream
+                .computeInt32SizeNoTag(dataSize);
+          }
+          termFrequenciesMemoizedSerializedSize = dataSize;
+        }
+        size += unknownFields.getSerializedSize();
+        memoizedSize = size;
+        return size;
+      }
+
+      @java.lang.Override
+      public boolean equals(final java.lang.Object obj) {
+        if (obj == this) {
+         return true;
+        }
+        if (!(obj instanceof model.proto.SearchModel.Result.DocumentResult)) {
+          return super.equals(obj);
+        }
+        model.proto.SearchModel.Result.DocumentResult other = (model.proto.SearchModel.Result.DocumentResult) obj;
+
+        if (hasDocument() != other.hasDocument()) return false;
+        if (hasDocument()) {
+          if (!getDocument()
+              .equals(other.getDocument())) return false;
+        }
+        if (!getTermFrequenciesList()
+            .equals(other.getTermFrequenciesList())) return false;
+        if (!unknownFields.equals(other.unknownFields)) return false;
+        return true;
+      }
+
+      @java.lang.Override
+      public int hashCode() {
+        if (memoizedHashCode != 0) {
+          return memoizedHashCode;
+        }
+        int hash = 41;
+        hash = (19 * hash) + getDescriptor().hashCode();
+        if (hasDocument()) {
+          hash = (37 * hash) + DOCUMENT_FIELD_NUMBER;
+          hash = (53 * hash) + getDocument().hashCode();
+        }
+        if (getTermFrequenciesCount() > 0) {
+          hash = (37 * hash) + TERM_FREQUENCIES_FIELD_NUMBER;
+          hash = (53 * hash) + getTermFrequenciesList().hashCode();
+        }
+        hash = (29 * hash) + unknownFields.hashCode();
+        memoizedHashCode = hash;
+        return hash;
+      }
+
+      public static model.proto.SearchModel.Result.DocumentResult parseFrom(
+          java.nio.ByteBuffer data)
+          throws com.google.protobuf.InvalidProtocolBufferException {
+        return PARSER.parseFrom(data);
+      }
+      public static model.proto.SearchModel.Result.DocumentResult parseFrom(
+          java.nio.ByteBuffer data,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws com.google.protobuf.InvalidProtocolBufferException {
+        return PARSER.parseFrom(data, extensionRegistry);
+      }
+      public static model.proto.SearchModel.Result.DocumentResult parseFrom(
+          com.google.protobuf.ByteString data)
+          throws com.google.protobuf.InvalidProtocolBufferException {
+        return PARSER.parseFrom(data);
+      }
+      public static model.proto.SearchModel.Result.DocumentResult parseFrom(
+          com.google.protobuf.ByteString data,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws com.google.protobuf.InvalidProtocolBufferException {
+        return PARSER.parseFrom(data, extensionRegistry);
+      }
+      public static model.proto.SearchModel.Result.DocumentResult parseFrom(byte[] data)
+          throws com.google.protobuf.InvalidProtocolBufferException {
+        return PARSER.parseFrom(data);
+      }
+      public static model.proto.SearchModel.Result.DocumentResult parseFrom(
+          byte[] data,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws com.google.protobuf.InvalidProtocolBufferException {
+        return PARSER.parseFrom(data, extensionRegistry);
+      }
+      public static model.proto.SearchModel.Result.DocumentResult parseFrom(java.io.InputStream input)
+          throws java.io.IOException {
+        return com.google.protobuf.GeneratedMessageV3
+            .parseWithIOException(PARSER, input);
+      }
+      public static model.proto.SearchModel.Result.DocumentResult parseFrom(
+          java.io.InputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws java.io.IOException {
+        return com.google.protobuf.GeneratedMessageV3
+            .parseWithIOException(PARSER, input, extensionRegistry);
+      }
+      public static model.proto.SearchModel.Result.DocumentResult parseDelimitedFrom(java.io.InputStream input)
+          throws java.io.IOException {
+        return com.google.protobuf.GeneratedMessageV3
+            .parseDelimitedWithIOException(PARSER, input);
+      }
+      public static model.proto.SearchModel.Result.DocumentResult parseDelimitedFrom(
+          java.io.InputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws java.io.IOException {
+        return com.google.protobuf.GeneratedMessageV3
+            .parseDelimitedWithIOException(PARSER, input, extensionRegistry);
+      }
+      public static model.proto.SearchModel.Result.DocumentResult parseFrom(
+          com.google.protobuf.CodedInputStream input)
+          throws java.io.IOException {
+        return com.google.protobuf.GeneratedMessageV3
+            .parseWithIOException(PARSER, input);
+      }
+      public static model.proto.SearchModel.Result.DocumentResult parseFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws java.io.IOException {
+        return com.google.protobuf.GeneratedMessageV3
+            .parseWithIOException(PARSER, input, extensionRegistry);
+      }
+
+      @java.lang.Override
+      public Builder newBuilderForType() { return newBuilder(); }
+      public static Builder newBuilder() {
+        return DEFAULT_INSTANCE.toBuilder();
+      }
+      public static Builder newBuilder(model.proto.SearchModel.Result.DocumentResult prototype) {
+        return DEFAULT_INSTANCE.toBuilder().mergeFrom(prototype);
+      }
+      @java.lang.Override
+      public Builder toBuilder() {
+        return this == DEFAULT_INSTANCE
+            ? new Builder() : new Builder().mergeFrom(this);
+      }
+
+      @java.lang.Override
+      protected Builder newBuilderForType(
+          com.google.protobuf.GeneratedMessageV3.BuilderParent parent) {
+        Builder builder = new Builder(parent);
+        return builder;
+      }
+      /**
+       * Protobuf type {@code DistributedSearch.Result.DocumentResult}
+       */
+      public static final class Builder extends
+          com.google.protobuf.GeneratedMessageV3.Builder<Builder> implements
+          // @@protoc_insertion_point(builder_implements:DistributedSearch.Result.DocumentResult)
+          model.proto.SearchModel.Result.DocumentResultOrBuilder {
+        public static final com.google.protobuf.Descriptors.Descriptor
+            getDescriptor() {
+          return model.proto.SearchModel.internal_static_DistributedSearch_Result_DocumentResult_descriptor;
+        }
+
+        @java.lang.Override
+        protected com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+            internalGetFieldAccessorTable() {
+          return model.proto.SearchModel.internal_static_DistributedSearch_Result_DocumentResult_fieldAccessorTable
+              .ensureFieldAccessorsInitialized(
+                  model.proto.SearchModel.Result.DocumentResult.class, model.proto.SearchModel.Result.DocumentResult.Builder.class);
+        }
+
+        // Construct using model.proto.SearchModel.Result.DocumentResult.newBuilder()
+        private Builder() {
+          maybeForceBuilderInitialization();
+        }
+
+        private Builder(
+            com.google.protobuf.GeneratedMessageV3.BuilderParent parent) {
+          super(parent);
+          maybeForceBuilderInitialization();
+        }
+        private void maybeForceBuilderInitialization() {
+          if (com.google.protobuf.GeneratedMessageV3
+                  .alwaysUseFieldBuilders) {
+          }
+        }
+        @java.lang.Override
+        public Builder clear() {
+          super.clear();
+          document_ = "";
+          bitField0_ = (bitField0_ & ~0x00000001);
+          termFrequencies_ = emptyDoubleList();
+          bitField0_ = (bitField0_ & ~0x00000002);
+          return this;
+        }
+
+        @java.lang.Override
+        public com.google.protobuf.Descriptors.Descriptor
+            getDescriptorForType() {
+          return model.proto.SearchModel.internal_static_DistributedSearch_Result_DocumentResult_descriptor;
+        }
+
+        @java.lang.Override
+        public model.proto.SearchModel.Result.DocumentResult getDefaultInstanceForType() {
+          return model.proto.SearchModel.Result.DocumentResult.getDefaultInstance();
+        }
+
+        @java.lang.Override
+        public model.proto.SearchModel.Result.DocumentResult build() {
+          model.proto.SearchModel.Result.DocumentResult result = buildPartial();
+          if (!result.isInitialized()) {
+            throw newUninitializedMessageException(result);
+          }
+          return result;
+        }
+
+        @java.lang.Override
+        public model.proto.SearchModel.Result.DocumentResult buildPartial() {
+          model.proto.SearchModel.Result.DocumentResult result = new model.proto.SearchModel.Result.DocumentResult(this);
+          int from_bitField0_ = bitField0_;
+          int to_bitField0_ = 0;
+          if (((from_bitField0_ & 0x00000001) != 0)) {
+            to_bitField0_ |= 0x00000001;
+          }
+          result.document_ = document_;
+          if (((bitField0_ & 0x00000002) != 0)) {
+            termFrequencies_.makeImmutable();
+            bitField0_ = (bitField0_ & ~0x00000002);
+          }
+          result.termFrequencies_ = termFrequencies_;
+          result.bitField0_ = to_bitField0_;
+          onBuilt();
+          return result;
+        }
+
+        @java.lang.Override
+        public Builder clone() {
+          return super.clone();
+        }
+        @java.lang.Override
+        public Builder setField(
+            com.google.protobuf.Descriptors.FieldDescriptor field,
+            java.lang.Object value) {
+          return super.setField(field, value);
+        }
+        @java.lang.Override
+        public Builder clearField(
+            com.google.protobuf.Descriptors.FieldDescriptor field) {
+          return super.clearField(field);
+        }
+        @java.lang.Override
+        public Builder clearOneof(
+            com.google.protobuf.Descriptors.OneofDescriptor oneof) {
+          return super.clearOneof(oneof);
+        }
+        @java.lang.Override
+        public Builder setRepeatedField(
+            com.google.protobuf.Descriptors.FieldDescriptor field,
+            int index, java.lang.Object value) {
+          return super.setRepeatedField(field, index, value);
+        }
+        @java.lang.Override
+        public Builder addRepeatedField(
+            com.google.protobuf.Descriptors.FieldDescriptor field,
+            java.lang.Object value) {
+          return super.addRepeatedField(field, value);
+        }
+        @java.lang.Override
+        public Builder mergeFrom(com.google.protobuf.Message other) {
+          if (other instanceof model.proto.SearchModel.Result.DocumentResult) {
+            return mergeFrom((model.proto.SearchModel.Result.DocumentResult)other);
+          } else {
+            super.mergeFrom(other);
+            return this;
+          }
+        }
+
+        public Builder mergeFrom(model.proto.SearchModel.Result.DocumentResult other) {
+          if (other == model.proto.SearchModel.Result.DocumentResult.getDefaultInstance()) return this;
+          if (other.hasDocument()) {
+            bitField0_ |= 0x00000001;
+            document_ = other.document_;
+            onChanged();
+          }
+          if (!other.termFrequencies_.isEmpty()) {
+            if (termFrequencies_.isEmpty()) {
+              termFrequencies_ = other.termFrequencies_;
+              bitField0_ = (bitField0_ & ~0x00000002);
+            } else {
+              ensureTermFrequenciesIsMutable();
+              termFrequencies_.addAll(other.termFrequencies_);
+            }
+            onChanged();
+          }
+          this.mergeUnknownFields(other.unknownFields);
+          onChanged();
+          return this;
+        }
+
+        @java.lang.Override
+        public final boolean isInitialized() {
+          if (!hasDocument()) {
+            return false;
+          }
+          return true;
+        }
+
+        @java.lang.Override
+        public Builder mergeFrom(
+            com.google.protobuf.CodedInputStream input,
+            com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+            throws java.io.IOException {
+          model.proto.SearchModel.Result.DocumentResult parsedMessage = null;
+          try {
+            parsedMessage = PARSER.parsePartialFrom(input, extensionRegistry);
+          } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+            parsedMessage = (model.proto.SearchModel.Result.DocumentResult) e.getUnfinishedMessage();
+            throw e.unwrapIOException();
+          } finally {
+            if (parsedMessage != null) {
+              mergeFrom(parsedMessage);
+            }
+          }
+          return this;
+        }
+        private int bitField0_;
+
+        private java.lang.Object document_ = "";
+        /**
+         * <code>required string document = 1;</code>
+         * @return Whether the document field is set.
+         */
+        public boolean hasDocument() {
+          return ((bitField0_ & 0x00000001) != 0);
+        }
+        /**
+         * <code>required string document = 1;</code>
+         * @return The document.
+         */
+        public java.lang.String getDocument() {
+          java.lang.Object ref = document_;
+          if (!(ref instanceof java.lang.String)) {
+            com.google.protobuf.ByteString bs =
+                (com.google.protobuf.ByteString) ref;
+            java.lang.String s = bs.toStringUtf8();
+            if (bs.isValidUtf8()) {
+              document_ = s;
+            }
+            return s;
+          } else {
+            return (java.lang.String) ref;
+          }
+        }
+        /**
+         * <code>required string document = 1;</code>
+         * @return The bytes for document.
+         */
+        public com.google.protobuf.ByteString
+            getDocumentBytes() {
+          java.lang.Object ref = document_;
+          if (ref instanceof String) {
+            com.google.protobuf.ByteString b = 
+                com.google.protobuf.ByteString.copyFromUtf8(
+                    (java.lang.String) ref);
+            document_ = b;
+            return b;
+          } else {
+            return (com.google.protobuf.ByteString) ref;
+          }
+        }
+        /**
+         * <code>required string document = 1;</code>
+         * @param value The document to set.
+         * @return This builder for chaining.
+         */
+        public Builder setDocument(
+            java.lang.String value) {
+          if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000001;
+          document_ = value;
+          onChanged();
+          return this;
+        }
+        /**
+         * <code>required string document = 1;</code>
+         * @return This builder for chaining.
+         */
+        public Builder clearDocument() {
+          bitField0_ = (bitField0_ & ~0x00000001);
+          document_ = getDefaultInstance().getDocument();
+          onChanged();
+          return this;
+        }
+        /**
+         * <code>required string document = 1;</code>
+         * @param value The bytes for document to set.
+         * @return This builder for chaining.
+         */
+        public Builder setDocumentBytes(
+            com.google.protobuf.ByteString value) {
+          if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000001;
+          document_ = value;
+          onChanged();
+          return this;
+        }
+
+        private com.google.protobuf.Internal.DoubleList termFrequencies_ = emptyDoubleList();
+        private void ensureTermFrequenciesIsMutable() {
+          if (!((bitField0_ & 0x00000002) != 0)) {
+            termFrequencies_ = mutableCopy(termFrequencies_);
+            bitField0_ |= 0x00000002;
+           }
+        }
+        /**
+         * <pre>
+         * one frequency per search term of the task, in the same order
+         * </pre>
+         *
+         * <code>repeated double term_frequencies = 2 [packed = true];</code>
+         * @return A list containing the termFrequencies.
+         */
+        public java.util.List<java.lang.Double>
+            getTermFrequenciesList() {
+          return ((bitField0_ & 0x00000002) != 0) ?
+                   java.util.Collections.unmodifiableList(termFrequencies_) : termFrequencies_;
+        }
+        /**
+         * <pre>
+         * one frequency per search term of the task, in the same order
+         * </pre>
+         *
+         * <code>repeated double term_frequencies = 2 [packed = true];</code>
+         * @return The count of termFrequencies.
+         */
+        public int getTermFrequenciesCount() {
+          return termFrequencies_.size();
+        }
+        /**
+         * <pre>
+         * one frequency per search term of the task, in the same order
+         * </pre>
+         *
+         * <code>repeated double term_frequencies = 2 [packed = true];</code>
+         * @param index The index of the element to return.
+         * @return The termFrequencies at the given index.
+         */
+        public double getTermFrequencies(int index) {
+          return termFrequencies_.getDouble(index);
+        }
+        /**
+         * <pre>
+         * one frequency per search term of the task, in the same order
+         * </pre>
+         *
+         * <code>repeated double term_frequencies = 2 [packed = true];</code>
+         * @param index The index to set the value at.
+         * @param value The termFrequencies to set.
+         * @return This builder for chaining.
+         */
+        public Builder setTermFrequencies(
+            int index, double value) {
+          ensureTermFrequenciesIsMutable();
+          termFrequencies_.setDouble(index, value);
+          onChanged();
+          return this;
+        }
+        /**
+         * <pre>
+         * one frequency per search term of the task, in the same order
+         * </pre>
+         *
+         * <code>repeated double term_frequencies = 2 [packed = true];</code>
+         * @param value The termFrequencies to add.
+         * @return This builder for chaining.
+         */
+        public Builder addTermFrequencies(double value) {
+          ensureTermFrequenciesIsMutable();
+          termFrequencies_.addDouble(value);
+          onChanged();
+          return this;
+        }
+        /**
+         * <pre>
+         * one frequency per search term of the task, in the same order
+         * </pre>
+         *
+         * <code>repeated double term_frequencies = 2 [packed = true];</code>
+         * @param values The termFrequencies to add.
+         * @return This builder for chaining.
+         */
+        public Builder addAllTermFrequencies(
+            java.lang.Iterable<? extends java.lang.Double> values) {
+          ensureTermFrequenciesIsMutable();
+          com.google.protobuf.AbstractMessageLite.Builder.addAll(
+              values, termFrequencies_);
+          onChanged();
+          return this;
+        }
+        /**
+         * <pre>
+         * one frequency per search term of the task, in the same order
+         * </pre>
+         *
+         * <code>repeated double term_frequencies = 2 [packed = true];</code>
+         * @return This builder for chaining.
+         */
+        public Builder clearTermFrequencies() {
+          termFrequencies_ = emptyDoubleList();
+          bitField0_ = (bitField0_ & ~0x00000002);
+          onChanged();
+          return this;
+        }
+        @java.lang.Override
+        public final Builder setUnknownFields(
+            final com.google.protobuf.UnknownFieldSet unknownFields) {
+          return super.setUnknownFields(unknownFields);
+        }
+
+        @java.lang.Override
+        public final Builder mergeUnknownFields(
+            final com.google.protobuf.UnknownFieldSet unknownFields) {
+          return super.mergeUnknownFields(unknownFields);
+        }
+
+
+        // @@protoc_insertion_point(builder_scope:DistributedSearch.Result.DocumentResult)
+      }
+
+      // @@protoc_insertion_point(class_scope:DistributedSearch.Result.DocumentResult)
+      private static final model.proto.SearchModel.Result.DocumentResult DEFAULT_INSTANCE;
+      static {
+        DEFAULT_INSTANCE = new model.proto.SearchModel.Result.DocumentResult();
+      }
+
+      public static model.proto.SearchModel.Result.DocumentResult getDefaultInstance() {
+        return DEFAULT_INSTANCE;
+      }
+
+      @java.lang.Deprecated public static final com.google.protobuf.Parser<DocumentResult>
+          PARSER = new com.google.protobuf.AbstractParser<DocumentResult>() {
+        @java.lang.Override
+        public DocumentResult parsePartialFrom(
+            com.google.protobuf.CodedInputStream input,
+            com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+            throws com.google.protobuf.InvalidProtocolBufferException {
+          return new DocumentResult(input, extensionRegistry);
+        }
+      };
+
+      public static com.google.protobuf.Parser<DocumentResult> parser() {
+        return PARSER;
+      }
+
+      @java.lang.Override
+      public com.google.protobuf.Parser<DocumentResult> getParserForType() {
+        return PARSER;
+      }
+
+      @java.lang.Override
+      public model.proto.SearchModel.Result.DocumentResult getDefaultInstanceForType() {
+        return DEFAULT_INSTANCE;
+      }
+
+    }
+
+    private int bitField0_;
+    public static final int DOCUMENT_RESULTS_FIELD_NUMBER = 1;
+    private java.util.List<model.proto.SearchModel.Result.DocumentResult> documentResults_;
+    /**
+     * <pre>
+     * only the documents containing at least one of the search terms
+     * </pre>
+     *
+     * <code>repeated .DistributedSearch.Result.DocumentResult document_results = 1;</code>
+     */
+    @java.lang.Override
+    public java.util.List<model.proto.SearchModel.Result.DocumentResult> getDocumentResultsList() {
+      return documentResults_;
+    }
+    /**
+     * <pre>
+     * only the documents containing at least one of the search terms
+     * </pre>
+     *
+     * <code>repeated .DistributedSearch.Result.DocumentResult document_results = 1;</code>
+     */
+    @java.lang.Override
+    public java.util.List<? extends model.proto.SearchModel.Result.DocumentResultOrBuilder> 
+        getDocumentResultsOrBuilderList() {
+      return documentResults_;
+    }
+    /**
+     * <pre>
+     * only the documents containing at least one of the search terms
+     * </pre>
+     *
+     * <code>repeated .DistributedSearch.Result.DocumentResult document_results = 1;</code>
+     */
+    @java.lang.Override
+    public int getDocumentResultsCount() {
+      return documentResults_.size();
+    }
+    /**
+     * <pre>
+     * only the documents containing at least one of the search terms
+     * </pre>
+     *
+     * <code>repeated .DistributedSearch.Result.DocumentResult document_results = 1;</code>
+     */
+    @java.lang.Override
+    public model.proto.SearchModel.Result.DocumentResult getDocumentResults(int index) {
+      return documentResults_.get(index);
+    }
+    /**
+     * <pre>
+     * only the documents containing at least one of the search terms
+     * </pre>
+     *
+     * <code>repeated .DistributedSearch.Result.DocumentResult document_results = 1;</code>
+     */
+    @java.lang.Override
+    public model.proto.SearchModel.Result.DocumentResultOrBuilder getDocumentResultsOrBuilder(
+        int index) {
+      return documentResults_.get(index);
+    }
+
+    public static final int NUMBER_OF_DOCUMENTS_FIELD_NUMBER = 2;
+    private int numberOfDocuments_;
+    /**
+     * <pre>
+     * all the documents of the task, matching or not, which the inverse document frequency needs
+     * </pre>
+     *
+     * <code>optional int32 number_of_documents = 2;</code>
+     * @return Whether the numberOfDocuments field is set.
+     */
+    @java.lang.Override
+    public boolean hasNumberOfDocuments() {
+      return ((bitField0_ & 0x00000001) != 0);
+    }
+    /**
+     * <pre>
+     * all the documents of the task, matching or not, which the inverse document frequency needs
+     * </pre>
+     *
+     * <code>optional int32 number_of_documents = 2;</code>
+     * @return The numberOfDocuments.
+     */
+    @java.lang.Override
+    public int getNumberOfDocuments() {
+      return numberOfDocuments_;
+    }
+
+    public static final int PARTIAL_FIELD_NUMBER = 3;
+    private boolean partial_;
+    /**
+     * <pre>
+     * set when the worker ran out of time before processing all the documents
+     * </pre>
+     *
+     * <code>optional bool partial = 3;</code>
+     * @return Whether the partial field is set.
+     */
+    @java.lang.Override
+    public boolean hasPartial() {
+      return ((bitField0_ & 0x00000002) != 0);
+    }
+    /**
+     * <pre>
+     * set when the worker ran out of time before processing all the documents
+     * </pre>
+     *
+     * <code>optional bool partial = 3;</code>
+     * @return The partial.
+     */
+    @java.lang.Override
+    public boolean getPartial() {
+      return partial_;
+    }
+
+    private byte memoizedIsInitialized = -1;
+    @java.lang.Override
+    public final boolean isInitialized() {
+      byte isInitialized = memoizedIsInitialized;
+      if (isInitialized == 1) return true;
+      if (isInitialized == 0) return false;
+
+      for (int i = 0; i < getDocumentResultsCount(); i++) {
+        if (!getDocumentResults(i).isInitialized()) {
+          memoizedIsInitialized = 0;
+          return false;
+        }
+      }
+      memoizedIsInitialized = 1;
+      return true;
+    }
+
+    @java.lang.Override
+    public void writeTo(com.google.protobuf.CodedOutputStream output)
+                        throws java.io.IOException {
+      for (int i = 0; i < documentResults_.size(); i++) {
+        output.writeMessage(1, documentResults_.get(i));
+      }
+      if (((bitField0_ & 0x00000001) != 0)) {
+        output.writeInt32(2, numberOfDocuments_);
+      }
+      if (((bitField0_ & 0x00000002) != 0)) {
+        output.writeBool(3, partial_);
+      }
+      unknownFields.writeTo(output);
+    }
+
+    @java.lang.Override
+    public int getSerializedSize() {
+      int size = memoizedSize;
+      if (size != -1) return size;
+
+      size = 0;
+      for (int i = 0; i < documentResults_.size(); i++) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeMessageSize(1, documentResults_.get(i));
+      }
+      if (((bitField0_ & 0x00000001) != 0)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeInt32Size(2, numberOfDocuments_);
+      }
+      if (((bitField0_ & 0x00000002) != 0)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeBoolSize(3, partial_);
+      }
+      size += unknownFields.getSerializedSize();
+      memoizedSize = size;
+      return size;
+    }
+
+    @java.lang.Override
+    public boolean equals(final java.lang.Object obj) {
+      if (obj == this) {
+       return true;
+      }
+      if (!(obj instanceof model.proto.SearchModel.Result)) {
+        return super.equals(obj);
+      }
+      model.proto.SearchModel.Result other = (model.proto.SearchModel.Result) obj;
+
+      if (!getDocumentResultsList()
+          .equals(other.getDocumentResultsList())) return false;
+      if (hasNumberOfDocuments() != other.hasNumberOfDocuments()) return false;
+      if (hasNumberOfDocuments()) {
+        if (getNumberOfDocuments()
+            != other.getNumberOfDocuments()) return false;
+      }
+      if (hasPartial() != other.hasPartial()) return false;
+      if (hasPartial()) {
+        if (getPartial()
+            != other.getPartial()) return false;
+      }
+      if (!unknownFields.equals(other.unknownFields)) return false;
+      return true;
+    }
+
+    @java.lang.Override
+    public int hashCode() {
+      if (memoizedHashCode != 0) {
+        return memoizedHashCode;
+      }
+      int hash = 41;
+      hash = (19 * hash) + getDescriptor().hashCode();
+      if (getDocumentResultsCount() > 0) {
+        hash = (37 * hash) + DOCUMENT_RESULTS_FIELD_NUMBER;
+        hash = (53 * hash) + getDocumentResultsList().hashCode();
+      }
+      if (hasNumberOfDocuments()) {
+        hash = (37 * hash) + NUMBER_OF_DOCUMENTS_FIELD_NUMBER;
+        hash = (53 * hash) + getNumberOfDocuments();
+      }
+      if (hasPartial()) {
+        hash = (37 * hash) + PARTIAL_FIELD_NUMBER;
+        hash = (53 * hash) + com.google.protobuf.Internal.hashBoolean(
+            getPartial());
+      }
+      hash = (29 * hash) + unknownFields.hashCode();
+      memoizedHashCode = hash;
+      return hash;
+    }
+
+    public static model.proto.SearchModel.Result parseFrom(
+        java.nio.ByteBuffer data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static model.proto.SearchModel.Result parseFrom(
+        java.nio.ByteBuffer data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static model.proto.SearchModel.Result parseFrom(
+        com.google.protobuf.ByteString data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static model.proto.SearchModel.Result parseFrom(
+        com.google.protobuf.ByteString data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static model.proto.SearchModel.Result parseFrom(byte[] data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static model.proto.SearchModel.Result parseFrom(
+        byte[] data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static model.proto.SearchModel.Result parseFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input);
+    }
+    public static model.proto.SearchModel.Result parseFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input, extensionRegistry);
+    }
+    public static model.proto.SearchModel.Result parseDelimitedFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseDelimitedWithIOException(PARSER, input);
+    }
+    public static model.proto.SearchModel.Result parseDelimitedFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseDelimitedWithIOException(PARSER, input, extensionRegistry);
+    }
+    public static model.proto.SearchModel.Result parseFrom(
+        com.google.protobuf.CodedInputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input);
+    }
+    public static model.proto.SearchModel.Result parseFrom(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input, extensionRegistry);
+    }
+
+    @java.lang.Override
+    public Builder newBuilderForType() { return newBuilder(); }
+    public static Builder newBuilder() {
+      return DEFAULT_INSTANCE.toBuilder();
+    }
+    public static Builder newBuilder(model.proto.SearchModel.Result prototype) {
+      return DEFAULT_INSTANCE.toBuilder().mergeFrom(prototype);
+    }
+    @java.lang.Override
+    public Builder toBuilder() {
+      return this == DEFAULT_INSTANCE
+          ? new Builder() : new Builder().mergeFrom(this);
+    }
+
+    @java.lang.Override
+    protected Builder newBuilderForType(
+        com.google.protobuf.GeneratedMessageV3.BuilderParent parent) {
+      Builder builder = new Builder(parent);
+      return builder;
+    }
+    /**
+     * Protobuf type {@code DistributedSearch.Result}
+     */
+    public static final class Builder extends
+        com.google.protobuf.GeneratedMessageV3.Builder<Builder> implements
+        // @@protoc_insertion_point(builder_implements:DistributedSearch.Result)
+        model.proto.SearchModel.ResultOrBuilder {
+      public static final com.google.protobuf.Descriptors.Descriptor
+          getDescriptor() {
+        return model.proto.SearchModel.internal_static_DistributedSearch_Result_descriptor;
+      }
+
+      @java.lang.Override
+      protected com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+          internalGetFieldAccessorTable() {
+        return model.proto.SearchModel.internal_static_DistributedSearch_Result_fieldAccessorTable
+            .ensureFieldAccessorsInitialized(
+                model.proto.SearchModel.Result.class, model.proto.SearchModel.Result.Builder.class);
+      }
+
+      // Construct using model.proto.SearchModel.Result.newBuilder()
+      private Builder() {
+        maybeForceBuilderInitialization();
+      }
+
+      private Builder(
+          com.google.protobuf.GeneratedMessageV3.BuilderParent parent) {
+        super(parent);
+        maybeForceBuilderInitialization();
+      }
+      private void maybeForceBuilderInitialization() {
+        if (com.google.protobuf.GeneratedMessageV3
+                .alwaysUseFieldBuilders) {
+          getDocumentResultsFieldBuilder();
+        }
+      }
+      @java.lang.Override
+      public Builder clear() {
+        super.clear();
+        if (documentResultsBuilder_ == null) {
+          documentResults_ = java.util.Collections.emptyList();
+          bitField0_ = (bitField0_ & ~0x00000001);
+        } else {
+          documentResultsBuilder_.clear();
+        }
+        numberOfDocuments_ = 0;
+        bitField0_ = (bitField0_ & ~0x00000002);
+        partial_ = false;
+        bitField0_ = (bitField0_ & ~0x00000004);
+        return this;
+      }
+
+      @java.lang.Override
+      public com.google.protobuf.Descriptors.Descriptor
+          getDescriptorForType() {
+        return model.proto.SearchModel.internal_static_DistributedSearch_Result_descriptor;
+      }
+
+      @java.lang.Override
+      public model.proto.SearchModel.Result getDefaultInstanceForType() {
+        return model.proto.SearchModel.Result.getDefaultInstance();
+      }
+
+      @java.lang.Override
+      public model.proto.SearchModel.Result build() {
+        model.proto.SearchModel.Result result = buildPartial();
+        if (!result.isInitialized()) {
+          throw newUninitializedMessageException(result);
+        }
+        return result;
+      }
+
+      @java.lang.Override
+      public model.proto.SearchModel.Result buildPartial() {
+        model.proto.SearchModel.Result result = new model.proto.SearchModel.Result(this);
+        int from_bitField0_ = bitField0_;
+        int to_bitField0_ = 0;
+        if (documentResultsBuilder_ == null) {
+          if (((bitField0_ & 0x00000001) != 0)) {
+            documentResults_ = java.util.Collections.unmodifiableList(documentResults_);
+            bitField0_ = (bitField0_ & ~0x00000001);
+          }
+          result.documentResults_ = documentResults_;
+        } else {
+          result.documentResults_ = documentResultsBuilder_.build();
+        }
+        if (((from_bitField0_ & 0x00000002) != 0)) {
+          result.numberOfDocuments_ = numberOfDocuments_;
+          to_bitField0_ |= 0x00000001;
+        }
+        if (((from_bitField0_ & 0x00000004) != 0)) {
+          result.partial_ = partial_;
+          to_bitField0_ |= 0x00000002;
+        }
+        result.bitField0_ = to_bitField0_;
+        onBuilt();
+        return result;
+      }
+
+      @java.lang.Override
+      public Builder clone() {
+        return super.clone();
+      }
+      @java.lang.Override
+      public Builder setField(
+          com.google.protobuf.Descriptors.FieldDescriptor field,
+          java.lang.Object value) {
+        return super.setField(field, value);
+      }
+      @java.lang.Override
+      public Builder clearField(
+          com.google.protobuf.Descriptors.FieldDescriptor field) {
+        return super.clearField(field);
+      }
+      @java.lang.Override
+      public Builder clearOneof(
+          com.google.protobuf.Descriptors.OneofDescriptor oneof) {
+        return super.clearOneof(oneof);
+      }
+      @java.lang.Override
+      public Builder setRepeatedField(
+          com.google.protobuf.Descriptors.FieldDescriptor field,
+          int index, java.lang.Object value) {
+        return super.setRepeatedField(field, index, value);
+      }
+      @java.lang.Override
+      public Builder addRepeatedField(
+          com.google.protobuf.Descriptors.FieldDescriptor field,
+          java.lang.Object value) {
+        return super.addRepeatedField(field, value);
+      }
+      @java.lang.Override
+      public Builder mergeFrom(com.google.protobuf.Message other) {
+        if (other instanceof model.proto.SearchModel.Result) {
+          return mergeFrom((model.proto.SearchModel.Result)other);
+        } else {
+          super.mergeFrom(other);
+          return this;
+        }
+      }
+
+      public Builder mergeFrom(model.proto.SearchModel.Result other) {
+        if (other == model.proto.SearchModel.Result.getDefaultInstance()) return this;
+        if (documentResultsBuilder_ == null) {
+          if (!other.documentResults_.isEmpty()) {
+            if (documentResults_.isEmpty()) {
+              documentResults_ = other.documentResults_;
+              bitField0_ = (bitField0_ & ~0x00000001);
+            } else {
+              ensureDocumentResultsIsMutable();
+              documentResults_.addAll(other.documentResults_);
+            }
+            onChanged();
+          }
+        } else {
+          if (!other.documentResults_.isEmpty()) {
+            if (documentResultsBuilder_.isEmpty()) {
+              documentResultsBuilder_.dispose();
+              documentResultsBuilder_ = null;
+              documentResults_ = other.documentResults_;
+              bitField0_ = (bitField0_ & ~0x00000001);
+              documentResultsBuilder_ = 
+                com.google.protobuf.GeneratedMessageV3.alwaysUseFieldBuilders ?
+                   getDocumentResultsFieldBuilder() : null;
+            } else {
+              documentResultsBuilder_.addAllMessages(other.documentResults_);
+            }
+          }
+        }
+        if (other.hasNumberOfDocuments()) {
+          setNumberOfDocuments(other.getNumberOfDocuments());
+        }
+        if (other.hasPartial()) {
+          setPartial(other.getPartial());
+        }
+        this.mergeUnknownFields(other.unknownFields);
+        onChanged();
+        return this;
+      }
+
+      @java.lang.Override
+      public final boolean isInitialized() {
+        for (int i = 0; i < getDocumentResultsCount(); i++) {
+          if (!getDocumentResults(i).isInitialized()) {
+            return false;
+          }
+        }
+        return true;
+      }
+
+      @java.lang.Override
+      public Builder mergeFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws java.io.IOException {
+        model.proto.SearchModel.Result parsedMessage = null;
+        try {
+          parsedMessage = PARSER.parsePartialFrom(input, extensionRegistry);
+        } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+          parsedMessage = (model.proto.SearchModel.Result) e.getUnfinishedMessage();
+          throw e.unwrapIOException();
+        } finally {
+          if (parsedMessage != null) {
+            mergeFrom(parsedMessage);
+          }
+        }
+        return this;
+      }
+      private int bitField0_;
+
+      private java.util.List<model.proto.SearchModel.Result.DocumentResult> documentResults_ =
+        java.util.Collections.emptyList();
+      private void ensureDocumentResultsIsMutable() {
+        if (!((bitField0_ & 0x00000001) != 0)) {
+          documentResults_ = new java.util.ArrayList<model.proto.SearchModel.Result.DocumentResult>(documentResults_);
+          bitField0_ |= 0x00000001;
+         }
+      }
+
+      private com.google.protobuf.RepeatedFieldBuilderV3<
+          model.proto.SearchModel.Result.DocumentResult, model.proto.SearchModel.Result.DocumentResult.Builder, model.proto.SearchModel.Result.DocumentResultOrBuilder> documentResultsBuilder_;
+
+      /**
+       * <pre>
+       * only the documents containing at least one of the search terms
+       * </pre>
+       *
+       * <code>repeated .DistributedSearch.Result.DocumentResult document_results = 1;</code>
+       */
+      public java.util.List<model.proto.SearchModel.Result.DocumentResult> getDocumentResultsList() {
+        if (documentResultsBuilder_ == null) {
+          return java.util.Collections.unmodifiableList(documentResults_);
+        } else {
+          return documentResultsBuilder_.getMessageList();
+        }
+      }
+      /**
+       * <pre>
+       * only the documents containing at least one of the search terms
+       * </pre>
+       *
+       * <code>repeated .DistributedSearch.Result.DocumentResult document_results = 1;</code>
+       */
+      public int getDocumentResultsCount() {
+        if (documentResultsBuilder_ == null) {
+          return documentResults_.size();
+        } else {
+          return documentResultsBuilder_.getCount();
+        }
+      }
+      /**
+       * <pre>
+       * only the documents containing at least one of the search terms
+       * </pre>
+       *
+       * <code>repeated .DistributedSearch.Result.DocumentResult document_results = 1;</code>
+       */
+      public model.proto.SearchModel.Result.DocumentResult getDocumentResults(int index) {
+        if (documentResultsBuilder_ == null) {
+          return documentResults_.get(index);
+        } else {
+          return documentResultsBuilder_.getMessage(index);
+        }
+      }
+      /**
+       * <pre>
+       * only the documents containing at least one of the search terms
+       * </pre>
+       *
+       * <code>repeated .DistributedSearch.Result.DocumentResult document_results = 1;</code>
+       */
+      public Builder setDocumentResults(
+          int index, model.proto.SearchModel.Result.DocumentResult value) {
+        if (documentResultsBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          ensureDocumentResultsIsMutable();
+          documentResults_.set(index, value);
+          onChanged();
+        } else {
+          documentResultsBuilder_.setMessage(index, value);
+        }
+        return this;
+      }
+      /**
+       * <pre>
+       * only the documents containing at least one of the search terms
+       * </pre>
+       *
+       * <code>repeated .DistributedSearch.Result.DocumentResult document_results = 1;</code>
+       */
+      public Builder setDocumentResults(
+          int index, model.proto.SearchModel.Result.DocumentResult.Builder builderForValue) {
+        if (documentResultsBuilder_ == null) {
+          ensureDocumentResultsIsMutable();
+          documentResults_.set(index, builderForValue.build());
+          onChanged();
+        } else {
+          documentResultsBuilder_.setMessage(index, builderForValue.build());
+        }
+        return this;
+      }
+      /**
+       * <pre>
+       * only the documents containing at least one of the search terms
+       * </pre>
+       *
+       * <code>repeated .DistributedSearch.Result.DocumentResult document_results = 1;</code>
+       */
+      public Builder addDocumentResults(model.proto.SearchModel.Result.DocumentResult value) {
+        if (documentResultsBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          ensureDocumentResultsIsMutable();
+          documentResults_.add(value);
+          onChanged();
+        } else {
+          documentResultsBuilder_.addMessage(value);
+        }
+        return this;
+      }
+      /**
+       * <pre>
+       * only the documents containing at least one of the search terms
+       * </pre>
+       *
+       * <code>repeated .DistributedSearch.Result.DocumentResult document_results = 1;</code>
+       */
+      public Builder addDocumentResults(
+          int index, model.proto.SearchModel.Result.DocumentResult value) {
+        if (documentResultsBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          ensureDocumentResultsIsMutable();
+          documentResults_.add(index, value);
+          onChanged();
+        } else {
+          documentResultsBuilder_.addMessage(index, value);
+        }
+        return this;
+      }
+      /**
+       * <pre>
+       * only the documents containing at least one of the search terms
+       * </pre>
+       *
+       * <code>repeated .DistributedSearch.Result.DocumentResult document_results = 1;</code>
+       */
+      public Builder addDocumentResults(
+          model.proto.SearchModel.Result.DocumentResult.Builder builderForValue) {
+        if (documentResultsBuilder_ == null) {
+          ensureDocumentResultsIsMutable();
+          documentResults_.add(builderForValue.build());
+          onChanged();
+        } else {
+          documentResultsBuilder_.addMessage(builderForValue.build());
+        }
+        return this;
+      }
+      /**
+       * <pre>
+       * only the documents containing at least one of the search terms
+       * </pre>
+       *
+       * <code>repeated .DistributedSearch.Result.DocumentResult document_results = 1;</code>
+       */
+      public Builder addDocumentResults(
+          int index, model.proto.SearchModel.Result.DocumentResult.Builder builderForValue) {
+        if (documentResultsBuilder_ == null) {
+          ensureDocumentResultsIsMutable();
+          documentResults_.add(index, builderForValue.build());
+          onChanged();
+        } else {
+          documentResultsBuilder_.addMessage(index, builderForValue.build());
+        }
+        return this;
+      }
+      /**
+       * <pre>
+       * only the documents containing at least one of the search terms
+       * </pre>
+       *
+       * <code>repeated .DistributedSearch.Result.DocumentResult document_results = 1;</code>
+       */
+      public Builder addAllDocumentResults(
+          java.lang.Iterable<? extends model.proto.SearchModel.Result.DocumentResult> values) {
+        if (documentResultsBuilder_ == null) {
+          ensureDocumentResultsIsMutable();
+          com.google.protobuf.AbstractMessageLite.Builder.addAll(
+              values, documentResults_);
+          onChanged();
+        } else {
+          documentResultsBuilder_.addAllMessages(values);
+        }
+        return this;
+      }
+      /**
+       * <pre>
+       * only the documents containing at least one of the search terms
+       * </pre>
+       *
+       * <code>repeated .DistributedSearch.Result.DocumentResult document_results = 1;</code>
+       */
+      public Builder clearDocumentResults() {
+        if (documentResultsBuilder_ == null) {
+          documentResults_ = java.util.Collections.emptyList();
+          bitField0_ = (bitField0_ & ~0x00000001);
+          onChanged();
+        } else {
+          documentResultsBuilder_.clear();
+        }
+        return this;
+      }
+      /**
+       * <pre>
+       * only the documents containing at least one of the search terms
+       * </pre>
+       *
+       * <code>repeated .DistributedSearch.Result.DocumentResult document_results = 1;</code>
+       */
+      public Builder removeDocumentResults(int index) {
+        if (documentResultsBuilder_ == null) {
+          ensureDocumentResultsIsMutable();
+          documentResults_.remove(index);
+          onChanged();
+        } else {
+          documentResultsBuilder_.remove(index);
+        }
+        return this;
+      }
+      /**
+       * <pre>
+       * only the documents containing at least one of the search terms
+       * </pre>
+       *
+       * <code>repeated .DistributedSearch.Result.DocumentResult document_results = 1;</code>
+       */
+      public model.proto.SearchModel.Result.DocumentResult.Builder getDocumentResultsBuilder(
+          int index) {
+        return getDocumentResultsFieldBuilder().getBuilder(index);
+      }
+      /**
+       * <pre>
+       * only the documents containing at least one of the search terms
+       * </pre>
+       *
+       * <code>repeated .DistributedSearch.Result.DocumentResult document_results = 1;</code>
+       */
+      public model.proto.SearchModel.Result.DocumentResultOrBuilder getDocumentResultsOrBuilder(
+          int index) {
+        if (documentResultsBuilder_ == null) {
+          return documentResults_.get(index);  } else {
+          return documentResultsBuilder_.getMessageOrBuilder(index);
+        }
+      }
+      /**
+       * <pre>
+       * only the documents containing at least one of the search terms
+       * </pre>
+       *
+       * <code>repeated .DistributedSearch.Result.DocumentResult document_results = 1;</code>
+       */
+      public java.util.List<? extends model.proto.SearchModel.Result.DocumentResultOrBuilder> 
+           getDocumentResultsOrBuilderList() {
+        if (documentResultsBuilder_ != null) {
+          return documentResultsBuilder_.getMessageOrBuilderList();
+        } else {
+          return java.util.Collections.unmodifiableList(documentResults_);
+        }
+      }
+      /**
+       * <pre>
+       * only the documents containing at least one of the search terms
+       * </pre>
+       *
+       * <code>repeated .DistributedSearch.Result.DocumentResult document_results = 1;</code>
+       */
+      public model.proto.SearchModel.Result.DocumentResult.Builder addDocumentResultsBuilder() {
+        return getDocumentResultsFieldBuilder().addBuilder(
+            model.proto.SearchModel.Result.DocumentResult.getDefaultInstance());
+      }
+      /**
+       * <pre>
+       * only the documents containing at least one of the search terms
+       * </pre>
+       *
+       * <code>repeated .DistributedSearch.Result.DocumentResult document_results = 1;</code>
+       */
+      public model.proto.SearchModel.Result.DocumentResult.Builder addDocumentResultsBuilder(
+          int index) {
+        return getDocumentResultsFieldBuilder().addBuilder(
+            index, model.proto.SearchModel.Result.DocumentResult.getDefaultInstance());
+      }
+      /**
+       * <pre>
+       * only the documents containing at least one of the search terms
+       * </pre>
+       *
+       * <code>repeated .DistributedSearch.Result.DocumentResult document_results = 1;</code>
+       */
+      public java.util.List<model.proto.SearchModel.Result.DocumentResult.Builder> 
+           getDocumentResultsBuilderList() {
+        return getDocumentResultsFieldBuilder().getBuilderList();
+      }
+      private com.google.protobuf.RepeatedFieldBuilderV3<
+          model.proto.SearchModel.Result.DocumentResult, model.proto.SearchModel.Result.DocumentResult.Builder, model.proto.SearchModel.Result.DocumentResultOrBuilder> 
+          getDocumentResultsFieldBuilder() {
+        if (documentResultsBuilder_ == null) {
+          documentResultsBuilder_ = new com.google.protobuf.RepeatedFieldBuilderV3<
+              model.proto.SearchModel.Result.DocumentResult, model.proto.SearchModel.Result.DocumentResult.Builder, model.proto.SearchModel.Result.DocumentResultOrBuilder>(
+                  documentResults_,
+                  ((bitField0_ & 0x00000001) != 0),
+                  getParentForChildren(),
+                  isClean());
+          documentResults_ = null;
+        }
+        return documentResultsBuilder_;
+      }
+
+      private int numberOfDocuments_ ;
+      /**
+       * <pre>
+       * all the documents of the task, matching or not, which the inverse document frequency needs
+       * </pre>
+       *
+       * <code>optional int32 number_of_documents = 2;</code>
+       * @return Whether the numberOfDocuments field is set.
+       */
+      @java.lang.Override
+      public boolean hasNumberOfDocuments() {
+        return ((bitField0_ & 0x00000002) != 0);
+      }
+      /**
+       * <pre>
+       * all the documents of the task, matching or not, which the inverse document frequency needs
+       * </pre>
+       *
+       * <code>optional int32 number_of_documents = 2;</code>
+       * @return The numberOfDocuments.
+       */
+      @java.lang.Override
+      public int getNumberOfDocuments() {
+        return numberOfDocuments_;
+      }
+      /**
+       * <pre>
+       * all the documents of the task, matching or not, which the inverse document frequency needs
+       * </pre>
+       *
+       * <code>optional int32 number_of_documents = 2;</code>
+       * @param value The numberOfDocuments to set.
+       * @return This builder for chaining.
+       */
+      public Builder setNumberOfDocuments(int value) {
+        bitField0_ |= 0x00000002;
+        numberOfDocuments_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * all the documents of the task, matching or not, which the inverse document frequency needs
+       * </pre>
+       *
+       * <code>optional int32 number_of_documents = 2;</code>
+       * @return This builder for chaining.
+       */
+      public Builder clearNumberOfDocuments() {
+        bitField0_ = (bitField0_ & ~0x00000002);
+        numberOfDocuments_ = 0;
+        onChanged();
+        return this;
+      }
+
+      private boolean partial_ ;
+      /**
+       * <pre>
+       * set when the worker ran out of time before processing all the documents
+       * </pre>
+       *
+       * <code>optional bool partial = 3;</code>
+       * @return Whether the partial field is set.
+       */
+      @java.lang.Override
+      public boolean hasPartial() {
+        return ((bitField0_ & 0x00000004) != 0);
+      }
+      /**
+       * <pre>
+       * set when the worker ran out of time before processing all the documents
+       * </pre>
+       *
+       * <code>optional bool partial = 3;</code>
+       * @return The partial.
+       */
+      @java.lang.Override
+      public boolean getPartial() {
+        return partial_;
+      }
+      /**
+       * <pre>
+       * set when the worker ran out of time before processing all the documents
+       * </pre>
+       *
+       * <code>optional bool partial = 3;</code>
+       * @param value The partial to set.
+       * @return This builder for chaining.
+       */
+      public Builder setPartial(boolean value) {
+        bitField0_ |= 0x00000004;
+        partial_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * set when the worker ran out of time before processing all the documents
+       * </pre>
+       *
+       * <code>optional bool partial = 3;</code>
+       * @return This builder for chaining.
+       */
+      public Builder clearPartial() {
+        bitField0_ = (bitField0_ & ~0x00000004);
+        partial_ = false;
+        onChanged();
+        return this;
+      }
+      @java.lang.Override
+      public final Builder setUnknownFields(
+          final com.google.protobuf.UnknownFieldSet unknownFields) {
+        return super.setUnknownFields(unknownFields);
+      }
+
+      @java.lang.Override
+      public final Builder mergeUnknownFields(
+          final com.google.protobuf.UnknownFieldSet unknownFields) {
+        return super.mergeUnknownFields(unknownFields);
+      }
+
+
+      // @@protoc_insertion_point(builder_scope:DistributedSearch.Result)
+    }
+
+    // @@protoc_insertion_point(class_scope:DistributedSearch.Result)
+    private static final model.proto.SearchModel.Result DEFAULT_INSTANCE;
+    static {
+      DEFAULT_INSTANCE = new model.proto.SearchModel.Result();
+    }
+
+    public static model.proto.SearchModel.Result getDefaultInstance() {
+      return DEFAULT_INSTANCE;
+    }
+
+    @java.lang.Deprecated public static final com.google.protobuf.Parser<Result>
+        PARSER = new com.google.protobuf.AbstractParser<Result>() {
+      @java.lang.Override
+      public Result parsePartialFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws com.google.protobuf.InvalidProtocolBufferException {
+        return new Result(input, extensionRegistry);
+      }
+    };
+
+    public static com.google.protobuf.Parser<Result> parser() {
+      return PARSER;
+    }
+
+    @java.lang.Override
+    public com.google.protobuf.Parser<Result> getParserForType() {
+      return PARSER;
+    }
+
+    @java.lang.Override
+    public model.proto.SearchModel.Result getDefaultInstanceForType() {
+      return DEFAULT_INSTANCE;
+    }
+
+  }
+
+  public interface ShardAssignmentOrBuilder extends
+      // @@protoc_insertion_point(interface_extends:DistributedSearch.ShardAssignment)
+      com.google.protobuf.MessageOrBuilder {
+
+    /**
+     * <code>required int32 number_of_shards = 1;</code>
+     * @return Whether the numberOfShards field is set.
+     */
+    boolean hasNumberOfShards();
+    /**
+     * <code>required int32 number_of_shards = 1;</code>
+     * @return The numberOfShards.
+     */
+    int getNumberOfShards();
+
+    /**
+     * <code>repeated .DistributedSearch.ShardAssignment.Shard shards = 2;</code>
+     */
+    java.util.List<model.proto.SearchModel.ShardAssignment.Shard> 
+        getShardsList();
+    /**
+     * <code>repeated .DistributedSearch.ShardAssignment.Shard shards = 2;</code>
+     */
+    model.proto.SearchModel.ShardAssignment.Shard getShards(int index);
+    /**
+     * <code>repeated .DistributedSearch.ShardAssignment.Shard shards = 2;</code>
+     */
+    int getShardsCount();
+    /**
+     * <code>repeated .DistributedSearch.ShardAssignment.Shard shards = 2;</code>
+     */
+    java.util.List<? extends model.proto.SearchModel.ShardAssignment.ShardOrBuilder> 
+        getShardsOrBuilderList();
+    /**
+     * <code>repeated .DistributedSearch.ShardAssignment.Shard shards = 2;</code>
+     */
+    model.proto.SearchModel.ShardAssignment.ShardOrBuilder getShardsOrBuilder(
+        int index);
+
+    /**
+     * <pre>
+     * the workers the assignment was computed for
+     * </pre>
+     *
+     * <code>repeated string workers = 3;</code>
+     * @return A list containing the workers.
+     */
+    java.util.List<java.lang.String>
+        getWorkersList();
+    /**
+     * <pre>
+     * the workers the assignment was computed for
+     * </pre>
+     *
+     * <code>repeated string workers = 3;</code>
+     * @return The count of workers.
+     */
+    int getWorkersCount();
+    /**
+     * <pre>
+     * the workers the assignment was computed for
+     * </pre>
+     *
+     * <code>repeated string workers = 3;</code>
+     * @param index The index of the element to return.
+     * @return The workers at the given index.
+     */
+    java.lang.String getWorkers(int index);
+    /**
+     * <pre>
+     * the workers the assignment was computed for
+     * </pre>
+     *
+     * <code>repeated string workers = 3;</code>
+     * @param index The index of the value to return.
+     * @return The bytes of the workers at the given index.
+     */
+    com.google.protobuf.ByteString
+        getWorkersBytes(int index);
+  }
+  /**
+   * <pre>
+   * stored in the /shard_assignment znode by the coordinator
+   * </pre>
+   *
+   * Protobuf type {@code DistributedSearch.ShardAssignment}
+   */
+  public static final class ShardAssignment extends
+      com.google.protobuf.GeneratedMessageV3 implements
+      // @@protoc_insertion_point(message_implements:DistributedSearch.ShardAssignment)
+      ShardAssignmentOrBuilder {
+  private static final long serialVersionUID = 0L;
+    // Use ShardAssignment.newBuilder() to construct.
+    private ShardAssignment(com.google.protobuf.GeneratedMessageV3.Builder<?> builder) {
+      super(builder);
+    }
+    private ShardAssignment() {
+      shards_ = java.util.Collections.emptyList();
+      workers_ = com.google.protobuf.LazyStringArrayList.EMPTY;
+    }
+
+    @java.lang.Override
+    @SuppressWarnings({"unused"})
+    protected java.lang.Object newInstance(
+        UnusedPrivateParameter unused) {
+      return new ShardAssignment();
+    }
+
+    @java.lang.Override
+    public final com.google.protobuf.UnknownFieldSet
+    getUnknownFields() {
+      return this.unknownFields;
+    }
+    private ShardAssignment(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      this();
+      if (extensionRegistry == null) {
+        throw new java.lang.NullPointerException();
+      }
+      int mutable_bitField0_ = 0;
+      com.google.protobuf.UnknownFieldSet.Builder unknownFields =
+          com.google.protobuf.UnknownFieldSet.newBuilder();
+      try {
+        boolean done = false;
+        while (!done) {
+          int tag = input.readTag();
+          switch (tag) {
+            case 0:
+              done = true;
+              break;
+            case 8: {
+              bitField0_ |= 0x00000001;
+              numberOfShards_ = input.readInt32();
+              break;
+            }
+            case 18: {
+              if (!((mutable_bitField0_ & 0x00000002) != 0)) {
+                shards_ = new java.util.ArrayList<model.proto.SearchModel.ShardAssignment.Shard>();
+                mutable_bitField0_ |= 0x00000002;
+              }
+              shards_.add(
+                  input.readMessage(model.proto.SearchModel.ShardAssignment.Shard.PARSER, extensionRegistry));
+              break;
+            }
+            case 26: {
+              com.google.protobuf.ByteString bs = input.readBytes();
+              if (!((mutable_bitField0_ & 0x00000004) != 0)) {
+                workers_ = new com.google.protobuf.LazyStringArrayList();
+                mutable_bitField0_ |= 0x00000004;
+              }
+              workers_.add(bs);
+              break;
+            }
+            default: {
+              if (!parseUnknownField(
+                  input, unknownFields, extensionRegistry, tag)) {
+                done = true;
+              }
+              break;
+            }
+          }
+        }
+      } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+        throw e.setUnfinishedMessage(this);
+      } catch (com.google.protobuf.UninitializedMessageException e) {
+        throw e.asInvalidProtocolBufferException().setUnfinishedMessage(this);
+      } catch (java.io.IOException e) {
+        throw new com.google.protobuf.InvalidProtocolBufferException(
+            e).setUnfinishedMessage(this);
+      } finally {
+        if (((mutable_bitField0_ & 0x00000002) != 0)) {
+          shards_ = java.util.Collections.unmodifiableList(shards_);
+        }
+        if (((mutable_bitField0_ & 0x00000004) != 0)) {
+          workers_ = workers_.getUnmodifiableView();
+        }
+        this.unknownFields = unknownFields.build();
+        makeExtensionsImmutable();
+      }
+    }
+    public static final com.google.protobuf.Descriptors.Descriptor
+        getDescriptor() {
+      return model.proto.SearchModel.internal_static_DistributedSearch_ShardAssignment_descriptor;
+    }
+
+    @java.lang.Override
+    protected com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+        internalGetFieldAccessorTable() {
+      return model.proto.SearchModel.internal_static_DistributedSearch_ShardAssignment_fieldAccessorTable
+          .ensureFieldAccessorsInitialized(
+              model.proto.SearchModel.ShardAssignment.class, model.proto.SearchModel.ShardAssignment.Builder.class);
+    }
+
+    public interface ShardOrBuilder extends
+        // @@protoc_insertion_point(interface_extends:DistributedSearch.ShardAssignment.Shard)
+        com.google.protobuf.MessageOrBuilder {
+
+      /**
+       * <code>required int32 shard_id = 1;</code>
+       * @return Whether the shardId field is set.
+       */
+      boolean hasShardId();
+      /**
+       * <code>required int32 shard_id = 1;</code>
+       * @return The shardId.
+       */
+      int getShardId();
+
+      /**
+       * <pre>
+       * the primary first, then the replicas
+       * </pre>
+       *
+       * <code>repeated string workers = 2;</code>
+       * @return A list containing the workers.
+       */
+      java.util.List<java.lang.String>
+          getWorkersList();
+      /**
+       * <pre>
+       * the primary first, then the replicas
+       * </pre>
+       *
+       * <code>repeated string workers = 2;</code>
+       * @return The count of workers.
+       */
+      int getWorkersCount();
+      /**
+       * <pre>
+       * the primary first, then the replicas
+       * </pre>
+       *
+       * <code>repeated string workers = 2;</code>
+       * @param index The index of the element to return.
+       * @return The workers at the given index.
+       */
+      java.lang.String getWorkers(int index);
+      /**
+       * <pre>
+       * the primary first, then the replicas
+       * </pre>
+       *
+       * <code>repeated string workers = 2;</code>
+       * @param index The index of the value to return.
+       * @return The bytes of the workers at the given index.
+       */
+      com.google.protobuf.ByteString
+          getWorkersBytes(int index);
+    }
+    /**
+     * Protobuf type {@code DistributedSearch.ShardAssignment.Shard}
+     */
+    public static final class Shard extends
+        com.google.protobuf.GeneratedMessageV3 implements
+        // @@protoc_insertion_point(message_implements:DistributedSearch.ShardAssignment.Shard)
+        ShardOrBuilder {
+    private static final long serialVersionUID = 0L;
+      // Use Shard.newBuilder() to construct.
+      private Shard(com.google.protobuf.GeneratedMessageV3.Builder<?> builder) {
+        super(builder);
+      }
+      private Shard() {
+        workers_ = com.google.protobuf.LazyStringArrayList.EMPTY;
+      }
+
+      @java.lang.Override
+      @SuppressWarnings({"unused"})
+      protected java.lang.Object newInstance(
+          UnusedPrivateParameter unused) {
+        return new Shard();
+      }
+
+      @java.lang.Override
+      public final com.google.protobuf.UnknownFieldSet
+      getUnknownFields() {
+        return this.unknownFields;
+      }
+      private Shard(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws com.google.protobuf.InvalidProtocolBufferException {
+        this();
+        if (extensionRegistry == null) {
+          throw new java.lang.NullPointerException();
+        }
+        int mutable_bitField0_ = 0;
+        com.google.protobuf.UnknownFieldSet.Builder unknownFields =
+            com.google.protobuf.UnknownFieldSet.newBuilder();
+        try {
+          boolean done = false;
+          while (!done) {
+            int tag = input.readTag();
+            switch (tag) {
+              case 0:
+                done = true;
+                break;
+              case 8: {
+                bitField0_ |= 0x00000001;
+                shardId_ = input.readInt32();
+                break;
+              }
+              case 18: {
+                com.google.protobuf.ByteString bs = input.readBytes();
+                if (!((mutable_bitField0_ & 0x00000002) != 0)) {
+                  workers_ = new com.google.protobuf.LazyStringArrayList();
+                  mutable_bitField0_ |= 0x00000002;
+                }
+                workers_.add(bs);
+                break;
+              }
+              default: {
+                if (!parseUnknownField(
+                    input, unknownFields, extensionRegistry, tag)) {
+                  done = true;
+                }
+                break;
+              }
+            }
+          }
+        } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+          throw e.setUnfinishedMessage(this);
+        } catch (com.google.protobuf.UninitializedMessageException e) {
+          throw e.asInvalidProtocolBufferException().setUnfinishedMessage(this);
+        } catch (java.io.IOException e) {
+          throw new com.google.protobuf.InvalidProtocolBufferException(
+              e).setUnfinishedMessage(this);
+        } finally {
+          if (((mutable_bitField0_ & 0x00000002) != 0)) {
+            workers_ = workers_.getUnmodifiableView();
+          }
+          this.unknownFields = unknownFields.build();
+          makeExtensionsImmutable();
+        }
+      }
+      public static final com.google.protobuf.Descriptors.Descriptor
+          getDescriptor() {
+        return model.proto.SearchModel.internal_static_DistributedSearch_ShardAssignment_Shard_descriptor;
+      }
+
+      @java.lang.Override
+      protected com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+          internalGetFieldAccessorTable() {
+        return model.proto.SearchModel.internal_static_DistributedSearch_ShardAssignment_Shard_fieldAccessorTable
+            .ensureFieldAccessorsInitialized(
+                model.proto.SearchModel.ShardAssignment.Shard.class, model.proto.SearchModel.ShardAssignment.Shard.Builder.class);
+      }
+
+      private int bitField0_;
+      public static final int SHARD_ID_FIELD_NUMBER = 1;
+      private int shardId_;
+      /**
+       * <code>required int32 shard_id = 1;</code>
+       * @return Whether the shardId field is set.
+       */
+      @java.lang.Override
+      public boolean hasShardId() {
+        return ((bitField0_ & 0x00000001) != 0);
+      }
+      /**
+       * <code>required int32 shard_id = 1;</code>
+       * @return The shardId.
+       */
+      @java.lang.Override
+      public int getShardId() {
+        return shardId_;
+      }
+
+      public static final int WORKERS_FIELD_NUMBER = 2;
+      private com.google.protobuf.LazyStringList workers_;
+      /**
+       * <pre>
+       * the primary first, then the replicas
+       * </pre>
+       *
+       * <code>repeated string workers = 2;</code>
+       * @return A list containing the workers.
+       */
+      public com.google.protobuf.ProtocolStringList
+          getWorkersList() {
+        return workers_;
+      }
+      /**
+       * <pre>
+       * the primary first, then the replicas
+       * </pre>
+       *
+       * <code>repeated string workers = 2;</code>
+       * @return The count of workers.
+       */
+      public int getWorkersCount() {
+        return workers_.size();
+      }
+      /**
+       * <pre>
+       * the primary first, then the replicas
+       * </pre>
+       *
+       * <code>repeated string workers = 2;</code>
+       * @param index The index of the element to return.
+       * @return The workers at the given index.
+       */
+      public java.lang.String getWorkers(int index) {
+        return workers_.get(index);
+      }
+      /**
+       * <pre>
+       * the primary first, then the replicas
+       * </pre>
+       *
+       * <code>repeated string workers = 2;</code>
+       * @param index The index of the value to return.
+       * @return The bytes of the workers at the given index.
+       */
+      public com.google.protobuf.ByteString
+          getWorkersBytes(int index) {
+        return workers_.getByteString(index);
+      }
+
+      private byte memoizedIsInitialized = -1;
+      @java.lang.Override
+      public final boolean isInitialized() {
+        byte isInitialized = memoizedIsInitialized;
+        if (isInitialized == 1) return true;
+        if (isInitialized == 0) return false;
+
+        if (!hasShardId()) {
+          memoizedIsInitialized = 0;
+          return false;
+        }
+        memoizedIsInitialized = 1;
+        return true;
+      }
+
+      @java.lang.Override
+      public void writeTo(com.google.protobuf.CodedOutputStream output)
+                          throws java.io.IOException {
+        if (((bitField0_ & 0x00000001) != 0)) {
+          output.writeInt32(1, shardId_);
+        }
+        for (int i = 0; i < workers_.size(); i++) {
+          com.google.protobuf.GeneratedMessageV3.writeString(output, 2, workers_.getRaw(i));
+        }
+        unknownFields.writeTo(output);
+      }
+
+      @java.lang.Override
+      public int getSerializedSize() {
+        int size = memoizedSize;
+        if (size != -1) return size;
+
+        size = 0;
+        if (((bitField0_ & 0x00000001) != 0)) {
+          size += com.google.protobuf.CodedOutputStream
+            .computeInt32Size(1, shardId_);
+        }
+        {
+          int dataSize = 0;
+          for (int i = 0; i < workers_.size(); i++) {
+            dataSize += computeStringSizeNoTag(workers_.getRaw(i));
+          }
+          size += dataSize;
+          size += 1 * getWorkersList().size();
+        }
+        size += unknownFields.getSerializedSize();
+        memoizedSize = size;
+        return size;
+      }
+
+      @java.lang.Override
+      public boolean equals(final java.lang.Object obj) {
+        if (obj == this) {
+         return true;
+        }
+        if (!(obj instanceof model.proto.SearchModel.ShardAssignment.Shard)) {
+          return super.equals(obj);
+        }
+        model.proto.SearchModel.ShardAssignment.Shard other = (model.proto.SearchModel.ShardAssignment.Shard) obj;
+
+        if (hasShardId() != other.hasShardId()) return false;
+        if (hasShardId()) {
+          if (getShardId()
+              != other.getShardId()) return false;
+        }
+        if (!getWorkersList()
+            .equals(other.getWorkersList())) return false;
+        if (!unknownFields.equals(other.unknownFields)) return false;
+        return true;
+      }
+
+      @java.lang.Override
+      public int hashCode() {
+        if (memoizedHashCode != 0) {
+          return memoizedHashCode;
+        }
+        int hash = 41;
+        hash = (19 * hash) + getDescriptor().hashCode();
+        if (hasShardId()) {
+          hash = (37 * hash) + SHARD_ID_FIELD_NUMBER;
+          hash = (53 * hash) + getShardId();
+        }
+        if (getWorkersCount() > 0) {
+          hash = (37 * hash) + WORKERS_FIELD_NUMBER;
+          hash = (53 * hash) + getWorkersList().hashCode();
+        }
+        hash = (29 * hash) + unknownFields.hashCode();
+        memoizedHashCode = hash;
+        return hash;
+      }
+
+      public static model.proto.SearchModel.ShardAssignment.Shard parseFrom(
+          java.nio.ByteBuffer data)
+          throws com.google.protobuf.InvalidProtocolBufferException {
+        return PARSER.parseFrom(data);
+      }
+      public static model.proto.SearchModel.ShardAssignment.Shard parseFrom(
+          java.nio.ByteBuffer data,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws com.google.protobuf.InvalidProtocolBufferException {
+        return PARSER.parseFrom(data, extensionRegistry);
+      }
+      public static model.proto.SearchModel.ShardAssignment.Shard parseFrom(
+          com.google.protobuf.ByteString data)
+          throws com.google.protobuf.InvalidProtocolBufferException {
+        return PARSER.parseFrom(data);
+      }
+      public static model.proto.SearchModel.ShardAssignment.Shard parseFrom(
+          com.google.protobuf.ByteString data,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws com.google.protobuf.InvalidProtocolBufferException {
+        return PARSER.parseFrom(data, extensionRegistry);
+      }
+      public static model.proto.SearchModel.ShardAssignment.Shard parseFrom(byte[] data)
+          throws com.google.protobuf.InvalidProtocolBufferException {
+        return PARSER.parseFrom(data);
+      }
+      public static model.proto.SearchModel.ShardAssignment.Shard parseFrom(
+          byte[] data,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws com.google.protobuf.InvalidProtocolBufferException {
+        return PARSER.parseFrom(data, extensionRegistry);
+      }
+      public static model.proto.SearchModel.ShardAssignment.Shard parseFrom(java.io.InputStream input)
+          throws java.io.IOException {
+        return com.google.protobuf.GeneratedMessageV3
+            .parseWithIOException(PARSER, input);
+      }
+      public static model.proto.SearchModel.ShardAssignment.Shard parseFrom(
+          java.io.InputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws java.io.IOException {
+        return com.google.protobuf.GeneratedMessageV3
+            .parseWithIOException(PARSER, input, extensionRegistry);
+      }
+      public static model.proto.SearchModel.ShardAssignment.Shard parseDelimitedFrom(java.io.InputStream input)
+          throws java.io.IOException {
+        return com.google.protobuf.GeneratedMessageV3
+            .parseDelimitedWithIOException(PARSER, input);
+      }
+      public static model.proto.SearchModel.ShardAssignment.Shard parseDelimitedFrom(
+          java.io.InputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws java.io.IOException {
+        return com.google.protobuf.GeneratedMessageV3
+            .parseDelimitedWithIOException(PARSER, input, extensionRegistry);
+      }
+      public static model.proto.SearchModel.ShardAssignment.Shard parseFrom(
+          com.google.protobuf.CodedInputStream input)
+          throws java.io.IOException {
+        return com.google.protobuf.GeneratedMessageV3
+            .parseWithIOException(PARSER, input);
+      }
+      public static model.proto.SearchModel.ShardAssignment.Shard parseFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws java.io.IOException {
+        return com.google.protobuf.GeneratedMessageV3
+            .parseWithIOException(PARSER, input, extensionRegistry);
+      }
+
+      @java.lang.Override
+      public Builder newBuilderForType() { return newBuilder(); }
+      public static Builder newBuilder() {
+        return DEFAULT_INSTANCE.toBuilder();
+      }
+      public static Builder newBuilder(model.proto.SearchModel.ShardAssignment.Shard prototype) {
+        return DEFAULT_INSTANCE.toBuilder().mergeFrom(prototype);
+      }
+      @java.lang.Override
+      public Builder toBuilder() {
+        return this == DEFAULT_INSTANCE
+            ? new Builder() : new Builder().mergeFrom(this);
+      }
+
+      @java.lang.Override
+      protected Builder newBuilderForType(
+          com.google.protobuf.GeneratedMessageV3.BuilderParent parent) {
+        Builder builder = new Builder(parent);
+        return builder;
+      }
+      /**
+       * Protobuf type {@code DistributedSearch.ShardAssignment.Shard}
+       */
+      public static final class Builder extends
+          com.google.protobuf.GeneratedMessageV3.Builder<Builder> implements
+          // @@protoc_insertion_point(builder_implements:DistributedSearch.ShardAssignment.Shard)
+          model.proto.SearchModel.ShardAssignment.ShardOrBuilder {
+        public static final com.google.protobuf.Descriptors.Descriptor
+            getDescriptor() {
+          return model.proto.SearchModel.internal_static_DistributedSearch_ShardAssignment_Shard_descriptor;
+        }
+
+        @java.lang.Override
+        protected com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+            internalGetFieldAccessorTable() {
+          return model.proto.SearchModel.internal_static_DistributedSearch_ShardAssignment_Shard_fieldAccessorTable
+              .ensureFieldAccessorsInitialized(
+                  model.proto.SearchModel.ShardAssignment.Shard.class, model.proto.SearchModel.ShardAssignment.Shard.Builder.class);
+        }
+
+        // Construct using model.proto.SearchModel.ShardAssignment.Shard.newBuilder()
+        private Builder() {
+          maybeForceBuilderInitialization();
+        }
+
+        private Builder(
+            com.google.protobuf.GeneratedMessageV3.BuilderParent parent) {
+          super(parent);
+          maybeForceBuilderInitialization();
+        }
+        private void maybeForceBuilderInitialization() {
+          if (com.google.protobuf.GeneratedMessageV3
+                  .alwaysUseFieldBuilders) {
+          }
+        }
+        @java.lang.Override
+        public Builder clear() {
+          super.clear();
+          shardId_ = 0;
+          bitField0_ = (bitField0_ & ~0x00000001);
+          workers_ = com.google.protobuf.LazyStringArrayList.EMPTY;
+          bitField0_ = (bitField0_ & ~0x00000002);
+          return this;
+        }
+
+        @java.lang.Override
+        public com.google.protobuf.Descriptors.Descriptor
+            getDescriptorForType() {
+          return model.proto.SearchModel.internal_static_DistributedSearch_ShardAssignment_Shard_descriptor;
+        }
+
+        @java.lang.Override
+        public model.proto.SearchModel.ShardAssignment.Shard getDefaultInstanceForType() {
+          return model.proto.SearchModel.ShardAssignment.Shard.getDefaultInstance();
+        }
+
+        @java.lang.Override
+        public model.proto.SearchModel.ShardAssignment.Shard build() {
+          model.proto.SearchModel.ShardAssignment.Shard result = buildPartial();
+          if (!result.isInitialized()) {
+            throw newUninitializedMessageException(result);
+          }
+          return result;
+        }
+
+        @java.lang.Override
+        public model.proto.SearchModel.ShardAssignment.Shard buildPartial() {
+          model.proto.SearchModel.ShardAssignment.Shard result = new model.proto.SearchModel.ShardAssignment.Shard(this);
+          int from_bitField0_ = bitField0_;
+          int to_bitField0_ = 0;
+          if (((from_bitField0_ & 0x00000001) != 0)) {
+            result.shardId_ = shardId_;
+            to_bitField0_ |= 0x00000001;
+          }
+          if (((bitField0_ & 0x00000002) != 0)) {
+            workers_ = workers_.getUnmodifiableView();
+            bitField0_ = (bitField0_ & ~0x00000002);
+          }
+          result.workers_ = workers_;
+          result.bitField0_ = to_bitField0_;
+          onBuilt();
+          return result;
+        }
+
+        @java.lang.Override
+        public Builder clone() {
+          return super.clone();
+        }
+        @java.lang.Override
+        public Builder setField(
+            com.google.protobuf.Descriptors.FieldDescriptor field,
+            java.lang.Object value) {
+          return super.setField(field, value);
+        }
+        @java.lang.Override
+        public Builder clearField(
+            com.google.protobuf.Descriptors.FieldDescriptor field) {
+          return super.clearField(field);
+        }
+        @java.lang.Override
+        public Builder clearOneof(
+            com.google.protobuf.Descriptors.OneofDescriptor oneof) {
+          return super.clearOneof(oneof);
+        }
+        @java.lang.Override
+        public Builder setRepeatedField(
+            com.google.protobuf.Descriptors.FieldDescriptor field,
+            int index, java.lang.Object value) {
+          return super.setRepeatedField(field, index, value);
+        }
+        @java.lang.Override
+        public Builder addRepeatedField(
+            com.google.protobuf.Descriptors.FieldDescriptor field,
+            java.lang.Object value) {
+          return super.addRepeatedField(field, value);
+        }
+        @java.lang.Override
+        public Builder mergeFrom(com.google.protobuf.Message other) {
+          if (other instanceof model.proto.SearchModel.ShardAssignment.Shard) {
+            return mergeFrom((model.proto.SearchModel.ShardAssignment.Shard)other);
+          } else {
+            super.mergeFrom(other);
+            return this;
+          }
+        }
+
+        public Builder mergeFrom(model.proto.SearchModel.ShardAssignment.Shard other) {
+          if (other == model.proto.SearchModel.ShardAssignment.Shard.getDefaultInstance()) return this;
+          if (other.hasShardId()) {
+            setShardId(other.getShardId());
+          }
+          if (!other.workers_.isEmpty()) {
+            if (workers_.isEmpty()) {
+              workers_ = other.workers_;
+              bitField0_ = (bitField0_ & ~0x00000002);
+            } else {
+              ensureWorkersIsMutable();
+              workers_.addAll(other.workers_);
+            }
+            onChanged();
+          }
+          this.mergeUnknownFields(other.unknownFields);
+          onChanged();
+          return this;
+        }
+
+        @java.lang.Override
+        public final boolean isInitialized() {
+          if (!hasShardId()) {
+            return false;
+          }
+          return true;
+        }
+
+        @java.lang.Override
+        public Builder mergeFrom(
+            com.google.protobuf.CodedInputStream input,
+            com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+            throws java.io.IOException {
+          model.proto.SearchModel.ShardAssignment.Shard parsedMessage = null;
+          try {
+            parsedMessage = PARSER.parsePartialFrom(input, extensionRegistry);
+          } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+            parsedMessage = (model.proto.SearchModel.ShardAssignment.Shard) e.getUnfinishedMessage();
+            throw e.unwrapIOException();
+          } finally {
+            if (parsedMessage != null) {
+              mergeFrom(parsedMessage);
+            }
+          }
+          return this;
+        }
+        private int bitField0_;
+
+        private int shardId_ ;
+        /**
+         * <code>required int32 shard_id = 1;</code>
+         * @return Whether the shardId field is set.
+         */
+        @java.lang.Override
+        public boolean hasShardId() {
+          return ((bitField0_ & 0x00000001) != 0);
+        }
+        /**
+         * <code>required int32 shard_id = 1;</code>
+         * @return The shardId.
+         */
+        @java.lang.Override
+        public int getShardId() {
+          return shardId_;
+        }
+        /**
+         * <code>required int32 shard_id = 1;</code>
+         * @param value The shardId to set.
+         * @return This builder for chaining.
+         */
+        public Builder setShardId(int value) {
+          bitField0_ |= 0x00000001;
+          shardId_ = value;
+          onChanged();
+          return this;
+        }
+        /**
+         * <code>required int32 shard_id = 1;</code>
+         * @return This builder for chaining.
+         */
+        public Builder clearShardId() {
+          bitField0_ = (bitField0_ & ~0x00000001);
+          shardId_ = 0;
+          onChanged();
+          return this;
+        }
+
+        private com.google.protobuf.LazyStringList workers_ = com.google.protobuf.LazyStringArrayList.EMPTY;
+        private void ensureWorkersIsMutable() {
+          if (!((bitField0_ & 0x00000002) != 0)) {
+            workers_ = new com.google.protobuf.LazyStringArrayList(workers_);
+            bitField0_ |= 0x00000002;
+           }
+        }
+        /**
+         * <pre>
+         * the primary first, then the replicas
+         * </pre>
+         *
+         * <code>repeated string workers = 2;</code>
+         * @return A list containing the workers.
+         */
+        public com.google.protobuf.ProtocolStringList
+            getWorkersList() {
+          return workers_.getUnmodifiableView();
+        }
+        /**
+         * <pre>
+         * the primary first, then the replicas
+         * </pre>
+         *
+         * <code>repeated string workers = 2;</code>
+         * @return The count of workers.
+         */
+        public int getWorkersCount() {
+          return workers_.size();
+        }
+        /**
+         * <pre>
+         * the primary first, then the replicas
+         * </pre>
+         *
+         * <code>repeated string workers = 2;</code>
+         * @param index The index of the element to return.
+         * @return The workers at the given index.
+         */
+        public java.lang.String getWorkers(int index) {
+          return workers_.get(index);
+        }
+        /**
+         * <pre>
+         * the primary first, then the replicas
+         * </pre>
+         *
+         * <code>repeated string workers = 2;</code>
+         * @param index The index of the value to return.
+         * @return The bytes of the workers at the given index.
+         */
+        public com.google.protobuf.ByteString
+            getWorkersBytes(int index) {
+          return workers_.getByteString(index);
+        }
+        /**
+         * <pre>
+         * the primary first, then the replicas
+         * </pre>
+         *
+         * <code>repeated string workers = 2;</code>
+         * @param index The index to set the value at.
+         * @param value The workers to set.
+         * @return This builder for chaining.
+         */
+        public Builder setWorkers(
+            int index, java.lang.String value) {
+          if (value == null) {
+    throw new NullPointerException();
+  }
+  ensureWorkersIsMutable();
+          workers_.set(index, value);
+          onChanged();
+          return this;
+        }
+        /**
+         * <pre>
+         * the primary first, then the replicas
+         * </pre>
+         *
+         * <code>repeated string workers = 2;</code>
+         * @param value The workers to add.
+         * @return This builder for chaining.
+         */
+        public Builder addWorkers(
+            java.lang.String value) {
+          if (value == null) {
+    throw new NullPointerException();
+  }
+  ensureWorkersIsMutable();
+          workers_.add(value);
+          onChanged();
+          return this;
+        }
+        /**
+         * <pre>
+         * the primary first, then the replicas
+         * </pre>
+         *
+         * <code>repeated string workers = 2;</code>
+         * @param values The workers to add.
+         * @return This builder for chaining.
+         */
+        public Builder addAllWorkers(
+            java.lang.Iterable<java.lang.String> values) {
+          ensureWorkersIsMutable();
+          com.google.protobuf.AbstractMessageLite.Builder.addAll(
+              values, workers_);
+          onChanged();
+          return this;
+        }
+        /**
+         * <pre>
+         * the primary first, then the replicas
+         * </pre>
+         *
+         * <code>repeated string workers = 2;</code>
+         * @return This builder for chaining.
+         */
+        public Builder clearWorkers() {
+          workers_ = com.google.protobuf.LazyStringArrayList.EMPTY;
+          bitField0_ = (bitField0_ & ~0x00000002);
+          onChanged();
+          return this;
+        }
+        /**
+         * <pre>
+         * the primary first, then the replicas
+         * </pre>
+         *
+         * <code>repeated string workers = 2;</code>
+         * @param value The bytes of the workers to add.
+         * @return This builder for chaining.
+         */
+        public Builder addWorkersBytes(
+            com.google.protobuf.ByteString value) {
+          if (value == null) {
+    throw new NullPointerException();
+  }
+  ensureWorkersIsMutable();
+          workers_.add(value);
+          onChanged();
+          return this;
+        }
+        @java.lang.Override
+        public final Builder setUnknownFields(
+            final com.google.protobuf.UnknownFieldSet unknownFields) {
+          return super.setUnknownFields(unknownFields);
+        }
+
+        @java.lang.Override
+        public final Builder mergeUnknownFields(
+            final com.google.protobuf.UnknownFieldSet unknownFields) {
+          return super.mergeUnknownFields(unknownFields);
+        }
+
+
+        // @@protoc_insertion_point(builder_scope:DistributedSearch.ShardAssignment.Shard)
+      }
+
+      // @@protoc_insertion_point(class_scope:DistributedSearch.ShardAssignment.Shard)
+      private static final model.proto.SearchModel.ShardAssignment.Shard DEFAULT_INSTANCE;
+      static {
+        DEFAULT_INSTANCE = new model.proto.SearchModel.ShardAssignment.Shard();
+      }
+
+      public static model.proto.SearchModel.ShardAssignment.Shard getDefaultInstance() {
+        return DEFAULT_INSTANCE;
+      }
+
+      @java.lang.Deprecated public static final com.google.protobuf.Parser<Shard>
+          PARSER = new com.google.protobuf.AbstractParser<Shard>() {
+        @java.lang.Override
+        public Shard parsePartialFrom(
+            com.google.protobuf.CodedInputStream input,
+            com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+            throws com.google.protobuf.InvalidProtocolBufferException {
+          return new Shard(input, extensionRegistry);
+        }
+      };
+
+      public static com.google.protobuf.Parser<Shard> parser() {
+        return PARSER;
+      }
+
+      @java.lang.Override
+      public com.google.protobuf.Parser<Shard> getParserForType() {
+        return PARSER;
+      }
+
+      @java.lang.Override
+      public model.proto.SearchModel.ShardAssignment.Shard getDefaultInstanceForType() {
+        return DEFAULT_INSTANCE;
+      }
+
+    }
+
+    private int bitField0_;
+    public static final int NUMBER_OF_SHARDS_FIELD_NUMBER = 1;
+    private int numberOfShards_;
+    /**
+     * <code>required int32 number_of_shards = 1;</code>
+     * @return Whether the numberOfShards field is set.
+     */
+    @java.lang.Override
+    public boolean hasNumberOfShards() {
+      return ((bitField0_ & 0x00000001) != 0);
+    }
+    /**
+     * <code>required int32 number_of_shards = 1;</code>
+     * @return The numberOfShards.
+     */
+    @java.lang.Override
+    public int getNumberOfShards() {
+      return numberOfShards_;
+    }
+
+    public static final int SHARDS_FIELD_NUMBER = 2;
+    private java.util.List<model.proto.SearchModel.ShardAssignment.Shard> shards_;
+    /**
+     * <code>repeated .DistributedSearch.ShardAssignment.Shard shards = 2;</code>
+     */
+    @java.lang.Override
+    public java.util.List<model.proto.SearchModel.ShardAssignment.Shard> getShardsList() {
+      return shards_;
+    }
+    /**
+     * <code>repeated .DistributedSearch.ShardAssignment.Shard shards = 2;</code>
+     */
+    @java.lang.Override
+    public java.util.List<? extends model.proto.SearchModel.ShardAssignment.ShardOrBuilder> 
+        getShardsOrBuilderList() {
+      return shards_;
+    }
+    /**
+     * <code>repeated .DistributedSearch.ShardAssignment.Shard shards = 2;</code>
+     */
+    @java.lang.Override
+    public int getShardsCount() {
+      return shards_.size();
+    }
+    /**
+     * <code>repeated .DistributedSearch.ShardAssignment.Shard shards = 2;</code>
+     */
+    @java.lang.Override
+    public model.proto.SearchModel.ShardAssignment.Shard getShards(int index) {
+      return shards_.get(index);
+    }
+    /**
+     * <code>repeated .DistributedSearch.ShardAssignment.Shard shards = 2;</code>
+     */
+    @java.lang.Override
+    public model.proto.SearchModel.ShardAssignment.ShardOrBuilder getShardsOrBuilder(
+        int index) {
+      return shards_.get(index);
+    }
+
+    public static final int WORKERS_FIELD_NUMBER = 3;
+    private com.google.protobuf.LazyStringList workers_;
+    /**
+     * <pre>
+     * the workers the assignment was computed for
+     * </pre>
+     *
+     * <code>repeated string workers = 3;</code>
+     * @return A list containing the workers.
+     */
+    public com.google.protobuf.ProtocolStringList
+        getWorkersList() {
+      return workers_;
+    }
+    /**
+     * <pre>
+     * the workers the assignment was computed for
+     * </pre>
+     *
+     * <code>repeated string workers = 3;</code>
+     * @return The count of workers.
+     */
+    public int getWorkersCount() {
+      return workers_.size();
+    }
+    /**
+     * <pre>
+     * the workers the assignment was computed for
+     * </pre>
+     *
+     * <code>repeated string workers = 3;</code>
+     * @param index The index of the element to return.
+     * @return The workers at the given index.
+     */
+    public java.lang.String getWorkers(int index) {
+      return workers_.get(index);
+    }
+    /**
+     * <pre>
+     * the workers the assignment was computed for
+     * </pre>
+     *
+     * <code>repeated string workers = 3;</code>
+     * @param index The index of the value to return.
+     * @return The bytes of the workers at the given index.
+     */
+    public com.google.protobuf.ByteString
+        getWorkersBytes(int index) {
+      return workers_.getByteString(index);
+    }
+
+    private byte memoizedIsInitialized = -1;
+    @java.lang.Override
+    public final boolean isInitialized() {
+      byte isInitialized = memoizedIsInitialized;
+      if (isInitialized == 1) return true;
+      if (isInitialized == 0) return false;
+
+      if (!hasNumberOfShards()) {
+        memoizedIsInitialized = 0;
+        return false;
+      }
+      for (int i = 0; i < getShardsCount(); i++) {
+        if (!getShards(i).isInitialized()) {
+          memoizedIsInitialized = 0;
+          return false;
+        }
+      }
+      memoizedIsInitialized = 1;
+      return true;
+    }
+
+    @java.lang.Override
+    public void writeTo(com.google.protobuf.CodedOutputStream output)
+                        throws java.io.IOException {
+      if (((bitField0_ & 0x00000001) != 0)) {
+        output.writeInt32(1, numberOfShards_);
+      }
+      for (int i = 0; i < shards_.size(); i++) {
+        output.writeMessage(2, shards_.get(i));
+      }
+      for (int i = 0; i < workers_.size(); i++) {
+        com.google.protobuf.GeneratedMessageV3.writeString(output, 3, workers_.getRaw(i));
+      }
+      unknownFields.writeTo(output);
+    }
+
+    @java.lang.Override
+    public int getSerializedSize() {
+      int size = memoizedSize;
+      if (size != -1) return size;
+
+      size = 0;
+      if (((bitField0_ & 0x00000001) != 0)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeInt32Size(1, numberOfShards_);
+      }
+      for (int i = 0; i < shards_.size(); i++) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeMessageSize(2, shards_.get(i));
+      }
+      {
+        int dataSize = 0;
+        for (int i = 0; i < workers_.size(); i++) {
+          dataSize += computeStringSizeNoTag(workers_.getRaw(i));
+        }
+        size += dataSize;
+        size += 1 * getWorkersList().size();
+      }
+      size += unknownFields.getSerializedSize();
+      memoizedSize = size;
+      return size;
+    }
+
+    @java.lang.Override
+    public boolean equals(final java.lang.Object obj) {
+      if (obj == this) {
+       return true;
+      }
+      if (!(obj instanceof model.proto.SearchModel.ShardAssignment)) {
+        return super.equals(obj);
+      }
+      model.proto.SearchModel.ShardAssignment other = (model.proto.SearchModel.ShardAssignment) obj;
+
+      if (hasNumberOfShards() != other.hasNumberOfShards()) return false;
+      if (hasNumberOfShards()) {
+        if (getNumberOfShards()
+            != other.getNumberOfShards()) return false;
+      }
+      if (!getShardsList()
+          .equals(other.getShardsList())) return false;
+      if (!getWorkersList()
+          .equals(other.getWorkersList())) return false;
+      if (!unknownFields.equals(other.unknownFields)) return false;
+      return true;
+    }
+
+    @java.lang.Override
+    public int hashCode() {
+      if (memoizedHashCode != 0) {
+        return memoizedHashCode;
+      }
+      int hash = 41;
+      hash = (19 * hash) + getDescriptor().hashCode();
+      if (hasNumberOfShards()) {
+        hash = (37 * hash) + NUMBER_OF_SHARDS_FIELD_NUMBER;
+        hash = (53 * hash) + getNumberOfShards();
+      }
+      if (getShardsCount() > 0) {
+        hash = (37 * hash) + SHARDS_FIELD_NUMBER;
+        hash = (53 * hash) + getShardsList().hashCode();
+      }
+      if (getWorkersCount() > 0) {
+        hash = (37 * hash) + WORKERS_FIELD_NUMBER;
+        hash = (53 * hash) + getWorkersList().hashCode();
+      }
+      hash = (29 * hash) + unknownFields.hashCode();
+      memoizedHashCode = hash;
+      return hash;
+    }
+
+    public static model.proto.SearchModel.ShardAssignment parseFrom(
+        java.nio.ByteBuffer data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static model.proto.SearchModel.ShardAssignment parseFrom(
+        java.nio.ByteBuffer data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static model.proto.SearchModel.ShardAssignment parseFrom(
+        com.google.protobuf.ByteString data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static model.proto.SearchModel.ShardAssignment parseFrom(
+        com.google.protobuf.ByteString data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static model.proto.SearchModel.ShardAssignment parseFrom(byte[] data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static model.proto.SearchModel.ShardAssignment parseFrom(
+        byte[] data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static model.proto.SearchModel.ShardAssignment parseFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input);
+    }
+    public static model.proto.SearchModel.ShardAssignment parseFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input, extensionRegistry);
+    }
+    public static model.proto.SearchModel.ShardAssignment parseDelimitedFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseDelimitedWithIOException(PARSER, input);
+    }
+    public static model.proto.SearchModel.ShardAssignment parseDelimitedFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseDelimitedWithIOException(PARSER, input, extensionRegistry);
+    }
+    public static model.proto.SearchModel.ShardAssignment parseFrom(
+        com.google.protobuf.CodedInputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input);
+    }
+    public static model.proto.SearchModel.ShardAssignment parseFrom(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input, extensionRegistry);
+    }
+
+    @java.lang.Override
+    public Builder newBuilderForType() { return newBuilder(); }
+    public static Builder newBuilder() {
+      return DEFAULT_INSTANCE.toBuilder();
+    }
+    public static Builder newBuilder(model.proto.SearchModel.ShardAssignment prototype) {
+      return DEFAULT_INSTANCE.toBuilder().mergeFrom(prototype);
+    }
+    @java.lang.Override
+    public Builder toBuilder() {
+      return this == DEFAULT_INSTANCE
+          ? new Builder() : new Builder().mergeFrom(this);
+    }
+
+    @java.lang.Override
+    protected Builder newBuilderForType(
+        com.google.protobuf.GeneratedMessageV3.BuilderParent parent) {
+      Builder builder = new Builder(parent);
+      return builder;
+    }
+    /**
+     * <pre>
+     * stored in the /shard_assignment znode by the coordinator
+     * </pre>
+     *
+     * Protobuf type {@code DistributedSearch.ShardAssignment}
+     */
+    public static final class Builder extends
+        com.google.protobuf.GeneratedMessageV3.Builder<Builder> implements
+        // @@protoc_insertion_point(builder_implements:DistributedSearch.ShardAssignment)
+        model.proto.SearchModel.ShardAssignmentOrBuilder {
+      public static final com.google.protobuf.Descriptors.Descriptor
+          getDescriptor() {
+        return model.proto.SearchModel.internal_static_DistributedSearch_ShardAssignment_descriptor;
+      }
+
+      @java.lang.Override
+      protected com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+          internalGetFieldAccessorTable() {
+        return model.proto.SearchModel.internal_static_DistributedSearch_ShardAssignment_fieldAccessorTable
+            .ensureFieldAccessorsInitialized(
+                model.proto.SearchModel.ShardAssignment.class, model.proto.SearchModel.ShardAssignment.Builder.class);
+      }
+
+      // Construct using model.proto.SearchModel.ShardAssignment.newBuilder()
+      private Builder() {
+        maybeForceBuilderInitialization();
+      }
+
+      private Builder(
+          com.google.protobuf.GeneratedMessageV3.BuilderParent parent) {
+        super(parent);
+        maybeForceBuilderInitialization();
+      }
+      private void maybeForceBuilderInitialization() {
+        if (com.google.protobuf.GeneratedMessageV3
+                .alwaysUseFieldBuilders) {
+          getShardsFieldBuilder();
+        }
+      }
+      @java.lang.Override
+      public Builder clear() {
+        super.clear();
+        numberOfShards_ = 0;
+        bitField0_ = (bitField0_ & ~0x00000001);
+        if (shardsBuilder_ == null) {
+          shards_ = java.util.Collections.emptyList();
+          bitField0_ = (bitField0_ & ~0x00000002);
+        } else {
+          shardsBuilder_.clear();
+        }
+        workers_ = com.google.protobuf.LazyStringArrayList.EMPTY;
+        bitField0_ = (bitField0_ & ~0x00000004);
+        return this;
+      }
+
+      @java.lang.Override
+      public com.google.protobuf.Descriptors.Descriptor
+          getDescriptorForType() {
+        return model.proto.SearchModel.internal_static_DistributedSearch_ShardAssignment_descriptor;
+      }
+
+      @java.lang.Override
+      public model.proto.SearchModel.ShardAssignment getDefaultInstanceForType() {
+        return model.proto.SearchModel.ShardAssignment.getDefaultInstance();
+      }
+
+      @java.lang.Override
+      public model.proto.SearchModel.ShardAssignment build() {
+        model.proto.SearchModel.ShardAssignment result = buildPartial();
+        if (!result.isInitialized()) {
+          throw newUninitializedMessageException(result);
+        }
+        return result;
+      }
+
+      @java.lang.Override
+      public model.proto.SearchModel.ShardAssignment buildPartial() {
+        model.proto.SearchModel.ShardAssignment result = new model.proto.SearchModel.ShardAssignment(this);
+        int from_bitField0_ = bitField0_;
+        int to_bitField0_ = 0;
+        if (((from_bitField0_ & 0x00000001) != 0)) {
+          result.numberOfShards_ = numberOfShards_;
+          to_bitField0_ |= 0x00000001;
+        }
+        if (shardsBuilder_ == null) {
+          if (((bitField0_ & 0x00000002) != 0)) {
+            shards_ = java.util.Collections.unmodifiableList(shards_);
+            bitField0_ = (bitField0_ & ~0x00000002);
+          }
+          result.shards_ = shards_;
+        } else {
+          result.shards_ = shardsBuilder_.build();
+        }
+        if (((bitField0_ & 0x00000004) != 0)) {
+          workers_ = workers_.getUnmodifiableView();
+          bitField0_ = (bitField0_ & ~0x00000004);
+        }
+        result.workers_ = workers_;
+        result.bitField0_ = to_bitField0_;
+        onBuilt();
+        return result;
+      }
+
+      @java.lang.Override
+      public Builder clone() {
+        return super.clone();
+      }
+      @java.lang.Override
+      public Builder setField(
+          com.google.protobuf.Descriptors.FieldDescriptor field,
+          java.lang.Object value) {
+        return super.setField(field, value);
+      }
+      @java.lang.Override
+      public Builder clearField(
+          com.google.protobuf.Descriptors.FieldDescriptor field) {
+        return super.clearField(field);
+      }
+      @java.lang.Override
+      public Builder clearOneof(
+          com.google.protobuf.Descriptors.OneofDescriptor oneof) {
+        return super.clearOneof(oneof);
+      }
+      @java.lang.Override
+      public Builder setRepeatedField(
+          com.google.protobuf.Descriptors.FieldDescriptor field,
+          int index, java.lang.Object value) {
+        return super.setRepeatedField(field, index, value);
+      }
+      @java.lang.Override
+      public Builder addRepeatedField(
+          com.google.protobuf.Descriptors.FieldDescriptor field,
+          java.lang.Object value) {
+        return super.addRepeatedField(field, value);
+      }
+      @java.lang.Override
+      public Builder mergeFrom(com.google.protobuf.Message other) {
+        if (other instanceof model.proto.SearchModel.ShardAssignment) {
+          return mergeFrom((model.proto.SearchModel.ShardAssignment)other);
+        } else {
+          super.mergeFrom(other);
+          return this;
+        }
+      }
+
+      public Builder mergeFrom(model.proto.SearchModel.ShardAssignment other) {
+        if (other == model.proto.SearchModel.ShardAssignment.getDefaultInstance()) return this;
+        if (other.hasNumberOfShards()) {
+          setNumberOfShards(other.getNumberOfShards());
+        }
+        if (shardsBuilder_ == null) {
+          if (!other.shards_.isEmpty()) {
+            if (shards_.isEmpty()) {
+              shards_ = other.shards_;
+              bitField0_ = (bitField0_ & ~0x00000002);
+            } else {
+              ensureShardsIsMutable();
+              shards_.addAll(other.shards_);
+            }
+            onChanged();
+          }
+        } else {
+          if (!other.shards_.isEmpty()) {
+            if (shardsBuilder_.isEmpty()) {
+              shardsBuilder_.dispose();
+              shardsBuilder_ = null;
+              shards_ = other.shards_;
+              bitField0_ = (bitField0_ & ~0x00000002);
+              shardsBuilder_ = 
+                com.google.protobuf.GeneratedMessageV3.alwaysUseFieldBuilders ?
+                   getShardsFieldBuilder() : null;
+            } else {
+              shardsBuilder_.addAllMessages(other.shards_);
+            }
+          }
+        }
+        if (!other.workers_.isEmpty()) {
+          if (workers_.isEmpty()) {
+            workers_ = other.workers_;
+            bitField0_ = (bitField0_ & ~0x00000004);
+          } else {
+            ensureWorkersIsMutable();
+            workers_.addAll(other.workers_);
+          }
+          onChanged();
+        }
+        this.mergeUnknownFields(other.unknownFields);
+        onChanged();
+        return this;
+      }
+
+      @java.lang.Override
+      public final boolean isInitialized() {
+        if (!hasNumberOfShards()) {
+          return false;
+        }
+        for (int i = 0; i < getShardsCount(); i++) {
+          if (!getShards(i).isInitialized()) {
+            return false;
+          }
+        }
+        return true;
+      }
+
+      @java.lang.Override
+      public Builder mergeFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws java.io.IOException {
+        model.proto.SearchModel.ShardAssignment parsedMessage = null;
+        try {
+          parsedMessage = PARSER.parsePartialFrom(input, extensionRegistry);
+        } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+          parsedMessage = (model.proto.SearchModel.ShardAssignment) e.getUnfinishedMessage();
+          throw e.unwrapIOException();
+        } finally {
+          if (parsedMessage != null) {
+            mergeFrom(parsedMessage);
+          }
+        }
+        return this;
+      }
+      private int bitField0_;
+
+      private int numberOfShards_ ;
+      /**
+       * <code>required int32 number_of_shards = 1;</code>
+       * @return Whether the numberOfShards field is set.
+       */
+      @java.lang.Override
+      public boolean hasNumberOfShards() {
+        return ((bitField0_ & 0x00000001) != 0);
+      }
+      /**
+       * <code>required int32 number_of_shards = 1;</code>
+       * @return The numberOfShards.
+       */
+      @java.lang.Override
+      public int getNumberOfShards() {
+        return numberOfShards_;
+      }
+      /**
+       * <code>required int32 number_of_shards = 1;</code>
+       * @param value The numberOfShards to set.
+       * @return This builder for chaining.
+       */
+      public Builder setNumberOfShards(int value) {
+        bitField0_ |= 0x00000001;
+        numberOfShards_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>required int32 number_of_shards = 1;</code>
+       * @return This builder for chaining.
+       */
+      public Builder clearNumberOfShards() {
+        bitField0_ = (bitField0_ & ~0x00000001);
+        numberOfShards_ = 0;
+        onChanged();
+        return this;
+      }
+
+      private java.util.List<model.proto.SearchModel.ShardAssignment.Shard> shards_ =
+        java.util.Collections.emptyList();
+      private void ensureShardsIsMutable() {
+        if (!((bitField0_ & 0x00000002) != 0)) {
+          shards_ = new java.util.ArrayList<model.proto.SearchModel.ShardAssignment.Shard>(shards_);
+          bitField0_ |= 0x00000002;
+         }
+      }
+
+      private com.google.protobuf.RepeatedFieldBuilderV3<
+          model.proto.SearchModel.ShardAssignment.Shard, model.proto.SearchModel.ShardAssignment.Shard.Builder, model.proto.SearchModel.ShardAssignment.ShardOrBuilder> shardsBuilder_;
+
+      /**
+       * <code>repeated .DistributedSearch.ShardAssignment.Shard shards = 2;</code>
+       */
+      public java.util.List<model.proto.SearchModel.ShardAssignment.Shard> getShardsList() {
+        if (shardsBuilder_ == null) {
+          return java.util.Collections.unmodifiableList(shards_);
+        } else {
+          return shardsBuilder_.getMessageList();
+        }
+      }
+      /**
+       * <code>repeated .DistributedSearch.ShardAssignment.Shard shards = 2;</code>
+       */
+      public int getShardsCount() {
+        if (shardsBuilder_ == null) {
+          return shards_.size();
+        } else {
+          return shardsBuilder_.getCount();
+        }
+      }
+      /**
+       * <code>repeated .DistributedSearch.ShardAssignment.Shard shards = 2;</code>
+       */
+      public model.proto.SearchModel.ShardAssignment.Shard getShards(int index) {
+        if (shardsBuilder_ == null) {
+          return shards_.get(index);
+        } else {
+          return shardsBuilder_.getMessage(index);
+        }
+      }
+      /**
+       * <code>repeated .DistributedSearch.ShardAssignment.Shard shards = 2;</code>
+       */
+      public Builder setShards(
+          int index, model.proto.SearchModel.ShardAssignment.Shard value) {
+        if (shardsBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          ensureShardsIsMutable();
+          shards_.set(index, value);
+          onChanged();
+        } else {
+          shardsBuilder_.setMessage(index, value);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .DistributedSearch.ShardAssignment.Shard shards = 2;</code>
+       */
+      public Builder setShards(
+          int index, model.proto.SearchModel.ShardAssignment.Shard.Builder builderForValue) {
+        if (shardsBuilder_ == null) {
+          ensureShardsIsMutable();
+          shards_.set(index, builderForValue.build());
+          onChanged();
+        } else {
+          shardsBuilder_.setMessage(index, builderForValue.build());
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .DistributedSearch.ShardAssignment.Shard shards = 2;</code>
+       */
+      public Builder addShards(model.proto.SearchModel.ShardAssignment.Shard value) {
+        if (shardsBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          ensureShardsIsMutable();
+          shards_.add(value);
+          onChanged();
+        } else {
+          shardsBuilder_.addMessage(value);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .DistributedSearch.ShardAssignment.Shard shards = 2;</code>
+       */
+      public Builder addShards(
+          int index, model.proto.SearchModel.ShardAssignment.Shard value) {
+        if (shardsBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          ensureShardsIsMutable();
+          shards_.add(index, value);
+          onChanged();
+        } else {
+          shardsBuilder_.addMessage(index, value);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .DistributedSearch.ShardAssignment.Shard shards = 2;</code>
+       */
+      public Builder addShards(
+          model.proto.SearchModel.ShardAssignment.Shard.Builder builderForValue) {
+        if (shardsBuilder_ == null) {
+          ensureShardsIsMutable();
+          shards_.add(builderForValue.build());
+          onChanged();
+        } else {
+          shardsBuilder_.addMessage(builderForValue.build());
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .DistributedSearch.ShardAssignment.Shard shards = 2;</code>
+       */
+      public Builder addShards(
+          int index, model.proto.SearchModel.ShardAssignment.Shard.Builder builderForValue) {
+        if (shardsBuilder_ == null) {
+          ensureShardsIsMutable();
+          shards_.add(index, builderForValue.build());
+          onChanged();
+        } else {
+          shardsBuilder_.addMessage(index, builderForValue.build());
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .DistributedSearch.ShardAssignment.Shard shards = 2;</code>
+       */
+      public Builder addAllShards(
+          java.lang.Iterable<? extends model.proto.SearchModel.ShardAssignment.Shard> values) {
+        if (shardsBuilder_ == null) {
+          ensureShardsIsMutable();
+          com.google.protobuf.AbstractMessageLite.Builder.addAll(
+              values, shards_);
+          onChanged();
+        } else {
+          shardsBuilder_.addAllMessages(values);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .DistributedSearch.ShardAssignment.Shard shards = 2;</code>
+       */
+      public Builder clearShards() {
+        if (shardsBuilder_ == null) {
+          shards_ = java.util.Collections.emptyList();
+          bitField0_ = (bitField0_ & ~0x00000002);
+          onChanged();
+        } else {
+          shardsBuilder_.clear();
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .DistributedSearch.ShardAssignment.Shard shards = 2;</code>
+       */
+      public Builder removeShards(int index) {
+        if (shardsBuilder_ == null) {
+          ensureShardsIsMutable();
+          shards_.remove(index);
+          onChanged();
+        } else {
+          shardsBuilder_.remove(index);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .DistributedSearch.ShardAssignment.Shard shards = 2;</code>
+       */
+      public model.proto.SearchModel.ShardAssignment.Shard.Builder getShardsBuilder(
+          int index) {
+        return getShardsFieldBuilder().getBuilder(index);
+      }
+      /**
+       * <code>repeated .DistributedSearch.ShardAssignment.Shard shards = 2;</code>
+       */
+      public model.proto.SearchModel.ShardAssignment.ShardOrBuilder getShardsOrBuilder(
+          int index) {
+        if (shardsBuilder_ == null) {
+          return shards_.get(index);  } else {
+          return shardsBuilder_.getMessageOrBuilder(index);
+        }
+      }
+      /**
+       * <code>repeated .DistributedSearch.ShardAssignment.Shard shards = 2;</code>
+       */
+      public java.util.List<? extends model.proto.SearchModel.ShardAssignment.ShardOrBuilder> 
+           getShardsOrBuilderList() {
+        if (shardsBuilder_ != null) {
+          return shardsBuilder_.getMessageOrBuilderList();
+        } else {
+          return java.util.Collections.unmodifiableList(shards_);
+        }
+      }
+      /**
+       * <code>repeated .DistributedSearch.ShardAssignment.Shard shards = 2;</code>
+       */
+      public model.proto.SearchModel.ShardAssignment.Shard.Builder addShardsBuilder() {
+        return getShardsFieldBuilder().addBuilder(
+            model.proto.SearchModel.ShardAssignment.Shard.getDefaultInstance());
+      }
+      /**
+       * <code>repeated .DistributedSearch.ShardAssignment.Shard shards = 2;</code>
+       */
+      public model.proto.SearchModel.ShardAssignment.Shard.Builder addShardsBuilder(
+          int index) {
+        return getShardsFieldBuilder().addBuilder(
+            index, model.proto.SearchModel.ShardAssignment.Shard.getDefaultInstance());
+      }
+      /**
+       * <code>repeated .DistributedSearch.ShardAssignment.Shard shards = 2;</code>
+       */
+      public java.util.List<model.proto.SearchModel.ShardAssignment.Shard.Builder> 
+           getShardsBuilderList() {
+        return getShardsFieldBuilder().getBuilderList();
+      }
+      private com.google.protobuf.RepeatedFieldBuilderV3<
+          model.proto.SearchModel.ShardAssignment.Shard, model.proto.SearchModel.ShardAssignment.Shard.Builder, model.proto.SearchModel.ShardAssignment.ShardOrBuilder> 
+          getShardsFieldBuilder() {
+        if (shardsBuilder_ == null) {
+          shardsBuilder_ = new com.google.protobuf.RepeatedFieldBuilderV3<
+              model.proto.SearchModel.ShardAssignment.Shard, model.proto.SearchModel.ShardAssignment.Shard.Builder, model.proto.SearchModel.ShardAssignment.ShardOrBuilder>(
+                  shards_,
+                  ((bitField0_ & 0x00000002) != 0),
+                  getParentForChildren(),
+                  isClean());
+          shards_ = null;
+        }
+        return shardsBuilder_;
+      }
+
+      private com.google.protobuf.LazyStringList workers_ = com.google.protobuf.LazyStringArrayList.EMPTY;
+      private void ensureWorkersIsMutable() {
+        if (!((bitField0_ & 0x00000004) != 0)) {
+          workers_ = new com.google.protobuf.LazyStringArrayList(workers_);
+          bitField0_ |= 0x00000004;
+         }
+      }
+      /**
+       * <pre>
+       * the workers the assignment was computed for
+       * </pre>
+       *
+       * <code>repeated string workers = 3;</code>
+       * @return A list containing the workers.
+       */
+      public com.google.protobuf.ProtocolStringList
+          getWorkersList() {
+        return workers_.getUnmodifiableView();
+      }
+      /**
+       * <pre>
+       * the workers the assignment was computed for
+       * </pre>
+       *
+       * <code>repeated string workers = 3;</code>
+       * @return The count of workers.
+       */
+      public int getWorkersCount() {
+        return workers_.size();
+      }
+      /**
+       * <pre>
+       * the workers the assignment was computed for
+       * </pre>
+       *
+       * <code>repeated string workers = 3;</code>
+       * @param index The index of the element to return.
+       * @return The workers at the given index.
+       */
+      public java.lang.String getWorkers(int index) {
+        return workers_.get(index);
+      }
+      /**
+       * <pre>
+       * the workers the assignment was computed for
+       * </pre>
+       *
+       * <code>repeated string workers = 3;</code>
+       * @param index The index of the value to return.
+       * @return The bytes of the workers at the given index.
+       */
+      public com.google.protobuf.ByteString
+          getWorkersBytes(int index) {
+        return workers_.getByteString(index);
+      }
+      /**
+       * <pre>
+       * the workers the assignment was computed for
+       * </pre>
+       *
+       * <code>repeated string workers = 3;</code>
+       * @param index The index to set the value at.
+       * @param value The workers to set.
+       * @return This builder for chaining.
+       */
+      public Builder setWorkers(
+          int index, java.lang.String value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  ensureWorkersIsMutable();
+        workers_.set(index, value);
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * the workers the assignment was computed for
+       * </pre>
+       *
+       * <code>repeated string workers = 3;</code>
+       * @param value The workers to add.
+       * @return This builder for chaining.
+       */
+      public Builder addWorkers(
+          java.lang.String value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  ensureWorkersIsMutable();
+        workers_.add(value);
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * the workers the assignment was computed for
+       * </pre>
+       *
+       * <code>repeated string workers = 3;</code>
+       * @param values The workers to add.
+       * @return This builder for chaining.
+       */
+      public Builder addAllWorkers(
+          java.lang.Iterable<java.lang.String> values) {
+        ensureWorkersIsMutable();
+        com.google.protobuf.AbstractMessageLite.Builder.addAll(
+            values, workers_);
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * the workers the assignment was computed for
+       * </pre>
+       *
+       * <code>repeated string workers = 3;</code>
+       * @return This builder for chaining.
+       */
+      public Builder clearWorkers() {
+        workers_ = com.google.protobuf.LazyStringArrayList.EMPTY;
+        bitField0_ = (bitField0_ & ~0x00000004);
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * the workers the assignment was computed for
+       * </pre>
+       *
+       * <code>repeated string workers = 3;</code>
+       * @param value The bytes of the workers to add.
+       * @return This builder for chaining.
+       */
+      public Builder addWorkersBytes(
+          com.google.protobuf.ByteString value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  ensureWorkersIsMutable();
+        workers_.add(value);
+        onChanged();
+        return this;
+      }
+      @java.lang.Override
+      public final Builder setUnknownFields(
+          final com.google.protobuf.UnknownFieldSet unknownFields) {
+        return super.setUnknownFields(unknownFields);
+      }
+
+      @java.lang.Override
+      public final Builder mergeUnknownFields(
+          final com.google.protobuf.UnknownFieldSet unknownFields) {
+        return super.mergeUnknownFields(unknownFields);
+      }
+
+
+      // @@protoc_insertion_point(builder_scope:DistributedSearch.ShardAssignment)
+    }
+
+    // @@protoc_insertion_point(class_scope:DistributedSearch.ShardAssignment)
+    private static final model.proto.SearchModel.ShardAssignment DEFAULT_INSTANCE;
+    static {
+      DEFAULT_INSTANCE = new model.proto.SearchModel.ShardAssignment();
+    }
+
+    public static model.proto.SearchModel.ShardAssignment getDefaultInstance() {
+      return DEFAULT_INSTANCE;
+    }
+
+    @java.lang.Deprecated public static final com.google.protobuf.Parser<ShardAssignment>
+        PARSER = new com.google.protobuf.AbstractParser<ShardAssignment>() {
+      @java.lang.Override
+      public ShardAssignment parsePartialFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws com.google.protobuf.InvalidProtocolBufferException {
+        return new ShardAssignment(input, extensionRegistry);
+      }
+    };
+
+    public static com.google.protobuf.Parser<ShardAssignment> parser() {
       return PARSER;
     }
 
     @java.lang.Override
-    public com.google.protobuf.Parser<Response> getParserForType() {
+    public com.google.protobuf.Parser<ShardAssignment> getParserForType() {
       return PARSER;
     }
 
     @java.lang.Override
-    public model.proto.SearchModel.Response getDefaultInstanceForType() {
+    public model.proto.SearchModel.ShardAssignment getDefaultInstanceForType() {
       return DEFAULT_INSTANCE;
     }
 
@@ -2180,6 +8333,31 @@ public final class SearchModel {
   private static final 
     com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
       internal_static_DistributedSearch_Response_DocumentStats_fieldAccessorTable;
+  private static final com.google.protobuf.Descriptors.Descriptor
+    internal_static_DistributedSearch_Task_descriptor;
+  private static final 
+    com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+      internal_static_DistributedSearch_Task_fieldAccessorTable;
+  private static final com.google.protobuf.Descriptors.Descriptor
+    internal_static_DistributedSearch_Result_descriptor;
+  private static final 
+    com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+      internal_static_DistributedSearch_Result_fieldAccessorTable;
+  private static final com.google.protobuf.Descriptors.Descriptor
+    internal_static_DistributedSearch_Result_DocumentResult_descriptor;
+  private static final 
+    com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+      internal_static_DistributedSearch_Result_DocumentResult_fieldAccessorTable;
+  private static final com.google.protobuf.Descriptors.Descriptor
+    internal_static_DistributedSearch_ShardAssignment_descriptor;
+  private static final 
+    com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+      internal_static_DistributedSearch_ShardAssignment_fieldAccessorTable;
+  private static final com.google.protobuf.Descriptors.Descriptor
+    internal_static_DistributedSearch_ShardAssignment_Shard_descriptor;
+  private static final 
+    com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+      internal_static_DistributedSearch_ShardAssignment_Shard_fieldAccessorTable;
 
   public static com.google.protobuf.Descriptors.FileDescriptor
       getDescriptor() {
@@ -2190,44 +8368,80 @@ public final class SearchModel {
   static {
     java.lang.String[] descriptorData = {
       "\n4src/main/java/model/proto/search_clust" +
-      "er_proto.proto\022\021DistributedSearch\"\036\n\007Req" +
-      "uest\022\023\n\013seach_query\030\001 \002(\t\"\237\001\n\010Response\022E" +
-      "\n\022relevant_documents\030\001 \003(\0132).Distributed" +
-      "Search.Response.DocumentStats\032L\n\rDocumen" +
-      "tStats\022\025\n\rdocument_name\030\001 \002(\t\022\r\n\005score\030\002" +
-      " \001(\001\022\025\n\rdocument_size\030\003 \001(\003B\032\n\013model.pro" +
-      "toB\013SearchModel"
+      "er_proto.proto\022\021DistributedSearch\"_\n\007Req" +
+      "uest\022\023\n\013seach_query\030\001 \002(\t\022\023\n\013max_results" +
+      "\030\002 \001(\005\022\021\n\tmin_score\030\003 \001(\001\022\027\n\017deadline_mi" +
+      "llis\030\004 \001(\003\"\310\001\n\010Response\022E\n\022relevant_docu" +
+      "ments\030\001 \003(\0132).DistributedSearch.Response" +
+      ".DocumentStats\022\017\n\007partial\030\002 \001(\010\022\026\n\016missi" +
+      "ng_shards\030\003 \003(\005\032L\n\rDocumentStats\022\025\n\rdocu" +
+      "ment_name\030\001 \002(\t\022\r\n\005score\030\002 \001(\001\022\025\n\rdocume" +
+      "nt_size\030\003 \001(\003\"w\n\004Task\022\024\n\014search_terms\030\001 " +
+      "\003(\t\022\021\n\tdocuments\030\002 \003(\t\022\020\n\010shard_id\030\003 \001(\005" +
+      "\022\030\n\020number_of_shards\030\004 \001(\005\022\032\n\022time_budge" +
+      "t_millis\030\005 \001(\003\"\274\001\n\006Result\022B\n\020document_re" +
+      "sults\030\001 \003(\0132(.DistributedSearch.Result.D" +
+      "ocumentResult\022\033\n\023number_of_documents\030\002 \001" +
+      "(\005\022\017\n\007partial\030\003 \001(\010\032@\n\016DocumentResult\022\020\n" +
+      "\010document\030\001 \002(\t\022\034\n\020term_frequencies\030\002 \003(" +
+      "\001B\002\020\001\"\242\001\n\017ShardAssignment\022\030\n\020number_of_s" +
+      "hards\030\001 \002(\005\0228\n\006shards\030\002 \003(\0132(.Distribute" +
+      "dSearch.ShardAssignment.Shard\022\017\n\007workers" +
+      "\030\003 \003(\t\032*\n\005Shard\022\020\n\010shard_id\030\001 \002(\005\022\017\n\007wor" +
+      "kers\030\002 \003(\tB\032\n\013model.protoB\013SearchModel"
     };
-    com.google.protobuf.Descriptors.FileDescriptor.InternalDescriptorAssigner assigner =
-        new com.google.protobuf.Descriptors.FileDescriptor.    InternalDescriptorAssigner() {
-          public com.google.protobuf.ExtensionRegistry assignDescriptors(
-              com.google.protobuf.Descriptors.FileDescriptor root) {
-            descriptor = root;
-            return null;
-          }
-        };
-    com.google.protobuf.Descriptors.FileDescriptor
+    descriptor = com.google.protobuf.Descriptors.FileDescriptor
       .internalBuildGeneratedFileFrom(descriptorData,
         new com.google.protobuf.Descriptors.FileDescriptor[] {
-        }, assigner);
+        });
     internal_static_DistributedSearch_Request_descriptor =
       getDescriptor().getMessageTypes().get(0);
     internal_static_DistributedSearch_Request_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
         internal_static_DistributedSearch_Request_descriptor,
-        new java.lang.String[] { "SeachQuery", });
+        new java.lang.String[] { "SeachQuery", "MaxResults", "MinScore", "DeadlineMillis", });
     internal_static_DistributedSearch_Response_descriptor =
       getDescriptor().getMessageTypes().get(1);
     internal_static_DistributedSearch_Response_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
         internal_static_DistributedSearch_Response_descriptor,
-        new java.lang.String[] { "RelevantDocuments", });
+        new java.lang.String[] { "RelevantDocuments", "Partial", "MissingShards", });
     internal_static_DistributedSearch_Response_DocumentStats_descriptor =
       internal_static_DistributedSearch_Response_descriptor.getNestedTypes().get(0);
     internal_static_DistributedSearch_Response_DocumentStats_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
         internal_static_DistributedSearch_Response_DocumentStats_descriptor,
         new java.lang.String[] { "DocumentName", "Score", "DocumentSize", });
+    internal_static_DistributedSearch_Task_descriptor =
+      getDescriptor().getMessageTypes().get(2);
+    internal_static_DistributedSearch_Task_fieldAccessorTable = new
+      com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
+        internal_static_DistributedSearch_Task_descriptor,
+        new java.lang.String[] { "SearchTerms", "Documents", "ShardId", "NumberOfShards", "TimeBudgetMillis", });
+    internal_static_DistributedSearch_Result_descriptor =
+      getDescriptor().getMessageTypes().get(3);
+    internal_static_DistributedSearch_Result_fieldAccessorTable = new
+      com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
+        internal_static_DistributedSearch_Result_descriptor,
+        new java.lang.String[] { "DocumentResults", "NumberOfDocuments", "Partial", });
+    internal_static_DistributedSearch_Result_DocumentResult_descriptor =
+      internal_static_DistributedSearch_Result_descriptor.getNestedTypes().get(0);
+    internal_static_DistributedSearch_Result_DocumentResult_fieldAccessorTable = new
+      com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
+        internal_static_DistributedSearch_Result_DocumentResult_descriptor,
+        new java.lang.String[] { "Document", "TermFrequencies", });
+    internal_static_DistributedSearch_ShardAssignment_descriptor =
+      getDescriptor().getMessageTypes().get(4);
+    internal_static_DistributedSearch_ShardAssignment_fieldAccessorTable = new
+      com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
+        internal_static_DistributedSearch_ShardAssignment_descriptor,
+        new java.lang.String[] { "NumberOfShards", "Shards", "Workers", });
+    internal_static_DistributedSearch_ShardAssignment_Shard_descriptor =
+      internal_static_DistributedSearch_ShardAssignment_descriptor.getNestedTypes().get(0);
+    internal_static_DistributedSearch_ShardAssignment_Shard_fieldAccessorTable = new
+      com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
+        internal_static_DistributedSearch_ShardAssignment_Shard_descriptor,
+        new java.lang.String[] { "ShardId", "Workers", });
   }
 
   // @@protoc_insertion_point(outer_class_scope)
@@ -5,6 +5,7 @@ import com.squareup.okhttp.Request;
 import com.squareup.okhttp.Response;
 
 import java.io.IOException;
+import java.net.HttpURLConnection;
 import java.util.concurrent.CompletableFuture;
 
 public class CallbackFuture extends CompletableFuture<Response> implements Callback {
@@ -15,6 +16,11 @@ public class CallbackFuture extends CompletableFuture<Response> implements Callb
 
     @Override
     public void onResponse(Response response) throws IOException {
+        if (response.code() == HttpURLConnection.HTTP_UNAVAILABLE) {
+            response.body().close();
+            super.completeExceptionally(new ServiceUnavailableException(response.request().urlString()));
+            return;
+        }
         super.complete(response);
     }
 }
@@ -0,0 +1,65 @@
+package networking;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps how loaded every endpoint looks from here: the requests still in flight to it, and a moving average
+ * of its latency that jumps up to any slower latency right away, and only decays back down over time,
+ * so an endpoint turning slow is avoided from its first slow answer.
+ *
+ * Failed requests count as slow ones, so an endpoint that fails fast doesn't look like the best one,
+ * and the average fades away while an endpoint gets no requests, so it gets tried again.
+ */
+public class EndpointLoadTracker {
+    private static final double DECAY_NANOS = TimeUnit.SECONDS.toNanos(5);
+    private static final long FAILURE_PENALTY_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final Map<String, EndpointLoad> endpointToLoad = new ConcurrentHashMap<>();
+
+    public void onRequestStart(String endpoint) {
+        endpointToLoad.computeIfAbsent(endpoint, e -> new EndpointLoad()).onRequestStart();
+    }
+
+    public void onRequestEnd(String endpoint, long latencyNanos, boolean failed) {
+        endpointToLoad.computeIfAbsent(endpoint, e -> new EndpointLoad())
+                .onRequestEnd(failed ? Math.max(latencyNanos, FAILURE_PENALTY_NANOS) : latencyNanos);
+    }
+
+    /**
+     * @return the expected latency of one more request, times the requests it would queue behind,
+     * 0 for endpoints no request was sent to yet
+     */
+    public double getLoad(String endpoint) {
+        EndpointLoad load = endpointToLoad.get(endpoint);
+        return load == null ? 0 : load.getLoad();
+    }
+
+    private static class EndpointLoad {
+        private int requestsInFlight = 0;
+        private double averageLatencyNanos = 0;
+        private long lastUpdateNanos = System.nanoTime();
+
+        synchronized void onRequestStart() {
+            requestsInFlight++;
+        }
+
+        synchronized void onRequestEnd(long latencyNanos) {
+            requestsInFlight = Math.max(0, requestsInFlight - 1);
+            long now = System.nanoTime();
+            if (latencyNanos > averageLatencyNanos) {
+                averageLatencyNanos = latencyNanos;
+            } else {
+                double weight = Math.exp(-(now - lastUpdateNanos) / DECAY_NANOS);
+                averageLatencyNanos = averageLatencyNanos * weight + latencyNanos * (1 - weight);
+            }
+            lastUpdateNanos = now;
+        }
+
+        synchronized double getLoad() {
+            double weight = Math.exp(-(System.nanoTime() - lastUpdateNanos) / DECAY_NANOS);
+            return averageLatencyNanos * weight * (requestsInFlight + 1);
+        }
+    }
+}
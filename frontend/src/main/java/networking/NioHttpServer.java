@@ -0,0 +1,630 @@
+package networking;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * A small HTTP/1.1 server running all of its socket I/O on a single selector thread, and the handlers on an executor.
+ *
+ * Connections are kept alive between requests, and request bodies are read straight into an array of their
+ * Content-Length. Chunked request bodies are not supported. Socket reads and writes go through a pool of direct buffers.
+ *
+ * A connection is not read from while its request is handled, so a client sending faster than it is served
+ * is held back by TCP flow control, and no new connections are accepted past {@code search.server.maxConnections}.
+ * A connection that neither reads nor writes for {@code search.server.idleTimeoutMillis}, outside of its request
+ * being handled, is closed, so idle keep-alive and half-open connections don't use up that limit.
+ */
+public class NioHttpServer {
+    private static final int BUFFER_SIZE = 16 * 1024;
+    private static final int MAX_POOLED_BUFFERS = 64;
+    private static final int INITIAL_HEADER_SIZE = 512;
+    private static final int MAX_HEADER_SIZE = 8 * 1024;
+    private static final int MAX_BODY_SIZE = Integer.getInteger("search.server.maxBodyBytes", 64 * 1024 * 1024);
+    private static final int MAX_CONNECTIONS = Integer.getInteger("search.server.maxConnections", 10_000);
+    // how long accepting pauses after it failed, e.g. for lack of file descriptors, rather than spinning on it
+    private static final long ACCEPT_RETRY_MILLIS = 100;
+    // closes connections idle as long as the JDK's HttpServer does, looking for them every second
+    private static final long IDLE_TIMEOUT_MILLIS = Long.getLong("search.server.idleTimeoutMillis", 30_000);
+    private static final long IDLE_SWEEP_MILLIS = 1000;
+    private static final byte[] CONTINUE_RESPONSE = "HTTP/1.1 100 Continue\r\n\r\n".getBytes(StandardCharsets.ISO_8859_1);
+    private static final Map<Integer, String> STATUS_TO_REASON = new HashMap<>();
+
+    static {
+        STATUS_TO_REASON.put(200, "OK");
+        STATUS_TO_REASON.put(400, "Bad Request");
+        STATUS_TO_REASON.put(404, "Not Found");
+        STATUS_TO_REASON.put(405, "Method Not Allowed");
+        STATUS_TO_REASON.put(411, "Length Required");
+        STATUS_TO_REASON.put(413, "Payload Too Large");
+        STATUS_TO_REASON.put(431, "Request Header Fields Too Large");
+        STATUS_TO_REASON.put(500, "Internal Server Error");
+        STATUS_TO_REASON.put(503, "Service Unavailable");
+    }
+
+    public interface RequestHandler {
+        CompletableFuture<Response> handle(Request request);
+    }
+
+    private final int port;
+    private final Executor executor;
+    private final RequestHandler requestHandler;
+
+    // only used from the selector thread
+    private final ArrayDeque<ByteBuffer> bufferPool = new ArrayDeque<>();
+    private int numberOfConnections = 0;
+    private long acceptRetryTime = 0;
+    private long nextIdleSweepTime = 0;
+
+    // connections whose handler finished, waiting for the selector thread to write the response
+    private final Queue<Connection> respondedConnections = new ConcurrentLinkedQueue<>();
+    private Selector selector;
+    private ServerSocketChannel serverChannel;
+    private SelectionKey acceptKey;
+    private Thread selectorThread;
+    private volatile boolean running = false;
+
+    public NioHttpServer(int port, Executor executor, RequestHandler requestHandler) {
+        this.port = port;
+        this.executor = executor;
+        this.requestHandler = requestHandler;
+    }
+
+    public void start() throws IOException {
+        this.selector = Selector.open();
+        this.serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress(port));
+        serverChannel.configureBlocking(false);
+        this.acceptKey = serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+
+        this.running = true;
+        this.selectorThread = new Thread(this::run, "web-server-selector-" + port);
+        selectorThread.start();
+    }
+
+    public void stop() {
+        running = false;
+        selector.wakeup();
+        try {
+            selectorThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        try {
+            while (running) {
+                selector.select(acceptRetryTime > 0 ? ACCEPT_RETRY_MILLIS : IDLE_SWEEP_MILLIS);
+                if (acceptRetryTime > 0 && System.currentTimeMillis() >= acceptRetryTime) {
+                    acceptRetryTime = 0;
+                    resumeAccepting();
+                }
+                closeIdleConnections();
+                for (Connection connection = respondedConnections.poll(); connection != null;
+                     connection = respondedConnections.poll()) {
+                    try {
+                        connection.startWriting();
+                    } catch (RuntimeException e) {
+                        e.printStackTrace();
+                        connection.close();
+                    }
+                }
+
+                Iterator<SelectionKey> selectedKeys = selector.selectedKeys().iterator();
+                while (selectedKeys.hasNext()) {
+                    SelectionKey key = selectedKeys.next();
+                    selectedKeys.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        acceptConnections();
+                        continue;
+                    }
+
+                    Connection connection = (Connection) key.attachment();
+                    try {
+                        if (key.isReadable()) {
+                            connection.read();
+                        }
+                        if (key.isValid() && key.isWritable()) {
+                            connection.write();
+                        }
+                    } catch (IOException e) {
+                        // the client went away
+                        connection.close();
+                    } catch (RuntimeException e) {
+                        // a bug handling one connection must not take down the others
+                        e.printStackTrace();
+                        connection.close();
+                    }
+                }
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        } finally {
+            closeAll();
+        }
+    }
+
+    private void acceptConnections() {
+        while (true) {
+            SocketChannel channel;
+            try {
+                channel = serverChannel.accept();
+            } catch (IOException e) {
+                System.out.println("Failed to accept a connection, retrying in " + ACCEPT_RETRY_MILLIS + " ms: " + e);
+                acceptKey.interestOps(0);
+                acceptRetryTime = System.currentTimeMillis() + ACCEPT_RETRY_MILLIS;
+                return;
+            }
+            if (channel == null) {
+                return;
+            }
+
+            try {
+                channel.configureBlocking(false);
+                // responses are written in one go, there is nothing to gain from delaying their last segment
+                channel.socket().setTcpNoDelay(true);
+                Connection connection = new Connection(channel);
+                connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+            } catch (IOException e) {
+                System.out.println("Failed to set up the connection from " + channel.socket().getRemoteSocketAddress() + ": " + e);
+                try {
+                    channel.close();
+                } catch (IOException closeException) {
+                    // nothing left to do with it
+                }
+                continue;
+            }
+
+            numberOfConnections++;
+            if (numberOfConnections >= MAX_CONNECTIONS) {
+                acceptKey.interestOps(0);
+                return;
+            }
+        }
+    }
+
+    private void closeIdleConnections() {
+        long now = System.currentTimeMillis();
+        if (IDLE_TIMEOUT_MILLIS <= 0 || now < nextIdleSweepTime) {
+            return;
+        }
+        nextIdleSweepTime = now + IDLE_SWEEP_MILLIS;
+        for (SelectionKey key : new ArrayList<>(selector.keys())) {
+            Object attachment = key.attachment();
+            if (attachment instanceof Connection && ((Connection) attachment).isIdle(now)) {
+                ((Connection) attachment).close();
+            }
+        }
+    }
+
+    private void resumeAccepting() {
+        if (running && acceptRetryTime == 0 && numberOfConnections < MAX_CONNECTIONS && acceptKey.interestOps() == 0) {
+            acceptKey.interestOps(SelectionKey.OP_ACCEPT);
+        }
+    }
+
+    private void closeAll() {
+        for (SelectionKey key : selector.keys()) {
+            try {
+                key.channel().close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+        try {
+            selector.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private ByteBuffer acquireBuffer() {
+        ByteBuffer buffer = bufferPool.poll();
+        return buffer != null ? buffer : ByteBuffer.allocateDirect(BUFFER_SIZE);
+    }
+
+    private void releaseBuffer(ByteBuffer buffer) {
+        if (bufferPool.size() < MAX_POOLED_BUFFERS) {
+            buffer.clear();
+            bufferPool.push(buffer);
+        }
+    }
+
+    public static class Request {
+        private final String method;
+        private final String path;
+        private final Map<String, String> headers;
+        private final byte[] body;
+
+        private Request(String method, String path, Map<String, String> headers, byte[] body) {
+            this.method = method;
+            this.path = path;
+            this.headers = headers;
+            this.body = body;
+        }
+
+        public String getMethod() {
+            return method;
+        }
+
+        /**
+         * The request target without its query string
+         */
+        public String getPath() {
+            return path;
+        }
+
+        /**
+         * @return the value of the header, whatever the case of its name, or null when there is none
+         */
+        public String getHeader(String name) {
+            return headers.get(name.toLowerCase());
+        }
+
+        public byte[] getBody() {
+            return body;
+        }
+    }
+
+    public static class Response {
+        private final int status;
+        private final Map<String, String> headers = new LinkedHashMap<>();
+        private final byte[] body;
+
+        public Response(int status, byte[] body) {
+            this.status = status;
+            this.body = body;
+        }
+
+        public static Response ok(byte[] body) {
+            return new Response(200, body);
+        }
+
+        public static Response error(int status) {
+            return new Response(status, new byte[0]);
+        }
+
+        public Response withHeader(String name, String value) {
+            headers.put(name, value);
+            return this;
+        }
+
+        private byte[] encodeHead(boolean keepAlive) {
+            StringBuilder head = new StringBuilder(128)
+                    .append("HTTP/1.1 ").append(status).append(' ')
+                    .append(STATUS_TO_REASON.getOrDefault(status, "Unknown")).append("\r\n");
+            headers.forEach((name, value) -> head.append(name).append(": ").append(value).append("\r\n"));
+            head.append("Content-Length: ").append(body.length).append("\r\n")
+                    .append("Connection: ").append(keepAlive ? "keep-alive" : "close").append("\r\n\r\n");
+            return head.toString().getBytes(StandardCharsets.ISO_8859_1);
+        }
+    }
+
+    private enum State {
+        READING_HEADERS,
+        READING_BODY,
+        HANDLING,
+        WRITING
+    }
+
+    private class Connection {
+        private final SocketChannel channel;
+        private SelectionKey key;
+        private State state = State.READING_HEADERS;
+
+        // held only while it has bytes that were not parsed yet, like the start of a pipelined request
+        private ByteBuffer readBuffer = null;
+        private byte[] headerBytes = new byte[INITIAL_HEADER_SIZE];
+        private int headerLength = 0;
+
+        private String method;
+        private String path;
+        private Map<String, String> headers;
+        private boolean keepAlive;
+        private byte[] body;
+        private int bodyLength;
+
+        // set by the handler's thread, and handed to the selector thread through respondedConnections
+        private Response response;
+        private ByteBuffer writeBuffer = null;
+        private byte[] responseHead;
+        private int responsePosition;
+        private long lastActivityTime = System.currentTimeMillis();
+
+        Connection(SocketChannel channel) {
+            this.channel = channel;
+        }
+
+        /**
+         * A connection waiting on its handler is never idle, however long the handler takes
+         */
+        boolean isIdle(long now) {
+            return state != State.HANDLING && now - lastActivityTime >= IDLE_TIMEOUT_MILLIS;
+        }
+
+        void read() throws IOException {
+            if (readBuffer == null) {
+                readBuffer = acquireBuffer();
+            }
+            if (channel.read(readBuffer) == -1) {
+                close();
+                return;
+            }
+            lastActivityTime = System.currentTimeMillis();
+            parse();
+        }
+
+        /**
+         * Consumes the buffered bytes until a whole request is read, then stops reading until it is answered
+         */
+        private void parse() {
+            readBuffer.flip();
+            while (readBuffer.hasRemaining() && (state == State.READING_HEADERS || state == State.READING_BODY)) {
+                if (state == State.READING_HEADERS) {
+                    readHeaderByte(readBuffer.get());
+                } else {
+                    int length = Math.min(readBuffer.remaining(), body.length - bodyLength);
+                    readBuffer.get(body, bodyLength, length);
+                    bodyLength += length;
+                    if (bodyLength == body.length) {
+                        dispatch();
+                    }
+                }
+            }
+            readBuffer.compact();
+            if (readBuffer.position() == 0) {
+                releaseBuffer(readBuffer);
+                readBuffer = null;
+            }
+        }
+
+        private void readHeaderByte(byte b) {
+            if (headerLength == headerBytes.length) {
+                if (headerLength == MAX_HEADER_SIZE) {
+                    respondAndClose(431);
+                    return;
+                }
+                headerBytes = Arrays.copyOf(headerBytes, Math.min(MAX_HEADER_SIZE, headerLength * 2));
+            }
+            headerBytes[headerLength++] = b;
+
+            if (headerLength >= 4 && b == '\n' && headerBytes[headerLength - 2] == '\r'
+                    && headerBytes[headerLength - 3] == '\n' && headerBytes[headerLength - 4] == '\r') {
+                onHeadersRead();
+            }
+        }
+
+        private void onHeadersRead() {
+            String[] lines = new String(headerBytes, 0, headerLength - 4, StandardCharsets.ISO_8859_1).split("\r\n");
+            headerLength = 0;
+
+            String[] requestLine = lines[0].split(" ");
+            if (requestLine.length != 3) {
+                respondAndClose(400);
+                return;
+            }
+            method = requestLine[0];
+            int queryStart = requestLine[1].indexOf('?');
+            path = queryStart < 0 ? requestLine[1] : requestLine[1].substring(0, queryStart);
+
+            headers = new HashMap<>();
+            for (int i = 1; i < lines.length; i++) {
+                int separator = lines[i].indexOf(':');
+                if (separator > 0) {
+                    headers.putIfAbsent(lines[i].substring(0, separator).trim().toLowerCase(),
+                            lines[i].substring(separator + 1).trim());
+                }
+            }
+
+            String connectionHeader = headers.get("connection");
+            keepAlive = requestLine[2].equals("HTTP/1.1")
+                    ? !"close".equalsIgnoreCase(connectionHeader)
+                    : "keep-alive".equalsIgnoreCase(connectionHeader);
+
+            String transferEncoding = headers.get("transfer-encoding");
+            if (transferEncoding != null && !transferEncoding.equalsIgnoreCase("identity")) {
+                respondAndClose(411);
+                return;
+            }
+
+            long contentLength;
+            try {
+                String contentLengthHeader = headers.get("content-length");
+                contentLength = contentLengthHeader == null ? 0 : Long.parseLong(contentLengthHeader);
+            } catch (NumberFormatException e) {
+                respondAndClose(400);
+                return;
+            }
+            if (contentLength < 0) {
+                respondAndClose(400);
+                return;
+            }
+            if (contentLength > MAX_BODY_SIZE) {
+                respondAndClose(413);
+                return;
+            }
+
+            body = new byte[(int) contentLength];
+            bodyLength = 0;
+            if (body.length == 0) {
+                dispatch();
+                return;
+            }
+            if ("100-continue".equalsIgnoreCase(headers.get("expect"))) {
+                sendContinue();
+            }
+            state = State.READING_BODY;
+        }
+
+        /**
+         * Best effort, the client sends the body anyway after waiting a little
+         */
+        private void sendContinue() {
+            try {
+                channel.write(ByteBuffer.wrap(CONTINUE_RESPONSE));
+            } catch (IOException e) {
+                // the read that follows finds the connection closed
+            }
+        }
+
+        private void dispatch() {
+            state = State.HANDLING;
+            key.interestOps(0);
+            Request request = new Request(method, path, Collections.unmodifiableMap(headers), body);
+            body = null;
+
+            try {
+                executor.execute(() -> {
+                    CompletableFuture<Response> responseFuture;
+                    try {
+                        responseFuture = requestHandler.handle(request);
+                    } catch (RuntimeException e) {
+                        responseFuture = new CompletableFuture<>();
+                        responseFuture.completeExceptionally(e);
+                    }
+                    responseFuture.whenComplete((handlerResponse, e) -> {
+                        if (e != null) {
+                            e.printStackTrace();
+                        }
+                        this.response = e != null ? Response.error(500) : handlerResponse;
+                        respondedConnections.add(this);
+                        selector.wakeup();
+                    });
+                });
+            } catch (RejectedExecutionException e) {
+                // the server is stopping
+                respondAndClose(503);
+            }
+        }
+
+        /**
+         * Called while parsing, so the response is written on the next turn of the selector loop, after parsing stopped
+         */
+        private void respondAndClose(int status) {
+            keepAlive = false;
+            response = Response.error(status);
+            state = State.HANDLING;
+            key.interestOps(0);
+            respondedConnections.add(this);
+            selector.wakeup();
+        }
+
+        void startWriting() {
+            if (!channel.isOpen()) {
+                return;
+            }
+            state = State.WRITING;
+            lastActivityTime = System.currentTimeMillis();
+            responseHead = response.encodeHead(keepAlive);
+            responsePosition = 0;
+            writeBuffer = acquireBuffer();
+            writeBuffer.flip();
+            try {
+                write();
+            } catch (IOException e) {
+                close();
+            }
+        }
+
+        /**
+         * Copies the head and the body of the response through the direct buffer, as much as the socket takes
+         */
+        void write() throws IOException {
+            byte[] responseBody = response.body;
+            while (true) {
+                if (!writeBuffer.hasRemaining()) {
+                    writeBuffer.clear();
+                    while (writeBuffer.hasRemaining() && responsePosition < responseHead.length + responseBody.length) {
+                        if (responsePosition < responseHead.length) {
+                            int length = Math.min(writeBuffer.remaining(), responseHead.length - responsePosition);
+                            writeBuffer.put(responseHead, responsePosition, length);
+                            responsePosition += length;
+                        } else {
+                            int bodyPosition = responsePosition - responseHead.length;
+                            int length = Math.min(writeBuffer.remaining(), responseBody.length - bodyPosition);
+                            writeBuffer.put(responseBody, bodyPosition, length);
+                            responsePosition += length;
+                        }
+                    }
+                    writeBuffer.flip();
+                    if (!writeBuffer.hasRemaining()) {
+                        onResponseWritten();
+                        return;
+                    }
+                }
+
+                if (channel.write(writeBuffer) > 0) {
+                    lastActivityTime = System.currentTimeMillis();
+                }
+                if (writeBuffer.hasRemaining()) {
+                    key.interestOps(SelectionKey.OP_WRITE);
+                    return;
+                }
+            }
+        }
+
+        private void onResponseWritten() {
+            releaseBuffer(writeBuffer);
+            writeBuffer = null;
+            response = null;
+            responseHead = null;
+            if (!keepAlive) {
+                close();
+                return;
+            }
+
+            state = State.READING_HEADERS;
+            if (readBuffer != null) {
+                parse();
+            }
+            if (state == State.READING_HEADERS || state == State.READING_BODY) {
+                key.interestOps(SelectionKey.OP_READ);
+            }
+        }
+
+        void close() {
+            if (!channel.isOpen()) {
+                return;
+            }
+            key.cancel();
+            try {
+                channel.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+            if (readBuffer != null) {
+                releaseBuffer(readBuffer);
+                readBuffer = null;
+            }
+            if (writeBuffer != null) {
+                releaseBuffer(writeBuffer);
+                writeBuffer = null;
+            }
+
+            numberOfConnections--;
+            resumeAccepting();
+        }
+    }
+}
@@ -1,7 +1,16 @@
 package networking;
 
+import java.util.concurrent.CompletableFuture;
+
 public interface OnRequestHandler {
     byte [] handleRequest(byte[] requestPayload);
 
+    /**
+     * Handlers that wait on other services override this, so the server thread is free while they wait
+     */
+    default CompletableFuture<byte[]> handleRequestAsync(byte[] requestPayload) {
+        return CompletableFuture.completedFuture(handleRequest(requestPayload));
+    }
+
     String getEndpoint();
 }
@@ -0,0 +1,15 @@
+package networking;
+
+import java.io.IOException;
+
+/**
+ * The RPC connection to the server could not be opened, or was lost, so the call may never have reached the server.
+ * Unlike a call the server shed, failed or was late with, it can be sent again another way.
+ */
+public class RpcConnectionException extends IOException {
+    private static final long serialVersionUID = 1L;
+
+    public RpcConnectionException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
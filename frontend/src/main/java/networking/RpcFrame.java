@@ -0,0 +1,81 @@
+package networking;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * A message of the binary RPC protocol between the nodes: its length, the id of the call it belongs to,
+ * a status and the payload, which is the same as the body of the HTTP request or response it replaces.
+ *
+ * A connection starts with {@link #PREAMBLE} from the client, then carries request frames one way and response
+ * frames the other. Many calls are in flight on it at once, and their responses come back in any order.
+ * Pings go both ways with call id 0, so a client can tell a dead connection from calls that take long.
+ */
+public class RpcFrame {
+    public static final byte STATUS_OK = 0;
+    // the server shed the call, the same as an HTTP 503
+    public static final byte STATUS_UNAVAILABLE = 1;
+    public static final byte STATUS_ERROR = 2;
+    // sent by a client on a connection it read nothing from for a while, and sent straight back by the server
+    public static final byte STATUS_PING = 3;
+
+    // tells an RPC client from anything else that connects to the port, and leaves room for another version
+    private static final byte[] PREAMBLE = {'S', 'R', 'P', 'C', 1};
+    private static final int HEADER_SIZE = Integer.BYTES + Byte.BYTES;
+    private static final int MAX_FRAME_SIZE = 64 * 1024 * 1024;
+
+    private final int callId;
+    private final byte status;
+    private final byte[] payload;
+
+    public RpcFrame(int callId, byte status, byte[] payload) {
+        this.callId = callId;
+        this.status = status;
+        this.payload = payload;
+    }
+
+    public int getCallId() {
+        return callId;
+    }
+
+    public byte getStatus() {
+        return status;
+    }
+
+    public byte[] getPayload() {
+        return payload;
+    }
+
+    public void writeTo(DataOutputStream outputStream) throws IOException {
+        outputStream.writeInt(HEADER_SIZE + payload.length);
+        outputStream.writeInt(callId);
+        outputStream.writeByte(status);
+        outputStream.write(payload);
+    }
+
+    public static RpcFrame readFrom(DataInputStream inputStream) throws IOException {
+        int length = inputStream.readInt();
+        if (length < HEADER_SIZE || length > MAX_FRAME_SIZE) {
+            throw new IOException("Invalid RPC frame length " + length);
+        }
+        int callId = inputStream.readInt();
+        byte status = inputStream.readByte();
+        byte[] payload = new byte[length - HEADER_SIZE];
+        inputStream.readFully(payload);
+        return new RpcFrame(callId, status, payload);
+    }
+
+    public static void writePreamble(DataOutputStream outputStream) throws IOException {
+        outputStream.write(PREAMBLE);
+    }
+
+    public static void readPreamble(DataInputStream inputStream) throws IOException {
+        byte[] preamble = new byte[PREAMBLE.length];
+        inputStream.readFully(preamble);
+        if (!Arrays.equals(preamble, PREAMBLE)) {
+            throw new IOException("Not an RPC connection");
+        }
+    }
+}
@@ -3,21 +3,28 @@ package networking;
 import com.sun.net.httpserver.HttpContext;
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpServer;
-import sun.misc.IOUtils;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.InetSocketAddress;
-import java.util.concurrent.Executors;
+import java.util.concurrent.CompletableFuture;
 
 public class WebServer {
     private static final String STATUS_ENDPOINT = "/status";
     private static final String HOME_PAGE_ENDPOINT = "/";
     private static final String HOME_PAGE_UI_ASSETS_BASE_DIR = "/ui_assets/";
+    // see ServerExecutors, the number of threads only applies to the fixed pool
+    private static final String EXECUTOR_MODE = System.getProperty("search.server.executor", ServerExecutors.FIXED);
+    private static final int NUMBER_OF_THREADS = Integer.getInteger("search.server.threads", 8);
+    // "nio" serves the requests with NioHttpServer instead of the JDK's HttpServer
+    private static final boolean USE_NIO_SERVER =
+            "nio".equalsIgnoreCase(System.getProperty("search.server.implementation", "jdk"));
 
     private final int port;
     private HttpServer server;
+    private NioHttpServer nioServer;
     private final OnRequestHandler requestHandler;
 
     public WebServer(int port, OnRequestHandler requestCallback) {
@@ -26,6 +33,17 @@ public class WebServer {
     }
 
     public void startServer() {
+        if (USE_NIO_SERVER) {
+            this.nioServer = new NioHttpServer(port, ServerExecutors.create(EXECUTOR_MODE, NUMBER_OF_THREADS),
+                    this::handleNioRequest);
+            try {
+                nioServer.start();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+            return;
+        }
+
         try {
             this.server = HttpServer.create(new InetSocketAddress(port), 0);
         } catch (IOException e) {
@@ -43,10 +61,39 @@ public class WebServer {
         HttpContext homePageContext = server.createContext(HOME_PAGE_ENDPOINT);
         homePageContext.setHandler(this::handleRequestForAsset);
 
-        server.setExecutor(Executors.newFixedThreadPool(8));
+        server.setExecutor(ServerExecutors.create(EXECUTOR_MODE, NUMBER_OF_THREADS));
         server.start();
     }
 
+    /**
+     * Same as the HttpServer handlers below
+     */
+    private CompletableFuture<NioHttpServer.Response> handleNioRequest(NioHttpServer.Request request) {
+        if (request.getPath().equals(requestHandler.getEndpoint())) {
+            if (!request.getMethod().equalsIgnoreCase("post")) {
+                return CompletableFuture.completedFuture(NioHttpServer.Response.error(405));
+            }
+            return requestHandler.handleRequestAsync(request.getBody()).thenApply(NioHttpServer.Response::ok);
+        }
+
+        if (!request.getMethod().equalsIgnoreCase("get")) {
+            return CompletableFuture.completedFuture(NioHttpServer.Response.error(405));
+        }
+        if (request.getPath().equals(STATUS_ENDPOINT)) {
+            return CompletableFuture.completedFuture(NioHttpServer.Response.ok("Server is alive\n".getBytes()));
+        }
+
+        String asset = request.getPath();
+        try {
+            byte[] response = readUiAsset(asset.equals(HOME_PAGE_ENDPOINT) ? HOME_PAGE_UI_ASSETS_BASE_DIR + "index.html" : asset);
+            return CompletableFuture.completedFuture(
+                    NioHttpServer.Response.ok(response).withHeader("Content-Type", getContentType(asset)));
+        } catch (IOException e) {
+            e.printStackTrace();
+            return CompletableFuture.completedFuture(NioHttpServer.Response.error(500));
+        }
+    }
+
     private void handleRequestForAsset(HttpExchange exchange) throws IOException {
         if (!exchange.getRequestMethod().equalsIgnoreCase("get")) {
             exchange.close();
@@ -62,7 +109,7 @@ public class WebServer {
         } else {
             response = readUiAsset(asset);
         }
-        addContentType(asset, exchange);
+        exchange.getResponseHeaders().add("Content-Type", getContentType(asset));
 
         sendResponse(response, exchange);
     }
@@ -73,17 +120,17 @@ public class WebServer {
             return new byte[]{};
         }
 
-        return IOUtils.readAllBytes(assetStream);
+        return readAllBytes(assetStream);
     }
 
-    private static void addContentType(String asset, HttpExchange exchange) {
+    private static String getContentType(String asset) {
         String contentType = "text/html";
         if (asset.endsWith("js")) {
             contentType = "text/javascript";
         } else if (asset.endsWith("css")) {
             contentType = "text/css";
         }
-        exchange.getResponseHeaders().add("Content-Type", contentType);
+        return contentType;
     }
 
     private void handleTaskRequest(HttpExchange exchange) throws IOException {
@@ -92,9 +139,22 @@ public class WebServer {
             return;
         }
 
-        byte[] responseBytes = requestHandler.handleRequest(IOUtils.readAllBytes(exchange.getRequestBody()));
-
-        sendResponse(responseBytes, exchange);
+        // the exchange is completed from the callback, so a search in flight doesn't hold one of the server threads
+        requestHandler.handleRequestAsync(readAllBytes(exchange.getRequestBody()))
+                .whenComplete((responseBytes, e) -> {
+                    try {
+                        if (e != null) {
+                            e.printStackTrace();
+                            exchange.sendResponseHeaders(500, -1);
+                            exchange.close();
+                            return;
+                        }
+                        sendResponse(responseBytes, exchange);
+                    } catch (IOException ioException) {
+                        ioException.printStackTrace();
+                        exchange.close();
+                    }
+                });
     }
 
     private void handleStatusCheckRequest(HttpExchange exchange) throws IOException {
@@ -114,4 +174,16 @@ public class WebServer {
         outputStream.flush();
         outputStream.close();
     }
-}
\ No newline at end of file
+
+    /**
+     * Same as sun.misc.IOUtils, which is gone from the Java versions that have virtual threads
+     */
+    private static byte[] readAllBytes(InputStream inputStream) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        for (int read = inputStream.read(buffer); read != -1; read = inputStream.read(buffer)) {
+            bytes.write(buffer, 0, read);
+        }
+        return bytes.toByteArray();
+    }
+}
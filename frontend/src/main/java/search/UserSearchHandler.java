@@ -12,17 +12,31 @@ import model.frontend.FrontendSearchRequest;
 import model.frontend.FrontendSearchResponse;
 import model.proto.SearchModel;
 import networking.OnRequestHandler;
+import networking.ServiceUnavailableException;
 import networking.WebClient;
 import org.apache.zookeeper.KeeperException;
 
 import java.io.IOException;
 import java.sql.Array;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
 
 public class UserSearchHandler implements OnRequestHandler {
     private static final String ENDPOINT = "/documents_search";
     private static final String DOCUMENTS_LOCATION = "books";
+    // "random" spreads the searches evenly between the coordinators, whatever their load
+    private static final boolean PICK_LEAST_LOADED_COORDINATOR =
+            !"random".equalsIgnoreCase(System.getProperty("search.frontend.balancer", "leastLoaded"));
+    // how long the search cluster has to answer, 0 leaves it to the coordinator
+    private static final long SEARCH_DEADLINE_MILLIS = Long.getLong("search.frontend.deadlineMillis", 3000);
+    // how many other coordinators a search is sent to when the ones before turn it away
+    private static final int MAX_COORDINATOR_RETRIES = Integer.getInteger("search.frontend.maxCoordinatorRetries", 2);
     private final ObjectMapper objectMapper;
     private final WebClient client;
     private final ServiceRegistry searchCoordinatorRegistry;
@@ -37,14 +51,31 @@ public class UserSearchHandler implements OnRequestHandler {
 
     @Override
     public byte[] handleRequest(byte[] requestPayload) {
+        return handleRequestAsync(requestPayload).join();
+    }
+
+    /**
+     * Completes once the coordinator answers, without blocking a thread until then
+     */
+    @Override
+    public CompletableFuture<byte[]> handleRequestAsync(byte[] requestPayload) {
+        FrontendSearchRequest frontendSearchRequest;
         try {
-            FrontendSearchRequest frontendSearchRequest = objectMapper.readValue(requestPayload, FrontendSearchRequest.class);
-            FrontendSearchResponse frontendSearchResponse = createFrontendResponse(frontendSearchRequest);
-            return objectMapper.writeValueAsBytes(frontendSearchResponse);
+            frontendSearchRequest = objectMapper.readValue(requestPayload, FrontendSearchRequest.class);
         } catch (IOException e) {
             e.printStackTrace();
+            return CompletableFuture.completedFuture(new byte[0]);
         }
-        return new byte[0];
+
+        return sendRequestToSearchCluster(frontendSearchRequest).thenApply(searchClusterResponse -> {
+            FrontendSearchResponse frontendSearchResponse = createFrontendResponse(frontendSearchRequest, searchClusterResponse);
+            try {
+                return objectMapper.writeValueAsBytes(frontendSearchResponse);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+            return new byte[0];
+        });
     }
 
     @Override
@@ -52,12 +83,11 @@ public class UserSearchHandler implements OnRequestHandler {
         return ENDPOINT;
     }
 
-    private FrontendSearchResponse createFrontendResponse(FrontendSearchRequest frontendSearchRequest) {
-        SearchModel.Response searchClusterResponse = sendRequestToSearchCluster(frontendSearchRequest.getSearchQuery());
-
+    private FrontendSearchResponse createFrontendResponse(FrontendSearchRequest frontendSearchRequest,
+                                                          SearchModel.Response searchClusterResponse) {
         List<FrontendSearchResponse.SearchResultInfo> filteredResults =
                 filterResults(searchClusterResponse, frontendSearchRequest.getMaxNumberOfResults(), frontendSearchRequest.getMinScore());
-        return new FrontendSearchResponse(filteredResults, DOCUMENTS_LOCATION);
+        return new FrontendSearchResponse(filteredResults, DOCUMENTS_LOCATION, searchClusterResponse.getPartial());
     }
 
     private List<FrontendSearchResponse.SearchResultInfo> filterResults(SearchModel.Response searchClusterResponse,
@@ -111,23 +141,95 @@ public class UserSearchHandler implements OnRequestHandler {
                 .get();
     }
 
-    private SearchModel.Response sendRequestToSearchCluster(String searchQuery) {
-        SearchModel.Request searchRequest = SearchModel.Request.newBuilder()
-                .setSeachQuery(searchQuery)
-                .build();
+    private CompletableFuture<SearchModel.Response> sendRequestToSearchCluster(FrontendSearchRequest frontendSearchRequest) {
+        // let the coordinator cut the ranking short, the results are still filtered here for older coordinators
+        SearchModel.Request.Builder searchRequestBuilder = SearchModel.Request.newBuilder()
+                .setSeachQuery(frontendSearchRequest.getSearchQuery())
+                .setMaxResults((int) Math.min(Integer.MAX_VALUE, Math.max(0, frontendSearchRequest.getMaxNumberOfResults())))
+                .setMinScore(frontendSearchRequest.getMinScore());
+        if (SEARCH_DEADLINE_MILLIS > 0) {
+            searchRequestBuilder.setDeadlineMillis(SEARCH_DEADLINE_MILLIS);
+        }
+        SearchModel.Request searchRequest = searchRequestBuilder.build();
 
+        return sendRequestToCoordinator(searchRequest.toByteArray(), new HashSet<>())
+                .exceptionally(e -> {
+                    e.printStackTrace();
+                    return SearchModel.Response.getDefaultInstance();
+                });
+    }
+
+    /**
+     * A coordinator that is overloaded turns the search away right away, and it moves on to another coordinator
+     */
+    private CompletableFuture<SearchModel.Response> sendRequestToCoordinator(byte[] searchRequest,
+                                                                            Set<String> overloadedCoordinators) {
+        String coordinatorAddress;
         try {
-            String coordinatorAddress = searchCoordinatorRegistry.getRandomServiceAddress();
-            if (coordinatorAddress == null) {
-                System.out.println("Search Cluster Coordinator is unavailable");
-                return SearchModel.Response.getDefaultInstance();
-            }
+            coordinatorAddress = pickCoordinator(overloadedCoordinators);
+        } catch (InterruptedException | KeeperException e) {
+            e.printStackTrace();
+            return CompletableFuture.completedFuture(SearchModel.Response.getDefaultInstance());
+        }
+        if (coordinatorAddress == null && !overloadedCoordinators.isEmpty()) {
+            return CompletableFuture.completedFuture(createOverloadedResponse());
+        }
+        if (coordinatorAddress == null) {
+            System.out.println("Search Cluster Coordinator is unavailable");
+            return CompletableFuture.completedFuture(SearchModel.Response.getDefaultInstance());
+        }
 
-            Response response = client.sendAsyncTask(coordinatorAddress, searchRequest.toByteArray()).join();
-            byte[] payloadBody = response.body().bytes();
+        return client.sendAsyncTask(coordinatorAddress, searchRequest)
+                .thenApply(UserSearchHandler::parseSearchResponse)
+                .handle((searchResponse, e) -> {
+                    if (searchResponse != null) {
+                        return CompletableFuture.completedFuture(searchResponse);
+                    }
+                    if (!(e.getCause() instanceof ServiceUnavailableException)) {
+                        CompletableFuture<SearchModel.Response> failedSearch = new CompletableFuture<>();
+                        failedSearch.completeExceptionally(e);
+                        return failedSearch;
+                    }
+
+                    overloadedCoordinators.add(coordinatorAddress);
+                    if (overloadedCoordinators.size() > MAX_COORDINATOR_RETRIES) {
+                        return CompletableFuture.completedFuture(createOverloadedResponse());
+                    }
+                    return sendRequestToCoordinator(searchRequest, overloadedCoordinators);
+                })
+                .thenCompose(searchResponse -> searchResponse);
+    }
+
+    /**
+     * Nothing was searched, which the user is told the same way as about shards that are missing from the results
+     */
+    private static SearchModel.Response createOverloadedResponse() {
+        System.out.println("Search Cluster Coordinators are overloaded");
+        return SearchModel.Response.newBuilder().setPartial(true).build();
+    }
+
+    private String pickCoordinator(Set<String> overloadedCoordinators) throws KeeperException, InterruptedException {
+        if (overloadedCoordinators.isEmpty()) {
+            return PICK_LEAST_LOADED_COORDINATOR
+                    ? searchCoordinatorRegistry.getLeastLoadedServiceAddress(client::getLoad)
+                    : searchCoordinatorRegistry.getRandomServiceAddress();
+        }
 
+        List<String> coordinators = new ArrayList<>(searchCoordinatorRegistry.getAllServiceAddress());
+        coordinators.removeAll(overloadedCoordinators);
+        if (coordinators.isEmpty()) {
+            return null;
+        }
+        return PICK_LEAST_LOADED_COORDINATOR
+                ? Collections.min(coordinators, Comparator.comparingDouble(client::getLoad))
+                : coordinators.get(ThreadLocalRandom.current().nextInt(coordinators.size()));
+    }
+
+    private static SearchModel.Response parseSearchResponse(Response response) {
+        try {
+            byte[] payloadBody = response.body().bytes();
             return SearchModel.Response.parseFrom(payloadBody);
-        } catch (InterruptedException | KeeperException | IOException e) {
+        } catch (IOException e) {
             e.printStackTrace();
             return SearchModel.Response.getDefaultInstance();
         }